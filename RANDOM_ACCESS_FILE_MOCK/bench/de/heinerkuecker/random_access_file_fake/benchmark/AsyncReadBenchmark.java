@@ -0,0 +1,192 @@
+package de.heinerkuecker.random_access_file_fake.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import de.heinerkuecker.random_access_file_fake.AsyncRandomAccessFile;
+import de.heinerkuecker.random_access_file_fake.AsyncRandomAccessFileAdapter;
+import de.heinerkuecker.random_access_file_fake.AsyncRandomAccessFileChannel;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileConcurrentFake;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileRealImplementation;
+
+/**
+ * Benchmark of random block reads with
+ * {@link AsyncRandomAccessFile}, batches of
+ * {@link #IO_DEPTH} reads in flight, compared with
+ * synchronous readAt in one thread.
+ */
+public class AsyncReadBenchmark
+{
+    /**
+     * File size 16 MiB.
+     */
+    private static final int FILE_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * Length of one block read.
+     */
+    private static final int BLOCK_LENGTH = 4096;
+
+    /**
+     * Number of reads per run.
+     */
+    private static final int READ_COUNT = 16_384;
+
+    /**
+     * Number of reads submitted as one batch.
+     */
+    private static final int IO_DEPTH = 64;
+
+    /**
+     * Number of threads of the executor of the adapter.
+     */
+    private static final int THREAD_COUNT = 4;
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args not used
+     * @throws IOException
+     */
+    public static void main(
+            final String[] args )
+            throws IOException
+    {
+        final File tempFile = File.createTempFile( "AsyncReadBenchmark" , ".bin" );
+        tempFile.deleteOnExit();
+
+        try ( final RandomAccessFileRealImplementation file = new RandomAccessFileRealImplementation( tempFile , "rw" ) )
+        {
+            file.setLength( FILE_SIZE );
+        }
+
+        final long[] positions = new long[ READ_COUNT ];
+        final Random random = new Random( 42 );
+        for ( int i = 0 ; i < READ_COUNT ; i++ )
+        {
+            positions[ i ] = (long) random.nextInt( FILE_SIZE / BLOCK_LENGTH ) * BLOCK_LENGTH;
+        }
+
+        try ( final RandomAccessFileRealImplementation file = new RandomAccessFileRealImplementation( tempFile , "r" ) )
+        {
+            final byte[] block = new byte[ BLOCK_LENGTH ];
+
+            BenchmarkHarness.measure(
+                    "RandomAccessFileRealImplementation readAt sync" ,
+                    READ_COUNT ,
+                    () -> {
+                        long sum = 0;
+                        for ( final long pos : positions )
+                        {
+                            sum += file.readAt( pos , block , 0 , BLOCK_LENGTH );
+                        }
+                        return sum;
+                    } );
+        }
+
+        try ( final AsyncRandomAccessFile file = new AsyncRandomAccessFileChannel( tempFile , "r" ) )
+        {
+            benchmarkAsync(
+                    "AsyncRandomAccessFileChannel" ,
+                    file ,
+                    positions );
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool( THREAD_COUNT );
+        try
+        {
+            try ( final AsyncRandomAccessFile file =
+                    new AsyncRandomAccessFileAdapter(
+                            new RandomAccessFileRealImplementation( tempFile , "r" ) ,
+                            executor ) )
+            {
+                benchmarkAsync(
+                        "AsyncRandomAccessFileAdapter(RandomAccessFileRealImplementation)" ,
+                        file ,
+                        positions );
+            }
+
+            final RandomAccessFileConcurrentFake fake = new RandomAccessFileConcurrentFake();
+            fake.open();
+            fake.setLength( FILE_SIZE );
+
+            try ( final AsyncRandomAccessFile file =
+                    new AsyncRandomAccessFileAdapter(
+                            fake.newHandle( "r" ) ,
+                            executor ) )
+            {
+                benchmarkAsync(
+                        "AsyncRandomAccessFileAdapter(RandomAccessFileConcurrentFake)" ,
+                        file ,
+                        positions );
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Benchmark batches of {@link #IO_DEPTH} reads.
+     */
+    private static void benchmarkAsync(
+            final String name ,
+            final AsyncRandomAccessFile file ,
+            final long[] positions )
+            throws IOException
+    {
+        final ByteBuffer[] buffers = new ByteBuffer[ IO_DEPTH ];
+        for ( int i = 0 ; i < IO_DEPTH ; i++ )
+        {
+            buffers[ i ] = ByteBuffer.allocate( BLOCK_LENGTH );
+        }
+
+        final long[] batchPositions = new long[ IO_DEPTH ];
+
+        BenchmarkHarness.measure(
+                name + " depth=" + IO_DEPTH ,
+                positions.length ,
+                () -> {
+                    long sum = 0;
+                    for ( int start = 0 ; start < positions.length ; start += IO_DEPTH )
+                    {
+                        System.arraycopy(
+                                //src
+                                positions ,
+                                //srcPos
+                                start ,
+                                //dest
+                                batchPositions ,
+                                //destPos
+                                0 ,
+                                //length
+                                IO_DEPTH );
+
+                        for ( final ByteBuffer buffer : buffers )
+                        {
+                            buffer.clear();
+                        }
+
+                        try
+                        {
+                            for ( final int lengthRead : file.readBatchAsync( batchPositions , buffers ).get() )
+                            {
+                                sum += lengthRead;
+                            }
+                        }
+                        catch ( final InterruptedException | ExecutionException e )
+                        {
+                            throw new IOException( e );
+                        }
+                    }
+                    return sum;
+                } );
+    }
+
+}
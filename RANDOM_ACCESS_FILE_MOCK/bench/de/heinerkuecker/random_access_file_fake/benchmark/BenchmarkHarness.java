@@ -0,0 +1,106 @@
+package de.heinerkuecker.random_access_file_fake.benchmark;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Minimal benchmark harness with warmup
+ * and measurement runs, reports the median
+ * time per operation.
+ * <br/><br/>
+ * The project has no build with dependencies,
+ * so this harness uses only the JDK instead of JMH.
+ * <br/><br/>
+ * Configuration by system properties:
+ * <ul>
+ * <li>{@code benchmark.warmup} number of warmup runs, default 5</li>
+ * <li>{@code benchmark.runs} number of measurement runs, default 10</li>
+ * </ul>
+ */
+public final class BenchmarkHarness
+{
+    /**
+     * Operation to benchmark.
+     */
+    @FunctionalInterface
+    public interface BenchmarkOperation
+    {
+        /**
+         * Run the operation once.
+         *
+         * @return a result value, consumed to prevent dead code elimination
+         * @throws IOException
+         */
+        long run()
+                throws IOException;
+    }
+
+    /**
+     * Number of warmup runs.
+     */
+    private static final int WARMUP_RUNS = Integer.getInteger( "benchmark.warmup" , 5 );
+
+    /**
+     * Number of measurement runs.
+     */
+    private static final int MEASUREMENT_RUNS = Integer.getInteger( "benchmark.runs" , 10 );
+
+    /**
+     * Sink for results of operations,
+     * prevents dead code elimination.
+     */
+    private static volatile long sink;
+
+    /**
+     * Private constructor, no instance.
+     */
+    private BenchmarkHarness()
+    {
+        // no instance
+    }
+
+    /**
+     * Measure the specified operation and
+     * print the median time per operation.
+     *
+     * @param name name of benchmark for the report
+     * @param operationsPerRun number of single operations in one run, for time per operation
+     * @param operation the operation
+     * @return median nanoseconds per single operation
+     * @throws IOException
+     */
+    public static double measure(
+            final String name ,
+            final long operationsPerRun ,
+            final BenchmarkOperation operation )
+            throws IOException
+    {
+        long result = 0;
+        for ( int i = 0 ; i < WARMUP_RUNS ; i++ )
+        {
+            result += operation.run();
+        }
+
+        final long[] runNanos = new long[ MEASUREMENT_RUNS ];
+        for ( int i = 0 ; i < MEASUREMENT_RUNS ; i++ )
+        {
+            final long start = System.nanoTime();
+            result += operation.run();
+            runNanos[ i ] = System.nanoTime() - start;
+        }
+        sink += result;
+
+        Arrays.sort( runNanos );
+        final double medianNanosPerOperation =
+                (double) runNanos[ MEASUREMENT_RUNS / 2 ] / operationsPerRun;
+
+        System.out.printf(
+                "%-60s %12.3f ns/op %16.0f ops/s%n" ,
+                name ,
+                medianNanosPerOperation ,
+                1_000_000_000.0 / medianNanosPerOperation );
+
+        return medianNanosPerOperation;
+    }
+
+}
@@ -0,0 +1,134 @@
+package de.heinerkuecker.random_access_file_fake.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import de.heinerkuecker.random_access_file_fake.ClockPageEvictionPolicy;
+import de.heinerkuecker.random_access_file_fake.LruPageEvictionPolicy;
+import de.heinerkuecker.random_access_file_fake.PageEvictionPolicy;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileCached;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileRealImplementation;
+import de.heinerkuecker.random_access_file_fake.TwoQueuePageEvictionPolicy;
+
+/**
+ * Benchmark of {@link RandomAccessFileCached} with the
+ * eviction policies on random lookups over a real file,
+ * 90% of the lookups go to a hot set of 10% of the file,
+ * interleaved with sequential scans.
+ * Prints the counters of the cache after each policy.
+ */
+public class PageCacheBenchmark
+{
+    /**
+     * File size 16 MiB.
+     */
+    private static final int FILE_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * Pool of 1024 pages of 4 KiB, 25% of file.
+     */
+    private static final int PAGE_COUNT = 1024;
+
+    /**
+     * Number of lookups per run.
+     */
+    private static final int LOOKUP_COUNT = 100_000;
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args not used
+     * @throws IOException
+     */
+    public static void main(
+            final String[] args )
+            throws IOException
+    {
+        final File tempFile = File.createTempFile( "PageCacheBenchmark" , ".bin" );
+        tempFile.deleteOnExit();
+
+        try ( final RandomAccessFileRealImplementation file = new RandomAccessFileRealImplementation( tempFile , "rw" ) )
+        {
+            file.setLength( FILE_SIZE );
+        }
+
+        final long[] positions = lookupPositions();
+
+        benchmarkPolicy( "LRU" , tempFile , positions , LruPageEvictionPolicy::new );
+        benchmarkPolicy( "CLOCK" , tempFile , positions , ClockPageEvictionPolicy::new );
+        benchmarkPolicy( "2Q" , tempFile , positions , TwoQueuePageEvictionPolicy::new );
+    }
+
+    /**
+     * Benchmark one policy.
+     */
+    private static void benchmarkPolicy(
+            final String policyName ,
+            final File tempFile ,
+            final long[] positions ,
+            final IntFunction<PageEvictionPolicy> policyFactory )
+            throws IOException
+    {
+        try ( final RandomAccessFileCached file =
+                new RandomAccessFileCached(
+                        new RandomAccessFileRealImplementation( tempFile , "rw" ) ,
+                        RandomAccessFileCached.DEFAULT_PAGE_SIZE ,
+                        PAGE_COUNT ,
+                        policyFactory ) )
+        {
+            BenchmarkHarness.measure(
+                    "RandomAccessFileCached " + policyName + " lookup" ,
+                    positions.length ,
+                    () -> {
+                        long sum = 0;
+                        for ( final long pos : positions )
+                        {
+                            file.seek( pos );
+                            sum += file.readLong();
+                        }
+                        return sum;
+                    } );
+
+            System.out.println(
+                    "RandomAccessFileCached " + policyName +
+                    " hits=" + file.getHitCount() +
+                    " misses=" + file.getMissCount() +
+                    " evictions=" + file.getEvictionCount() +
+                    " hit ratio=" + String.format( "%.3f" , (double) file.getHitCount() / ( file.getHitCount() + file.getMissCount() ) ) );
+        }
+    }
+
+    /**
+     * Lookup positions with fixed seed for reproducible runs,
+     * hot set at start of file, every 10000 lookups
+     * a scan of 1000 pages.
+     */
+    private static long[] lookupPositions()
+    {
+        final Random random = new Random( 42 );
+        final long[] positions = new long[ LOOKUP_COUNT ];
+        final int hotSize = FILE_SIZE / 10;
+        long scanPos = 0;
+        for ( int i = 0 ; i < positions.length ; i++ )
+        {
+            if ( i % 10_000 < 1000 )
+            {
+                // scan
+                positions[ i ] = scanPos;
+                scanPos = ( scanPos + RandomAccessFileCached.DEFAULT_PAGE_SIZE ) % ( FILE_SIZE - 8 );
+            }
+            else if ( random.nextInt( 10 ) < 9 )
+            {
+                positions[ i ] = random.nextInt( hotSize - 8 );
+            }
+            else
+            {
+                positions[ i ] = random.nextInt( FILE_SIZE - 8 );
+            }
+        }
+        return positions;
+    }
+
+}
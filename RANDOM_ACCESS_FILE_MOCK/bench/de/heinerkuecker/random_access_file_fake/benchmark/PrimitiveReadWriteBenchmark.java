@@ -0,0 +1,195 @@
+package de.heinerkuecker.random_access_file_fake.benchmark;
+
+import java.io.IOException;
+
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileFake;
+
+/**
+ * Benchmark of the primitive fast path of
+ * {@link RandomAccessFileFake#readInt()},
+ * {@link RandomAccessFileFake#writeInt(int)},
+ * {@link RandomAccessFileFake#readLong()} and
+ * {@link RandomAccessFileFake#writeLong(long)}
+ * against the former per-byte path over
+ * {@link RandomAccessFileFake#read()} and
+ * {@link RandomAccessFileFake#write(int)}
+ * and of the bulk transfer
+ * {@link RandomAccessFileFake#readInts(int[], int, int)},
+ * {@link RandomAccessFileFake#writeInts(int[], int, int)},
+ * {@link RandomAccessFileFake#readLongs(long[], int, int)} and
+ * {@link RandomAccessFileFake#writeLongs(long[], int, int)}.
+ */
+public class PrimitiveReadWriteBenchmark
+{
+    /**
+     * Number of values per run.
+     */
+    private static final int VALUE_COUNT = 1 << 20;
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args not used
+     * @throws IOException
+     */
+    public static void main(
+            final String[] args )
+            throws IOException
+    {
+        final RandomAccessFileFake file = new RandomAccessFileFake();
+        file.open();
+
+        BenchmarkHarness.measure(
+                "RandomAccessFileFake.writeInt fast path" ,
+                VALUE_COUNT ,
+                () -> {
+                    file.setLength( 0 );
+                    for ( int i = 0 ; i < VALUE_COUNT ; i++ )
+                    {
+                        file.writeInt( i );
+                    }
+                    return file.getFilePointer();
+                } );
+
+        BenchmarkHarness.measure(
+                "RandomAccessFileFake.writeInt per-byte path" ,
+                VALUE_COUNT ,
+                () -> {
+                    file.setLength( 0 );
+                    for ( int i = 0 ; i < VALUE_COUNT ; i++ )
+                    {
+                        file.write( i >>> 24 );
+                        file.write( i >>> 16 );
+                        file.write( i >>>  8 );
+                        file.write( i );
+                    }
+                    return file.getFilePointer();
+                } );
+
+        BenchmarkHarness.measure(
+                "RandomAccessFileFake.readInt fast path" ,
+                VALUE_COUNT ,
+                () -> {
+                    file.seek( 0 );
+                    long sum = 0;
+                    for ( int i = 0 ; i < VALUE_COUNT ; i++ )
+                    {
+                        sum += file.readInt();
+                    }
+                    return sum;
+                } );
+
+        BenchmarkHarness.measure(
+                "RandomAccessFileFake.readInt per-byte path" ,
+                VALUE_COUNT ,
+                () -> {
+                    file.seek( 0 );
+                    long sum = 0;
+                    for ( int i = 0 ; i < VALUE_COUNT ; i++ )
+                    {
+                        sum += ( file.read() << 24 ) + ( file.read() << 16 ) + ( file.read() << 8 ) + file.read();
+                    }
+                    return sum;
+                } );
+
+        BenchmarkHarness.measure(
+                "RandomAccessFileFake.writeLong fast path" ,
+                VALUE_COUNT ,
+                () -> {
+                    file.setLength( 0 );
+                    for ( long i = 0 ; i < VALUE_COUNT ; i++ )
+                    {
+                        file.writeLong( i );
+                    }
+                    return file.getFilePointer();
+                } );
+
+        BenchmarkHarness.measure(
+                "RandomAccessFileFake.writeLong per-byte path" ,
+                VALUE_COUNT ,
+                () -> {
+                    file.setLength( 0 );
+                    for ( long i = 0 ; i < VALUE_COUNT ; i++ )
+                    {
+                        for ( int shift = 56 ; shift >= 0 ; shift -= 8 )
+                        {
+                            file.write( (int) ( i >>> shift ) );
+                        }
+                    }
+                    return file.getFilePointer();
+                } );
+
+        BenchmarkHarness.measure(
+                "RandomAccessFileFake.readLong fast path" ,
+                VALUE_COUNT ,
+                () -> {
+                    file.seek( 0 );
+                    long sum = 0;
+                    for ( int i = 0 ; i < VALUE_COUNT ; i++ )
+                    {
+                        sum += file.readLong();
+                    }
+                    return sum;
+                } );
+
+        BenchmarkHarness.measure(
+                "RandomAccessFileFake.readLong per-byte path" ,
+                VALUE_COUNT ,
+                () -> {
+                    file.seek( 0 );
+                    long sum = 0;
+                    for ( int i = 0 ; i < VALUE_COUNT ; i++ )
+                    {
+                        long v = 0;
+                        for ( int b = 0 ; b < 8 ; b++ )
+                        {
+                            v = ( v << 8 ) | file.read();
+                        }
+                        sum += v;
+                    }
+                    return sum;
+                } );
+
+        final int[] ints = new int[ VALUE_COUNT ];
+        final long[] longs = new long[ VALUE_COUNT ];
+
+        BenchmarkHarness.measure(
+                "RandomAccessFileFake.writeInts bulk" ,
+                VALUE_COUNT ,
+                () -> {
+                    file.setLength( 0 );
+                    file.writeInts( ints , 0 , VALUE_COUNT );
+                    return file.getFilePointer();
+                } );
+
+        BenchmarkHarness.measure(
+                "RandomAccessFileFake.readInts bulk" ,
+                VALUE_COUNT ,
+                () -> {
+                    file.seek( 0 );
+                    file.readInts( ints , 0 , VALUE_COUNT );
+                    return ints[ VALUE_COUNT - 1 ];
+                } );
+
+        BenchmarkHarness.measure(
+                "RandomAccessFileFake.writeLongs bulk" ,
+                VALUE_COUNT ,
+                () -> {
+                    file.setLength( 0 );
+                    file.writeLongs( longs , 0 , VALUE_COUNT );
+                    return file.getFilePointer();
+                } );
+
+        BenchmarkHarness.measure(
+                "RandomAccessFileFake.readLongs bulk" ,
+                VALUE_COUNT ,
+                () -> {
+                    file.seek( 0 );
+                    file.readLongs( longs , 0 , VALUE_COUNT );
+                    return longs[ VALUE_COUNT - 1 ];
+                } );
+
+        file.close();
+    }
+
+}
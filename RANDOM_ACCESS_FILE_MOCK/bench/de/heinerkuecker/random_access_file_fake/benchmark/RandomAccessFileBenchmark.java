@@ -0,0 +1,405 @@
+package de.heinerkuecker.random_access_file_fake.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileBuffered;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileFake;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileInterface;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileMemoryMapped;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileOffHeapFake;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFilePagedFake;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileRealImplementation;
+
+/**
+ * Benchmark comparing the implementations of
+ * {@link RandomAccessFileInterface} with a raw
+ * {@link RandomAccessFile}, to make the cost of the
+ * interface indirection and of the fakes visible.
+ * <br/><br/>
+ * Scenarios: sequential append, random seek and read,
+ * primitive write and read, readLine, writeUTF and readUTF,
+ * setLength.
+ * <br/><br/>
+ * Configuration by system properties:
+ * <ul>
+ * <li>{@code benchmark.sizes} comma separated file sizes in bytes, default 65536,1048576</li>
+ * <li>see {@link BenchmarkHarness} for warmup and runs</li>
+ * </ul>
+ */
+public class RandomAccessFileBenchmark
+{
+    /**
+     * Factory for an opened file under test.
+     */
+    @FunctionalInterface
+    interface FileFactory
+    {
+        RandomAccessFileInterface create()
+                throws IOException;
+    }
+
+    /**
+     * Length of one record in sequential append.
+     */
+    private static final int RECORD_LENGTH = 512;
+
+    /**
+     * Number of random seek and read operations per run.
+     */
+    private static final int RANDOM_READ_COUNT = 10_000;
+
+    /**
+     * Length of one random read.
+     */
+    private static final int RANDOM_READ_LENGTH = 64;
+
+    /**
+     * Number of setLength operations per run.
+     */
+    private static final int SET_LENGTH_COUNT = 100;
+
+    /**
+     * Line for readLine, 79 characters and line feed.
+     */
+    private static final String LINE =
+            "0123456789012345678901234567890123456789012345678901234567890123456789012345678\n";
+
+    /**
+     * String for writeUTF and readUTF.
+     */
+    private static final String UTF_STRING = "record-key-\u00e4\u00f6\u00fc-0123456789012345678";
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args not used
+     * @throws IOException
+     */
+    public static void main(
+            final String[] args )
+            throws IOException
+    {
+        final String[] sizes = System.getProperty( "benchmark.sizes" , "65536,1048576" ).split( "," );
+
+        final File tempFile = File.createTempFile( "RandomAccessFileBenchmark" , ".bin" );
+        tempFile.deleteOnExit();
+
+        for ( final String sizeStr : sizes )
+        {
+            final int size = Integer.parseInt( sizeStr.trim() );
+
+            benchmarkInterface(
+                    "RandomAccessFileFake" ,
+                    size ,
+                    () -> {
+                        final RandomAccessFileFake file = new RandomAccessFileFake();
+                        file.open();
+                        return file;
+                    } );
+
+            benchmarkInterface(
+                    "RandomAccessFilePagedFake" ,
+                    size ,
+                    () -> {
+                        final RandomAccessFilePagedFake file = new RandomAccessFilePagedFake();
+                        file.open();
+                        return file;
+                    } );
+
+            benchmarkInterface(
+                    "RandomAccessFileOffHeapFake" ,
+                    size ,
+                    RandomAccessFileOffHeapFake::new );
+
+            benchmarkInterface(
+                    "RandomAccessFileRealImplementation" ,
+                    size ,
+                    () -> new RandomAccessFileRealImplementation( tempFile , "rw" ) );
+
+            benchmarkInterface(
+                    "RandomAccessFileBuffered(RandomAccessFileRealImplementation)" ,
+                    size ,
+                    () -> new RandomAccessFileBuffered( new RandomAccessFileRealImplementation( tempFile , "rw" ) ) );
+
+            benchmarkInterface(
+                    "RandomAccessFileMemoryMapped" ,
+                    size ,
+                    () -> new RandomAccessFileMemoryMapped( tempFile , "rw" ) );
+
+            benchmarkRaw(
+                    size ,
+                    tempFile );
+        }
+    }
+
+    /**
+     * Benchmark all scenarios on an
+     * implementation of {@link RandomAccessFileInterface}.
+     */
+    private static void benchmarkInterface(
+            final String implementationName ,
+            final int size ,
+            final FileFactory fileFactory )
+            throws IOException
+    {
+        final String prefix = implementationName + " size=" + size + " ";
+        final byte[] record = new byte[ RECORD_LENGTH ];
+        final byte[] readBuffer = new byte[ RANDOM_READ_LENGTH ];
+        final long[] randomPositions = randomPositions( size );
+
+        try ( final RandomAccessFileInterface file = fileFactory.create() )
+        {
+            BenchmarkHarness.measure(
+                    prefix + "sequential append" ,
+                    size / RECORD_LENGTH ,
+                    () -> {
+                        file.setLength( 0 );
+                        for ( int i = 0 ; i < size / RECORD_LENGTH ; i++ )
+                        {
+                            file.write( record );
+                        }
+                        return file.length();
+                    } );
+
+            BenchmarkHarness.measure(
+                    prefix + "random seek and read" ,
+                    RANDOM_READ_COUNT ,
+                    () -> {
+                        long sum = 0;
+                        for ( final long pos : randomPositions )
+                        {
+                            file.seek( pos );
+                            sum += file.read( readBuffer );
+                        }
+                        return sum;
+                    } );
+
+            BenchmarkHarness.measure(
+                    prefix + "writeInt" ,
+                    size / 4 ,
+                    () -> {
+                        file.seek( 0 );
+                        for ( int i = 0 ; i < size / 4 ; i++ )
+                        {
+                            file.writeInt( i );
+                        }
+                        return file.getFilePointer();
+                    } );
+
+            BenchmarkHarness.measure(
+                    prefix + "readInt" ,
+                    size / 4 ,
+                    () -> {
+                        file.seek( 0 );
+                        long sum = 0;
+                        for ( int i = 0 ; i < size / 4 ; i++ )
+                        {
+                            sum += file.readInt();
+                        }
+                        return sum;
+                    } );
+
+            file.setLength( 0 );
+            while ( file.length() < size )
+            {
+                file.writeBytes( LINE );
+            }
+
+            BenchmarkHarness.measure(
+                    prefix + "readLine" ,
+                    size / LINE.length() ,
+                    () -> {
+                        file.seek( 0 );
+                        long count = 0;
+                        while ( file.readLine() != null )
+                        {
+                            count++;
+                        }
+                        return count;
+                    } );
+
+            final int utfCount = size / ( UTF_STRING.length() + 8 );
+
+            BenchmarkHarness.measure(
+                    prefix + "writeUTF" ,
+                    utfCount ,
+                    () -> {
+                        file.seek( 0 );
+                        for ( int i = 0 ; i < utfCount ; i++ )
+                        {
+                            file.writeUTF( UTF_STRING );
+                        }
+                        return file.getFilePointer();
+                    } );
+
+            BenchmarkHarness.measure(
+                    prefix + "readUTF" ,
+                    utfCount ,
+                    () -> {
+                        file.seek( 0 );
+                        long sum = 0;
+                        for ( int i = 0 ; i < utfCount ; i++ )
+                        {
+                            sum += file.readUTF().length();
+                        }
+                        return sum;
+                    } );
+
+            BenchmarkHarness.measure(
+                    prefix + "setLength" ,
+                    SET_LENGTH_COUNT ,
+                    () -> {
+                        for ( int i = 0 ; i < SET_LENGTH_COUNT ; i++ )
+                        {
+                            file.setLength( ( i & 1 ) == 0 ? size : size / 2 );
+                        }
+                        return file.length();
+                    } );
+        }
+    }
+
+    /**
+     * Benchmark all scenarios on a raw
+     * {@link RandomAccessFile} without interface.
+     */
+    private static void benchmarkRaw(
+            final int size ,
+            final File tempFile )
+            throws IOException
+    {
+        final String prefix = "RandomAccessFile size=" + size + " ";
+        final byte[] record = new byte[ RECORD_LENGTH ];
+        final byte[] readBuffer = new byte[ RANDOM_READ_LENGTH ];
+        final long[] randomPositions = randomPositions( size );
+
+        try ( final RandomAccessFile file = new RandomAccessFile( tempFile , "rw" ) )
+        {
+            BenchmarkHarness.measure(
+                    prefix + "sequential append" ,
+                    size / RECORD_LENGTH ,
+                    () -> {
+                        file.setLength( 0 );
+                        for ( int i = 0 ; i < size / RECORD_LENGTH ; i++ )
+                        {
+                            file.write( record );
+                        }
+                        return file.length();
+                    } );
+
+            BenchmarkHarness.measure(
+                    prefix + "random seek and read" ,
+                    RANDOM_READ_COUNT ,
+                    () -> {
+                        long sum = 0;
+                        for ( final long pos : randomPositions )
+                        {
+                            file.seek( pos );
+                            sum += file.read( readBuffer );
+                        }
+                        return sum;
+                    } );
+
+            BenchmarkHarness.measure(
+                    prefix + "writeInt" ,
+                    size / 4 ,
+                    () -> {
+                        file.seek( 0 );
+                        for ( int i = 0 ; i < size / 4 ; i++ )
+                        {
+                            file.writeInt( i );
+                        }
+                        return file.getFilePointer();
+                    } );
+
+            BenchmarkHarness.measure(
+                    prefix + "readInt" ,
+                    size / 4 ,
+                    () -> {
+                        file.seek( 0 );
+                        long sum = 0;
+                        for ( int i = 0 ; i < size / 4 ; i++ )
+                        {
+                            sum += file.readInt();
+                        }
+                        return sum;
+                    } );
+
+            file.setLength( 0 );
+            while ( file.length() < size )
+            {
+                file.writeBytes( LINE );
+            }
+
+            BenchmarkHarness.measure(
+                    prefix + "readLine" ,
+                    size / LINE.length() ,
+                    () -> {
+                        file.seek( 0 );
+                        long count = 0;
+                        while ( file.readLine() != null )
+                        {
+                            count++;
+                        }
+                        return count;
+                    } );
+
+            final int utfCount = size / ( UTF_STRING.length() + 8 );
+
+            BenchmarkHarness.measure(
+                    prefix + "writeUTF" ,
+                    utfCount ,
+                    () -> {
+                        file.seek( 0 );
+                        for ( int i = 0 ; i < utfCount ; i++ )
+                        {
+                            file.writeUTF( UTF_STRING );
+                        }
+                        return file.getFilePointer();
+                    } );
+
+            BenchmarkHarness.measure(
+                    prefix + "readUTF" ,
+                    utfCount ,
+                    () -> {
+                        file.seek( 0 );
+                        long sum = 0;
+                        for ( int i = 0 ; i < utfCount ; i++ )
+                        {
+                            sum += file.readUTF().length();
+                        }
+                        return sum;
+                    } );
+
+            BenchmarkHarness.measure(
+                    prefix + "setLength" ,
+                    SET_LENGTH_COUNT ,
+                    () -> {
+                        for ( int i = 0 ; i < SET_LENGTH_COUNT ; i++ )
+                        {
+                            file.setLength( ( i & 1 ) == 0 ? size : size / 2 );
+                        }
+                        return file.length();
+                    } );
+        }
+    }
+
+    /**
+     * Random positions for random seek and read,
+     * with fixed seed for reproducible runs.
+     */
+    private static long[] randomPositions(
+            final int size )
+    {
+        final Random random = new Random( 42 );
+        final long[] positions = new long[ RANDOM_READ_COUNT ];
+        for ( int i = 0 ; i < positions.length ; i++ )
+        {
+            positions[ i ] = random.nextInt( size - RANDOM_READ_LENGTH );
+        }
+        return positions;
+    }
+
+}
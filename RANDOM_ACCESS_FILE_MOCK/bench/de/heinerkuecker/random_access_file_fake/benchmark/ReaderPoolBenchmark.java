@@ -0,0 +1,181 @@
+package de.heinerkuecker.random_access_file_fake.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileConcurrentFake;
+
+/**
+ * Benchmark of a pool of reader threads on one
+ * {@link RandomAccessFileConcurrentFake}: one read-only
+ * handle per thread with seek and readFully, one shared
+ * handle with readAt, one shared handle with seek and
+ * readFully under a lock.
+ */
+public class ReaderPoolBenchmark
+{
+    /**
+     * File size 16 MiB.
+     */
+    private static final int FILE_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * Length of one read.
+     */
+    private static final int READ_LENGTH = 4096;
+
+    /**
+     * Number of reads per thread and run.
+     */
+    private static final int READ_COUNT = 20_000;
+
+    /**
+     * Number of reader threads.
+     */
+    private static final int THREAD_COUNT = Math.min( 8 , Runtime.getRuntime().availableProcessors() );
+
+    /**
+     * Reads of one thread.
+     */
+    @FunctionalInterface
+    interface ReaderTask
+    {
+        long read(
+                final int threadIndex ,
+                final long[] positions ,
+                final byte[] buffer )
+                throws IOException;
+    }
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args not used
+     * @throws IOException
+     */
+    public static void main(
+            final String[] args )
+            throws IOException
+    {
+        final RandomAccessFileConcurrentFake file = new RandomAccessFileConcurrentFake();
+        file.open();
+        file.write( new byte[ FILE_SIZE ] );
+
+        final RandomAccessFileConcurrentFake[] handles = new RandomAccessFileConcurrentFake[ THREAD_COUNT ];
+        for ( int i = 0 ; i < THREAD_COUNT ; i++ )
+        {
+            handles[ i ] = file.newHandle( "r" );
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool( THREAD_COUNT );
+        try
+        {
+            benchmarkPool(
+                    "ReaderPool handle per thread seek+readFully" ,
+                    executor ,
+                    ( threadIndex , positions , buffer ) -> {
+                        final RandomAccessFileConcurrentFake handle = handles[ threadIndex ];
+                        long sum = 0;
+                        for ( final long pos : positions )
+                        {
+                            handle.seek( pos );
+                            handle.readFully( buffer );
+                            sum += buffer[ 0 ];
+                        }
+                        return sum;
+                    } );
+
+            benchmarkPool(
+                    "ReaderPool shared handle readAt" ,
+                    executor ,
+                    ( threadIndex , positions , buffer ) -> {
+                        long sum = 0;
+                        for ( final long pos : positions )
+                        {
+                            sum += file.readAt( pos , buffer , 0 , buffer.length );
+                        }
+                        return sum;
+                    } );
+
+            benchmarkPool(
+                    "ReaderPool shared handle synchronized seek+readFully" ,
+                    executor ,
+                    ( threadIndex , positions , buffer ) -> {
+                        long sum = 0;
+                        for ( final long pos : positions )
+                        {
+                            synchronized ( file )
+                            {
+                                file.seek( pos );
+                                file.readFully( buffer );
+                            }
+                            sum += buffer[ 0 ];
+                        }
+                        return sum;
+                    } );
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Benchmark the task in all threads.
+     */
+    private static void benchmarkPool(
+            final String name ,
+            final ExecutorService executor ,
+            final ReaderTask task )
+            throws IOException
+    {
+        final long[][] positions = new long[ THREAD_COUNT ][];
+        final Random random = new Random( 42 );
+        for ( int t = 0 ; t < THREAD_COUNT ; t++ )
+        {
+            positions[ t ] = new long[ READ_COUNT ];
+            for ( int i = 0 ; i < READ_COUNT ; i++ )
+            {
+                positions[ t ][ i ] = random.nextInt( FILE_SIZE - READ_LENGTH );
+            }
+        }
+
+        BenchmarkHarness.measure(
+                name + " threads=" + THREAD_COUNT ,
+                (long) THREAD_COUNT * READ_COUNT ,
+                () -> {
+                    final List<Future<Long>> futures = new ArrayList<>();
+                    for ( int t = 0 ; t < THREAD_COUNT ; t++ )
+                    {
+                        final int threadIndex = t;
+                        futures.add(
+                                executor.submit(
+                                        () -> task.read(
+                                                threadIndex ,
+                                                positions[ threadIndex ] ,
+                                                new byte[ READ_LENGTH ] ) ) );
+                    }
+
+                    long sum = 0;
+                    for ( final Future<Long> future : futures )
+                    {
+                        try
+                        {
+                            sum += future.get();
+                        }
+                        catch ( final InterruptedException | ExecutionException e )
+                        {
+                            throw new IOException( e );
+                        }
+                    }
+                    return sum;
+                } );
+    }
+
+}
@@ -0,0 +1,275 @@
+package de.heinerkuecker.random_access_file_fake.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import de.heinerkuecker.random_access_file_fake.IoHistogram;
+import de.heinerkuecker.random_access_file_fake.LruPageEvictionPolicy;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileBuffered;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileCached;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileFake;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileInstrumented.Method;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileInterface;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileMemoryMapped;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFilePagedFake;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileRealImplementation;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileTraceReader;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileTraceRecording;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileTraceReplayer;
+import de.heinerkuecker.random_access_file_fake.benchmark.RandomAccessFileBenchmark.FileFactory;
+
+/**
+ * Benchmark replaying a trace of
+ * {@link RandomAccessFileTraceRecording} against the
+ * implementations of {@link RandomAccessFileInterface},
+ * reports throughput and latency percentiles per call.
+ * <br/><br/>
+ * Without trace file a synthetic storage engine workload
+ * is recorded: append of length prefixed records and
+ * lookups of records by offset, 20% over readAt.
+ * <br/><br/>
+ * Configuration by system properties:
+ * <ul>
+ * <li>{@code benchmark.trace} file of a recorded trace, default synthetic workload</li>
+ * <li>see {@link BenchmarkHarness} for warmup and runs</li>
+ * </ul>
+ * A recorded trace should not contain {@code close},
+ * each run replays the trace on the same opened file.
+ */
+public class TraceReplayBenchmark
+{
+    /**
+     * Number of appended records of synthetic workload.
+     */
+    private static final int RECORD_COUNT = 20_000;
+
+    /**
+     * Number of lookups of synthetic workload.
+     */
+    private static final int LOOKUP_COUNT = 50_000;
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args not used
+     * @throws IOException
+     */
+    public static void main(
+            final String[] args )
+            throws IOException
+    {
+        final String traceFileName = System.getProperty( "benchmark.trace" );
+
+        final byte[] traceBytes =
+                traceFileName != null
+                ? readFile( new File( traceFileName ) )
+                : recordSyntheticWorkload();
+
+        final DecodedTrace trace = new DecodedTrace( traceBytes );
+        System.out.println( "trace calls=" + trace.count + " bytes=" + traceBytes.length );
+
+        final File tempFile = File.createTempFile( "TraceReplayBenchmark" , ".bin" );
+        tempFile.deleteOnExit();
+
+        benchmarkReplay(
+                "RandomAccessFileFake" ,
+                trace ,
+                () -> {
+                    final RandomAccessFileFake file = new RandomAccessFileFake();
+                    file.open();
+                    return file;
+                } );
+
+        benchmarkReplay(
+                "RandomAccessFilePagedFake" ,
+                trace ,
+                () -> {
+                    final RandomAccessFilePagedFake file = new RandomAccessFilePagedFake();
+                    file.open();
+                    return file;
+                } );
+
+        benchmarkReplay(
+                "RandomAccessFileRealImplementation" ,
+                trace ,
+                () -> new RandomAccessFileRealImplementation( tempFile , "rw" ) );
+
+        benchmarkReplay(
+                "RandomAccessFileBuffered(RandomAccessFileRealImplementation)" ,
+                trace ,
+                () -> new RandomAccessFileBuffered( new RandomAccessFileRealImplementation( tempFile , "rw" ) ) );
+
+        benchmarkReplay(
+                "RandomAccessFileCached(RandomAccessFileRealImplementation)" ,
+                trace ,
+                () -> new RandomAccessFileCached(
+                        new RandomAccessFileRealImplementation( tempFile , "rw" ) ,
+                        RandomAccessFileCached.DEFAULT_PAGE_SIZE ,
+                        1024 ,
+                        LruPageEvictionPolicy::new ) );
+
+        benchmarkReplay(
+                "RandomAccessFileMemoryMapped" ,
+                trace ,
+                () -> new RandomAccessFileMemoryMapped( tempFile , "rw" ) );
+    }
+
+    /**
+     * Replay the trace on one implementation,
+     * print throughput and the latency of the last run.
+     */
+    private static void benchmarkReplay(
+            final String name ,
+            final DecodedTrace trace ,
+            final FileFactory fileFactory )
+            throws IOException
+    {
+        try ( final RandomAccessFileInterface file = fileFactory.create() )
+        {
+            final RandomAccessFileTraceReplayer[] lastReplayer = new RandomAccessFileTraceReplayer[ 1 ];
+
+            BenchmarkHarness.measure(
+                    name + " replay" ,
+                    trace.count ,
+                    () -> {
+                        final RandomAccessFileTraceReplayer replayer = new RandomAccessFileTraceReplayer( file );
+                        long sum = 0;
+                        for ( int i = 0 ; i < trace.count ; i++ )
+                        {
+                            sum += replayer.replay(
+                                    trace.methods[ i ] ,
+                                    trace.positions[ i ] ,
+                                    trace.lengths[ i ] );
+                        }
+                        lastReplayer[ 0 ] = replayer;
+                        return sum;
+                    } );
+
+            final IoHistogram latency = lastReplayer[ 0 ].getLatencyNanos();
+
+            System.out.printf(
+                    "%-60s p50=%d p99=%d p99.9=%d max=%d ns eof=%d content errors=%d%n" ,
+                    name + " latency" ,
+                    latency.getValueAtPercentile( 50.0 ) ,
+                    latency.getValueAtPercentile( 99.0 ) ,
+                    latency.getValueAtPercentile( 99.9 ) ,
+                    latency.getMax() ,
+                    lastReplayer[ 0 ].getEofCount() ,
+                    lastReplayer[ 0 ].getContentErrorCount() );
+        }
+    }
+
+    /**
+     * Record the synthetic workload on a fake with
+     * fixed seed for reproducible traces.
+     *
+     * @return the trace
+     */
+    private static byte[] recordSyntheticWorkload()
+            throws IOException
+    {
+        final ByteArrayOutputStream traceOut = new ByteArrayOutputStream();
+
+        final RandomAccessFileFake fake = new RandomAccessFileFake();
+        fake.open();
+
+        final RandomAccessFileTraceRecording file = new RandomAccessFileTraceRecording( fake , traceOut );
+
+        final Random random = new Random( 42 );
+        final byte[] payload = new byte[ 512 ];
+        final long[] offsets = new long[ RECORD_COUNT ];
+
+        for ( int i = 0 ; i < RECORD_COUNT ; i++ )
+        {
+            final int len = 16 + random.nextInt( payload.length - 16 );
+            offsets[ i ] = file.length();
+            file.seek( offsets[ i ] );
+            file.writeInt( len );
+            file.write( payload , 0 , len );
+        }
+
+        for ( int i = 0 ; i < LOOKUP_COUNT ; i++ )
+        {
+            final long offset = offsets[ random.nextInt( RECORD_COUNT ) ];
+
+            if ( random.nextInt( 5 ) == 0 )
+            {
+                file.readAt( offset + 4 , payload , 0 , 16 );
+            }
+            else
+            {
+                file.seek( offset );
+                final int len = file.readInt();
+                file.readFully( payload , 0 , len );
+            }
+        }
+
+        // no close, the replay reuses the file
+        file.flushTrace();
+
+        return traceOut.toByteArray();
+    }
+
+    /**
+     * @return content of the file
+     */
+    private static byte[] readFile(
+            final File file )
+            throws IOException
+    {
+        try ( final InputStream in = new FileInputStream( file ) )
+        {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[ 8192 ];
+            int len;
+            while ( ( len = in.read( buffer ) ) > 0 )
+            {
+                out.write( buffer , 0 , len );
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Trace decoded into arrays, the replay
+     * measures the calls without decoding.
+     */
+    private static final class DecodedTrace
+    {
+        Method[] methods = new Method[ 1024 ];
+        long[] positions = new long[ 1024 ];
+        long[] lengths = new long[ 1024 ];
+        int count;
+
+        DecodedTrace(
+                final byte[] traceBytes )
+                throws IOException
+        {
+            try ( final RandomAccessFileTraceReader reader =
+                    new RandomAccessFileTraceReader( new ByteArrayInputStream( traceBytes ) ) )
+            {
+                while ( reader.next() )
+                {
+                    if ( this.count == this.methods.length )
+                    {
+                        this.methods = Arrays.copyOf( this.methods , this.count * 2 );
+                        this.positions = Arrays.copyOf( this.positions , this.count * 2 );
+                        this.lengths = Arrays.copyOf( this.lengths , this.count * 2 );
+                    }
+
+                    this.methods[ this.count ] = reader.getMethod();
+                    this.positions[ this.count ] = reader.getPosition();
+                    this.lengths[ this.count ] = reader.getLength();
+                    this.count++;
+                }
+            }
+        }
+    }
+
+}
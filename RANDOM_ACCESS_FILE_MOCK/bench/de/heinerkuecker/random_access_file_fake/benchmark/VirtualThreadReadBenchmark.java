@@ -0,0 +1,250 @@
+package de.heinerkuecker.random_access_file_fake.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileChannelImplementation;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileInterface;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileRealImplementation;
+
+/**
+ * Benchmark of thousands of tasks doing random reads
+ * on one shared file, on virtual threads if the JDK
+ * has them (Java 21), else on a pool of platform threads:
+ * {@link RandomAccessFileRealImplementation} with seek and
+ * readFully under {@code synchronized}, with readAt, and
+ * {@link RandomAccessFileChannelImplementation} with readAt
+ * and with seek and readFully under a {@link ReentrantLock}.
+ */
+public class VirtualThreadReadBenchmark
+{
+    /**
+     * File size 16 MiB.
+     */
+    private static final int FILE_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * Length of one read.
+     */
+    private static final int READ_LENGTH = 4096;
+
+    /**
+     * Number of tasks per run.
+     */
+    private static final int TASK_COUNT = 2_000;
+
+    /**
+     * Number of reads per task.
+     */
+    private static final int READ_COUNT = 50;
+
+    /**
+     * Number of platform threads
+     * if there are no virtual threads.
+     */
+    private static final int PLATFORM_THREAD_COUNT = 64;
+
+    /**
+     * Reads of one task.
+     */
+    @FunctionalInterface
+    interface ReaderTask
+    {
+        long read(
+                final long[] positions ,
+                final byte[] buffer )
+                throws IOException;
+    }
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args not used
+     * @throws IOException
+     */
+    public static void main(
+            final String[] args )
+            throws IOException
+    {
+        final File tempFile = File.createTempFile( "VirtualThreadReadBenchmark" , ".bin" );
+        tempFile.deleteOnExit();
+
+        try ( final RandomAccessFileRealImplementation file = new RandomAccessFileRealImplementation( tempFile , "rw" ) )
+        {
+            file.setLength( FILE_SIZE );
+        }
+
+        final long[][] positions = new long[ TASK_COUNT ][];
+        final Random random = new Random( 42 );
+        for ( int t = 0 ; t < TASK_COUNT ; t++ )
+        {
+            positions[ t ] = new long[ READ_COUNT ];
+            for ( int i = 0 ; i < READ_COUNT ; i++ )
+            {
+                positions[ t ][ i ] = random.nextInt( FILE_SIZE - READ_LENGTH );
+            }
+        }
+
+        final ExecutorService executor = newExecutor();
+        try
+        {
+            try ( final RandomAccessFileRealImplementation file = new RandomAccessFileRealImplementation( tempFile , "r" ) )
+            {
+                benchmarkTasks(
+                        "VirtualThreadRead real synchronized seek+readFully" ,
+                        executor ,
+                        positions ,
+                        ( taskPositions , buffer ) -> {
+                            long sum = 0;
+                            for ( final long pos : taskPositions )
+                            {
+                                synchronized ( file )
+                                {
+                                    file.seek( pos );
+                                    file.readFully( buffer );
+                                }
+                                sum += buffer[ 0 ];
+                            }
+                            return sum;
+                        } );
+
+                benchmarkTasks(
+                        "VirtualThreadRead real readAt" ,
+                        executor ,
+                        positions ,
+                        readAtTask( file ) );
+            }
+
+            try ( final RandomAccessFileChannelImplementation file = new RandomAccessFileChannelImplementation( tempFile , "r" ) )
+            {
+                final ReentrantLock lock = new ReentrantLock();
+
+                benchmarkTasks(
+                        "VirtualThreadRead channel readAt" ,
+                        executor ,
+                        positions ,
+                        readAtTask( file ) );
+
+                benchmarkTasks(
+                        "VirtualThreadRead channel lock seek+readFully" ,
+                        executor ,
+                        positions ,
+                        ( taskPositions , buffer ) -> {
+                            long sum = 0;
+                            for ( final long pos : taskPositions )
+                            {
+                                lock.lock();
+                                try
+                                {
+                                    file.seek( pos );
+                                    file.readFully( buffer );
+                                }
+                                finally
+                                {
+                                    lock.unlock();
+                                }
+                                sum += buffer[ 0 ];
+                            }
+                            return sum;
+                        } );
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @return task with readAt on the file
+     */
+    private static ReaderTask readAtTask(
+            final RandomAccessFileInterface file )
+    {
+        return ( taskPositions , buffer ) -> {
+            long sum = 0;
+            for ( final long pos : taskPositions )
+            {
+                sum += file.readAt( pos , buffer , 0 , buffer.length );
+            }
+            return sum;
+        };
+    }
+
+    /**
+     * Create an executor with one virtual thread per task
+     * by reflection, the source level is Java 8, or a pool
+     * of {@link #PLATFORM_THREAD_COUNT} platform threads
+     * on older JDKs.
+     *
+     * @return new executor
+     */
+    private static ExecutorService newExecutor()
+    {
+        try
+        {
+            final ExecutorService executor =
+                    (ExecutorService) Executors.class
+                    .getMethod( "newVirtualThreadPerTaskExecutor" )
+                    .invoke( null );
+
+            System.out.println( "virtual threads" );
+            return executor;
+        }
+        catch ( final ReflectiveOperationException e )
+        {
+            System.out.println( "no virtual threads, " + PLATFORM_THREAD_COUNT + " platform threads" );
+            return Executors.newFixedThreadPool( PLATFORM_THREAD_COUNT );
+        }
+    }
+
+    /**
+     * Benchmark the task in {@link #TASK_COUNT} tasks.
+     */
+    private static void benchmarkTasks(
+            final String name ,
+            final ExecutorService executor ,
+            final long[][] positions ,
+            final ReaderTask task )
+            throws IOException
+    {
+        BenchmarkHarness.measure(
+                name + " tasks=" + TASK_COUNT ,
+                (long) TASK_COUNT * READ_COUNT ,
+                () -> {
+                    final List<Future<Long>> futures = new ArrayList<>( TASK_COUNT );
+                    for ( int t = 0 ; t < TASK_COUNT ; t++ )
+                    {
+                        final long[] taskPositions = positions[ t ];
+                        futures.add(
+                                executor.submit(
+                                        () -> task.read(
+                                                taskPositions ,
+                                                new byte[ READ_LENGTH ] ) ) );
+                    }
+
+                    long sum = 0;
+                    for ( final Future<Long> future : futures )
+                    {
+                        try
+                        {
+                            sum += future.get();
+                        }
+                        catch ( final InterruptedException | ExecutionException e )
+                        {
+                            throw new IOException( e );
+                        }
+                    }
+                    return sum;
+                } );
+    }
+
+}
@@ -0,0 +1,256 @@
+package de.heinerkuecker.random_access_file_fake.jmh;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileFake;
+
+/**
+ * JMH port of
+ * {@link de.heinerkuecker.random_access_file_fake.benchmark.PrimitiveReadWriteBenchmark}:
+ * the primitive fast path of {@link RandomAccessFileFake#readInt()},
+ * {@link RandomAccessFileFake#writeInt(int)}, {@link RandomAccessFileFake#readLong()}
+ * and {@link RandomAccessFileFake#writeLong(long)} against the per-byte path over
+ * {@link RandomAccessFileFake#read()} and {@link RandomAccessFileFake#write(int)},
+ * and the bulk transfer of {@link RandomAccessFileFake#readInts(int[], int, int)}
+ * and {@link RandomAccessFileFake#writeInts(int[], int, int)}.
+ * <br/><br/>
+ * The score is the time per value.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5 , time = 1 )
+@Measurement( iterations = 5 , time = 1 )
+@Fork( 2 )
+public class PrimitiveReadWriteJmhBenchmark
+{
+    /**
+     * Number of values per invocation.
+     */
+    private static final int VALUE_COUNT = 1024;
+
+    private RandomAccessFileFake file;
+
+    private final int[] ints = new int[ VALUE_COUNT ];
+
+    /**
+     * Create the file with {@link #VALUE_COUNT} long values.
+     *
+     * @throws IOException
+     */
+    @Setup( Level.Trial )
+    public void setUp()
+            throws IOException
+    {
+        this.file = new RandomAccessFileFake();
+        this.file.open();
+        this.file.write( new byte[ VALUE_COUNT * 8 ] );
+    }
+
+    /**
+     * Close the file.
+     *
+     * @throws IOException
+     */
+    @TearDown( Level.Trial )
+    public void tearDown()
+            throws IOException
+    {
+        this.file.close();
+    }
+
+    /**
+     * @return file pointer
+     * @throws IOException
+     */
+    @Benchmark
+    @OperationsPerInvocation( VALUE_COUNT )
+    public long writeIntFastPath()
+            throws IOException
+    {
+        this.file.seek( 0 );
+        for ( int i = 0 ; i < VALUE_COUNT ; i++ )
+        {
+            this.file.writeInt( i );
+        }
+        return this.file.getFilePointer();
+    }
+
+    /**
+     * @return file pointer
+     * @throws IOException
+     */
+    @Benchmark
+    @OperationsPerInvocation( VALUE_COUNT )
+    public long writeIntPerByte()
+            throws IOException
+    {
+        this.file.seek( 0 );
+        for ( int i = 0 ; i < VALUE_COUNT ; i++ )
+        {
+            this.file.write( i >>> 24 );
+            this.file.write( i >>> 16 );
+            this.file.write( i >>>  8 );
+            this.file.write( i );
+        }
+        return this.file.getFilePointer();
+    }
+
+    /**
+     * @return sum of values
+     * @throws IOException
+     */
+    @Benchmark
+    @OperationsPerInvocation( VALUE_COUNT )
+    public long readIntFastPath()
+            throws IOException
+    {
+        this.file.seek( 0 );
+        long sum = 0;
+        for ( int i = 0 ; i < VALUE_COUNT ; i++ )
+        {
+            sum += this.file.readInt();
+        }
+        return sum;
+    }
+
+    /**
+     * @return sum of values
+     * @throws IOException
+     */
+    @Benchmark
+    @OperationsPerInvocation( VALUE_COUNT )
+    public long readIntPerByte()
+            throws IOException
+    {
+        this.file.seek( 0 );
+        long sum = 0;
+        for ( int i = 0 ; i < VALUE_COUNT ; i++ )
+        {
+            sum += ( this.file.read() << 24 ) + ( this.file.read() << 16 ) + ( this.file.read() << 8 ) + this.file.read();
+        }
+        return sum;
+    }
+
+    /**
+     * @return file pointer
+     * @throws IOException
+     */
+    @Benchmark
+    @OperationsPerInvocation( VALUE_COUNT )
+    public long writeLongFastPath()
+            throws IOException
+    {
+        this.file.seek( 0 );
+        for ( long i = 0 ; i < VALUE_COUNT ; i++ )
+        {
+            this.file.writeLong( i );
+        }
+        return this.file.getFilePointer();
+    }
+
+    /**
+     * @return file pointer
+     * @throws IOException
+     */
+    @Benchmark
+    @OperationsPerInvocation( VALUE_COUNT )
+    public long writeLongPerByte()
+            throws IOException
+    {
+        this.file.seek( 0 );
+        for ( long i = 0 ; i < VALUE_COUNT ; i++ )
+        {
+            for ( int shift = 56 ; shift >= 0 ; shift -= 8 )
+            {
+                this.file.write( (int) ( i >>> shift ) );
+            }
+        }
+        return this.file.getFilePointer();
+    }
+
+    /**
+     * @return sum of values
+     * @throws IOException
+     */
+    @Benchmark
+    @OperationsPerInvocation( VALUE_COUNT )
+    public long readLongFastPath()
+            throws IOException
+    {
+        this.file.seek( 0 );
+        long sum = 0;
+        for ( int i = 0 ; i < VALUE_COUNT ; i++ )
+        {
+            sum += this.file.readLong();
+        }
+        return sum;
+    }
+
+    /**
+     * @return sum of values
+     * @throws IOException
+     */
+    @Benchmark
+    @OperationsPerInvocation( VALUE_COUNT )
+    public long readLongPerByte()
+            throws IOException
+    {
+        this.file.seek( 0 );
+        long sum = 0;
+        for ( int i = 0 ; i < VALUE_COUNT ; i++ )
+        {
+            long v = 0;
+            for ( int b = 0 ; b < 8 ; b++ )
+            {
+                v = ( v << 8 ) | this.file.read();
+            }
+            sum += v;
+        }
+        return sum;
+    }
+
+    /**
+     * @return file pointer
+     * @throws IOException
+     */
+    @Benchmark
+    @OperationsPerInvocation( VALUE_COUNT )
+    public long writeIntsBulk()
+            throws IOException
+    {
+        this.file.seek( 0 );
+        this.file.writeInts( this.ints , 0 , VALUE_COUNT );
+        return this.file.getFilePointer();
+    }
+
+    /**
+     * @return last value
+     * @throws IOException
+     */
+    @Benchmark
+    @OperationsPerInvocation( VALUE_COUNT )
+    public int readIntsBulk()
+            throws IOException
+    {
+        this.file.seek( 0 );
+        this.file.readInts( this.ints , 0 , VALUE_COUNT );
+        return this.ints[ VALUE_COUNT - 1 ];
+    }
+
+}
@@ -0,0 +1,470 @@
+package de.heinerkuecker.random_access_file_fake.jmh;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileChannelImplementation;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileFake;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileInterface;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileMemoryMapped;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileOffHeapFake;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFilePagedFake;
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileRealImplementation;
+
+/**
+ * JMH benchmark of the implementations of
+ * {@link RandomAccessFileInterface}: random seek and read,
+ * positional read, sequential readInt and append,
+ * readLine, writeUTF and readUTF, setLength and
+ * sequential primitive writes.
+ * <br/><br/>
+ * The implementation "raf" is a raw {@link RandomAccessFile}
+ * without interface as baseline, its positional read
+ * uses the {@link FileChannel} of the file.
+ * The file consists of records of {@value #RECORD_LENGTH} bytes,
+ * each a string of writeUTF terminated by a line feed,
+ * for readLine and readUTF at the start of a record.
+ * <br/><br/>
+ * Each trial runs in its own forked JVM
+ * after warmup iterations.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5 , time = 1 )
+@Measurement( iterations = 5 , time = 1 )
+@Fork( 2 )
+public class RandomAccessFileJmhBenchmark
+{
+    /**
+     * Length of one read.
+     */
+    private static final int READ_LENGTH = 64;
+
+    /**
+     * Length of one record, two bytes length of writeUTF,
+     * the characters and a line feed.
+     */
+    private static final int RECORD_LENGTH = 64;
+
+    /**
+     * String of a record, written with writeUTF.
+     */
+    private static final String RECORD_STRING;
+
+    static
+    {
+        final char[] chars = new char[ RECORD_LENGTH - 3 ];
+        Arrays.fill( chars , 'a' );
+        RECORD_STRING = new String( chars );
+    }
+
+    /**
+     * Number of random positions, power of two.
+     */
+    private static final int POSITION_COUNT = 1024;
+
+    /**
+     * Implementation under test.
+     */
+    @Param( { "fake" , "paged" , "offheap" , "real" , "channel" , "mmap" , "raf" } )
+    public String implementation;
+
+    /**
+     * File size in bytes.
+     */
+    @Param( { "65536" , "1048576" } )
+    public int fileSize;
+
+    private File tempFile;
+
+    /**
+     * File under test, null for "raf".
+     */
+    private RandomAccessFileInterface file;
+
+    /**
+     * Raw file for "raf", otherwise null.
+     */
+    private RandomAccessFile raf;
+
+    private final byte[] buffer = new byte[ READ_LENGTH ];
+
+    /**
+     * Wrapper of {@link #buffer} for the positional read of "raf".
+     */
+    private final ByteBuffer byteBuffer = ByteBuffer.wrap( this.buffer );
+
+    private final long[] positions = new long[ POSITION_COUNT ];
+
+    private int positionIndex;
+
+    /**
+     * Next value of the primitive writes.
+     */
+    private int value;
+
+    /**
+     * Create and fill the file.
+     *
+     * @throws IOException
+     */
+    @Setup( Level.Trial )
+    public void setUp()
+            throws IOException
+    {
+        final byte[] content = new byte[ this.fileSize ];
+        for ( int pos = 0 ; pos < this.fileSize ; pos += RECORD_LENGTH )
+        {
+            content[ pos + 1 ] = (byte) RECORD_STRING.length();
+            Arrays.fill( content , pos + 2 , pos + RECORD_LENGTH - 1 , (byte) 'a' );
+            content[ pos + RECORD_LENGTH - 1 ] = '\n';
+        }
+
+        if ( "raf".equals( this.implementation ) )
+        {
+            this.tempFile = File.createTempFile( "RandomAccessFileJmhBenchmark" , ".bin" );
+            this.raf = new RandomAccessFile( this.tempFile , "rw" );
+            this.raf.write( content );
+        }
+        else
+        {
+            this.file = open();
+            this.file.write( content );
+        }
+
+        final Random random = new Random( 42 );
+        for ( int i = 0 ; i < POSITION_COUNT ; i++ )
+        {
+            this.positions[ i ] = random.nextInt( this.fileSize - READ_LENGTH );
+        }
+    }
+
+    /**
+     * Close and delete the file.
+     *
+     * @throws IOException
+     */
+    @TearDown( Level.Trial )
+    public void tearDown()
+            throws IOException
+    {
+        if ( this.raf != null )
+        {
+            this.raf.close();
+        }
+        else
+        {
+            this.file.close();
+        }
+
+        if ( this.tempFile != null )
+        {
+            this.tempFile.delete();
+        }
+    }
+
+    /**
+     * @return random seek and readFully
+     * @throws IOException
+     */
+    @Benchmark
+    public byte randomSeekRead()
+            throws IOException
+    {
+        if ( this.raf != null )
+        {
+            this.raf.seek( nextPosition() );
+            this.raf.readFully( this.buffer );
+        }
+        else
+        {
+            this.file.seek( nextPosition() );
+            this.file.readFully( this.buffer );
+        }
+        return this.buffer[ 0 ];
+    }
+
+    /**
+     * @return positional read
+     * @throws IOException
+     */
+    @Benchmark
+    public int randomReadAt()
+            throws IOException
+    {
+        if ( this.raf != null )
+        {
+            this.byteBuffer.clear();
+            return this.raf.getChannel().read( this.byteBuffer , nextPosition() );
+        }
+        return this.file.readAt( nextPosition() , this.buffer , 0 , this.buffer.length );
+    }
+
+    /**
+     * @return readInt, from start of file at end of file
+     * @throws IOException
+     */
+    @Benchmark
+    public int sequentialReadInt()
+            throws IOException
+    {
+        if ( this.raf != null )
+        {
+            if ( this.raf.getFilePointer() > this.fileSize - 4 )
+            {
+                this.raf.seek( 0 );
+            }
+            return this.raf.readInt();
+        }
+        if ( this.file.getFilePointer() > this.fileSize - 4 )
+        {
+            this.file.seek( 0 );
+        }
+        return this.file.readInt();
+    }
+
+    /**
+     * Write a record at the end of file,
+     * from start of file at twice the file size.
+     *
+     * @throws IOException
+     */
+    @Benchmark
+    public void sequentialAppend()
+            throws IOException
+    {
+        if ( this.raf != null )
+        {
+            if ( this.raf.getFilePointer() > 2L * this.fileSize )
+            {
+                this.raf.seek( 0 );
+            }
+            this.raf.write( this.buffer );
+            return;
+        }
+        if ( this.file.getFilePointer() > 2L * this.fileSize )
+        {
+            this.file.seek( 0 );
+        }
+        this.file.write( this.buffer );
+    }
+
+    /**
+     * @return readLine of a record at a random position
+     * @throws IOException
+     */
+    @Benchmark
+    public String randomReadLine()
+            throws IOException
+    {
+        if ( this.raf != null )
+        {
+            this.raf.seek( nextRecordPosition() );
+            return this.raf.readLine();
+        }
+        this.file.seek( nextRecordPosition() );
+        return this.file.readLine();
+    }
+
+    /**
+     * @return readUTF of a record at a random position
+     * @throws IOException
+     */
+    @Benchmark
+    public String randomReadUTF()
+            throws IOException
+    {
+        if ( this.raf != null )
+        {
+            this.raf.seek( nextRecordPosition() );
+            return this.raf.readUTF();
+        }
+        this.file.seek( nextRecordPosition() );
+        return this.file.readUTF();
+    }
+
+    /**
+     * writeUTF of a record at a random position,
+     * the content of the file stays the same.
+     *
+     * @throws IOException
+     */
+    @Benchmark
+    public void randomWriteUTF()
+            throws IOException
+    {
+        if ( this.raf != null )
+        {
+            this.raf.seek( nextRecordPosition() );
+            this.raf.writeUTF( RECORD_STRING );
+            return;
+        }
+        this.file.seek( nextRecordPosition() );
+        this.file.writeUTF( RECORD_STRING );
+    }
+
+    /**
+     * Extend the file by one record
+     * and truncate it again in the next call.
+     *
+     * @return new length
+     * @throws IOException
+     */
+    @Benchmark
+    public long setLength()
+            throws IOException
+    {
+        if ( this.raf != null )
+        {
+            final long newLength = this.raf.length() == this.fileSize ? this.fileSize + RECORD_LENGTH : this.fileSize;
+            this.raf.setLength( newLength );
+            return newLength;
+        }
+        final long newLength = this.file.length() == this.fileSize ? this.fileSize + RECORD_LENGTH : this.fileSize;
+        this.file.setLength( newLength );
+        return newLength;
+    }
+
+    /**
+     * writeInt, from start of file at end of file.
+     *
+     * @throws IOException
+     */
+    @Benchmark
+    public void sequentialWriteInt()
+            throws IOException
+    {
+        if ( this.raf != null )
+        {
+            if ( this.raf.getFilePointer() > this.fileSize - 4 )
+            {
+                this.raf.seek( 0 );
+            }
+            this.raf.writeInt( this.value++ );
+            return;
+        }
+        if ( this.file.getFilePointer() > this.fileSize - 4 )
+        {
+            this.file.seek( 0 );
+        }
+        this.file.writeInt( this.value++ );
+    }
+
+    /**
+     * writeLong, from start of file at end of file.
+     *
+     * @throws IOException
+     */
+    @Benchmark
+    public void sequentialWriteLong()
+            throws IOException
+    {
+        if ( this.raf != null )
+        {
+            if ( this.raf.getFilePointer() > this.fileSize - 8 )
+            {
+                this.raf.seek( 0 );
+            }
+            this.raf.writeLong( this.value++ );
+            return;
+        }
+        if ( this.file.getFilePointer() > this.fileSize - 8 )
+        {
+            this.file.seek( 0 );
+        }
+        this.file.writeLong( this.value++ );
+    }
+
+    /**
+     * writeDouble, from start of file at end of file.
+     *
+     * @throws IOException
+     */
+    @Benchmark
+    public void sequentialWriteDouble()
+            throws IOException
+    {
+        if ( this.raf != null )
+        {
+            if ( this.raf.getFilePointer() > this.fileSize - 8 )
+            {
+                this.raf.seek( 0 );
+            }
+            this.raf.writeDouble( this.value++ );
+            return;
+        }
+        if ( this.file.getFilePointer() > this.fileSize - 8 )
+        {
+            this.file.seek( 0 );
+        }
+        this.file.writeDouble( this.value++ );
+    }
+
+    private long nextPosition()
+    {
+        return this.positions[ this.positionIndex++ & ( POSITION_COUNT - 1 ) ];
+    }
+
+    /**
+     * @return start of the record at the next random position
+     */
+    private long nextRecordPosition()
+    {
+        return nextPosition() & -RECORD_LENGTH;
+    }
+
+    /**
+     * @return new opened file of the implementation under test
+     * @throws IOException
+     */
+    private RandomAccessFileInterface open()
+            throws IOException
+    {
+        switch ( this.implementation )
+        {
+            case "fake" :
+                final RandomAccessFileFake fake = new RandomAccessFileFake();
+                fake.open();
+                return fake;
+            case "paged" :
+                final RandomAccessFilePagedFake paged = new RandomAccessFilePagedFake();
+                paged.open();
+                return paged;
+            case "offheap" :
+                return new RandomAccessFileOffHeapFake();
+            case "real" :
+                this.tempFile = File.createTempFile( "RandomAccessFileJmhBenchmark" , ".bin" );
+                return new RandomAccessFileRealImplementation( this.tempFile , "rw" );
+            case "channel" :
+                this.tempFile = File.createTempFile( "RandomAccessFileJmhBenchmark" , ".bin" );
+                return new RandomAccessFileChannelImplementation( this.tempFile , "rw" );
+            case "mmap" :
+                this.tempFile = File.createTempFile( "RandomAccessFileJmhBenchmark" , ".bin" );
+                return new RandomAccessFileMemoryMapped( this.tempFile , "rw" );
+            default :
+                throw new IllegalArgumentException( this.implementation );
+        }
+    }
+
+}
@@ -0,0 +1,148 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous positional reads and writes, the
+ * caller gets a {@link CompletableFuture} and is not
+ * blocked, so many independent reads can be in flight
+ * with fewer threads than reads (I/O depth).
+ * <br/><br/>
+ * Implementations:
+ * <ul>
+ * <li>{@link AsyncRandomAccessFileChannel} on
+ *     {@link java.nio.channels.AsynchronousFileChannel}
+ *     for real files</li>
+ * <li>{@link AsyncRandomAccessFileAdapter} on any
+ *     {@link RandomAccessFileInterface} with an executor,
+ *     for example for the fakes</li>
+ * </ul>
+ * Each operation transfers the remaining bytes of the buffer
+ * completely, a read stops only at the end of the file.
+ * The buffer must not be used until the future is completed.
+ */
+public interface AsyncRandomAccessFile
+extends Closeable
+{
+    /**
+     * Read the remaining bytes of the buffer
+     * starting at the position of the file.
+     *
+     * @param position position in the file at which the read starts
+     * @param buffer buffer to read into, position advances by the read bytes
+     * @return future of the number of read bytes, -1 if the position
+     *         is at or behind the end of the file, or the {@link IOException}
+     */
+    CompletableFuture<Integer> readAsync(
+            final long position ,
+            final ByteBuffer buffer );
+
+    /**
+     * Write the remaining bytes of the buffer
+     * starting at the position of the file,
+     * the file grows if necessary.
+     *
+     * @param position position in the file at which the write starts
+     * @param buffer buffer to write, position advances to the limit
+     * @return future of the number of written bytes, or the {@link IOException}
+     */
+    CompletableFuture<Integer> writeAsync(
+            final long position ,
+            final ByteBuffer buffer );
+
+    /**
+     * Submit a batch of reads at once.
+     *
+     * @param positions positions in the file at which the reads start
+     * @param buffers buffers to read into, same length as positions
+     * @return future completed when all reads are completed with the
+     *         number of read bytes per read, or with the first failure
+     */
+    default CompletableFuture<int[]> readBatchAsync(
+            final long[] positions ,
+            final ByteBuffer[] buffers )
+    {
+        checkBatch( positions , buffers );
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final CompletableFuture<Integer>[] futures = new CompletableFuture[ positions.length ];
+
+        for ( int i = 0 ; i < positions.length ; i++ )
+        {
+            futures[ i ] = readAsync( positions[ i ] , buffers[ i ] );
+        }
+
+        return joinBatch( futures );
+    }
+
+    /**
+     * Submit a batch of writes at once.
+     *
+     * @param positions positions in the file at which the writes start
+     * @param buffers buffers to write, same length as positions
+     * @return future completed when all writes are completed with the
+     *         number of written bytes per write, or with the first failure
+     */
+    default CompletableFuture<int[]> writeBatchAsync(
+            final long[] positions ,
+            final ByteBuffer[] buffers )
+    {
+        checkBatch( positions , buffers );
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final CompletableFuture<Integer>[] futures = new CompletableFuture[ positions.length ];
+
+        for ( int i = 0 ; i < positions.length ; i++ )
+        {
+            futures[ i ] = writeAsync( positions[ i ] , buffers[ i ] );
+        }
+
+        return joinBatch( futures );
+    }
+
+    /**
+     * @return the current size of the file
+     * @throws IOException if the file is closed or an I/O error occurs
+     */
+    long size()
+            throws IOException;
+
+    /**
+     * @param positions positions of a batch
+     * @param buffers buffers of a batch
+     * @throws IllegalArgumentException if the lengths are different
+     */
+    static void checkBatch(
+            final long[] positions ,
+            final ByteBuffer[] buffers )
+    {
+        if ( positions.length != buffers.length )
+        {
+            throw new IllegalArgumentException(
+                    "positions and buffers of different length: " +
+                    positions.length + " " + buffers.length );
+        }
+    }
+
+    /**
+     * @param futures futures of a batch
+     * @return future of the results of all futures
+     */
+    static CompletableFuture<int[]> joinBatch(
+            final CompletableFuture<Integer>[] futures )
+    {
+        return CompletableFuture.allOf( futures ).thenApply(
+                ignored -> {
+                    final int[] results = new int[ futures.length ];
+                    for ( int i = 0 ; i < futures.length ; i++ )
+                    {
+                        results[ i ] = futures[ i ].join();
+                    }
+                    return results;
+                } );
+    }
+
+}
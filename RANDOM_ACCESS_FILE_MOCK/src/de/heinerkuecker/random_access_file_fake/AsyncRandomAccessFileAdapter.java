@@ -0,0 +1,239 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link AsyncRandomAccessFile} on any {@link RandomAccessFileInterface},
+ * the operations run as tasks of an {@link Executor} with
+ * {@link RandomAccessFileInterface#readAt(long, byte[], int, int)} and
+ * {@link RandomAccessFileInterface#writeAt(long, byte[], int, int)},
+ * the file pointer is not used.
+ * <br/><br/>
+ * With a thread pool the file must allow concurrent positional
+ * access, like {@link RandomAccessFileConcurrentFake} and
+ * {@link RandomAccessFileRealImplementation}; for the other
+ * fakes use a single thread executor. The I/O depth is the
+ * number of submitted operations, not the number of threads.
+ */
+public class AsyncRandomAccessFileAdapter
+implements AsyncRandomAccessFile
+{
+    /**
+     * The file.
+     */
+    private final RandomAccessFileInterface file;
+
+    /**
+     * Executor of the operations.
+     */
+    private final Executor executor;
+
+    /**
+     * Constructor.
+     *
+     * @param file opened file, closed by {@link #close()}
+     * @param executor executor of the operations, not shut down by {@link #close()}
+     */
+    public AsyncRandomAccessFileAdapter(
+            final RandomAccessFileInterface file ,
+            final Executor executor )
+    {
+        this.file = file;
+        this.executor = executor;
+    }
+
+    /**
+     * Read the remaining bytes of the buffer
+     * starting at the position of the file.
+     *
+     * @param position position in the file at which the read starts
+     * @param buffer buffer to read into, position advances by the read bytes
+     * @return future of the number of read bytes, -1 if the position
+     *         is at or behind the end of the file, or the {@link IOException}
+     */
+    @Override
+    public CompletableFuture<Integer> readAsync(
+            final long position ,
+            final ByteBuffer buffer )
+    {
+        final CompletableFuture<Integer> future = new CompletableFuture<>();
+
+        try
+        {
+            this.executor.execute(
+                    () -> {
+                        try
+                        {
+                            future.complete( read( position , buffer ) );
+                        }
+                        catch ( final IOException | RuntimeException e )
+                        {
+                            future.completeExceptionally( e );
+                        }
+                    } );
+        }
+        catch ( final RuntimeException e )
+        {
+            // for example RejectedExecutionException after close
+            future.completeExceptionally( e );
+        }
+
+        return future;
+    }
+
+    /**
+     * Write the remaining bytes of the buffer
+     * starting at the position of the file,
+     * the file grows if necessary.
+     *
+     * @param position position in the file at which the write starts
+     * @param buffer buffer to write, position advances to the limit
+     * @return future of the number of written bytes, or the {@link IOException}
+     */
+    @Override
+    public CompletableFuture<Integer> writeAsync(
+            final long position ,
+            final ByteBuffer buffer )
+    {
+        final CompletableFuture<Integer> future = new CompletableFuture<>();
+
+        try
+        {
+            this.executor.execute(
+                    () -> {
+                        try
+                        {
+                            future.complete( write( position , buffer ) );
+                        }
+                        catch ( final IOException | RuntimeException e )
+                        {
+                            future.completeExceptionally( e );
+                        }
+                    } );
+        }
+        catch ( final RuntimeException e )
+        {
+            // for example RejectedExecutionException after close
+            future.completeExceptionally( e );
+        }
+
+        return future;
+    }
+
+    /**
+     * @return the current size of the file
+     * @throws IOException if the file is closed or an I/O error occurs
+     */
+    @Override
+    public long size()
+            throws IOException
+    {
+        return this.file.length();
+    }
+
+    /**
+     * Close the file, submitted operations
+     * not yet started fail.
+     *
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void close()
+            throws IOException
+    {
+        this.file.close();
+    }
+
+    /**
+     * Synchronous read for the task.
+     */
+    private int read(
+            final long position ,
+            final ByteBuffer buffer )
+            throws IOException
+    {
+        final int len = buffer.remaining();
+
+        final byte[] array;
+        final int off;
+        if ( buffer.hasArray() )
+        {
+            array = buffer.array();
+            off = buffer.arrayOffset() + buffer.position();
+        }
+        else
+        {
+            array = new byte[ len ];
+            off = 0;
+        }
+
+        int total = 0;
+        while ( total < len )
+        {
+            final int lengthRead =
+                    this.file.readAt(
+                            position + total ,
+                            array ,
+                            off + total ,
+                            len - total );
+
+            if ( lengthRead < 0 )
+            {
+                // end of file
+                break;
+            }
+
+            total += lengthRead;
+        }
+
+        if ( buffer.hasArray() )
+        {
+            buffer.position( buffer.position() + total );
+        }
+        else
+        {
+            buffer.put( array , 0 , total );
+        }
+
+        return total == 0 && len > 0 ? -1 : total;
+    }
+
+    /**
+     * Synchronous write for the task.
+     */
+    private int write(
+            final long position ,
+            final ByteBuffer buffer )
+            throws IOException
+    {
+        final int len = buffer.remaining();
+
+        if ( buffer.hasArray() )
+        {
+            this.file.writeAt(
+                    position ,
+                    buffer.array() ,
+                    buffer.arrayOffset() + buffer.position() ,
+                    len );
+
+            buffer.position( buffer.limit() );
+        }
+        else
+        {
+            final byte[] array = new byte[ len ];
+            buffer.get( array );
+
+            this.file.writeAt(
+                    position ,
+                    array ,
+                    0 ,
+                    len );
+        }
+
+        return len;
+    }
+
+}
@@ -0,0 +1,295 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * {@link AsyncRandomAccessFile} for real files on
+ * {@link AsynchronousFileChannel}, the operations are
+ * submitted without a waiting thread per operation.
+ * <br/><br/>
+ * A partial transfer of the channel is continued in the
+ * completion handler until the buffer is transferred.
+ * Thread-safe.
+ */
+public class AsyncRandomAccessFileChannel
+implements AsyncRandomAccessFile
+{
+    /**
+     * The channel.
+     */
+    private final AsynchronousFileChannel channel;
+
+    /**
+     * Constructor with the default thread pool of the channel.
+     *
+     * @param file the file object
+     * @param mode the access mode "r", "rw", "rws" or "rwd",
+     *             like {@link java.io.RandomAccessFile#RandomAccessFile(File, String)}
+     * @throws IOException if the file cannot be opened
+     */
+    public AsyncRandomAccessFileChannel(
+            final File file ,
+            final String mode )
+            throws IOException
+    {
+        this( file , mode , null );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param file the file object
+     * @param mode the access mode "r", "rw", "rws" or "rwd",
+     *             like {@link java.io.RandomAccessFile#RandomAccessFile(File, String)}
+     * @param executor thread pool for the completion handlers, {@code null} for the default pool
+     * @throws IOException if the file cannot be opened
+     */
+    public AsyncRandomAccessFileChannel(
+            final File file ,
+            final String mode ,
+            final ExecutorService executor )
+            throws IOException
+    {
+        this.channel =
+                AsynchronousFileChannel.open(
+                        file.toPath() ,
+                        FileModes.openOptions( mode ) ,
+                        executor );
+    }
+
+    /**
+     * Read the remaining bytes of the buffer
+     * starting at the position of the file.
+     *
+     * @param position position in the file at which the read starts
+     * @param buffer buffer to read into, position advances by the read bytes
+     * @return future of the number of read bytes, -1 if the position
+     *         is at or behind the end of the file, or the {@link IOException}
+     */
+    @Override
+    public CompletableFuture<Integer> readAsync(
+            final long position ,
+            final ByteBuffer buffer )
+    {
+        final CompletableFuture<Integer> future = new CompletableFuture<>();
+
+        if ( position < 0L )
+        {
+            future.completeExceptionally( new IOException( "Negative position" ) );
+            return future;
+        }
+
+        read(
+                position ,
+                buffer ,
+                0 ,
+                future );
+
+        return future;
+    }
+
+    /**
+     * Write the remaining bytes of the buffer
+     * starting at the position of the file,
+     * the file grows if necessary.
+     *
+     * @param position position in the file at which the write starts
+     * @param buffer buffer to write, position advances to the limit
+     * @return future of the number of written bytes, or the {@link IOException}
+     */
+    @Override
+    public CompletableFuture<Integer> writeAsync(
+            final long position ,
+            final ByteBuffer buffer )
+    {
+        final CompletableFuture<Integer> future = new CompletableFuture<>();
+
+        if ( position < 0L )
+        {
+            future.completeExceptionally( new IOException( "Negative position" ) );
+            return future;
+        }
+
+        write(
+                position ,
+                buffer ,
+                0 ,
+                future );
+
+        return future;
+    }
+
+    /**
+     * Start the read of the remaining bytes of the buffer,
+     * continued in the completion handler after a partial read.
+     * An unchecked exception of the channel, for example
+     * {@link java.nio.channels.NonReadableChannelException},
+     * completes the future instead of the handler.
+     *
+     * @param position position in the file at which the read of the buffer starts
+     * @param buffer buffer to read into
+     * @param lengthDone number of bytes already read into the buffer
+     * @param future future of the number of read bytes
+     */
+    private void read(
+            final long position ,
+            final ByteBuffer buffer ,
+            final int lengthDone ,
+            final CompletableFuture<Integer> future )
+    {
+        try
+        {
+            this.channel.read(
+                    buffer ,
+                    position + lengthDone ,
+                    lengthDone ,
+                    new CompletionHandler<Integer, Integer>()
+                    {
+                        @Override
+                        public void completed(
+                                final Integer lengthRead ,
+                                final Integer totalLengthRead )
+                        {
+                            if ( lengthRead < 0 )
+                            {
+                                // end of file
+                                future.complete( totalLengthRead == 0 ? -1 : totalLengthRead );
+                            }
+                            else if ( ! buffer.hasRemaining() )
+                            {
+                                future.complete( totalLengthRead + lengthRead );
+                            }
+                            else
+                            {
+                                // partial read, continue
+                                read(
+                                        position ,
+                                        buffer ,
+                                        totalLengthRead + lengthRead ,
+                                        future );
+                            }
+                        }
+
+                        @Override
+                        public void failed(
+                                final Throwable exc ,
+                                final Integer totalLengthRead )
+                        {
+                            future.completeExceptionally( exc );
+                        }
+                    } );
+        }
+        catch ( final RuntimeException e )
+        {
+            future.completeExceptionally( e );
+        }
+    }
+
+    /**
+     * Start the write of the remaining bytes of the buffer,
+     * continued in the completion handler after a partial write.
+     * An unchecked exception of the channel, for example
+     * {@link java.nio.channels.NonWritableChannelException},
+     * completes the future instead of the handler.
+     *
+     * @param position position in the file at which the write of the buffer starts
+     * @param buffer buffer to write
+     * @param lengthDone number of bytes of the buffer already written
+     * @param future future of the number of written bytes
+     */
+    private void write(
+            final long position ,
+            final ByteBuffer buffer ,
+            final int lengthDone ,
+            final CompletableFuture<Integer> future )
+    {
+        try
+        {
+            this.channel.write(
+                    buffer ,
+                    position + lengthDone ,
+                    lengthDone ,
+                    new CompletionHandler<Integer, Integer>()
+                    {
+                        @Override
+                        public void completed(
+                                final Integer lengthWritten ,
+                                final Integer totalLengthWritten )
+                        {
+                            final int total = totalLengthWritten + lengthWritten;
+
+                            if ( ! buffer.hasRemaining() )
+                            {
+                                future.complete( total );
+                            }
+                            else
+                            {
+                                // partial write, continue
+                                write(
+                                        position ,
+                                        buffer ,
+                                        total ,
+                                        future );
+                            }
+                        }
+
+                        @Override
+                        public void failed(
+                                final Throwable exc ,
+                                final Integer totalLengthWritten )
+                        {
+                            future.completeExceptionally( exc );
+                        }
+                    } );
+        }
+        catch ( final RuntimeException e )
+        {
+            future.completeExceptionally( e );
+        }
+    }
+
+    /**
+     * @return the current size of the file
+     * @throws IOException if the file is closed or an I/O error occurs
+     */
+    @Override
+    public long size()
+            throws IOException
+    {
+        return this.channel.size();
+    }
+
+    /**
+     * Forces any updates of the file to be written to the storage device,
+     * see {@link AsynchronousFileChannel#force(boolean)}.
+     *
+     * @param metaData {@code true} to write also the file metadata
+     * @throws IOException if the file is closed or an I/O error occurs
+     */
+    public void force(
+            final boolean metaData )
+            throws IOException
+    {
+        this.channel.force( metaData );
+    }
+
+    /**
+     * Close the channel, pending operations
+     * complete with {@link java.nio.channels.AsynchronousCloseException}.
+     *
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void close()
+            throws IOException
+    {
+        this.channel.close();
+    }
+
+}
@@ -0,0 +1,106 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reusable view of a range of bytes as {@link CharSequence},
+ * each byte is a character with the high eight bits zero,
+ * like in {@link RandomAccessFileInterface#readLine()}.
+ * <br/><br/>
+ * Filled by {@link RandomAccessFileFake#readLine(ByteSlice)}
+ * without copy and without allocation. The content is only
+ * valid until the next change of the file.
+ */
+public final class ByteSlice
+implements CharSequence
+{
+    /**
+     * Backing array.
+     */
+    private byte[] array = new byte[ 0 ];
+
+    /**
+     * Start of range in {@link #array}.
+     */
+    private int offset;
+
+    /**
+     * Length of range.
+     */
+    private int length;
+
+    /**
+     * Set the range.
+     *
+     * @param array backing array
+     * @param offset start of range
+     * @param length length of range
+     */
+    void set(
+            final byte[] array ,
+            final int offset ,
+            final int length )
+    {
+        this.array = array;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * @return backing array, not a copy
+     */
+    public byte[] array()
+    {
+        return this.array;
+    }
+
+    /**
+     * @return start of range in {@link #array()}
+     */
+    public int offset()
+    {
+        return this.offset;
+    }
+
+    /**
+     * @return length of range
+     */
+    @Override
+    public int length()
+    {
+        return this.length;
+    }
+
+    @Override
+    public char charAt(
+            final int index )
+    {
+        if ( index < 0 || index >= this.length )
+        {
+            throw new IndexOutOfBoundsException( String.valueOf( index ) );
+        }
+        return (char) ( this.array[ this.offset + index ] & 0xFF );
+    }
+
+    @Override
+    public CharSequence subSequence(
+            final int start ,
+            final int end )
+    {
+        if ( start < 0 || end > this.length || start > end )
+        {
+            throw new IndexOutOfBoundsException( start + " " + end );
+        }
+        return new String( this.array , this.offset + start , end - start , StandardCharsets.ISO_8859_1 );
+    }
+
+    /**
+     * @return copy of range as {@link String}
+     */
+    @Override
+    public String toString()
+    {
+        return new String( this.array , this.offset , this.length , StandardCharsets.ISO_8859_1 );
+    }
+
+}
@@ -0,0 +1,144 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * CLOCK (second chance) {@link PageEvictionPolicy}.
+ * <br/><br/>
+ * Approximates LRU with a reference bit per slot,
+ * an access only sets the bit, so it is cheaper
+ * than {@link LruPageEvictionPolicy} on hits.
+ */
+public class ClockPageEvictionPolicy
+implements PageEvictionPolicy
+{
+    /**
+     * Marker for a free slot.
+     */
+    private static final long FREE = -1L;
+
+    /**
+     * Page index per slot, {@link #FREE} for free slot.
+     */
+    private final long[] slotPages;
+
+    /**
+     * Reference bit per slot.
+     */
+    private final boolean[] referenced;
+
+    /**
+     * Slot per page index.
+     */
+    private final HashMap<Long, Integer> slotOfPage;
+
+    /**
+     * Stack of free slots.
+     */
+    private final int[] freeSlots;
+
+    /**
+     * Number of free slots in {@link #freeSlots}.
+     */
+    private int freeSlotCount;
+
+    /**
+     * Position of clock hand.
+     */
+    private int hand;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity maximum number of pages in pool
+     */
+    public ClockPageEvictionPolicy(
+            final int capacity )
+    {
+        this.slotPages = new long[ capacity ];
+        Arrays.fill( this.slotPages , FREE );
+        this.referenced = new boolean[ capacity ];
+        this.slotOfPage = new HashMap<>( capacity * 4 / 3 + 1 );
+        this.freeSlots = new int[ capacity ];
+        for ( int slot = 0 ; slot < capacity ; slot++ )
+        {
+            this.freeSlots[ slot ] = capacity - 1 - slot;
+        }
+        this.freeSlotCount = capacity;
+    }
+
+    @Override
+    public void pageInserted(
+            final long pageIndex )
+    {
+        if ( this.freeSlotCount == 0 )
+        {
+            throw new IllegalStateException( "no free slot for page " + pageIndex );
+        }
+
+        final int slot = this.freeSlots[ --this.freeSlotCount ];
+        this.slotPages[ slot ] = pageIndex;
+        this.referenced[ slot ] = true;
+        this.slotOfPage.put( pageIndex , slot );
+    }
+
+    @Override
+    public void pageAccessed(
+            final long pageIndex )
+    {
+        final Integer slot = this.slotOfPage.get( pageIndex );
+        if ( slot != null )
+        {
+            this.referenced[ slot ] = true;
+        }
+    }
+
+    @Override
+    public void pageRemoved(
+            final long pageIndex )
+    {
+        final Integer slot = this.slotOfPage.remove( pageIndex );
+        if ( slot != null )
+        {
+            this.slotPages[ slot ] = FREE;
+            this.referenced[ slot ] = false;
+            this.freeSlots[ this.freeSlotCount++ ] = slot;
+        }
+    }
+
+    @Override
+    public long evict()
+    {
+        if ( this.slotOfPage.isEmpty() )
+        {
+            throw new IllegalStateException( "no page to evict" );
+        }
+
+        // at most two rounds, first round clears reference bits
+        while ( true )
+        {
+            final int slot = this.hand;
+            this.hand = ( this.hand + 1 ) % this.slotPages.length;
+
+            final long pageIndex = this.slotPages[ slot ];
+            if ( pageIndex == FREE )
+            {
+                continue;
+            }
+
+            if ( this.referenced[ slot ] )
+            {
+                // second chance
+                this.referenced[ slot ] = false;
+                continue;
+            }
+
+            this.slotPages[ slot ] = FREE;
+            this.slotOfPage.remove( pageIndex );
+            this.freeSlots[ this.freeSlotCount++ ] = slot;
+            return pageIndex;
+        }
+    }
+
+}
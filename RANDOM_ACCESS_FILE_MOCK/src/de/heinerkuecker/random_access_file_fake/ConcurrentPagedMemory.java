@@ -0,0 +1,627 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread-safe paged memory for
+ * {@link RandomAccessFileConcurrentFake}.
+ * <br/><br/>
+ * Like {@link PagedMemory} the content is stored in
+ * fixed-size pages addressed by long offset. The pages
+ * are guarded by striped {@link StampedLock}s: reads copy
+ * optimistic and only take the read lock on conflict,
+ * writes take the write locks of the stripes of all their
+ * pages and grow the length before the locks are released.
+ * {@link #setLength(long)} takes the write locks of all
+ * stripes, so writes and length changes are linearizable.
+ * <br/><br/>
+ * The page table has two levels of fixed size, so it
+ * never needs to be copied or locked on growth.
+ * Pages are allocated on write only, unwritten pages
+ * are read as zero bytes.
+ */
+public class ConcurrentPagedMemory
+{
+    /**
+     * Default number of lock stripes.
+     */
+    public static final int DEFAULT_STRIPE_COUNT = 64;
+
+    /**
+     * Number of bits of page index in segment.
+     */
+    private static final int SEGMENT_SHIFT = 10;
+
+    /**
+     * Number of pages in one segment of page table.
+     */
+    private static final int SEGMENT_LENGTH = 1 << SEGMENT_SHIFT;
+
+    /**
+     * Mask to get index of page in segment.
+     */
+    private static final int SEGMENT_MASK = SEGMENT_LENGTH - 1;
+
+    /**
+     * Number of segments in page table directory.
+     */
+    private static final int DIRECTORY_LENGTH = 1 << 16;
+
+    /**
+     * Size of one page in bytes, power of two.
+     */
+    private final int pageSize;
+
+    /**
+     * Number of bits to shift a position
+     * to get the page index.
+     */
+    private final int pageShift;
+
+    /**
+     * Mask to get the offset in page
+     * from a position.
+     */
+    private final int pageMask;
+
+    /**
+     * Directory of page table segments,
+     * segments are created on first write.
+     */
+    private final AtomicReferenceArray<AtomicReferenceArray<byte[]>> directory =
+            new AtomicReferenceArray<>( DIRECTORY_LENGTH );
+
+    /**
+     * Lock stripes, page index modulo stripe count.
+     */
+    private final StampedLock[] stripes;
+
+    /**
+     * Logical length of memory.
+     */
+    private final AtomicLong length = new AtomicLong();
+
+    /**
+     * Number of allocated pages.
+     */
+    private final AtomicLong allocatedPageCount = new AtomicLong();
+
+    /**
+     * Constructor with {@link PagedMemory#DEFAULT_PAGE_SIZE}
+     * and {@link #DEFAULT_STRIPE_COUNT}.
+     */
+    public ConcurrentPagedMemory()
+    {
+        this(
+                PagedMemory.DEFAULT_PAGE_SIZE ,
+                DEFAULT_STRIPE_COUNT );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pageSize size of one page in bytes, must be a power of two
+     * @param stripeCount number of lock stripes, must be a power of two
+     */
+    public ConcurrentPagedMemory(
+            final int pageSize ,
+            final int stripeCount )
+    {
+        if ( pageSize < 1 || Integer.bitCount( pageSize ) != 1 )
+        {
+            throw new IllegalArgumentException( "page size is not a power of two: " + pageSize );
+        }
+
+        if ( stripeCount < 1 || Integer.bitCount( stripeCount ) != 1 )
+        {
+            throw new IllegalArgumentException( "stripe count is not a power of two: " + stripeCount );
+        }
+
+        this.pageSize = pageSize;
+        this.pageShift = Integer.numberOfTrailingZeros( pageSize );
+        this.pageMask = pageSize - 1;
+
+        this.stripes = new StampedLock[ stripeCount ];
+        for ( int i = 0 ; i < stripeCount ; i++ )
+        {
+            this.stripes[ i ] = new StampedLock();
+        }
+    }
+
+    /**
+     * @return size of one page in bytes
+     */
+    public int pageSize()
+    {
+        return this.pageSize;
+    }
+
+    /**
+     * @return logical length of memory in bytes
+     */
+    public long length()
+    {
+        return this.length.get();
+    }
+
+    /**
+     * Heap bytes allocated for pages.
+     *
+     * @return allocated size in bytes
+     */
+    public long allocatedSize()
+    {
+        return this.allocatedPageCount.get() * this.pageSize;
+    }
+
+    /**
+     * Set the logical length of memory.
+     * The content of an extended range is zero bytes.
+     * Takes the write locks of all stripes.
+     *
+     * @param newLength the new length
+     */
+    public void setLength(
+            final long newLength )
+    {
+        if ( newLength < 0L )
+        {
+            throw new IllegalArgumentException( "Negative length " + newLength );
+        }
+
+        checkPageIndex( newLength >>> this.pageShift );
+
+        final long[] stamps = new long[ this.stripes.length ];
+        for ( int i = 0 ; i < this.stripes.length ; i++ )
+        {
+            stamps[ i ] = this.stripes[ i ].writeLock();
+        }
+        try
+        {
+            final long oldLength = this.length.get();
+
+            if ( newLength < oldLength )
+            {
+                shrink( oldLength , newLength );
+            }
+
+            this.length.set( newLength );
+        }
+        finally
+        {
+            for ( int i = 0 ; i < this.stripes.length ; i++ )
+            {
+                this.stripes[ i ].unlockWrite( stamps[ i ] );
+            }
+        }
+    }
+
+    /**
+     * Read one byte.
+     *
+     * @param pos position in memory
+     * @return the byte in range 0 to 255 or -1 at end of memory
+     */
+    public int read(
+            final long pos )
+    {
+        if ( pos >= this.length.get() )
+        {
+            return -1;
+        }
+
+        final long pageIndex = pos >>> this.pageShift;
+        final int offsetInPage = (int) pos & this.pageMask;
+        final StampedLock stripe = stripe( pageIndex );
+
+        long stamp = stripe.tryOptimisticRead();
+        byte[] page = page( pageIndex );
+        int b = page == null ? 0 : page[ offsetInPage ] & 0xFF;
+
+        if ( ! stripe.validate( stamp ) )
+        {
+            stamp = stripe.readLock();
+            try
+            {
+                page = page( pageIndex );
+                b = page == null ? 0 : page[ offsetInPage ] & 0xFF;
+            }
+            finally
+            {
+                stripe.unlockRead( stamp );
+            }
+        }
+
+        return b;
+    }
+
+    /**
+     * Read up to {@code len} bytes into the specified array.
+     *
+     * @param pos position in memory
+     * @param b the destination array
+     * @param off start offset in destination array
+     * @param len maximum number of bytes to read
+     * @return number of bytes read or -1 at end of memory
+     */
+    public int read(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+    {
+        if ( off < 0 || len < 0 || len > b.length - off )
+        {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if ( len == 0 )
+        {
+            return 0;
+        }
+
+        final long currentLength = this.length.get();
+
+        if ( pos >= currentLength )
+        {
+            return -1;
+        }
+
+        final int lengthToRead = (int) Math.min( len , currentLength - pos );
+
+        int done = 0;
+        while ( done < lengthToRead )
+        {
+            final long currentPos = pos + done;
+            final long pageIndex = currentPos >>> this.pageShift;
+            final int offsetInPage = (int) currentPos & this.pageMask;
+            final int chunk = Math.min( lengthToRead - done , this.pageSize - offsetInPage );
+            final StampedLock stripe = stripe( pageIndex );
+
+            long stamp = stripe.tryOptimisticRead();
+            copyFromPage( pageIndex , offsetInPage , b , off + done , chunk );
+
+            if ( ! stripe.validate( stamp ) )
+            {
+                stamp = stripe.readLock();
+                try
+                {
+                    copyFromPage( pageIndex , offsetInPage , b , off + done , chunk );
+                }
+                finally
+                {
+                    stripe.unlockRead( stamp );
+                }
+            }
+
+            done += chunk;
+        }
+
+        return lengthToRead;
+    }
+
+    /**
+     * Write one byte, the memory grows
+     * if the position is behind the end.
+     *
+     * @param pos position in memory
+     * @param b the byte to write
+     */
+    public void write(
+            final long pos ,
+            final int b )
+    {
+        final long pageIndex = pos >>> this.pageShift;
+        checkPageIndex( pageIndex );
+
+        final StampedLock stripe = stripe( pageIndex );
+        final long stamp = stripe.writeLock();
+        try
+        {
+            writablePage( pageIndex )[ (int) pos & this.pageMask ] = (byte) b;
+
+            // under lock, no setLength between write and growth
+            growTo( pos + 1 );
+        }
+        finally
+        {
+            stripe.unlockWrite( stamp );
+        }
+    }
+
+    /**
+     * Write {@code len} bytes from the specified array,
+     * the memory grows if the range exceeds the end.
+     *
+     * @param pos position in memory
+     * @param b the source array
+     * @param off start offset in source array
+     * @param len number of bytes to write
+     */
+    public void write(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+    {
+        if ( off < 0 || len < 0 || len > b.length - off )
+        {
+            throw new IndexOutOfBoundsException();
+        }
+
+        final long end = pos + len;
+
+        if ( end < 0L )
+        {
+            throw new ArithmeticException( String.valueOf( pos ) + " + " + len );
+        }
+
+        checkPageIndex( end >>> this.pageShift );
+
+        if ( len == 0 )
+        {
+            // like pwrite, an empty write does not extend the file
+            return;
+        }
+
+        final long firstPageIndex = pos >>> this.pageShift;
+        final long pageCount = ( ( end - 1 ) >>> this.pageShift ) - firstPageIndex + 1;
+
+        // all pages locked, no setLength between the chunks and the growth
+        final long[] stamps = lockStripes( firstPageIndex , pageCount );
+        try
+        {
+            int done = 0;
+            while ( done < len )
+            {
+                final long currentPos = pos + done;
+                final long pageIndex = currentPos >>> this.pageShift;
+                final int offsetInPage = (int) currentPos & this.pageMask;
+                final int chunk = Math.min( len - done , this.pageSize - offsetInPage );
+
+                System.arraycopy(
+                        //src
+                        b ,
+                        //srcPos
+                        off + done ,
+                        //dest
+                        writablePage( pageIndex ) ,
+                        //destPos
+                        offsetInPage ,
+                        //length
+                        chunk );
+
+                done += chunk;
+            }
+
+            growTo( end );
+        }
+        finally
+        {
+            unlockStripes( stamps );
+        }
+    }
+
+    /**
+     * Take the write locks of the stripes of the pages
+     * in ascending stripe order, like {@link #setLength(long)},
+     * so there is no deadlock.
+     *
+     * @param firstPageIndex index of first page
+     * @param pageCount number of pages
+     * @return stamps per stripe, 0 for a stripe not locked
+     */
+    private long[] lockStripes(
+            final long firstPageIndex ,
+            final long pageCount )
+    {
+        final long[] stamps = new long[ this.stripes.length ];
+        final int stripeMask = this.stripes.length - 1;
+
+        for ( int i = 0 ; i < this.stripes.length ; i++ )
+        {
+            if ( pageCount >= this.stripes.length ||
+                    ( ( i - firstPageIndex ) & stripeMask ) < pageCount )
+            {
+                stamps[ i ] = this.stripes[ i ].writeLock();
+            }
+        }
+        return stamps;
+    }
+
+    /**
+     * Release the write locks taken with
+     * {@link #lockStripes(long, long)}.
+     *
+     * @param stamps stamps per stripe, 0 for a stripe not locked
+     */
+    private void unlockStripes(
+            final long[] stamps )
+    {
+        for ( int i = 0 ; i < this.stripes.length ; i++ )
+        {
+            if ( stamps[ i ] != 0L )
+            {
+                this.stripes[ i ].unlockWrite( stamps[ i ] );
+            }
+        }
+    }
+
+    /**
+     * Grow length atomic to at least the specified length.
+     * Caller holds the write lock of at least one stripe.
+     *
+     * @param minLength the minimum length
+     */
+    private void growTo(
+            final long minLength )
+    {
+        long currentLength = this.length.get();
+        while ( currentLength < minLength &&
+                ! this.length.compareAndSet( currentLength , minLength ) )
+        {
+            currentLength = this.length.get();
+        }
+    }
+
+    /**
+     * Copy from page or zero bytes if page is not allocated.
+     */
+    private void copyFromPage(
+            final long pageIndex ,
+            final int offsetInPage ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+    {
+        final byte[] page = page( pageIndex );
+
+        if ( page == null )
+        {
+            Arrays.fill(
+                    b ,
+                    off ,
+                    off + len ,
+                    (byte) 0 );
+        }
+        else
+        {
+            System.arraycopy(
+                    //src
+                    page ,
+                    //srcPos
+                    offsetInPage ,
+                    //dest
+                    b ,
+                    //destPos
+                    off ,
+                    //length
+                    len );
+        }
+    }
+
+    /**
+     * @param pageIndex index of page
+     * @return lock stripe of page
+     */
+    private StampedLock stripe(
+            final long pageIndex )
+    {
+        return this.stripes[ (int) pageIndex & ( this.stripes.length - 1 ) ];
+    }
+
+    /**
+     * @param pageIndex index of page
+     * @return the page or {@code null} if not allocated
+     */
+    private byte[] page(
+            final long pageIndex )
+    {
+        final AtomicReferenceArray<byte[]> segment =
+                this.directory.get( (int) ( pageIndex >>> SEGMENT_SHIFT ) );
+
+        if ( segment == null )
+        {
+            return null;
+        }
+
+        return segment.get( (int) pageIndex & SEGMENT_MASK );
+    }
+
+    /**
+     * Get the page for writing, allocate it if necessary.
+     * Caller must hold the write lock of the stripe.
+     *
+     * @param pageIndex index of page
+     * @return the page
+     */
+    private byte[] writablePage(
+            final long pageIndex )
+    {
+        final int segmentIndex = (int) ( pageIndex >>> SEGMENT_SHIFT );
+
+        AtomicReferenceArray<byte[]> segment = this.directory.get( segmentIndex );
+
+        if ( segment == null )
+        {
+            this.directory.compareAndSet(
+                    segmentIndex ,
+                    null ,
+                    new AtomicReferenceArray<byte[]>( SEGMENT_LENGTH ) );
+
+            segment = this.directory.get( segmentIndex );
+        }
+
+        final int indexInSegment = (int) pageIndex & SEGMENT_MASK;
+
+        byte[] page = segment.get( indexInSegment );
+
+        if ( page == null )
+        {
+            page = new byte[ this.pageSize ];
+            segment.set( indexInSegment , page );
+            this.allocatedPageCount.incrementAndGet();
+        }
+
+        return page;
+    }
+
+    /**
+     * Shrink memory, caller must hold
+     * the write locks of all stripes.
+     * Pages behind the new length are released,
+     * the rest of the new last page is zeroed.
+     */
+    private void shrink(
+            final long oldLength ,
+            final long newLength )
+    {
+        final long oldPageCount = ( oldLength + this.pageMask ) >>> this.pageShift;
+        final long newPageCount = ( newLength + this.pageMask ) >>> this.pageShift;
+
+        for ( long pageIndex = newPageCount ; pageIndex < oldPageCount ; pageIndex++ )
+        {
+            final AtomicReferenceArray<byte[]> segment =
+                    this.directory.get( (int) ( pageIndex >>> SEGMENT_SHIFT ) );
+
+            if ( segment != null &&
+                    segment.getAndSet( (int) pageIndex & SEGMENT_MASK , null ) != null )
+            {
+                this.allocatedPageCount.decrementAndGet();
+            }
+        }
+
+        final int offsetInLastPage = (int) newLength & this.pageMask;
+
+        if ( offsetInLastPage != 0 )
+        {
+            final byte[] lastPage = page( newPageCount - 1 );
+
+            if ( lastPage != null )
+            {
+                Arrays.fill(
+                        lastPage ,
+                        offsetInLastPage ,
+                        this.pageSize ,
+                        (byte) 0 );
+            }
+        }
+    }
+
+    /**
+     * @param pageIndex index of page
+     * @throws ArithmeticException if the page index exceeds the page table
+     */
+    private static void checkPageIndex(
+            final long pageIndex )
+    {
+        if ( pageIndex >= (long) DIRECTORY_LENGTH * SEGMENT_LENGTH )
+        {
+            throw new ArithmeticException( "page index " + pageIndex );
+        }
+    }
+
+}
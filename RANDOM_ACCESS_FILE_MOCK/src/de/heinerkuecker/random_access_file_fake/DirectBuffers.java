@@ -0,0 +1,96 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Helper to release the memory of direct
+ * or mapped {@link ByteBuffer} explicit,
+ * without waiting for the garbage collector.
+ * <br/><br/>
+ * Uses {@code sun.misc.Unsafe.invokeCleaner}
+ * on Java 9 and later and the cleaner of the
+ * buffer on Java 8. If none is accessible,
+ * the memory is released by the garbage collector.
+ */
+final class DirectBuffers
+{
+    /**
+     * {@code sun.misc.Unsafe} instance or {@code null}.
+     */
+    private static final Object UNSAFE;
+
+    /**
+     * {@code sun.misc.Unsafe.invokeCleaner(ByteBuffer)} or {@code null}.
+     */
+    private static final Method INVOKE_CLEANER;
+
+    static
+    {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try
+        {
+            final Class<?> unsafeClass = Class.forName( "sun.misc.Unsafe" );
+            invokeCleaner = unsafeClass.getMethod( "invokeCleaner" , ByteBuffer.class );
+            final Field theUnsafeField = unsafeClass.getDeclaredField( "theUnsafe" );
+            theUnsafeField.setAccessible( true );
+            unsafe = theUnsafeField.get( null );
+        }
+        catch ( ReflectiveOperationException | RuntimeException e )
+        {
+            // Java 8 or no access
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    /**
+     * Private constructor, no instance.
+     */
+    private DirectBuffers()
+    {
+        // no instance
+    }
+
+    /**
+     * Release the memory of the specified direct buffer.
+     * The buffer must not be used afterwards.
+     *
+     * @param buffer direct or mapped buffer, heap buffers are ignored
+     */
+    static void release(
+            final ByteBuffer buffer )
+    {
+        if ( buffer == null || ! buffer.isDirect() )
+        {
+            return;
+        }
+
+        try
+        {
+            if ( INVOKE_CLEANER != null )
+            {
+                INVOKE_CLEANER.invoke( UNSAFE , buffer );
+                return;
+            }
+
+            // Java 8
+            final Method cleanerMethod = buffer.getClass().getMethod( "cleaner" );
+            cleanerMethod.setAccessible( true );
+            final Object cleaner = cleanerMethod.invoke( buffer );
+            if ( cleaner != null )
+            {
+                cleaner.getClass().getMethod( "clean" ).invoke( cleaner );
+            }
+        }
+        catch ( ReflectiveOperationException | RuntimeException e )
+        {
+            // leave it to the garbage collector
+        }
+    }
+
+}
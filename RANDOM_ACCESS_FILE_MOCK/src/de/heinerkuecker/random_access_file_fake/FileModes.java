@@ -0,0 +1,79 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.nio.file.OpenOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Access modes "r", "rw", "rws" and "rwd" of
+ * {@link java.io.RandomAccessFile#RandomAccessFile(java.io.File, String)}
+ * for the implementations opening files by mode.
+ */
+final class FileModes
+{
+    /**
+     * Private constructor, no instance.
+     */
+    private FileModes()
+    {
+        // no instance
+    }
+
+    /**
+     * @param mode the access mode
+     * @return the mode is "r"
+     * @throws IllegalArgumentException if the mode is not "r", "rw", "rws" or "rwd"
+     */
+    static boolean isReadOnly(
+            final String mode )
+    {
+        switch ( mode )
+        {
+            case "r" :
+                return true;
+
+            case "rw" :
+            case "rws" :
+            case "rwd" :
+                return false;
+
+            default :
+                throw new IllegalArgumentException(
+                        "Illegal mode \"" + mode +
+                        "\" must be one of \"r\", \"rw\", \"rws\", or \"rwd\"" );
+        }
+    }
+
+    /**
+     * @param mode the access mode "r", "rw", "rws" or "rwd"
+     * @return open options of the mode
+     * @throws IllegalArgumentException if the mode is not one of the above
+     */
+    static Set<OpenOption> openOptions(
+            final String mode )
+    {
+        if ( isReadOnly( mode ) )
+        {
+            return Collections.<OpenOption>singleton( StandardOpenOption.READ );
+        }
+
+        final Set<OpenOption> options = new HashSet<>();
+        options.add( StandardOpenOption.READ );
+        options.add( StandardOpenOption.WRITE );
+        options.add( StandardOpenOption.CREATE );
+
+        if ( "rws".equals( mode ) )
+        {
+            options.add( StandardOpenOption.SYNC );
+        }
+        else if ( "rwd".equals( mode ) )
+        {
+            options.add( StandardOpenOption.DSYNC );
+        }
+
+        return options;
+    }
+
+}
@@ -0,0 +1,283 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * File system in RAM, maps paths to the content
+ * of the files ({@link PagedMemory}) and opens
+ * {@link RandomAccessFilePagedFake} instances by path,
+ * so code opening files by name, for example a storage
+ * engine with many files, runs in RAM.
+ * <br/><br/>
+ * Modes like {@link RandomAccessFile}: "r" opens an
+ * existing file read-only, "rw", "rws" and "rwd"
+ * create a missing file. In RAM there is no cache
+ * to write through, so "rws" and "rwd" are like "rw".
+ * <br/><br/>
+ * A file can be opened more than once, the handles
+ * share the content and each has its own file pointer.
+ * Like on Unix, a deleted or renamed file stays usable
+ * over the open handles.
+ * <br/><br/>
+ * Paths are normalized ({@code "a/./b"} is {@code "a/b"}),
+ * there are no directory entries, {@link #list(String)}
+ * lists the files directly under a path.
+ * The methods of the file system are thread-safe,
+ * the handles are not, like {@link RandomAccessFilePagedFake}.
+ */
+public class InMemoryFileSystem
+implements RandomAccessFileFactory
+{
+    /**
+     * Content of the files by normalized path.
+     */
+    private final Map<String, PagedMemory> files = new HashMap<>();
+
+    /**
+     * Page size of new files.
+     */
+    private final int pageSize;
+
+    /**
+     * New files are sparse.
+     */
+    private final boolean sparse;
+
+    /**
+     * Constructor, new files with default
+     * page size, not sparse.
+     */
+    public InMemoryFileSystem()
+    {
+        this(
+                PagedMemory.DEFAULT_PAGE_SIZE ,
+                //sparse
+                false );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pageSize page size of new files, see {@link PagedMemory#PagedMemory(int, boolean)}
+     * @param sparse new files are sparse
+     */
+    public InMemoryFileSystem(
+            final int pageSize ,
+            final boolean sparse )
+    {
+        this.pageSize = pageSize;
+        this.sparse = sparse;
+    }
+
+    /**
+     * Open a file.
+     *
+     * @param file the file object
+     * @param mode the access mode "r", "rw", "rws" or "rwd"
+     * @return opened file, read-only for mode "r"
+     * @throws IllegalArgumentException if the mode is not one of the above
+     * @throws FileNotFoundException if the mode is "r" and the file does not exist
+     */
+    @Override
+    public synchronized RandomAccessFilePagedFake open(
+            final File file ,
+            final String mode )
+            throws IOException
+    {
+        final boolean readOnly = FileModes.isReadOnly( mode );
+
+        final String path = normalize( file.getPath() );
+
+        PagedMemory memory = this.files.get( path );
+
+        if ( memory == null )
+        {
+            if ( readOnly )
+            {
+                throw new FileNotFoundException( path + " (No such file or directory)" );
+            }
+
+            memory = new PagedMemory( this.pageSize , this.sparse );
+            this.files.put( path , memory );
+        }
+
+        final RandomAccessFilePagedFake handle = new RandomAccessFilePagedFake( memory );
+        handle.readOnly = readOnly;
+        handle.open();
+        return handle;
+    }
+
+    /**
+     * Open a file.
+     *
+     * @param name the path of the file
+     * @param mode the access mode "r", "rw", "rws" or "rwd"
+     * @return opened file, read-only for mode "r"
+     * @throws IOException see {@link #open(File, String)}
+     */
+    @Override
+    public RandomAccessFilePagedFake open(
+            final String name ,
+            final String mode )
+            throws IOException
+    {
+        return open(
+                new File( name ) ,
+                mode );
+    }
+
+    /**
+     * @param name the path of the file
+     * @return the file exists
+     */
+    public synchronized boolean exists(
+            final String name )
+    {
+        return this.files.containsKey( normalize( name ) );
+    }
+
+    /**
+     * Create an empty file if the file does not exist,
+     * like {@link File#createNewFile()}.
+     *
+     * @param name the path of the file
+     * @return {@code true} if the file was created,
+     *         {@code false} if the file exists
+     */
+    public synchronized boolean createNewFile(
+            final String name )
+    {
+        final String path = normalize( name );
+
+        if ( this.files.containsKey( path ) )
+        {
+            return false;
+        }
+
+        this.files.put(
+                path ,
+                new PagedMemory( this.pageSize , this.sparse ) );
+
+        return true;
+    }
+
+    /**
+     * Delete a file, like {@link File#delete()}.
+     * Open handles of the file stay usable.
+     *
+     * @param name the path of the file
+     * @return {@code true} if the file was deleted,
+     *         {@code false} if the file does not exist
+     */
+    public synchronized boolean delete(
+            final String name )
+    {
+        return this.files.remove( normalize( name ) ) != null;
+    }
+
+    /**
+     * Rename a file, like {@link File#renameTo(File)}.
+     * Open handles of the file stay usable.
+     *
+     * @param source the path of the file
+     * @param target the new path of the file
+     * @return {@code true} if the file was renamed,
+     *         {@code false} if the source does not exist
+     *         or the target exists
+     */
+    public synchronized boolean rename(
+            final String source ,
+            final String target )
+    {
+        final String sourcePath = normalize( source );
+        final String targetPath = normalize( target );
+
+        if ( ! this.files.containsKey( sourcePath ) ||
+                this.files.containsKey( targetPath ) )
+        {
+            return false;
+        }
+
+        this.files.put(
+                targetPath ,
+                this.files.remove( sourcePath ) );
+
+        return true;
+    }
+
+    /**
+     * @param name the path of the file
+     * @return length of the file, like {@link File#length()} 0 if the file does not exist
+     */
+    public synchronized long length(
+            final String name )
+    {
+        final PagedMemory memory = this.files.get( normalize( name ) );
+        return memory == null ? 0L : memory.length();
+    }
+
+    /**
+     * @return normalized paths of all files, sorted
+     */
+    public synchronized List<String> list()
+    {
+        return new ArrayList<>( new TreeSet<>( this.files.keySet() ) );
+    }
+
+    /**
+     * List the files directly under the path,
+     * like {@link File#list()}.
+     *
+     * @param directory the path of the directory, "" for the current directory
+     * @return names of the files, sorted
+     */
+    public synchronized List<String> list(
+            final String directory )
+    {
+        final String directoryPath = normalize( directory );
+
+        final TreeSet<String> names = new TreeSet<>();
+        for ( final String path : this.files.keySet() )
+        {
+            final File file = new File( path );
+            final String parent = file.getParent();
+
+            if ( directoryPath.equals( parent == null ? "" : parent ) )
+            {
+                names.add( file.getName() );
+            }
+        }
+        return new ArrayList<>( names );
+    }
+
+    /**
+     * Only for test, the content of a file.
+     *
+     * @param name the path of the file
+     * @return content of the file, {@code null} if the file does not exist
+     */
+    public synchronized PagedMemory getMemory(
+            final String name )
+    {
+        return this.files.get( normalize( name ) );
+    }
+
+    /**
+     * @param name the path
+     * @return normalized path, without "." and resolved ".."
+     */
+    private static String normalize(
+            final String name )
+    {
+        return new File( name ).toPath().normalize().toString();
+    }
+
+}
@@ -0,0 +1,30 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.InterruptedIOException;
+
+/**
+ * Clock to let simulated I/O time pass,
+ * used by {@link RandomAccessFileLatencyInjecting}.
+ *
+ * @see VirtualIoClock
+ * @see RealTimeIoClock
+ */
+public interface IoClock
+{
+    /**
+     * @return current time in nanoseconds, only
+     *         the difference of two values is meaningful
+     */
+    long nanoTime();
+
+    /**
+     * Let the specified time pass.
+     *
+     * @param nanos time in nanoseconds, not negative
+     * @throws InterruptedIOException if the waiting thread is interrupted
+     */
+    void elapse(
+            final long nanos )
+            throws InterruptedIOException;
+
+}
@@ -0,0 +1,385 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of not negative long values
+ * (latency in nanoseconds, sizes in bytes)
+ * with log-linear buckets like HdrHistogram:
+ * values below 16 are exact, greater values are
+ * in 16 sub buckets per power of two, the relative
+ * error is below 1/16 (6.25 %).
+ * <br/><br/>
+ * The bucket array has a fixed size for the complete
+ * range of long, recording is allocation free.
+ * Recording is thread-safe, count, sum, minimum and
+ * maximum are striped ({@link LongAdder},
+ * {@link LongAccumulator}) for low contention.
+ * The bucket counts are striped like a {@link LongAdder}:
+ * after the first failed update of a bucket under contention
+ * each thread counts in one of several bucket arrays
+ * selected by its thread id, the readers sum them up.
+ */
+public final class IoHistogram
+{
+    /**
+     * Number of bits of sub bucket index.
+     */
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /**
+     * Number of sub buckets per power of two.
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Number of buckets, index of
+     * {@link Long#MAX_VALUE} plus one.
+     */
+    private static final int BUCKET_COUNT = bucketIndex( Long.MAX_VALUE ) + 1;
+
+    /**
+     * Number of stripes of bucket counts under contention,
+     * power of two, at most 16 with about 8 KiB per stripe.
+     */
+    private static final int STRIPE_COUNT =
+            Math.min(
+                    Integer.highestOneBit( Runtime.getRuntime().availableProcessors() * 2 - 1 ) ,
+                    16 );
+
+    /**
+     * Count of values per bucket.
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray( BUCKET_COUNT );
+
+    /**
+     * Stripes of the counts per bucket, in addition
+     * to {@link #buckets}, created on first contention.
+     */
+    private volatile AtomicLongArray[] stripes;
+
+    /**
+     * Number of recorded values.
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Sum of recorded values.
+     */
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * Minimum recorded value.
+     */
+    private final LongAccumulator min = new LongAccumulator( Math::min , Long.MAX_VALUE );
+
+    /**
+     * Maximum recorded value.
+     */
+    private final LongAccumulator max = new LongAccumulator( Math::max , 0L );
+
+    /**
+     * Record a value.
+     *
+     * @param value value to record, negative values are recorded as 0
+     */
+    public void record(
+            final long value )
+    {
+        final long v = Math.max( value , 0L );
+
+        incrementBucket( bucketIndex( v ) );
+        this.count.increment();
+        this.sum.add( v );
+        this.min.accumulate( v );
+        this.max.accumulate( v );
+    }
+
+    /**
+     * @return number of recorded values
+     */
+    public long getCount()
+    {
+        return this.count.sum();
+    }
+
+    /**
+     * @return sum of recorded values
+     */
+    public long getSum()
+    {
+        return this.sum.sum();
+    }
+
+    /**
+     * @return minimum recorded value, 0 if empty
+     */
+    public long getMin()
+    {
+        return getCount() == 0L ? 0L : this.min.get();
+    }
+
+    /**
+     * @return maximum recorded value, 0 if empty
+     */
+    public long getMax()
+    {
+        return this.max.get();
+    }
+
+    /**
+     * @return mean of recorded values, 0 if empty
+     */
+    public double getMean()
+    {
+        final long c = getCount();
+        return c == 0L ? 0.0 : (double) getSum() / c;
+    }
+
+    /**
+     * Returns the value at the percentile, the upper
+     * bound of the bucket, limited to the maximum.
+     *
+     * @param percentile percentile from 0 to 100
+     * @return value at the percentile, 0 if empty
+     */
+    public long getValueAtPercentile(
+            final double percentile )
+    {
+        if ( percentile < 0.0 || percentile > 100.0 )
+        {
+            throw new IllegalArgumentException( "percentile out of range: " + percentile );
+        }
+
+        final long[] bucketCounts = bucketCounts();
+
+        long total = 0;
+        for ( int i = 0 ; i < BUCKET_COUNT ; i++ )
+        {
+            total += bucketCounts[ i ];
+        }
+
+        if ( total == 0L )
+        {
+            return 0L;
+        }
+
+        final long rank = Math.max( 1L , (long) Math.ceil( percentile / 100.0 * total ) );
+
+        long seen = 0;
+        for ( int i = 0 ; i < BUCKET_COUNT ; i++ )
+        {
+            seen += bucketCounts[ i ];
+
+            if ( seen >= rank )
+            {
+                return Math.min(
+                        bucketUpperBound( i ) ,
+                        getMax() );
+            }
+        }
+
+        return getMax();
+    }
+
+    /**
+     * @return copy of the current state, not affected by later recording
+     */
+    public IoHistogram copy()
+    {
+        final IoHistogram copy = new IoHistogram();
+        copy.add( this );
+        return copy;
+    }
+
+    /**
+     * Add all values of the other histogram to this.
+     *
+     * @param other histogram to add
+     */
+    public void add(
+            final IoHistogram other )
+    {
+        final long[] otherBucketCounts = other.bucketCounts();
+
+        for ( int i = 0 ; i < BUCKET_COUNT ; i++ )
+        {
+            final long c = otherBucketCounts[ i ];
+
+            if ( c != 0L )
+            {
+                this.buckets.addAndGet( i , c );
+            }
+        }
+
+        final long otherCount = other.getCount();
+        this.count.add( otherCount );
+        this.sum.add( other.getSum() );
+
+        if ( otherCount != 0L )
+        {
+            this.min.accumulate( other.getMin() );
+            this.max.accumulate( other.getMax() );
+        }
+    }
+
+    /**
+     * Remove all values.
+     * Not atomic with concurrent recording.
+     */
+    public void reset()
+    {
+        final AtomicLongArray[] currentStripes = this.stripes;
+
+        for ( int i = 0 ; i < BUCKET_COUNT ; i++ )
+        {
+            this.buckets.set( i , 0L );
+
+            if ( currentStripes != null )
+            {
+                for ( final AtomicLongArray stripe : currentStripes )
+                {
+                    stripe.set( i , 0L );
+                }
+            }
+        }
+
+        this.count.reset();
+        this.sum.reset();
+        this.min.reset();
+        this.max.reset();
+    }
+
+    /**
+     * @return count, mean, min, median, 99th percentile and max
+     */
+    @Override
+    public String toString()
+    {
+        return
+                "count=" + getCount() +
+                " mean=" + Math.round( getMean() ) +
+                " min=" + getMin() +
+                " p50=" + getValueAtPercentile( 50.0 ) +
+                " p99=" + getValueAtPercentile( 99.0 ) +
+                " max=" + getMax();
+    }
+
+    /**
+     * Count a value in the bucket, in a stripe
+     * after the first contention.
+     *
+     * @param index index of bucket
+     */
+    private void incrementBucket(
+            final int index )
+    {
+        AtomicLongArray[] currentStripes = this.stripes;
+
+        if ( currentStripes == null )
+        {
+            final long c = this.buckets.get( index );
+
+            if ( this.buckets.compareAndSet( index , c , c + 1 ) )
+            {
+                return;
+            }
+
+            // contention
+            currentStripes = createStripes();
+        }
+
+        final int h = (int) Thread.currentThread().getId() * 0x9E3779B9;
+
+        currentStripes[ ( h >>> 16 ) & ( currentStripes.length - 1 ) ].incrementAndGet( index );
+    }
+
+    /**
+     * @return {@link #stripes}, created if not yet done
+     */
+    private synchronized AtomicLongArray[] createStripes()
+    {
+        if ( this.stripes == null )
+        {
+            final AtomicLongArray[] newStripes = new AtomicLongArray[ STRIPE_COUNT ];
+
+            for ( int i = 0 ; i < STRIPE_COUNT ; i++ )
+            {
+                newStripes[ i ] = new AtomicLongArray( BUCKET_COUNT );
+            }
+
+            this.stripes = newStripes;
+        }
+
+        return this.stripes;
+    }
+
+    /**
+     * @return counts per bucket, sum of {@link #buckets} and {@link #stripes}
+     */
+    private long[] bucketCounts()
+    {
+        final long[] bucketCounts = new long[ BUCKET_COUNT ];
+
+        final AtomicLongArray[] currentStripes = this.stripes;
+
+        for ( int i = 0 ; i < BUCKET_COUNT ; i++ )
+        {
+            bucketCounts[ i ] = this.buckets.get( i );
+
+            if ( currentStripes != null )
+            {
+                for ( final AtomicLongArray stripe : currentStripes )
+                {
+                    bucketCounts[ i ] += stripe.get( i );
+                }
+            }
+        }
+
+        return bucketCounts;
+    }
+
+    /**
+     * @param value not negative value
+     * @return index of the bucket of the value
+     */
+    private static int bucketIndex(
+            final long value )
+    {
+        if ( value < SUB_BUCKET_COUNT )
+        {
+            return (int) value;
+        }
+
+        // position of highest one bit, at least SUB_BUCKET_BITS
+        final int exponent = 63 - Long.numberOfLeadingZeros( value );
+        final int subBucket = (int) ( value >>> ( exponent - SUB_BUCKET_BITS ) ) & ( SUB_BUCKET_COUNT - 1 );
+
+        return ( exponent - SUB_BUCKET_BITS + 1 ) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * @param index index of bucket
+     * @return greatest value in the bucket
+     */
+    private static long bucketUpperBound(
+            final int index )
+    {
+        if ( index < SUB_BUCKET_COUNT )
+        {
+            return index;
+        }
+
+        final int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        final long subBucket = index % SUB_BUCKET_COUNT;
+        final int shift = exponent - SUB_BUCKET_BITS;
+
+        final long lowerBound = ( SUB_BUCKET_COUNT + subBucket ) << shift;
+
+        // lowerBound + 2^shift - 1 without overflow at Long.MAX_VALUE
+        return lowerBound + ( ( 1L << shift ) - 1L );
+    }
+
+}
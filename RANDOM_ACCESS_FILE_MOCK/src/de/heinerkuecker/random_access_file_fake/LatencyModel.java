@@ -0,0 +1,176 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.util.Random;
+
+/**
+ * Model of the latency of one I/O operation of a device,
+ * used by {@link RandomAccessFileLatencyInjecting}.
+ * <br/><br/>
+ * The transfer time (bandwidth) is not part of the
+ * latency, it is added by the decorator.
+ * <br/><br/>
+ * Models with randomness take a seed and are
+ * reproducible for the same sequence of operations.
+ * Not thread-safe, like the decorator.
+ */
+public interface LatencyModel
+{
+    /**
+     * No latency.
+     */
+    LatencyModel ZERO = fixed( 0L );
+
+    /**
+     * Calculate the latency of one operation.
+     *
+     * @param headPosition end position of the previous operation, position of the (virtual) head
+     * @param position start position of this operation
+     * @param length number of bytes transferred by this operation
+     * @param write {@code true} for a write, {@code false} for a read
+     * @return latency in nanoseconds, not negative
+     */
+    long latencyNanos(
+            final long headPosition ,
+            final long position ,
+            final long length ,
+            final boolean write );
+
+    /**
+     * @param other model to add
+     * @return model with the sum of the latencies of this and the other model
+     */
+    default LatencyModel plus(
+            final LatencyModel other )
+    {
+        return ( headPosition , position , length , write ) ->
+                latencyNanos( headPosition , position , length , write ) +
+                other.latencyNanos( headPosition , position , length , write );
+    }
+
+    /**
+     * @return model with the latency of this model for operations
+     *         not starting at the head position, zero for sequential operations
+     */
+    default LatencyModel onSeekOnly()
+    {
+        return ( headPosition , position , length , write ) ->
+                headPosition == position
+                ? 0L
+                : latencyNanos( headPosition , position , length , write );
+    }
+
+    /**
+     * @param nanos latency of each operation in nanoseconds
+     * @return model with constant latency
+     */
+    static LatencyModel fixed(
+            final long nanos )
+    {
+        return fixed( nanos , nanos );
+    }
+
+    /**
+     * @param readNanos latency of each read in nanoseconds
+     * @param writeNanos latency of each write in nanoseconds
+     * @return model with constant latency
+     */
+    static LatencyModel fixed(
+            final long readNanos ,
+            final long writeNanos )
+    {
+        if ( readNanos < 0L || writeNanos < 0L )
+        {
+            throw new IllegalArgumentException( "negative latency: " + readNanos + " " + writeNanos );
+        }
+
+        return ( headPosition , position , length , write ) ->
+                write ? writeNanos : readNanos;
+    }
+
+    /**
+     * Uniform distributed latency, for example the
+     * rotational latency of a hard disk.
+     *
+     * @param minNanos minimum latency in nanoseconds
+     * @param maxNanos maximum latency in nanoseconds
+     * @param seed seed of randomness
+     * @return model with random latency
+     */
+    static LatencyModel uniform(
+            final long minNanos ,
+            final long maxNanos ,
+            final long seed )
+    {
+        if ( minNanos < 0L || maxNanos < minNanos )
+        {
+            throw new IllegalArgumentException( "invalid range: " + minNanos + " " + maxNanos );
+        }
+
+        final Random random = new Random( seed );
+
+        return ( headPosition , position , length , write ) ->
+                minNanos + (long) ( random.nextDouble() * ( maxNanos - minNanos ) );
+    }
+
+    /**
+     * Exponential distributed latency, for example the
+     * queueing delay of a network disk, with long tail.
+     *
+     * @param meanNanos mean latency in nanoseconds
+     * @param seed seed of randomness
+     * @return model with random latency
+     */
+    static LatencyModel exponential(
+            final long meanNanos ,
+            final long seed )
+    {
+        if ( meanNanos < 0L )
+        {
+            throw new IllegalArgumentException( "negative latency: " + meanNanos );
+        }
+
+        final Random random = new Random( seed );
+
+        return ( headPosition , position , length , write ) ->
+                (long) ( - Math.log( 1.0 - random.nextDouble() ) * meanNanos );
+    }
+
+    /**
+     * Seek time of a hard disk, growing with the square root
+     * of the distance between head position and start position
+     * of the operation, zero for sequential operations.
+     *
+     * @param minSeekNanos seek time to neighbour position (track-to-track) in nanoseconds
+     * @param maxSeekNanos seek time of full stroke in nanoseconds
+     * @param maxSeekDistance distance of full stroke in bytes, for example the capacity of the disk
+     * @return model with seek-distance-dependent latency
+     */
+    static LatencyModel seekDistance(
+            final long minSeekNanos ,
+            final long maxSeekNanos ,
+            final long maxSeekDistance )
+    {
+        if ( minSeekNanos < 0L || maxSeekNanos < minSeekNanos || maxSeekDistance < 1L )
+        {
+            throw new IllegalArgumentException( "invalid seek: " + minSeekNanos + " " + maxSeekNanos + " " + maxSeekDistance );
+        }
+
+        return ( headPosition , position , length , write ) ->
+        {
+            if ( headPosition == position )
+            {
+                return 0L;
+            }
+
+            final long distance =
+                    Math.min(
+                            Math.abs( position - headPosition ) ,
+                            maxSeekDistance );
+
+            return minSeekNanos +
+                    (long) ( ( maxSeekNanos - minSeekNanos ) *
+                            Math.sqrt( (double) distance / maxSeekDistance ) );
+        };
+    }
+
+}
@@ -0,0 +1,69 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Least recently used {@link PageEvictionPolicy}.
+ */
+public class LruPageEvictionPolicy
+implements PageEvictionPolicy
+{
+    /**
+     * Pages in access order,
+     * least recently used first.
+     */
+    private final LinkedHashMap<Long, Boolean> pages;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity maximum number of pages in pool
+     */
+    public LruPageEvictionPolicy(
+            final int capacity )
+    {
+        this.pages =
+                new LinkedHashMap<>(
+                        capacity * 4 / 3 + 1 ,
+                        0.75f ,
+                        // accessOrder
+                        true );
+    }
+
+    @Override
+    public void pageInserted(
+            final long pageIndex )
+    {
+        this.pages.put( pageIndex , Boolean.TRUE );
+    }
+
+    @Override
+    public void pageAccessed(
+            final long pageIndex )
+    {
+        // moves page to end
+        this.pages.get( pageIndex );
+    }
+
+    @Override
+    public void pageRemoved(
+            final long pageIndex )
+    {
+        this.pages.remove( pageIndex );
+    }
+
+    @Override
+    public long evict()
+    {
+        final Iterator<Long> iterator = this.pages.keySet().iterator();
+        if ( ! iterator.hasNext() )
+        {
+            throw new IllegalStateException( "no page to evict" );
+        }
+        final long pageIndex = iterator.next();
+        iterator.remove();
+        return pageIndex;
+    }
+
+}
@@ -0,0 +1,48 @@
+package de.heinerkuecker.random_access_file_fake;
+
+/**
+ * Strategy to choose the page to evict
+ * from the bounded page pool of {@link RandomAccessFileCached}.
+ * <br/><br/>
+ * Implementations have a constructor with the
+ * maximum number of pages in the pool as
+ * {@code int} parameter, for use as
+ * {@code java.util.function.IntFunction}
+ * like {@code LruPageEvictionPolicy::new}.
+ */
+public interface PageEvictionPolicy
+{
+    /**
+     * A page was loaded into the pool.
+     *
+     * @param pageIndex index of page in file
+     */
+    void pageInserted(
+            final long pageIndex );
+
+    /**
+     * A page in the pool was accessed.
+     *
+     * @param pageIndex index of page in file
+     */
+    void pageAccessed(
+            final long pageIndex );
+
+    /**
+     * A page was removed from the pool
+     * without eviction, for example by truncate.
+     *
+     * @param pageIndex index of page in file
+     */
+    void pageRemoved(
+            final long pageIndex );
+
+    /**
+     * Choose a page to evict and forget it.
+     *
+     * @return index of page to evict
+     * @throws IllegalStateException if there is no page to evict
+     */
+    long evict();
+
+}
@@ -0,0 +1,689 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Paged memory for {@link RandomAccessFilePagedFake}.
+ * <br/><br/>
+ * The content is stored in fixed-size pages
+ * addressed by long offset, so the memory can
+ * grow beyond 2 GB. Growing allocates new pages
+ * and copies only the page table, never the
+ * existing data.
+ * <br/><br/>
+ * Pages which are not allocated are read as zero bytes.
+ * In sparse mode pages are only allocated on write,
+ * holes from {@link #setLength(long)} or from writing
+ * behind the end consume no heap, like sparse files
+ * of a file system.
+ * <br/><br/>
+ * {@link #snapshot()} and {@link #restore(Snapshot)} work in
+ * constant time with copy-on-write: the page table and the
+ * pages are shared with the snapshot, a page is copied on
+ * the first write after the snapshot, the page table on the
+ * first change after the snapshot.
+ */
+public class PagedMemory
+{
+    /**
+     * Frozen state of a {@link PagedMemory},
+     * shares page table and pages copy-on-write.
+     */
+    public static final class Snapshot
+    {
+        /**
+         * Size of one page in bytes.
+         */
+        private final int pageSize;
+
+        /**
+         * Page table, never changed.
+         */
+        private final byte[][] pages;
+
+        /**
+         * Owner epochs of pages, never changed.
+         */
+        private final long[] pageEpochs;
+
+        /**
+         * Logical length.
+         */
+        private final long length;
+
+        /**
+         * Number of allocated pages.
+         */
+        private final int allocatedPageCount;
+
+        private Snapshot(
+                final int pageSize ,
+                final byte[][] pages ,
+                final long[] pageEpochs ,
+                final long length ,
+                final int allocatedPageCount )
+        {
+            this.pageSize = pageSize;
+            this.pages = pages;
+            this.pageEpochs = pageEpochs;
+            this.length = length;
+            this.allocatedPageCount = allocatedPageCount;
+        }
+
+        /**
+         * @return logical length of memory at snapshot
+         */
+        public long length()
+        {
+            return this.length;
+        }
+    }
+
+    /**
+     * Source of unique epochs, a page is owned
+     * by the memory with the epoch of the page.
+     */
+    private static final AtomicLong NEXT_EPOCH = new AtomicLong();
+
+    /**
+     * Default page size 64 KiB.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 64 * 1024;
+
+    /**
+     * Size of one page in bytes, power of two.
+     */
+    private final int pageSize;
+
+    /**
+     * Number of bits to shift a position
+     * to get the page index.
+     */
+    private final int pageShift;
+
+    /**
+     * Mask to get the offset in page
+     * from a position.
+     */
+    private final int pageMask;
+
+    /**
+     * Sparse mode, allocate pages only on write.
+     */
+    private final boolean sparse;
+
+    /**
+     * Page table.
+     *
+     * Covers at least all pages up to {@link #length},
+     * an entry {@code null} is a page of zero bytes.
+     */
+    private byte[][] pages = new byte[ 0 ][];
+
+    /**
+     * Epoch of the writer of each page in {@link #pages}.
+     * Only pages with the current {@link #epoch}
+     * may be written in place.
+     */
+    private long[] pageEpochs = new long[ 0 ];
+
+    /**
+     * Current epoch of this memory, changed
+     * on {@link #snapshot()} and {@link #restore(Snapshot)}.
+     */
+    private long epoch = NEXT_EPOCH.incrementAndGet();
+
+    /**
+     * Page table is shared with a snapshot
+     * and must be copied before change.
+     */
+    private boolean pageTableShared;
+
+    /**
+     * Logical length of memory.
+     */
+    private long length;
+
+    /**
+     * Number of allocated pages.
+     */
+    private int allocatedPageCount;
+
+    /**
+     * Constructor with {@link #DEFAULT_PAGE_SIZE},
+     * not sparse.
+     */
+    public PagedMemory()
+    {
+        this( DEFAULT_PAGE_SIZE );
+    }
+
+    /**
+     * Constructor, not sparse.
+     *
+     * @param pageSize size of one page in bytes, must be a power of two
+     */
+    public PagedMemory(
+            final int pageSize )
+    {
+        this( pageSize , false );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pageSize size of one page in bytes, must be a power of two
+     * @param sparse allocate pages only on write
+     */
+    public PagedMemory(
+            final int pageSize ,
+            final boolean sparse )
+    {
+        if ( pageSize < 1 || Integer.bitCount( pageSize ) != 1 )
+        {
+            throw new IllegalArgumentException( "page size is not a power of two: " + pageSize );
+        }
+
+        this.pageSize = pageSize;
+        this.pageShift = Integer.numberOfTrailingZeros( pageSize );
+        this.pageMask = pageSize - 1;
+        this.sparse = sparse;
+    }
+
+    /**
+     * Constructor for a new memory with the content
+     * of the snapshot, in constant time copy-on-write.
+     *
+     * @param snapshot content of new memory
+     * @param sparse allocate pages only on write
+     */
+    public PagedMemory(
+            final Snapshot snapshot ,
+            final boolean sparse )
+    {
+        this( snapshot.pageSize , sparse );
+        restore( snapshot );
+    }
+
+    /**
+     * Take a snapshot of the content in constant time.
+     * Following writes copy the changed pages, the
+     * snapshot stays unchanged.
+     *
+     * @return the snapshot
+     */
+    public Snapshot snapshot()
+    {
+        final Snapshot snapshot =
+                new Snapshot(
+                        this.pageSize ,
+                        this.pages ,
+                        this.pageEpochs ,
+                        this.length ,
+                        this.allocatedPageCount );
+
+        this.pageTableShared = true;
+        // all pages are shared now
+        this.epoch = NEXT_EPOCH.incrementAndGet();
+
+        return snapshot;
+    }
+
+    /**
+     * Set the content to the snapshot in constant time.
+     * The snapshot stays unchanged and can be restored again.
+     *
+     * @param snapshot snapshot of a memory with the same page size
+     */
+    public void restore(
+            final Snapshot snapshot )
+    {
+        if ( snapshot.pageSize != this.pageSize )
+        {
+            throw new IllegalArgumentException( "page size " + snapshot.pageSize + " of snapshot is not " + this.pageSize );
+        }
+
+        this.pages = snapshot.pages;
+        this.pageEpochs = snapshot.pageEpochs;
+        this.length = snapshot.length;
+        this.allocatedPageCount = snapshot.allocatedPageCount;
+
+        this.pageTableShared = true;
+        // all pages are shared now
+        this.epoch = NEXT_EPOCH.incrementAndGet();
+    }
+
+    /**
+     * @return sparse mode, pages are only allocated on write
+     */
+    public boolean isSparse()
+    {
+        return this.sparse;
+    }
+
+    /**
+     * Heap bytes allocated for pages, in sparse mode
+     * this can be much smaller than {@link #length()}.
+     * Pages shared with snapshots are included.
+     *
+     * @return allocated size in bytes
+     */
+    public long allocatedSize()
+    {
+        return (long) this.allocatedPageCount * this.pageSize;
+    }
+
+    /**
+     * @return size of one page in bytes
+     */
+    public int pageSize()
+    {
+        return this.pageSize;
+    }
+
+    /**
+     * @return logical length of memory in bytes
+     */
+    public long length()
+    {
+        return this.length;
+    }
+
+    /**
+     * Set the logical length of memory.
+     * The content of an extended range is zero bytes.
+     *
+     * @param newLength the new length
+     */
+    public void setLength(
+            final long newLength )
+    {
+        if ( newLength < 0L )
+        {
+            throw new IllegalArgumentException( "Negative length " + newLength );
+        }
+
+        if ( newLength > this.length )
+        {
+            grow( newLength );
+        }
+        else if ( newLength < this.length )
+        {
+            shrink( newLength );
+        }
+    }
+
+    /**
+     * Read one byte.
+     *
+     * @param pos position in memory
+     * @return the byte in range 0 to 255 or -1 at end of memory
+     */
+    public int read(
+            final long pos )
+    {
+        if ( pos >= this.length )
+        {
+            return -1;
+        }
+
+        final byte[] page = this.pages[ (int) ( pos >>> this.pageShift ) ];
+
+        if ( page == null )
+        {
+            return 0;
+        }
+
+        return page[ (int) pos & this.pageMask ] & 0xFF;
+    }
+
+    /**
+     * Read up to {@code len} bytes into the specified array.
+     *
+     * @param pos position in memory
+     * @param b the destination array
+     * @param off start offset in destination array
+     * @param len maximum number of bytes to read
+     * @return number of bytes read or -1 at end of memory
+     */
+    public int read(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+    {
+        if ( off < 0 || len < 0 || len > b.length - off )
+        {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if ( len == 0 )
+        {
+            return 0;
+        }
+
+        if ( pos >= this.length )
+        {
+            return -1;
+        }
+
+        final int lengthToRead = (int) Math.min( len , this.length - pos );
+
+        int done = 0;
+        while ( done < lengthToRead )
+        {
+            final long currentPos = pos + done;
+            final int offsetInPage = (int) currentPos & this.pageMask;
+            final int chunk = Math.min( lengthToRead - done , this.pageSize - offsetInPage );
+            final byte[] page = this.pages[ (int) ( currentPos >>> this.pageShift ) ];
+
+            if ( page == null )
+            {
+                Arrays.fill(
+                        b ,
+                        off + done ,
+                        off + done + chunk ,
+                        (byte) 0 );
+            }
+            else
+            {
+                System.arraycopy(
+                        //src
+                        page ,
+                        //srcPos
+                        offsetInPage ,
+                        //dest
+                        b ,
+                        //destPos
+                        off + done ,
+                        //length
+                        chunk );
+            }
+
+            done += chunk;
+        }
+
+        return lengthToRead;
+    }
+
+    /**
+     * Read-only view of the content without copy,
+     * limited to the end of the page of the position.
+     *
+     * @param pos position in memory, less than length
+     * @param maxLength maximum length of view
+     * @return view with at least one and at most {@code maxLength} bytes remaining
+     */
+    public ByteBuffer view(
+            final long pos ,
+            final int maxLength )
+    {
+        final int offsetInPage = (int) pos & this.pageMask;
+        final int viewLength =
+                (int) Math.min(
+                        Math.min( maxLength , this.pageSize - offsetInPage ) ,
+                        this.length - pos );
+
+        final byte[] page = this.pages[ (int) ( pos >>> this.pageShift ) ];
+
+        if ( page == null )
+        {
+            // hole, zero bytes
+            return ByteBuffer.allocate( viewLength ).asReadOnlyBuffer();
+        }
+
+        return ByteBuffer.wrap(
+                page ,
+                offsetInPage ,
+                viewLength ).asReadOnlyBuffer();
+    }
+
+    /**
+     * Write one byte, the memory grows
+     * if the position is behind the end.
+     *
+     * @param pos position in memory
+     * @param b the byte to write
+     */
+    public void write(
+            final long pos ,
+            final int b )
+    {
+        if ( pos >= this.length )
+        {
+            grow( pos + 1 );
+        }
+
+        writablePage( (int) ( pos >>> this.pageShift ) )[ (int) pos & this.pageMask ] = (byte) b;
+    }
+
+    /**
+     * Write {@code len} bytes from the specified array,
+     * the memory grows if the range exceeds the end.
+     *
+     * @param pos position in memory
+     * @param b the source array
+     * @param off start offset in source array
+     * @param len number of bytes to write
+     */
+    public void write(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+    {
+        if ( off < 0 || len < 0 || len > b.length - off )
+        {
+            throw new IndexOutOfBoundsException();
+        }
+
+        final long end = pos + len;
+
+        if ( end < 0L )
+        {
+            throw new ArithmeticException( String.valueOf( pos ) + " + " + len );
+        }
+
+        if ( len == 0 )
+        {
+            // like pwrite, an empty write does not extend the file
+            return;
+        }
+
+        if ( end > this.length )
+        {
+            grow( end );
+        }
+
+        int done = 0;
+        while ( done < len )
+        {
+            final long currentPos = pos + done;
+            final int offsetInPage = (int) currentPos & this.pageMask;
+            final int chunk = Math.min( len - done , this.pageSize - offsetInPage );
+
+            System.arraycopy(
+                    //src
+                    b ,
+                    //srcPos
+                    off + done ,
+                    //dest
+                    writablePage( (int) ( currentPos >>> this.pageShift ) ) ,
+                    //destPos
+                    offsetInPage ,
+                    //length
+                    chunk );
+
+            done += chunk;
+        }
+    }
+
+    /**
+     * Get the page for writing,
+     * allocate it if necessary,
+     * copy it if shared with a snapshot.
+     *
+     * @param pageIndex index of page
+     * @return the page
+     */
+    private byte[] writablePage(
+            final int pageIndex )
+    {
+        byte[] page = this.pages[ pageIndex ];
+
+        if ( page != null && this.pageEpochs[ pageIndex ] == this.epoch )
+        {
+            // owned, fast path
+            return page;
+        }
+
+        ownPageTable();
+
+        if ( page == null )
+        {
+            page = new byte[ this.pageSize ];
+            this.allocatedPageCount++;
+        }
+        else
+        {
+            // copy-on-write
+            page = page.clone();
+        }
+
+        this.pages[ pageIndex ] = page;
+        this.pageEpochs[ pageIndex ] = this.epoch;
+
+        return page;
+    }
+
+    /**
+     * Copy the page table if it is
+     * shared with a snapshot.
+     */
+    private void ownPageTable()
+    {
+        if ( this.pageTableShared )
+        {
+            this.pages = this.pages.clone();
+            this.pageEpochs = this.pageEpochs.clone();
+            this.pageTableShared = false;
+        }
+    }
+
+    /**
+     * Number of pages to hold the specified length.
+     *
+     * @param len length in bytes
+     * @return number of pages
+     */
+    private int pageCount(
+            final long len )
+    {
+        final long pageCount = ( len + this.pageMask ) >>> this.pageShift;
+
+        if ( pageCount > Integer.MAX_VALUE )
+        {
+            throw new ArithmeticException( String.valueOf( len ) );
+        }
+
+        return (int) pageCount;
+    }
+
+    /**
+     * Grow memory to the specified length.
+     * Only the page table is copied, the
+     * pages of the new range are allocated
+     * if not sparse.
+     *
+     * @param newLength the new length
+     */
+    private void grow(
+            final long newLength )
+    {
+        final int oldPageCount = pageCount( this.length );
+        final int newPageCount = pageCount( newLength );
+
+        if ( newPageCount > this.pages.length )
+        {
+            final long grownTableLength = this.pages.length + ( this.pages.length >> 1 );
+
+            final int newTableLength =
+                    (int) Math.min(
+                            Math.max(
+                                    grownTableLength ,
+                                    newPageCount ) ,
+                            Integer.MAX_VALUE );
+
+            // the copies are not shared with a snapshot
+            this.pages =
+                    Arrays.copyOf(
+                            //original
+                            this.pages ,
+                            //newLength
+                            newTableLength );
+
+            this.pageEpochs =
+                    Arrays.copyOf(
+                            //original
+                            this.pageEpochs ,
+                            //newLength
+                            newTableLength );
+
+            this.pageTableShared = false;
+        }
+
+        if ( ! this.sparse )
+        {
+            for ( int pageIndex = oldPageCount ; pageIndex < newPageCount ; pageIndex++ )
+            {
+                writablePage( pageIndex );
+            }
+        }
+
+        this.length = newLength;
+    }
+
+    /**
+     * Shrink memory to the specified length.
+     * Pages behind the new length are released,
+     * the rest of the new last page is zeroed.
+     *
+     * @param newLength the new length
+     */
+    private void shrink(
+            final long newLength )
+    {
+        final int oldPageCount = pageCount( this.length );
+        final int newPageCount = pageCount( newLength );
+
+        ownPageTable();
+
+        for ( int pageIndex = newPageCount ; pageIndex < oldPageCount ; pageIndex++ )
+        {
+            if ( this.pages[ pageIndex ] != null )
+            {
+                this.pages[ pageIndex ] = null;
+                this.allocatedPageCount--;
+            }
+        }
+
+        final int offsetInLastPage = (int) newLength & this.pageMask;
+
+        if ( offsetInLastPage != 0 )
+        {
+            if ( this.pages[ newPageCount - 1 ] != null )
+            {
+                Arrays.fill(
+                        writablePage( newPageCount - 1 ) ,
+                        offsetInLastPage ,
+                        this.pageSize ,
+                        (byte) 0 );
+            }
+        }
+
+        this.length = newLength;
+    }
+
+}
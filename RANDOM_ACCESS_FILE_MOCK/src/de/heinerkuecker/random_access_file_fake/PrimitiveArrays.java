@@ -0,0 +1,283 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Bulk transfer of primitive arrays,
+ * big-endian like {@link java.io.DataOutput},
+ * with {@link ByteBuffer} views, which copy
+ * with byte swapping as one intrinsic.
+ */
+final class PrimitiveArrays
+{
+    /**
+     * Size of temporary buffer for transfer
+     * over {@link RandomAccessFileInterface}.
+     */
+    static final int CHUNK_SIZE = 8 * 1024;
+
+    /**
+     * Bits of canonical NaN of
+     * {@link Double#doubleToLongBits(double)}.
+     */
+    private static final long CANONICAL_NAN_BITS = 0x7ff8000000000000L;
+
+    /**
+     * Private constructor, no instance.
+     */
+    private PrimitiveArrays()
+    {
+        // no instance
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if the range is not in the array
+     */
+    static void checkBounds(
+            final int arrayLength ,
+            final int off ,
+            final int len )
+    {
+        if ( off < 0 || len < 0 || len > arrayLength - off )
+        {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    /**
+     * Decode {@code len} ints from {@code mem} at {@code pos}.
+     */
+    static void getInts(
+            final byte[] mem ,
+            final int pos ,
+            final int[] b ,
+            final int off ,
+            final int len )
+    {
+        ByteBuffer.wrap( mem , pos , len * 4 ).asIntBuffer().get( b , off , len );
+    }
+
+    /**
+     * Encode {@code len} ints into {@code mem} at {@code pos}.
+     */
+    static void putInts(
+            final byte[] mem ,
+            final int pos ,
+            final int[] b ,
+            final int off ,
+            final int len )
+    {
+        ByteBuffer.wrap( mem , pos , len * 4 ).asIntBuffer().put( b , off , len );
+    }
+
+    /**
+     * Decode {@code len} longs from {@code mem} at {@code pos}.
+     */
+    static void getLongs(
+            final byte[] mem ,
+            final int pos ,
+            final long[] b ,
+            final int off ,
+            final int len )
+    {
+        ByteBuffer.wrap( mem , pos , len * 8 ).asLongBuffer().get( b , off , len );
+    }
+
+    /**
+     * Encode {@code len} longs into {@code mem} at {@code pos}.
+     */
+    static void putLongs(
+            final byte[] mem ,
+            final int pos ,
+            final long[] b ,
+            final int off ,
+            final int len )
+    {
+        ByteBuffer.wrap( mem , pos , len * 8 ).asLongBuffer().put( b , off , len );
+    }
+
+    /**
+     * Decode {@code len} doubles from {@code mem} at {@code pos}.
+     */
+    static void getDoubles(
+            final byte[] mem ,
+            final int pos ,
+            final double[] b ,
+            final int off ,
+            final int len )
+    {
+        ByteBuffer.wrap( mem , pos , len * 8 ).asDoubleBuffer().get( b , off , len );
+    }
+
+    /**
+     * Encode {@code len} doubles into {@code mem} at {@code pos},
+     * NaN canonical like {@link java.io.DataOutput#writeDouble(double)}.
+     */
+    static void putDoubles(
+            final byte[] mem ,
+            final int pos ,
+            final double[] b ,
+            final int off ,
+            final int len )
+    {
+        final ByteBuffer buffer = ByteBuffer.wrap( mem , pos , len * 8 );
+        // raw bits like doubleToRawLongBits
+        buffer.asDoubleBuffer().put( b , off , len );
+
+        for ( int i = 0 ; i < len ; i++ )
+        {
+            final double v = b[ off + i ];
+            if ( v != v )
+            {
+                // absolute index in mem, wrap does not slice
+                buffer.putLong( pos + i * 8 , CANONICAL_NAN_BITS );
+            }
+        }
+    }
+
+    /**
+     * Read ints over {@link RandomAccessFileInterface#readFully(byte[], int, int)}
+     * in chunks of {@link #CHUNK_SIZE}.
+     */
+    static void readInts(
+            final RandomAccessFileInterface file ,
+            final int[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        checkBounds( b.length , off , len );
+
+        final byte[] chunk = new byte[ (int) Math.min( CHUNK_SIZE , len * 4L ) ];
+        int done = 0;
+        while ( done < len )
+        {
+            final int count = Math.min( len - done , chunk.length / 4 );
+            file.readFully( chunk , 0 , count * 4 );
+            getInts( chunk , 0 , b , off + done , count );
+            done += count;
+        }
+    }
+
+    /**
+     * Write ints over {@link RandomAccessFileInterface#write(byte[], int, int)}
+     * in chunks of {@link #CHUNK_SIZE}.
+     */
+    static void writeInts(
+            final RandomAccessFileInterface file ,
+            final int[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        checkBounds( b.length , off , len );
+
+        final byte[] chunk = new byte[ (int) Math.min( CHUNK_SIZE , len * 4L ) ];
+        int done = 0;
+        while ( done < len )
+        {
+            final int count = Math.min( len - done , chunk.length / 4 );
+            putInts( chunk , 0 , b , off + done , count );
+            file.write( chunk , 0 , count * 4 );
+            done += count;
+        }
+    }
+
+    /**
+     * Read longs over {@link RandomAccessFileInterface#readFully(byte[], int, int)}
+     * in chunks of {@link #CHUNK_SIZE}.
+     */
+    static void readLongs(
+            final RandomAccessFileInterface file ,
+            final long[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        checkBounds( b.length , off , len );
+
+        final byte[] chunk = new byte[ (int) Math.min( CHUNK_SIZE , len * 8L ) ];
+        int done = 0;
+        while ( done < len )
+        {
+            final int count = Math.min( len - done , chunk.length / 8 );
+            file.readFully( chunk , 0 , count * 8 );
+            getLongs( chunk , 0 , b , off + done , count );
+            done += count;
+        }
+    }
+
+    /**
+     * Write longs over {@link RandomAccessFileInterface#write(byte[], int, int)}
+     * in chunks of {@link #CHUNK_SIZE}.
+     */
+    static void writeLongs(
+            final RandomAccessFileInterface file ,
+            final long[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        checkBounds( b.length , off , len );
+
+        final byte[] chunk = new byte[ (int) Math.min( CHUNK_SIZE , len * 8L ) ];
+        int done = 0;
+        while ( done < len )
+        {
+            final int count = Math.min( len - done , chunk.length / 8 );
+            putLongs( chunk , 0 , b , off + done , count );
+            file.write( chunk , 0 , count * 8 );
+            done += count;
+        }
+    }
+
+    /**
+     * Read doubles over {@link RandomAccessFileInterface#readFully(byte[], int, int)}
+     * in chunks of {@link #CHUNK_SIZE}.
+     */
+    static void readDoubles(
+            final RandomAccessFileInterface file ,
+            final double[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        checkBounds( b.length , off , len );
+
+        final byte[] chunk = new byte[ (int) Math.min( CHUNK_SIZE , len * 8L ) ];
+        int done = 0;
+        while ( done < len )
+        {
+            final int count = Math.min( len - done , chunk.length / 8 );
+            file.readFully( chunk , 0 , count * 8 );
+            getDoubles( chunk , 0 , b , off + done , count );
+            done += count;
+        }
+    }
+
+    /**
+     * Write doubles over {@link RandomAccessFileInterface#write(byte[], int, int)}
+     * in chunks of {@link #CHUNK_SIZE}.
+     */
+    static void writeDoubles(
+            final RandomAccessFileInterface file ,
+            final double[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        checkBounds( b.length , off , len );
+
+        final byte[] chunk = new byte[ (int) Math.min( CHUNK_SIZE , len * 8L ) ];
+        int done = 0;
+        while ( done < len )
+        {
+            final int count = Math.min( len - done , chunk.length / 8 );
+            putDoubles( chunk , 0 , b , off + done , count );
+            file.write( chunk , 0 , count * 8 );
+            done += count;
+        }
+    }
+
+}
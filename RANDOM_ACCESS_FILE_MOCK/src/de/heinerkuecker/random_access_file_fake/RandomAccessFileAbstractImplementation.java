@@ -0,0 +1,831 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.UTFDataFormatException;
+import java.nio.channels.FileChannel;
+
+/**
+ * Abstract base implementation of {@link RandomAccessFileInterface}.
+ * <br/><br/>
+ * All "reading/writing Java data types" methods
+ * are implemented like in {@link RandomAccessFile}
+ * on top of the few abstract primitive methods
+ * {@link #read()}, {@link #read(byte[], int, int)},
+ * {@link #write(int)}, {@link #write(byte[], int, int)},
+ * {@link #getFilePointer()}, {@link #seek(long)},
+ * {@link #length()}, {@link #setLength(long)}
+ * and {@link #close()}.
+ */
+abstract public class RandomAccessFileAbstractImplementation
+implements RandomAccessFileInterface
+{
+    /**
+     * The channel, created on first call
+     * of {@link #getChannel()}.
+     */
+    private FileChannel channel;
+
+    /**
+     * Returns the unique {@link java.nio.channels.FileChannel FileChannel}
+     * object associated with this file.
+     *
+     * <p> The {@link java.nio.channels.FileChannel#position()
+     * position} of the returned channel will always be equal to
+     * this object's file-pointer offset as returned by the {@link
+     * #getFilePointer getFilePointer} method.  Changing this object's
+     * file-pointer offset, whether explicitly or by reading or writing bytes,
+     * will change the position of the channel, and vice versa.  Changing the
+     * file's length via this object will change the length seen via the file
+     * channel, and vice versa.
+     *
+     * @return  the file channel associated with this file
+     */
+    @Override
+    public synchronized FileChannel getChannel()
+    {
+        if ( this.channel == null )
+        {
+            this.channel = newChannel();
+        }
+        return this.channel;
+    }
+
+    /**
+     * Create the channel for {@link #getChannel()},
+     * override to give access to the backing storage.
+     *
+     * @return new channel of this file
+     */
+    protected FileChannel newChannel()
+    {
+        return new RandomAccessFileInterfaceChannel( this );
+    }
+    /**
+     * Reads up to {@code b.length} bytes of data from this file
+     * into an array of bytes. This method blocks until at least one byte
+     * of input is available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the
+     * same way as the {@link InputStream#read(byte[])} method of
+     * {@code InputStream}.
+     *
+     * @param      b   the buffer into which the data is read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if there is no more data because the end of
+     *             this file has been reached.
+     * @exception  IOException If the first byte cannot be read for any reason
+     * other than end of file, or if the random access file has been closed, or if
+     * some other I/O error occurs.
+     * @exception  NullPointerException If {@code b} is {@code null}.
+     */
+    @Override
+    public int read(
+            final byte[] b )
+            throws IOException
+    {
+        return read( b , 0 , b.length );
+    }
+
+    /**
+     * Reads {@code b.length} bytes from this file into the byte
+     * array, starting at the current file pointer. This method reads
+     * repeatedly from the file until the requested number of bytes are
+     * read. This method blocks until the requested number of bytes are
+     * read, the end of the stream is detected, or an exception is thrown.
+     *
+     * @param   b   the buffer into which the data is read.
+     * @throws  NullPointerException if {@code b} is {@code null}.
+     * @throws  EOFException  if this file reaches the end before reading
+     *              all the bytes.
+     * @throws  IOException   if an I/O error occurs.
+     */
+    @Override
+    public void readFully(
+            final byte[] b )
+            throws IOException
+    {
+        readFully( b , 0 , b.length );
+    }
+
+    /**
+     * Reads exactly {@code len} bytes from this file into the byte
+     * array, starting at the current file pointer. This method reads
+     * repeatedly from the file until the requested number of bytes are
+     * read. This method blocks until the requested number of bytes are
+     * read, the end of the stream is detected, or an exception is thrown.
+     *
+     * @param   b     the buffer into which the data is read.
+     * @param   off   the start offset into the data array {@code b}.
+     * @param   len   the number of bytes to read.
+     * @throws  NullPointerException if {@code b} is {@code null}.
+     * @throws  IndexOutOfBoundsException if {@code off} is negative,
+     *                {@code len} is negative, or {@code len} is greater than
+     *                {@code b.length - off}.
+     * @throws  EOFException  if this file reaches the end before reading
+     *                all the bytes.
+     * @throws  IOException   if an I/O error occurs.
+     */
+    @Override
+    public void readFully(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        int n = 0;
+        do {
+            int count = this.read(b, off + n, len - n);
+            if (count < 0)
+                throw new EOFException();
+            n += count;
+        } while (n < len);
+    }
+
+    /**
+     * Attempts to skip over {@code n} bytes of input discarding the
+     * skipped bytes.
+     * <p>
+     *
+     * This method may skip over some smaller number of bytes, possibly zero.
+     * This may result from any of a number of conditions; reaching end of
+     * file before {@code n} bytes have been skipped is only one
+     * possibility. This method never throws an {@code EOFException}.
+     * The actual number of bytes skipped is returned.  If {@code n}
+     * is negative, no bytes are skipped.
+     *
+     * @param      n   the number of bytes to be skipped.
+     * @return     the actual number of bytes skipped.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public int skipBytes(
+            final int n )
+            throws IOException
+    {
+        long pos;
+        long len;
+        long newpos;
+
+        if (n <= 0) {
+            return 0;
+        }
+        pos = getFilePointer();
+        len = length();
+        newpos = pos + n;
+        if (newpos > len) {
+            newpos = len;
+        }
+        seek(newpos);
+
+        /* return the actual number of bytes skipped */
+        return (int) (newpos - pos);
+    }
+
+    /**
+     * Writes {@code b.length} bytes from the specified byte array
+     * to this file, starting at the current file pointer.
+     *
+     * @param      b   the data.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final byte[] b )
+            throws IOException
+    {
+        write( b , 0 , b.length );
+    }
+
+    /**
+     * Reads a {@code boolean} from this file. This method reads a
+     * single byte from the file, starting at the current file pointer.
+     * A value of {@code 0} represents
+     * {@code false}. Any other value represents {@code true}.
+     * This method blocks until the byte is read, the end of the stream
+     * is detected, or an exception is thrown.
+     *
+     * @return     the {@code boolean} value read.
+     * @exception  EOFException  if this file has reached the end.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public boolean readBoolean()
+            throws IOException
+    {
+        int ch = this.read();
+        if (ch < 0)
+            throw new EOFException();
+        return (ch != 0);
+    }
+
+    /**
+     * Reads a signed eight-bit value from this file. This method reads a
+     * byte from the file, starting from the current file pointer.
+     * If the byte read is {@code b}, where
+     * <code>0&nbsp;&lt;=&nbsp;b&nbsp;&lt;=&nbsp;255</code>,
+     * then the result is:
+     * <blockquote><pre>
+     *     (byte)(b)
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the byte is read, the end of the stream
+     * is detected, or an exception is thrown.
+     *
+     * @return     the next byte of this file as a signed eight-bit
+     *             {@code byte}.
+     * @exception  EOFException  if this file has reached the end.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public byte readByte()
+            throws IOException
+    {
+        int ch = this.read();
+        if (ch < 0)
+            throw new EOFException();
+        return (byte)(ch);
+    }
+
+    /**
+     * Reads an unsigned eight-bit number from this file. This method reads
+     * a byte from this file, starting at the current file pointer,
+     * and returns that byte.
+     * <p>
+     * This method blocks until the byte is read, the end of the stream
+     * is detected, or an exception is thrown.
+     *
+     * @return     the next byte of this file, interpreted as an unsigned
+     *             eight-bit number.
+     * @exception  EOFException  if this file has reached the end.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public int readUnsignedByte()
+            throws IOException
+    {
+        int ch = this.read();
+        if (ch < 0)
+            throw new EOFException();
+        return ch;
+    }
+
+    /**
+     * Reads a signed 16-bit number from this file. The method reads two
+     * bytes from this file, starting at the current file pointer.
+     * If the two bytes read, in order, are
+     * {@code b1} and {@code b2}, where each of the two values is
+     * between {@code 0} and {@code 255}, inclusive, then the
+     * result is equal to:
+     * <blockquote><pre>
+     *     (short)((b1 &lt;&lt; 8) | b2)
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the two bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next two bytes of this file, interpreted as a signed
+     *             16-bit number.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               two bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public short readShort()
+            throws IOException
+    {
+        int ch1 = this.read();
+        int ch2 = this.read();
+        if ((ch1 | ch2) < 0)
+            throw new EOFException();
+        return (short)((ch1 << 8) + (ch2 << 0));
+    }
+
+    /**
+     * Reads an unsigned 16-bit number from this file. This method reads
+     * two bytes from the file, starting at the current file pointer.
+     * If the bytes read, in order, are
+     * {@code b1} and {@code b2}, where
+     * <code>0&nbsp;&lt;=&nbsp;b1, b2&nbsp;&lt;=&nbsp;255</code>,
+     * then the result is equal to:
+     * <blockquote><pre>
+     *     (b1 &lt;&lt; 8) | b2
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the two bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next two bytes of this file, interpreted as an unsigned
+     *             16-bit integer.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               two bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public int readUnsignedShort()
+            throws IOException
+    {
+        int ch1 = this.read();
+        int ch2 = this.read();
+        if ((ch1 | ch2) < 0)
+            throw new EOFException();
+        return (ch1 << 8) + (ch2 << 0);
+    }
+
+    /**
+     * Reads a character from this file. This method reads two
+     * bytes from the file, starting at the current file pointer.
+     * If the bytes read, in order, are
+     * {@code b1} and {@code b2}, where
+     * <code>0&nbsp;&lt;=&nbsp;b1,&nbsp;b2&nbsp;&lt;=&nbsp;255</code>,
+     * then the result is equal to:
+     * <blockquote><pre>
+     *     (char)((b1 &lt;&lt; 8) | b2)
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the two bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next two bytes of this file, interpreted as a
+     *                  {@code char}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               two bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public char readChar()
+            throws IOException
+    {
+        int ch1 = this.read();
+        int ch2 = this.read();
+        if ((ch1 | ch2) < 0)
+            throw new EOFException();
+        return (char)((ch1 << 8) + (ch2 << 0));
+    }
+
+    /**
+     * Reads a signed 32-bit integer from this file. This method reads 4
+     * bytes from the file, starting at the current file pointer.
+     * If the bytes read, in order, are {@code b1},
+     * {@code b2}, {@code b3}, and {@code b4}, where
+     * <code>0&nbsp;&lt;=&nbsp;b1, b2, b3, b4&nbsp;&lt;=&nbsp;255</code>,
+     * then the result is equal to:
+     * <blockquote><pre>
+     *     (b1 &lt;&lt; 24) | (b2 &lt;&lt; 16) + (b3 &lt;&lt; 8) + b4
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the four bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next four bytes of this file, interpreted as an
+     *             {@code int}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               four bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public int readInt()
+            throws IOException
+    {
+        int ch1 = this.read();
+        int ch2 = this.read();
+        int ch3 = this.read();
+        int ch4 = this.read();
+        if ((ch1 | ch2 | ch3 | ch4) < 0)
+            throw new EOFException();
+        return ((ch1 << 24) + (ch2 << 16) + (ch3 << 8) + (ch4 << 0));
+    }
+
+    /**
+     * Reads a signed 64-bit integer from this file. This method reads eight
+     * bytes from the file, starting at the current file pointer.
+     * If the bytes read, in order, are
+     * {@code b1}, {@code b2}, {@code b3},
+     * {@code b4}, {@code b5}, {@code b6},
+     * {@code b7}, and {@code b8,} where:
+     * <blockquote><pre>
+     *     0 &lt;= b1, b2, b3, b4, b5, b6, b7, b8 &lt;=255,
+     * </pre></blockquote>
+     * <p>
+     * then the result is equal to:
+     * <blockquote><pre>
+     *     ((long)b1 &lt;&lt; 56) + ((long)b2 &lt;&lt; 48)
+     *     + ((long)b3 &lt;&lt; 40) + ((long)b4 &lt;&lt; 32)
+     *     + ((long)b5 &lt;&lt; 24) + ((long)b6 &lt;&lt; 16)
+     *     + ((long)b7 &lt;&lt; 8) + b8
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the eight bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next eight bytes of this file, interpreted as a
+     *             {@code long}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               eight bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public long readLong()
+            throws IOException
+    {
+        return ((long)(readInt()) << 32) + (readInt() & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Reads a {@code float} from this file. This method reads an
+     * {@code int} value, starting at the current file pointer,
+     * as if by the {@code readInt} method
+     * and then converts that {@code int} to a {@code float}
+     * using the {@code intBitsToFloat} method in class
+     * {@code Float}.
+     * <p>
+     * This method blocks until the four bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next four bytes of this file, interpreted as a
+     *             {@code float}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *             four bytes.
+     * @exception  IOException   if an I/O error occurs.
+     * @see        java.io.RandomAccessFile#readInt()
+     * @see        java.lang.Float#intBitsToFloat(int)
+     */
+    @Override
+    public float readFloat()
+            throws IOException
+    {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    /**
+     * Reads a {@code double} from this file. This method reads a
+     * {@code long} value, starting at the current file pointer,
+     * as if by the {@code readLong} method
+     * and then converts that {@code long} to a {@code double}
+     * using the {@code longBitsToDouble} method in
+     * class {@code Double}.
+     * <p>
+     * This method blocks until the eight bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next eight bytes of this file, interpreted as a
+     *             {@code double}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *             eight bytes.
+     * @exception  IOException   if an I/O error occurs.
+     * @see        java.io.RandomAccessFile#readLong()
+     * @see        java.lang.Double#longBitsToDouble(long)
+     */
+    @Override
+    public double readDouble()
+            throws IOException
+    {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    /**
+     * Reads the next line of text from this file.  This method successively
+     * reads bytes from the file, starting at the current file pointer,
+     * until it reaches a line terminator or the end
+     * of the file.  Each byte is converted into a character by taking the
+     * byte's value for the lower eight bits of the character and setting the
+     * high eight bits of the character to zero.  This method does not,
+     * therefore, support the full Unicode character set.
+     *
+     * <p> A line of text is terminated by a carriage-return character
+     * ({@code '\r'}), a newline character ({@code '\n'}), a
+     * carriage-return character immediately followed by a newline character,
+     * or the end of the file.  Line-terminating characters are discarded and
+     * are not included as part of the string returned.
+     *
+     * <p> This method blocks until a newline character is read, a carriage
+     * return and the byte following it are read (to see if it is a newline),
+     * the end of the file is reached, or an exception is thrown.
+     *
+     * @return     the next line of text from this file, or null if end
+     *             of file is encountered before even one byte is read.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public String readLine()
+            throws IOException
+    {
+        StringBuilder input = new StringBuilder();
+        int c = -1;
+        boolean eol = false;
+
+        while (!eol) {
+            switch (c = read()) {
+            case -1:
+            case '\n':
+                eol = true;
+                break;
+            case '\r':
+                eol = true;
+                long cur = getFilePointer();
+                if ((read()) != '\n') {
+                    seek(cur);
+                }
+                break;
+            default:
+                input.append((char)c);
+                break;
+            }
+        }
+
+        if ((c == -1) && (input.length() == 0)) {
+            return null;
+        }
+        return input.toString();
+    }
+
+    /**
+     * Reads in a string from this file. The string has been encoded
+     * using a
+     * <a href="DataInput.html#modified-utf-8">modified UTF-8</a>
+     * format.
+     * <p>
+     * The first two bytes are read, starting from the current file
+     * pointer, as if by
+     * {@code readUnsignedShort}. This value gives the number of
+     * following bytes that are in the encoded string, not
+     * the length of the resulting string. The following bytes are then
+     * interpreted as bytes encoding characters in the modified UTF-8 format
+     * and are converted into characters.
+     * <p>
+     * This method blocks until all the bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     a Unicode string.
+     * @exception  EOFException            if this file reaches the end before
+     *               reading all the bytes.
+     * @exception  IOException             if an I/O error occurs.
+     * @exception  UTFDataFormatException  if the bytes do not represent
+     *               valid modified UTF-8 encoding of a Unicode string.
+     * @see        java.io.RandomAccessFile#readUnsignedShort()
+     */
+    @Override
+    public String readUTF()
+            throws IOException
+    {
+        return DataInputStream.readUTF(this);
+    }
+
+    /**
+     * Writes a {@code boolean} to the file as a one-byte value. The
+     * value {@code true} is written out as the value
+     * {@code (byte)1}; the value {@code false} is written out
+     * as the value {@code (byte)0}. The write starts at
+     * the current position of the file pointer.
+     *
+     * @param      v   a {@code boolean} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeBoolean(boolean v)
+            throws IOException
+    {
+        write(v ? 1 : 0);
+    }
+
+    /**
+     * Writes a {@code byte} to the file as a one-byte value. The
+     * write starts at the current position of the file pointer.
+     *
+     * @param      v   a {@code byte} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeByte(int v)
+            throws IOException
+    {
+        write(v);
+    }
+
+    /**
+     * Writes a {@code short} to the file as two bytes, high byte first.
+     * The write starts at the current position of the file pointer.
+     *
+     * @param      v   a {@code short} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeShort(int v)
+            throws IOException
+    {
+        write((v >>> 8) & 0xFF);
+        write((v >>> 0) & 0xFF);
+    }
+
+    /**
+     * Writes a {@code char} to the file as a two-byte value, high
+     * byte first. The write starts at the current position of the
+     * file pointer.
+     *
+     * @param      v   a {@code char} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeChar(int v)
+            throws IOException
+    {
+        write((v >>> 8) & 0xFF);
+        write((v >>> 0) & 0xFF);
+    }
+
+    /**
+     * Writes an {@code int} to the file as four bytes, high byte first.
+     * The write starts at the current position of the file pointer.
+     *
+     * @param      v   an {@code int} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeInt(int v)
+            throws IOException
+    {
+        write((v >>> 24) & 0xFF);
+        write((v >>> 16) & 0xFF);
+        write((v >>>  8) & 0xFF);
+        write((v >>>  0) & 0xFF);
+    }
+
+    /**
+     * Writes a {@code long} to the file as eight bytes, high byte first.
+     * The write starts at the current position of the file pointer.
+     *
+     * @param      v   a {@code long} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeLong(long v)
+            throws IOException
+    {
+        write((int)(v >>> 56) & 0xFF);
+        write((int)(v >>> 48) & 0xFF);
+        write((int)(v >>> 40) & 0xFF);
+        write((int)(v >>> 32) & 0xFF);
+        write((int)(v >>> 24) & 0xFF);
+        write((int)(v >>> 16) & 0xFF);
+        write((int)(v >>>  8) & 0xFF);
+        write((int)(v >>>  0) & 0xFF);
+    }
+
+    /**
+     * Converts the float argument to an {@code int} using the
+     * {@code floatToIntBits} method in class {@code Float},
+     * and then writes that {@code int} value to the file as a
+     * four-byte quantity, high byte first. The write starts at the
+     * current position of the file pointer.
+     *
+     * @param      v   a {@code float} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.lang.Float#floatToIntBits(float)
+     */
+    @Override
+    public void writeFloat(float v)
+            throws IOException
+    {
+        writeInt(Float.floatToIntBits(v));
+    }
+
+    /**
+     * Converts the double argument to a {@code long} using the
+     * {@code doubleToLongBits} method in class {@code Double},
+     * and then writes that {@code long} value to the file as an
+     * eight-byte quantity, high byte first. The write starts at the current
+     * position of the file pointer.
+     *
+     * @param      v   a {@code double} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.lang.Double#doubleToLongBits(double)
+     */
+    @Override
+    public void writeDouble(double v)
+            throws IOException
+    {
+        writeLong(Double.doubleToLongBits(v));
+    }
+
+    /**
+     * Writes the string to the file as a sequence of bytes. Each
+     * character in the string is written out, in sequence, by discarding
+     * its high eight bits. The write starts at the current position of
+     * the file pointer.
+     *
+     * @param      s   a string of bytes to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @SuppressWarnings("deprecation")
+    @Override
+    public void writeBytes(String s)
+            throws IOException
+    {
+        int len = s.length();
+        byte[] b = new byte[len];
+        s.getBytes(0, len, b, 0);
+        write(b, 0, len);
+    }
+
+    /**
+     * Writes a string to the file as a sequence of characters. Each
+     * character is written to the data output stream as if by the
+     * {@code writeChar} method. The write starts at the current
+     * position of the file pointer.
+     *
+     * @param      s   a {@code String} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.io.RandomAccessFile#writeChar(int)
+     */
+    @Override
+    public void writeChars(String s)
+            throws IOException
+    {
+        int clen = s.length();
+        int blen = 2*clen;
+        byte[] b = new byte[blen];
+        char[] c = new char[clen];
+        s.getChars(0, clen, c, 0);
+        for (int i = 0, j = 0; i < clen; i++) {
+            b[j++] = (byte)(c[i] >>> 8);
+            b[j++] = (byte)(c[i] >>> 0);
+        }
+        write(b, 0, blen);
+    }
+
+    /**
+     * Writes a string to the file using
+     * <a href="DataInput.html#modified-utf-8">modified UTF-8</a>
+     * encoding in a machine-independent manner.
+     * <p>
+     * First, two bytes are written to the file, starting at the
+     * current file pointer, as if by the
+     * {@code writeShort} method giving the number of bytes to
+     * follow. This value is the number of bytes actually written out,
+     * not the length of the string. Following the length, each character
+     * of the string is output, in sequence, using the modified UTF-8 encoding
+     * for each character.
+     *
+     * @param      str   a string to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeUTF(String str)
+            throws IOException
+    {
+        final int strlen = str.length();
+        int utflen = strlen; // optimized for ASCII
+
+        for (int i = 0; i < strlen; i++) {
+            int c = str.charAt(i);
+            if (c >= 0x80 || c == 0)
+                utflen += (c >= 0x800) ? 2 : 1;
+        }
+
+        if (utflen > 65535 || /* overflow */ utflen < strlen)
+            throw new UTFDataFormatException(tooLongMsg(str, utflen));
+
+        final byte[] bytearr = new byte[utflen + 2];
+
+        int count = 0;
+        bytearr[count++] = (byte) ((utflen >>> 8) & 0xFF);
+        bytearr[count++] = (byte) ((utflen >>> 0) & 0xFF);
+
+        int i = 0;
+        for (i = 0; i < strlen; i++) { // optimized for initial run of ASCII
+            int c = str.charAt(i);
+            if (c >= 0x80 || c == 0) break;
+            bytearr[count++] = (byte) c;
+        }
+
+        for (; i < strlen; i++) {
+            int c = str.charAt(i);
+            if (c < 0x80 && c != 0) {
+                bytearr[count++] = (byte) c;
+            } else if (c >= 0x800) {
+                bytearr[count++] = (byte) (0xE0 | ((c >> 12) & 0x0F));
+                bytearr[count++] = (byte) (0x80 | ((c >>  6) & 0x3F));
+                bytearr[count++] = (byte) (0x80 | ((c >>  0) & 0x3F));
+            } else {
+                bytearr[count++] = (byte) (0xC0 | ((c >>  6) & 0x1F));
+                bytearr[count++] = (byte) (0x80 | ((c >>  0) & 0x3F));
+            }
+        }
+        this.write(bytearr, 0, utflen + 2);
+    }
+
+    private static String tooLongMsg(String s, int bits32) {
+        int slen = s.length();
+        String head = s.substring(0, 8);
+        String tail = s.substring(slen - 8, slen);
+        // handle int overflow with max 3x expansion
+        long actualLength = (long)slen + Integer.toUnsignedLong(bits32 - slen);
+        return "encoded string (" + head + "..." + tail + ") too long: "
+            + actualLength + " bytes";
+    }
+
+}
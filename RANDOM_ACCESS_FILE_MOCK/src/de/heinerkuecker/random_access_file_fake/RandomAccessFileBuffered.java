@@ -0,0 +1,756 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Buffering decorator for any {@link RandomAccessFileInterface}.
+ * <br/><br/>
+ * Holds one page buffer (window) of the file.
+ * Reads are served from the buffer, a miss fills the buffer
+ * from the current position (read-ahead). Writes go
+ * into the buffer and are written to the decorated file
+ * as one coalesced range when the window moves, on
+ * {@link #flush()}, {@link #setLength(long)} and {@link #close()}
+ * (write-behind).
+ * <br/><br/>
+ * The decorated file must not be accessed other than
+ * over this decorator while the decorator is in use.
+ * Not thread-safe, like {@link java.io.RandomAccessFile}.
+ */
+public class RandomAccessFileBuffered
+extends RandomAccessFileAbstractImplementation
+{
+    /**
+     * Default size of buffer 64 KiB.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The decorated file.
+     */
+    private final RandomAccessFileInterface delegate;
+
+    /**
+     * Page buffer.
+     */
+    private final byte[] buffer;
+
+    /**
+     * File position of first byte in {@link #buffer}.
+     */
+    private long bufferStart;
+
+    /**
+     * Number of valid bytes in {@link #buffer}.
+     */
+    private int bufferLength;
+
+    /**
+     * Start offset in {@link #buffer} of bytes
+     * not yet written to the decorated file.
+     */
+    private int dirtyStart;
+
+    /**
+     * End offset exclusive in {@link #buffer} of bytes
+     * not yet written to the decorated file,
+     * 0 if buffer is not dirty.
+     */
+    private int dirtyEnd;
+
+    /**
+     * Length of file including buffered writes.
+     */
+    private long length;
+
+    /**
+     * File pointer.
+     * Current position in file.
+     */
+    private long filePointer;
+
+    /**
+     * Closed state.
+     */
+    private boolean closed;
+
+    /**
+     * Constructor.
+     *
+     * @param delegate opened file to decorate
+     * @throws IOException
+     */
+    public RandomAccessFileBuffered(
+            final RandomAccessFileInterface delegate )
+            throws IOException
+    {
+        this( delegate , DEFAULT_BUFFER_SIZE );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param delegate opened file to decorate
+     * @param bufferSize size of page buffer in bytes
+     * @throws IOException
+     */
+    public RandomAccessFileBuffered(
+            final RandomAccessFileInterface delegate ,
+            final int bufferSize )
+            throws IOException
+    {
+        if ( bufferSize < 8 )
+        {
+            throw new IllegalArgumentException( "buffer size too small: " + bufferSize );
+        }
+
+        this.delegate = delegate;
+        this.buffer = new byte[ bufferSize ];
+        this.length = delegate.length();
+        this.filePointer = delegate.getFilePointer();
+    }
+
+    /**
+     * Write buffered changes to the decorated file.
+     * The buffer content stays valid.
+     *
+     * @throws IOException
+     */
+    public void flush()
+            throws IOException
+    {
+        ensureOpen();
+
+        flushBuffer();
+    }
+
+    /**
+     * Reads a byte of data from this file. The byte is returned as an
+     * integer in the range 0 to 255 ({@code 0x00-0x0ff}). This
+     * method blocks if no input is yet available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the same
+     * way as the {@link InputStream#read()} method of
+     * {@code InputStream}.
+     *
+     * @return     the next byte of data, or {@code -1} if the end of the
+     *             file has been reached.
+     * @exception  IOException  if an I/O error occurs. Not thrown if
+     *                          end-of-file has been reached.
+     */
+    @Override
+    public int read()
+            throws IOException
+    {
+        ensureOpen();
+
+        if ( this.filePointer >= this.length )
+        {
+            return -1;
+        }
+
+        if ( ! isBuffered( this.filePointer , 1 ) )
+        {
+            fill( this.filePointer );
+        }
+
+        return this.buffer[ (int) ( this.filePointer++ - this.bufferStart ) ] & 0xFF;
+    }
+
+    /**
+     * Reads up to {@code len} bytes of data from this file into an
+     * array of bytes. This method blocks until at least one byte of input
+     * is available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the
+     * same way as the {@link InputStream#read(byte[], int, int)} method of
+     * {@code InputStream}.
+     *
+     * @param      b     the buffer into which the data is read.
+     * @param      off   the start offset in array {@code b}
+     *                   at which the data is written.
+     * @param      len   the maximum number of bytes read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if there is no more data because the end of
+     *             the file has been reached.
+     * @exception  IOException If the first byte cannot be read for any reason
+     * other than end of file, or if the random access file has been closed, or if
+     * some other I/O error occurs.
+     * @exception  NullPointerException If {@code b} is {@code null}.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public int read(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        ensureOpen();
+
+        if ( off < 0 || len < 0 || len > b.length - off )
+        {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if ( len == 0 )
+        {
+            return 0;
+        }
+
+        if ( this.filePointer >= this.length )
+        {
+            return -1;
+        }
+
+        final int lengthToRead = (int) Math.min( len , this.length - this.filePointer );
+
+        if ( ! isBuffered( this.filePointer , 1 ) )
+        {
+            if ( lengthToRead >= this.buffer.length )
+            {
+                // large read, bypass buffer
+                flushBuffer();
+                final int lengthRead =
+                        readFullyAt(
+                                this.filePointer ,
+                                b ,
+                                off ,
+                                lengthToRead );
+                this.filePointer += lengthRead;
+                return lengthRead;
+            }
+
+            fill( this.filePointer );
+        }
+
+        // serve from buffer, rest on next call
+        final int offsetInBuffer = (int) ( this.filePointer - this.bufferStart );
+        final int lengthFromBuffer = Math.min( lengthToRead , this.bufferLength - offsetInBuffer );
+
+        System.arraycopy(
+                //src
+                this.buffer ,
+                //srcPos
+                offsetInBuffer ,
+                //dest
+                b ,
+                //destPos
+                off ,
+                //length
+                lengthFromBuffer );
+
+        this.filePointer += lengthFromBuffer;
+        return lengthFromBuffer;
+    }
+
+    /**
+     * Writes the specified byte to this file. The write starts at
+     * the current file pointer.
+     *
+     * @param      b   the {@code byte} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final int b )
+            throws IOException
+    {
+        final int offsetInBuffer = prepareWrite( 1 );
+
+        this.buffer[ offsetInBuffer ] = (byte) b;
+
+        this.filePointer++;
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array
+     * starting at offset {@code off} to this file.
+     *
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        ensureOpen();
+
+        if ( off < 0 || len < 0 || len > b.length - off )
+        {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if ( len >= this.buffer.length )
+        {
+            // large write, bypass buffer
+            flushBuffer();
+            invalidateBuffer();
+
+            this.delegate.writeAt(
+                    this.filePointer ,
+                    b ,
+                    off ,
+                    len );
+
+            this.filePointer += len;
+            this.length = Math.max( this.length , this.filePointer );
+            return;
+        }
+
+        int done = 0;
+        while ( done < len )
+        {
+            final int room =
+                    isInWriteWindow( this.filePointer )
+                    ? (int) ( this.buffer.length - ( this.filePointer - this.bufferStart ) )
+                    : this.buffer.length;
+
+            final int chunkLength = Math.min( len - done , room );
+
+            final int offsetInBuffer = prepareWrite( chunkLength );
+
+            System.arraycopy(
+                    //src
+                    b ,
+                    //srcPos
+                    off + done ,
+                    //dest
+                    this.buffer ,
+                    //destPos
+                    offsetInBuffer ,
+                    //length
+                    chunkLength );
+
+            this.filePointer += chunkLength;
+            done += chunkLength;
+        }
+    }
+
+    /**
+     * Reads a signed 32-bit integer from this file
+     * directly from the buffer.
+     *
+     * @return     the next four bytes of this file, interpreted as an
+     *             {@code int}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               four bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public int readInt()
+            throws IOException
+    {
+        ensureOpen();
+
+        if ( ! isBuffered( this.filePointer , 4 ) )
+        {
+            if ( this.length - this.filePointer < 4 )
+            {
+                // end of file, consume remaining bytes like RandomAccessFile
+                return super.readInt();
+            }
+            fill( this.filePointer );
+        }
+
+        final int pos = (int) ( this.filePointer - this.bufferStart );
+        final byte[] mem = this.buffer;
+
+        this.filePointer += 4;
+
+        return ( mem[ pos ] << 24 ) |
+                ( ( mem[ pos + 1 ] & 0xFF ) << 16 ) |
+                ( ( mem[ pos + 2 ] & 0xFF ) <<  8 ) |
+                ( mem[ pos + 3 ] & 0xFF );
+    }
+
+    /**
+     * Reads a signed 64-bit integer from this file
+     * directly from the buffer.
+     *
+     * @return     the next eight bytes of this file, interpreted as a
+     *             {@code long}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               eight bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public long readLong()
+            throws IOException
+    {
+        return ((long)(readInt()) << 32) + (readInt() & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Writes an {@code int} to the file as four bytes, high byte first,
+     * directly into the buffer.
+     *
+     * @param      v   an {@code int} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeInt(
+            final int v )
+            throws IOException
+    {
+        final int pos = prepareWrite( 4 );
+        final byte[] mem = this.buffer;
+
+        mem[ pos     ] = (byte) ( v >>> 24 );
+        mem[ pos + 1 ] = (byte) ( v >>> 16 );
+        mem[ pos + 2 ] = (byte) ( v >>>  8 );
+        mem[ pos + 3 ] = (byte) v;
+
+        this.filePointer += 4;
+    }
+
+    /**
+     * Writes a {@code long} to the file as eight bytes, high byte first,
+     * directly into the buffer.
+     *
+     * @param      v   a {@code long} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeLong(
+            final long v )
+            throws IOException
+    {
+        writeInt( (int) ( v >>> 32 ) );
+        writeInt( (int) v );
+    }
+
+    /**
+     * Returns the current offset in this file.
+     *
+     * @return     the offset from the beginning of the file, in bytes,
+     *             at which the next read or write occurs.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public long getFilePointer()
+            throws IOException
+    {
+        ensureOpen();
+
+        return this.filePointer;
+    }
+
+    /**
+     * Sets the file-pointer offset, measured from the beginning of this
+     * file, at which the next read or write occurs.  The offset may be
+     * set beyond the end of the file. Setting the offset beyond the end
+     * of the file does not change the file length.  The file length will
+     * change only by writing after the offset has been set beyond the end
+     * of the file.
+     * <br/><br/>
+     * The buffer stays valid, it is replaced
+     * on the next access outside the buffer.
+     *
+     * @param      pos   the offset position, measured in bytes from the
+     *                   beginning of the file, at which to set the file
+     *                   pointer.
+     * @exception  IOException  if {@code pos} is less than
+     *                          {@code 0} or if an I/O error occurs.
+     */
+    @Override
+    public void seek(
+            final long pos )
+            throws IOException
+    {
+        ensureOpen();
+
+        if ( pos < 0L )
+        {
+            throw new IOException("Negative seek offset");
+        }
+
+        this.filePointer = pos;
+    }
+
+    /**
+     * Returns the length of this file
+     * including buffered writes.
+     *
+     * @return     the length of this file, measured in bytes.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public long length()
+            throws IOException
+    {
+        ensureOpen();
+
+        return this.length;
+    }
+
+    /**
+     * Sets the length of this file.
+     *
+     * <p> If the present length of the file as returned by the
+     * {@code length} method is greater than the {@code newLength}
+     * argument then the file will be truncated.  In this case, if the file
+     * offset as returned by the {@code getFilePointer} method is greater
+     * than {@code newLength} then after this method returns the offset
+     * will be equal to {@code newLength}.
+     *
+     * <p> If the present length of the file as returned by the
+     * {@code length} method is smaller than the {@code newLength}
+     * argument then the file will be extended.  In this case, the contents of
+     * the extended portion of the file are not defined.
+     * <br/><br/>
+     * Buffered changes are written and the buffer is invalidated.
+     *
+     * @param      newLength    The desired length of the file
+     * @exception  IOException  If an I/O error occurs
+     */
+    @Override
+    public void setLength(
+            final long newLength )
+            throws IOException
+    {
+        ensureOpen();
+
+        if ( newLength < 0L )
+        {
+            throw new IOException("Negative length " + newLength );
+        }
+
+        flushBuffer();
+        invalidateBuffer();
+
+        this.delegate.setLength( newLength );
+        this.length = newLength;
+
+        if ( this.filePointer > newLength )
+        {
+            this.filePointer = newLength;
+        }
+    }
+
+    /**
+     * Closes this random access file stream and the decorated
+     * file after writing buffered changes. A closed random access
+     * file cannot perform input or output operations and cannot
+     * be reopened.
+     *
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void close()
+            throws IOException
+    {
+        if ( this.closed )
+        {
+            return;
+        }
+
+        try
+        {
+            flushBuffer();
+        }
+        finally
+        {
+            this.closed = true;
+            this.delegate.close();
+        }
+    }
+
+    /**
+     * @param pos file position
+     * @param len number of bytes
+     * @return the range is completely in the valid part of {@link #buffer}
+     */
+    private boolean isBuffered(
+            final long pos ,
+            final int len )
+    {
+        return pos >= this.bufferStart &&
+                pos - this.bufferStart + len <= this.bufferLength;
+    }
+
+    /**
+     * @param pos file position
+     * @return a write at the position can go into
+     *         the {@link #buffer} without moving it,
+     *         no gap to unread content of the file
+     */
+    private boolean isInWriteWindow(
+            final long pos )
+    {
+        return pos >= this.bufferStart &&
+                pos - this.bufferStart < this.buffer.length &&
+                ( pos - this.bufferStart <= this.bufferLength ||
+                        this.bufferStart + this.bufferLength >= this.length );
+    }
+
+    /**
+     * Write dirty range of {@link #buffer}
+     * to the decorated file.
+     *
+     * @throws IOException
+     */
+    private void flushBuffer()
+            throws IOException
+    {
+        if ( this.dirtyEnd > this.dirtyStart )
+        {
+            this.delegate.writeAt(
+                    this.bufferStart + this.dirtyStart ,
+                    this.buffer ,
+                    this.dirtyStart ,
+                    this.dirtyEnd - this.dirtyStart );
+        }
+
+        this.dirtyStart = 0;
+        this.dirtyEnd = 0;
+    }
+
+    /**
+     * Drop the content of the buffer,
+     * which must not be dirty.
+     */
+    private void invalidateBuffer()
+    {
+        this.bufferStart = 0;
+        this.bufferLength = 0;
+    }
+
+    /**
+     * Move the buffer to the specified position
+     * and read ahead from the decorated file.
+     *
+     * @param pos new start position of buffer
+     * @throws IOException
+     */
+    private void fill(
+            final long pos )
+            throws IOException
+    {
+        flushBuffer();
+
+        this.bufferStart = pos;
+        this.bufferLength =
+                readFullyAt(
+                        pos ,
+                        this.buffer ,
+                        0 ,
+                        (int) Math.max( 0L , Math.min( this.buffer.length , this.length - pos ) ) );
+    }
+
+    /**
+     * Ensure the range of {@code len} bytes at the
+     * file pointer is in the buffer and mark it dirty.
+     *
+     * @param len number of bytes to write, not more than buffer size
+     * @return offset in {@link #buffer} to write to
+     * @throws IOException
+     */
+    private int prepareWrite(
+            final int len )
+            throws IOException
+    {
+        ensureOpen();
+
+        final long pos = this.filePointer;
+
+        if ( ! isInWriteWindow( pos ) ||
+                pos - this.bufferStart + len > this.buffer.length )
+        {
+            fill( pos );
+        }
+
+        final int offsetInBuffer = (int) ( pos - this.bufferStart );
+        final int end = offsetInBuffer + len;
+
+        if ( offsetInBuffer > this.bufferLength )
+        {
+            // gap behind end of file reads as zero
+            Arrays.fill(
+                    this.buffer ,
+                    this.bufferLength ,
+                    offsetInBuffer ,
+                    (byte) 0 );
+        }
+
+        if ( end > this.bufferLength )
+        {
+            this.bufferLength = end;
+        }
+
+        if ( this.dirtyEnd == 0 )
+        {
+            this.dirtyStart = offsetInBuffer;
+            this.dirtyEnd = end;
+        }
+        else
+        {
+            this.dirtyStart = Math.min( this.dirtyStart , offsetInBuffer );
+            this.dirtyEnd = Math.max( this.dirtyEnd , end );
+        }
+
+        if ( pos + len > this.length )
+        {
+            this.length = pos + len;
+        }
+
+        return offsetInBuffer;
+    }
+
+    /**
+     * Read from the decorated file until
+     * {@code len} bytes or end of file.
+     *
+     * @return number of bytes read
+     */
+    private int readFullyAt(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        int done = 0;
+        while ( done < len )
+        {
+            final int lengthRead =
+                    this.delegate.readAt(
+                            pos + done ,
+                            b ,
+                            off + done ,
+                            len - done );
+
+            if ( lengthRead < 0 )
+            {
+                break;
+            }
+            done += lengthRead;
+        }
+        return done;
+    }
+
+    /**
+     * @throws IOException if this file is closed
+     */
+    private void ensureOpen()
+            throws IOException
+    {
+        if ( this.closed )
+        {
+            throw new IOException( "already closed" );
+        }
+    }
+
+}
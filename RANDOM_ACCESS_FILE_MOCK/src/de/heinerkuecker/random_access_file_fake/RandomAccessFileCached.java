@@ -0,0 +1,970 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Page cache decorator for any {@link RandomAccessFileInterface}.
+ * <br/><br/>
+ * Holds fixed-size pages of the file in a bounded pool.
+ * When the pool is full, the {@link PageEvictionPolicy}
+ * chooses the page to evict. Changed (dirty) pages are
+ * written back to the decorated file on eviction,
+ * {@link #flush()} and {@link #close()}.
+ * <br/><br/>
+ * Unlike {@link RandomAccessFileBuffered} with one window,
+ * many hot pages stay in memory for random lookups.
+ * <br/><br/>
+ * The decorated file must not be accessed other than
+ * over this decorator while the decorator is in use.
+ * Not thread-safe, like {@link java.io.RandomAccessFile}.
+ */
+public class RandomAccessFileCached
+extends RandomAccessFileAbstractImplementation
+{
+    /**
+     * Default size of page 4 KiB.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 4 * 1024;
+
+    /**
+     * Default maximum number of pages in pool,
+     * 1024 pages of 4 KiB are 4 MiB.
+     */
+    public static final int DEFAULT_PAGE_COUNT = 1024;
+
+    /**
+     * Page in pool.
+     */
+    private static final class Page
+    {
+        /**
+         * Content of page,
+         * zero behind end of file.
+         */
+        final byte[] data;
+
+        /**
+         * Changed and not written back.
+         */
+        boolean dirty;
+
+        Page(
+                final int pageSize )
+        {
+            this.data = new byte[ pageSize ];
+        }
+    }
+
+    /**
+     * The decorated file.
+     */
+    private final RandomAccessFileInterface delegate;
+
+    /**
+     * Size of page, power of two.
+     */
+    private final int pageSize;
+
+    /**
+     * Number of bits to shift a position
+     * to get the page index.
+     */
+    private final int pageShift;
+
+    /**
+     * Mask to get the offset in page
+     * from a position.
+     */
+    private final int pageMask;
+
+    /**
+     * Maximum number of pages in {@link #pages}.
+     */
+    private final int maxPageCount;
+
+    /**
+     * Pool of pages by page index.
+     */
+    private final HashMap<Long, Page> pages;
+
+    /**
+     * Strategy to choose page to evict.
+     */
+    private final PageEvictionPolicy evictionPolicy;
+
+    /**
+     * Index of last accessed page,
+     * shortcut without map lookup.
+     */
+    private long lastPageIndex = -1L;
+
+    /**
+     * Last accessed page, null if none.
+     */
+    private Page lastPage;
+
+    /**
+     * Length of file including cached writes.
+     */
+    private long length;
+
+    /**
+     * File pointer.
+     * Current position in file.
+     */
+    private long filePointer;
+
+    /**
+     * Closed state.
+     */
+    private boolean closed;
+
+    /**
+     * Number of page accesses served from the pool.
+     */
+    private long hitCount;
+
+    /**
+     * Number of page accesses which loaded the page.
+     */
+    private long missCount;
+
+    /**
+     * Number of pages evicted from the pool.
+     */
+    private long evictionCount;
+
+    /**
+     * Number of dirty pages written back.
+     */
+    private long writeBackCount;
+
+    /**
+     * Constructor with {@link LruPageEvictionPolicy},
+     * {@link #DEFAULT_PAGE_SIZE} and {@link #DEFAULT_PAGE_COUNT}.
+     *
+     * @param delegate opened file to decorate
+     * @throws IOException
+     */
+    public RandomAccessFileCached(
+            final RandomAccessFileInterface delegate )
+            throws IOException
+    {
+        this(
+                delegate ,
+                DEFAULT_PAGE_SIZE ,
+                DEFAULT_PAGE_COUNT ,
+                LruPageEvictionPolicy::new );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param delegate opened file to decorate
+     * @param pageSize size of page, must be a power of two
+     * @param maxPageCount maximum number of pages in pool
+     * @param evictionPolicyFactory creates eviction policy for the maximum number of pages, like {@code ClockPageEvictionPolicy::new}
+     * @throws IOException
+     */
+    public RandomAccessFileCached(
+            final RandomAccessFileInterface delegate ,
+            final int pageSize ,
+            final int maxPageCount ,
+            final IntFunction<? extends PageEvictionPolicy> evictionPolicyFactory )
+            throws IOException
+    {
+        if ( pageSize < 8 || Integer.bitCount( pageSize ) != 1 )
+        {
+            throw new IllegalArgumentException( "page size is not a power of two of at least 8: " + pageSize );
+        }
+
+        if ( maxPageCount < 1 )
+        {
+            throw new IllegalArgumentException( "max page count: " + maxPageCount );
+        }
+
+        this.delegate = delegate;
+        this.pageSize = pageSize;
+        this.pageShift = Integer.numberOfTrailingZeros( pageSize );
+        this.pageMask = pageSize - 1;
+        this.maxPageCount = maxPageCount;
+        this.pages = new HashMap<>( maxPageCount * 4 / 3 + 1 );
+        this.evictionPolicy = evictionPolicyFactory.apply( maxPageCount );
+        this.length = delegate.length();
+        this.filePointer = delegate.getFilePointer();
+    }
+
+    /**
+     * @return number of page accesses served from the pool
+     */
+    public long getHitCount()
+    {
+        return this.hitCount;
+    }
+
+    /**
+     * @return number of page accesses which loaded the page
+     */
+    public long getMissCount()
+    {
+        return this.missCount;
+    }
+
+    /**
+     * @return number of pages evicted from the pool
+     */
+    public long getEvictionCount()
+    {
+        return this.evictionCount;
+    }
+
+    /**
+     * @return number of dirty pages written back
+     */
+    public long getWriteBackCount()
+    {
+        return this.writeBackCount;
+    }
+
+    /**
+     * @return number of pages in the pool
+     */
+    public int getCachedPageCount()
+    {
+        return this.pages.size();
+    }
+
+    /**
+     * Set all counters to zero.
+     */
+    public void resetCounters()
+    {
+        this.hitCount = 0;
+        this.missCount = 0;
+        this.evictionCount = 0;
+        this.writeBackCount = 0;
+    }
+
+    /**
+     * Write all dirty pages back to the decorated file.
+     * The pages stay in the pool.
+     *
+     * @throws IOException
+     */
+    public void flush()
+            throws IOException
+    {
+        ensureOpen();
+
+        for ( final Map.Entry<Long, Page> entry : this.pages.entrySet() )
+        {
+            writeBack(
+                    entry.getKey() ,
+                    entry.getValue() );
+        }
+
+        if ( this.delegate.length() < this.length )
+        {
+            // extended by setLength without written page
+            this.delegate.setLength( this.length );
+        }
+    }
+
+    /**
+     * Reads a byte of data from this file. The byte is returned as an
+     * integer in the range 0 to 255 ({@code 0x00-0x0ff}). This
+     * method blocks if no input is yet available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the same
+     * way as the {@link InputStream#read()} method of
+     * {@code InputStream}.
+     *
+     * @return     the next byte of data, or {@code -1} if the end of the
+     *             file has been reached.
+     * @exception  IOException  if an I/O error occurs. Not thrown if
+     *                          end-of-file has been reached.
+     */
+    @Override
+    public int read()
+            throws IOException
+    {
+        ensureOpen();
+
+        if ( this.filePointer >= this.length )
+        {
+            return -1;
+        }
+
+        final Page page = page( this.filePointer >>> this.pageShift );
+
+        return page.data[ (int) this.filePointer++ & this.pageMask ] & 0xFF;
+    }
+
+    /**
+     * Reads up to {@code len} bytes of data from this file into an
+     * array of bytes. This method blocks until at least one byte of input
+     * is available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the
+     * same way as the {@link InputStream#read(byte[], int, int)} method of
+     * {@code InputStream}.
+     *
+     * @param      b     the buffer into which the data is read.
+     * @param      off   the start offset in array {@code b}
+     *                   at which the data is written.
+     * @param      len   the maximum number of bytes read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if there is no more data because the end of
+     *             the file has been reached.
+     * @exception  IOException If the first byte cannot be read for any reason
+     * other than end of file, or if the random access file has been closed, or if
+     * some other I/O error occurs.
+     * @exception  NullPointerException If {@code b} is {@code null}.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public int read(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final int lengthRead =
+                readAt(
+                        this.filePointer ,
+                        b ,
+                        off ,
+                        len );
+
+        if ( lengthRead > 0 )
+        {
+            this.filePointer += lengthRead;
+        }
+
+        return lengthRead;
+    }
+
+    /**
+     * Reads up to {@code len} bytes of data from this file, starting
+     * at the specified position, into an array of bytes.
+     * The file pointer is not changed.
+     *
+     * @param      pos   the position in the file at which the read starts.
+     * @param      b     the buffer into which the data is read.
+     * @param      off   the start offset in array {@code b}
+     *                   at which the data is written.
+     * @param      len   the maximum number of bytes read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if {@code pos} is at or behind the end
+     *             of the file.
+     * @exception  IOException If {@code pos} is negative, the file has been
+     *             closed or some other I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public int readAt(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        ensureOpen();
+
+        if ( pos < 0L )
+        {
+            throw new IOException( "Negative position" );
+        }
+
+        if ( off < 0 || len < 0 || len > b.length - off )
+        {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if ( len == 0 )
+        {
+            return 0;
+        }
+
+        if ( pos >= this.length )
+        {
+            return -1;
+        }
+
+        final int lengthToRead = (int) Math.min( len , this.length - pos );
+
+        int done = 0;
+        while ( done < lengthToRead )
+        {
+            final long currentPos = pos + done;
+            final int offsetInPage = (int) currentPos & this.pageMask;
+            final int pageLength = Math.min( lengthToRead - done , this.pageSize - offsetInPage );
+
+            final Page page = page( currentPos >>> this.pageShift );
+
+            System.arraycopy(
+                    //src
+                    page.data ,
+                    //srcPos
+                    offsetInPage ,
+                    //dest
+                    b ,
+                    //destPos
+                    off + done ,
+                    //length
+                    pageLength );
+
+            done += pageLength;
+        }
+
+        return lengthToRead;
+    }
+
+    /**
+     * Writes the specified byte to this file. The write starts at
+     * the current file pointer.
+     *
+     * @param      b   the {@code byte} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final int b )
+            throws IOException
+    {
+        ensureOpen();
+
+        final Page page = page( this.filePointer >>> this.pageShift );
+
+        page.data[ (int) this.filePointer & this.pageMask ] = (byte) b;
+        page.dirty = true;
+
+        this.filePointer++;
+
+        if ( this.filePointer > this.length )
+        {
+            this.length = this.filePointer;
+        }
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array
+     * starting at offset {@code off} to this file.
+     *
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        writeAt(
+                this.filePointer ,
+                b ,
+                off ,
+                len );
+
+        this.filePointer += len;
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array
+     * starting at offset {@code off} to this file at the specified
+     * position. The file pointer is not changed.
+     * The file grows if the written range exceeds the end.
+     *
+     * @param      pos   the position in the file at which the write starts.
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException If {@code pos} is negative, the file has been
+     *             closed or some other I/O error occurs.
+     */
+    @Override
+    public void writeAt(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        ensureOpen();
+
+        if ( pos < 0L )
+        {
+            throw new IOException( "Negative position" );
+        }
+
+        if ( off < 0 || len < 0 || len > b.length - off )
+        {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if ( len > 0 && pos + len > this.length )
+        {
+            // before writing, pages evicted in the loop are written back up to length
+            this.length = pos + len;
+        }
+
+        int done = 0;
+        while ( done < len )
+        {
+            final long currentPos = pos + done;
+            final int offsetInPage = (int) currentPos & this.pageMask;
+            final int pageLength = Math.min( len - done , this.pageSize - offsetInPage );
+
+            final Page page = page( currentPos >>> this.pageShift );
+
+            System.arraycopy(
+                    //src
+                    b ,
+                    //srcPos
+                    off + done ,
+                    //dest
+                    page.data ,
+                    //destPos
+                    offsetInPage ,
+                    //length
+                    pageLength );
+
+            page.dirty = true;
+            done += pageLength;
+        }
+    }
+
+    /**
+     * Reads a signed 32-bit integer from this file
+     * directly from the cached page.
+     *
+     * @return     the next four bytes of this file, interpreted as an
+     *             {@code int}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               four bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public int readInt()
+            throws IOException
+    {
+        ensureOpen();
+
+        final int pos = (int) this.filePointer & this.pageMask;
+
+        if ( this.length - this.filePointer < 4 ||
+                pos > this.pageSize - 4 )
+        {
+            // end of file or page boundary
+            return super.readInt();
+        }
+
+        final byte[] mem = page( this.filePointer >>> this.pageShift ).data;
+
+        this.filePointer += 4;
+
+        return ( mem[ pos ] << 24 ) |
+                ( ( mem[ pos + 1 ] & 0xFF ) << 16 ) |
+                ( ( mem[ pos + 2 ] & 0xFF ) <<  8 ) |
+                ( mem[ pos + 3 ] & 0xFF );
+    }
+
+    /**
+     * Reads a signed 64-bit integer from this file
+     * directly from the cached page.
+     *
+     * @return     the next eight bytes of this file, interpreted as a
+     *             {@code long}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               eight bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public long readLong()
+            throws IOException
+    {
+        return ((long)(readInt()) << 32) + (readInt() & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Writes an {@code int} to the file as four bytes, high byte first,
+     * directly into the cached page.
+     *
+     * @param      v   an {@code int} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeInt(
+            final int v )
+            throws IOException
+    {
+        ensureOpen();
+
+        final int pos = (int) this.filePointer & this.pageMask;
+
+        if ( pos > this.pageSize - 4 )
+        {
+            // page boundary
+            super.writeInt( v );
+            return;
+        }
+
+        final Page page = page( this.filePointer >>> this.pageShift );
+        final byte[] mem = page.data;
+
+        mem[ pos     ] = (byte) ( v >>> 24 );
+        mem[ pos + 1 ] = (byte) ( v >>> 16 );
+        mem[ pos + 2 ] = (byte) ( v >>>  8 );
+        mem[ pos + 3 ] = (byte) v;
+        page.dirty = true;
+
+        this.filePointer += 4;
+
+        if ( this.filePointer > this.length )
+        {
+            this.length = this.filePointer;
+        }
+    }
+
+    /**
+     * Writes a {@code long} to the file as eight bytes, high byte first,
+     * directly into the cached page.
+     *
+     * @param      v   a {@code long} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeLong(
+            final long v )
+            throws IOException
+    {
+        writeInt( (int) ( v >>> 32 ) );
+        writeInt( (int) v );
+    }
+
+    /**
+     * Returns the current offset in this file.
+     *
+     * @return     the offset from the beginning of the file, in bytes,
+     *             at which the next read or write occurs.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public long getFilePointer()
+            throws IOException
+    {
+        ensureOpen();
+
+        return this.filePointer;
+    }
+
+    /**
+     * Sets the file-pointer offset, measured from the beginning of this
+     * file, at which the next read or write occurs.  The offset may be
+     * set beyond the end of the file. Setting the offset beyond the end
+     * of the file does not change the file length.  The file length will
+     * change only by writing after the offset has been set beyond the end
+     * of the file.
+     *
+     * @param      pos   the offset position, measured in bytes from the
+     *                   beginning of the file, at which to set the file
+     *                   pointer.
+     * @exception  IOException  if {@code pos} is less than
+     *                          {@code 0} or if an I/O error occurs.
+     */
+    @Override
+    public void seek(
+            final long pos )
+            throws IOException
+    {
+        ensureOpen();
+
+        if ( pos < 0L )
+        {
+            throw new IOException("Negative seek offset");
+        }
+
+        this.filePointer = pos;
+    }
+
+    /**
+     * Returns the length of this file
+     * including cached writes.
+     *
+     * @return     the length of this file, measured in bytes.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public long length()
+            throws IOException
+    {
+        ensureOpen();
+
+        return this.length;
+    }
+
+    /**
+     * Sets the length of this file.
+     *
+     * <p> If the present length of the file as returned by the
+     * {@code length} method is greater than the {@code newLength}
+     * argument then the file will be truncated.  In this case, if the file
+     * offset as returned by the {@code getFilePointer} method is greater
+     * than {@code newLength} then after this method returns the offset
+     * will be equal to {@code newLength}.
+     *
+     * <p> If the present length of the file as returned by the
+     * {@code length} method is smaller than the {@code newLength}
+     * argument then the file will be extended.  In this case, the contents of
+     * the extended portion of the file are not defined.
+     * <br/><br/>
+     * Cached pages behind the new length are dropped
+     * without write back.
+     *
+     * @param      newLength    The desired length of the file
+     * @exception  IOException  If an I/O error occurs
+     */
+    @Override
+    public void setLength(
+            final long newLength )
+            throws IOException
+    {
+        ensureOpen();
+
+        if ( newLength < 0L )
+        {
+            throw new IOException("Negative length " + newLength );
+        }
+
+        if ( newLength < this.length )
+        {
+            final long firstDroppedPageIndex = ( newLength + this.pageMask ) >>> this.pageShift;
+
+            for ( final Long pageIndex : new ArrayList<>( this.pages.keySet() ) )
+            {
+                if ( pageIndex >= firstDroppedPageIndex )
+                {
+                    this.pages.remove( pageIndex );
+                    this.evictionPolicy.pageRemoved( pageIndex );
+                }
+            }
+
+            this.lastPageIndex = -1L;
+            this.lastPage = null;
+
+            final Page partialPage = this.pages.get( newLength >>> this.pageShift );
+            if ( partialPage != null )
+            {
+                // bytes behind end of file read as zero after growing again
+                Arrays.fill(
+                        partialPage.data ,
+                        (int) newLength & this.pageMask ,
+                        this.pageSize ,
+                        (byte) 0 );
+            }
+        }
+
+        this.delegate.setLength( newLength );
+        this.length = newLength;
+
+        if ( this.filePointer > newLength )
+        {
+            this.filePointer = newLength;
+        }
+    }
+
+    /**
+     * Closes this random access file stream and the decorated
+     * file after writing back dirty pages. A closed random access
+     * file cannot perform input or output operations and cannot
+     * be reopened.
+     *
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void close()
+            throws IOException
+    {
+        if ( this.closed )
+        {
+            return;
+        }
+
+        try
+        {
+            flush();
+        }
+        finally
+        {
+            this.closed = true;
+            this.pages.clear();
+            this.lastPage = null;
+            this.delegate.close();
+        }
+    }
+
+    /**
+     * Get the page from the pool, load it
+     * from the decorated file on a miss.
+     *
+     * @param pageIndex index of page in file
+     * @return the page
+     * @throws IOException
+     */
+    private Page page(
+            final long pageIndex )
+            throws IOException
+    {
+        if ( pageIndex == this.lastPageIndex )
+        {
+            this.hitCount++;
+            return this.lastPage;
+        }
+
+        Page page = this.pages.get( pageIndex );
+
+        if ( page != null )
+        {
+            this.hitCount++;
+            this.evictionPolicy.pageAccessed( pageIndex );
+        }
+        else
+        {
+            this.missCount++;
+
+            if ( this.pages.size() >= this.maxPageCount )
+            {
+                evict();
+            }
+
+            page = new Page( this.pageSize );
+            load( pageIndex , page );
+
+            this.pages.put( pageIndex , page );
+            this.evictionPolicy.pageInserted( pageIndex );
+        }
+
+        this.lastPageIndex = pageIndex;
+        this.lastPage = page;
+        return page;
+    }
+
+    /**
+     * Evict the page chosen by {@link #evictionPolicy},
+     * write it back if dirty.
+     *
+     * @throws IOException
+     */
+    private void evict()
+            throws IOException
+    {
+        final long pageIndex = this.evictionPolicy.evict();
+        final Page page = this.pages.remove( pageIndex );
+
+        if ( pageIndex == this.lastPageIndex )
+        {
+            this.lastPageIndex = -1L;
+            this.lastPage = null;
+        }
+
+        this.evictionCount++;
+        writeBack( pageIndex , page );
+    }
+
+    /**
+     * Read content of page from decorated file,
+     * the part behind the end of file stays zero.
+     *
+     * @param pageIndex index of page in file
+     * @param page page to fill
+     * @throws IOException
+     */
+    private void load(
+            final long pageIndex ,
+            final Page page )
+            throws IOException
+    {
+        final long pageStart = pageIndex << this.pageShift;
+        final int lengthToRead = (int) Math.max( 0L , Math.min( this.pageSize , this.delegate.length() - pageStart ) );
+
+        int done = 0;
+        while ( done < lengthToRead )
+        {
+            final int lengthRead =
+                    this.delegate.readAt(
+                            pageStart + done ,
+                            page.data ,
+                            done ,
+                            lengthToRead - done );
+
+            if ( lengthRead < 0 )
+            {
+                break;
+            }
+            done += lengthRead;
+        }
+    }
+
+    /**
+     * Write the page to the decorated file, if dirty,
+     * up to the end of file.
+     *
+     * @param pageIndex index of page in file
+     * @param page page to write
+     * @throws IOException
+     */
+    private void writeBack(
+            final long pageIndex ,
+            final Page page )
+            throws IOException
+    {
+        if ( ! page.dirty )
+        {
+            return;
+        }
+
+        final long pageStart = pageIndex << this.pageShift;
+        final int lengthToWrite = (int) Math.min( this.pageSize , this.length - pageStart );
+
+        if ( lengthToWrite > 0 )
+        {
+            this.delegate.writeAt(
+                    pageStart ,
+                    page.data ,
+                    0 ,
+                    lengthToWrite );
+        }
+
+        page.dirty = false;
+        this.writeBackCount++;
+    }
+
+    /**
+     * @throws IOException if this file is closed
+     */
+    private void ensureOpen()
+            throws IOException
+    {
+        if ( this.closed )
+        {
+            throw new IOException( "already closed" );
+        }
+    }
+
+}
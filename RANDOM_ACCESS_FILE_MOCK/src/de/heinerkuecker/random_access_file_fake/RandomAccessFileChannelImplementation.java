@@ -0,0 +1,1069 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implementation of {@link RandomAccessFileInterface}
+ * for real files on {@link FileChannel} with positional
+ * I/O, for use with virtual threads.
+ * <br/><br/>
+ * The native methods of {@link java.io.RandomAccessFile}
+ * and {@code synchronized} blocks pin the carrier thread
+ * of a virtual thread on some JDKs. This implementation
+ * has no {@code synchronized} on the I/O paths:
+ * {@link #readAt(long, byte[], int, int)} and
+ * {@link #writeAt(long, byte[], int, int)} use no lock at all
+ * and are thread-safe, the methods using the file pointer
+ * take a {@link ReentrantLock}.
+ * <br/><br/>
+ * {@link #readInt()}, {@link #readLong()}, {@link #writeInt(int)}
+ * and {@link #writeLong(long)} transfer all bytes with one
+ * positional operation through a direct buffer.
+ * {@link #getChannel()} returns a view channel over this
+ * file, whose position is the file pointer.
+ * <br/><br/>
+ * A {@link FileChannel} is closed when a thread is interrupted
+ * during I/O. Unlike {@link java.io.RandomAccessFile}, where an
+ * interrupt has no effect, the interrupted thread gets a
+ * {@link ClosedByInterruptException} and keeps its interrupt
+ * status, the file stays usable for all other threads: the
+ * channel is opened again and their operations are repeated
+ * on the new channel. The channel is opened again without
+ * creating the file; if the file was deleted or replaced in
+ * the meantime, the operations fail with
+ * {@link ClosedChannelException}. {@link java.nio.channels.FileLock}s
+ * acquired on the old channel are lost, they are released
+ * by the operating system when the channel is closed.
+ */
+public class RandomAccessFileChannelImplementation
+extends RandomAccessFileAbstractImplementation
+{
+    /**
+     * Path of the file to open the channel again
+     * after {@link ClosedByInterruptException}.
+     */
+    private final Path path;
+
+    /**
+     * Options to open the channel again,
+     * without {@link StandardOpenOption#CREATE}.
+     */
+    private final Set<OpenOption> reopenOptions;
+
+    /**
+     * {@link BasicFileAttributes#fileKey()} of the opened
+     * file to detect a deleted or replaced file at
+     * {@link #reopen(FileChannel)}, null if not supported
+     * by the file system.
+     */
+    private final Object fileKey;
+
+    /**
+     * The channel of the file,
+     * only positional I/O, replaced
+     * after {@link ClosedByInterruptException}.
+     */
+    private volatile FileChannel fileChannel;
+
+    /**
+     * Closed by {@link #close()}, the channel
+     * may also be closed by an interrupt.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Lock for {@link #reopen(FileChannel)} and {@link #close()}.
+     */
+    private final ReentrantLock channelLock = new ReentrantLock();
+
+    /**
+     * Opened with mode "r".
+     */
+    private final boolean readOnly;
+
+    /**
+     * Lock for {@link #filePointer} and {@link #scratch}.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Direct buffer for single bytes and primitives,
+     * guarded by {@link #lock}.
+     */
+    private final ByteBuffer scratch = ByteBuffer.allocateDirect( 8 );
+
+    /**
+     * View channel over this file
+     * for {@link #getChannel()}.
+     */
+    private final FileChannel channelView;
+
+    /**
+     * File pointer, guarded by {@link #lock}.
+     */
+    private long filePointer;
+
+    /**
+     * Constructor.
+     *
+     * @param file the file object
+     * @param mode the access mode "r", "rw", "rws" or "rwd",
+     *             like {@link java.io.RandomAccessFile#RandomAccessFile(File, String)}
+     * @throws IllegalArgumentException if the mode is not one of the above
+     * @throws FileNotFoundException if the file cannot be opened
+     * @throws IOException if an other I/O error occurs
+     */
+    public RandomAccessFileChannelImplementation(
+            final File file ,
+            final String mode )
+            throws IOException
+    {
+        this.path = file.toPath();
+
+        final Set<OpenOption> openOptions = FileModes.openOptions( mode );
+
+        try
+        {
+            this.fileChannel =
+                    FileChannel.open(
+                            this.path ,
+                            openOptions );
+        }
+        catch ( final FileSystemException e )
+        {
+            final FileNotFoundException fileNotFoundException =
+                    new FileNotFoundException(
+                            file.getPath() + " (" + e.getReason() + ")" );
+
+            fileNotFoundException.initCause( e );
+            throw fileNotFoundException;
+        }
+
+        this.reopenOptions = new HashSet<>( openOptions );
+        this.reopenOptions.remove( StandardOpenOption.CREATE );
+        this.reopenOptions.remove( StandardOpenOption.CREATE_NEW );
+        this.reopenOptions.remove( StandardOpenOption.TRUNCATE_EXISTING );
+
+        try
+        {
+            this.fileKey = fileKey();
+        }
+        catch ( final IOException e )
+        {
+            this.fileChannel.close();
+            throw e;
+        }
+
+        this.readOnly = FileModes.isReadOnly( mode );
+        this.channelView =
+                new RandomAccessFileInterfaceChannel( this )
+                {
+                    @Override
+                    protected boolean isReadOnly()
+                    {
+                        return readOnly;
+                    }
+                };
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param name the system-dependent filename
+     * @param mode the access mode "r", "rw", "rws" or "rwd",
+     *             like {@link java.io.RandomAccessFile#RandomAccessFile(String, String)}
+     * @throws IOException see {@link #RandomAccessFileChannelImplementation(File, String)}
+     */
+    public RandomAccessFileChannelImplementation(
+            final String name ,
+            final String mode )
+            throws IOException
+    {
+        this( new File( name ) , mode );
+    }
+
+    /**
+     * Reads a byte of data from this file. The byte is returned as an
+     * integer in the range 0 to 255 ({@code 0x00-0x0ff}). This
+     * method blocks if no input is yet available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the same
+     * way as the {@link InputStream#read()} method of
+     * {@code InputStream}.
+     *
+     * @return     the next byte of data, or {@code -1} if the end of the
+     *             file has been reached.
+     * @exception  IOException  if an I/O error occurs. Not thrown if
+     *                          end-of-file has been reached.
+     */
+    @Override
+    public int read()
+            throws IOException
+    {
+        this.lock.lock();
+        try
+        {
+            this.scratch.clear().limit( 1 );
+
+            if ( readFullyAt( this.filePointer , this.scratch ) < 1 )
+            {
+                return -1;
+            }
+
+            this.filePointer++;
+            return this.scratch.get( 0 ) & 0xFF;
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Reads up to {@code len} bytes of data from this file into an
+     * array of bytes. This method blocks until at least one byte of input
+     * is available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the
+     * same way as the {@link InputStream#read(byte[], int, int)} method of
+     * {@code InputStream}.
+     *
+     * @param      b     the buffer into which the data is read.
+     * @param      off   the start offset in array {@code b}
+     *                   at which the data is written.
+     * @param      len   the maximum number of bytes read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if there is no more data because the end of
+     *             the file has been reached.
+     * @exception  IOException If the first byte cannot be read for any reason
+     * other than end of file, or if the random access file has been closed, or if
+     * some other I/O error occurs.
+     * @exception  NullPointerException If {@code b} is {@code null}.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public int read(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        this.lock.lock();
+        try
+        {
+            final int lengthRead =
+                    readAt(
+                            this.filePointer ,
+                            b ,
+                            off ,
+                            len );
+
+            if ( lengthRead > 0 )
+            {
+                this.filePointer += lengthRead;
+            }
+
+            return lengthRead;
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Reads up to {@code len} bytes of data from this file, starting
+     * at the specified position, into an array of bytes.
+     * The file pointer is not changed, so concurrent positional
+     * reads need no seek under a lock, like {@code pread}.
+     *
+     * @param      pos   the position in the file at which the read starts.
+     * @param      b     the buffer into which the data is read.
+     * @param      off   the start offset in array {@code b}
+     *                   at which the data is written.
+     * @param      len   the maximum number of bytes read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if {@code pos} is at or behind the end
+     *             of the file.
+     * @exception  IOException If {@code pos} is negative, the file has been
+     *             closed or some other I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public int readAt(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        if ( pos < 0L )
+        {
+            throw new IOException( "Negative position" );
+        }
+
+        PrimitiveArrays.checkBounds( b.length , off , len );
+
+        if ( len == 0 )
+        {
+            return 0;
+        }
+
+        return channelRead(
+                ByteBuffer.wrap( b , off , len ) ,
+                pos );
+    }
+
+    /**
+     * Writes the specified byte to this file. The write starts at
+     * the current file pointer.
+     *
+     * @param      b   the {@code byte} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final int b )
+            throws IOException
+    {
+        this.lock.lock();
+        try
+        {
+            this.scratch.clear();
+            this.scratch.put( (byte) b ).flip();
+
+            writeFullyAt( this.filePointer , this.scratch );
+            this.filePointer++;
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array
+     * starting at offset {@code off} to this file.
+     *
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        this.lock.lock();
+        try
+        {
+            writeAt(
+                    this.filePointer ,
+                    b ,
+                    off ,
+                    len );
+
+            this.filePointer += len;
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array
+     * starting at offset {@code off} to this file at the specified
+     * position. The file pointer is not changed, like {@code pwrite}.
+     * The file grows if the written range exceeds the end.
+     *
+     * @param      pos   the position in the file at which the write starts.
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException If {@code pos} is negative, the file has been
+     *             closed or some other I/O error occurs.
+     */
+    @Override
+    public void writeAt(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        if ( pos < 0L )
+        {
+            throw new IOException( "Negative position" );
+        }
+
+        PrimitiveArrays.checkBounds( b.length , off , len );
+
+        writeFullyAt(
+                pos ,
+                ByteBuffer.wrap( b , off , len ) );
+    }
+
+    /**
+     * Reads a signed 32-bit integer from this file. This method reads 4
+     * bytes from the file, starting at the current file pointer.
+     * If the bytes read, in order, are {@code b1},
+     * {@code b2}, {@code b3}, and {@code b4}, where
+     * <code>0&nbsp;&lt;=&nbsp;b1, b2, b3, b4&nbsp;&lt;=&nbsp;255</code>,
+     * then the result is equal to:
+     * <blockquote><pre>
+     *     (b1 &lt;&lt; 24) | (b2 &lt;&lt; 16) + (b3 &lt;&lt; 8) + b4
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the four bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next four bytes of this file, interpreted as an
+     *             {@code int}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               four bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public int readInt()
+            throws IOException
+    {
+        this.lock.lock();
+        try
+        {
+            this.scratch.clear().limit( 4 );
+
+            if ( readFullyAt( this.filePointer , this.scratch ) < 4 )
+            {
+                // end of file, consume the available bytes like RandomAccessFile
+                return super.readInt();
+            }
+
+            this.filePointer += 4;
+            return this.scratch.getInt( 0 );
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Reads a signed 64-bit integer from this file. This method reads eight
+     * bytes from the file, starting at the current file pointer.
+     * If the bytes read, in order, are
+     * {@code b1}, {@code b2}, {@code b3},
+     * {@code b4}, {@code b5}, {@code b6},
+     * {@code b7}, and {@code b8,} where:
+     * <blockquote><pre>
+     *     0 &lt;= b1, b2, b3, b4, b5, b6, b7, b8 &lt;=255,
+     * </pre></blockquote>
+     * <p>
+     * then the result is equal to:
+     * <blockquote><pre>
+     *     ((long)b1 &lt;&lt; 56) + ((long)b2 &lt;&lt; 48)
+     *     + ((long)b3 &lt;&lt; 40) + ((long)b4 &lt;&lt; 32)
+     *     + ((long)b5 &lt;&lt; 24) + ((long)b6 &lt;&lt; 16)
+     *     + ((long)b7 &lt;&lt; 8) + b8
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the eight bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next eight bytes of this file, interpreted as a
+     *             {@code long}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               eight bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public long readLong()
+            throws IOException
+    {
+        this.lock.lock();
+        try
+        {
+            this.scratch.clear();
+
+            if ( readFullyAt( this.filePointer , this.scratch ) < 8 )
+            {
+                // end of file, consume the available bytes like RandomAccessFile
+                return super.readLong();
+            }
+
+            this.filePointer += 8;
+            return this.scratch.getLong( 0 );
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Writes an {@code int} to the file as four bytes, high byte first.
+     * The write starts at the current position of the file pointer.
+     *
+     * @param      v   an {@code int} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeInt(
+            final int v )
+            throws IOException
+    {
+        this.lock.lock();
+        try
+        {
+            this.scratch.clear();
+            this.scratch.putInt( v ).flip();
+
+            writeFullyAt( this.filePointer , this.scratch );
+            this.filePointer += 4;
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Writes a {@code long} to the file as eight bytes, high byte first.
+     * The write starts at the current position of the file pointer.
+     *
+     * @param      v   a {@code long} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeLong(
+            final long v )
+            throws IOException
+    {
+        this.lock.lock();
+        try
+        {
+            this.scratch.clear();
+            this.scratch.putLong( v ).flip();
+
+            writeFullyAt( this.filePointer , this.scratch );
+            this.filePointer += 8;
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current offset in this file.
+     *
+     * @return     the offset from the beginning of the file, in bytes,
+     *             at which the next read or write occurs.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public long getFilePointer()
+            throws IOException
+    {
+        ensureOpen();
+
+        this.lock.lock();
+        try
+        {
+            return this.filePointer;
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the file-pointer offset, measured from the beginning of this
+     * file, at which the next read or write occurs.  The offset may be
+     * set beyond the end of the file. Setting the offset beyond the end
+     * of the file does not change the file length.  The file length will
+     * change only by writing after the offset has been set beyond the end
+     * of the file.
+     *
+     * @param      pos   the offset position, measured in bytes from the
+     *                   beginning of the file, at which to set the file
+     *                   pointer.
+     * @exception  IOException  if {@code pos} is less than
+     *                          {@code 0} or if an I/O error occurs.
+     */
+    @Override
+    public void seek(
+            final long pos )
+            throws IOException
+    {
+        ensureOpen();
+
+        if ( pos < 0L )
+        {
+            throw new IOException("Negative seek offset");
+        }
+
+        this.lock.lock();
+        try
+        {
+            this.filePointer = pos;
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the length of this file.
+     *
+     * @return     the length of this file, measured in bytes.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public long length()
+            throws IOException
+    {
+        while ( true )
+        {
+            final FileChannel channel = this.fileChannel;
+            try
+            {
+                return channel.size();
+            }
+            catch ( final ClosedByInterruptException e )
+            {
+                reopen( channel );
+                throw e;
+            }
+            catch ( final ClosedChannelException e )
+            {
+                // closed by interrupt of other thread
+                reopen( channel );
+            }
+        }
+    }
+
+    /**
+     * Sets the length of this file.
+     *
+     * <p> If the present length of the file as returned by the
+     * {@code length} method is greater than the {@code newLength}
+     * argument then the file will be truncated.  In this case, if the file
+     * offset as returned by the {@code getFilePointer} method is greater
+     * than {@code newLength} then after this method returns the offset
+     * will be equal to {@code newLength}.
+     *
+     * <p> If the present length of the file as returned by the
+     * {@code length} method is smaller than the {@code newLength}
+     * argument then the file will be extended.  In this case, the contents of
+     * the extended portion of the file are not defined.
+     *
+     * @param      newLength    The desired length of the file
+     * @exception  IOException  If an I/O error occurs
+     * @since      1.2
+     */
+    @Override
+    public void setLength(
+            final long newLength )
+            throws IOException
+    {
+        if ( newLength < 0L )
+        {
+            throw new IOException("Negative length " + newLength );
+        }
+
+        ensureWritable();
+
+        this.lock.lock();
+        try
+        {
+            final long size = length();
+
+            if ( newLength < size )
+            {
+                truncate( newLength );
+            }
+            else if ( newLength > size )
+            {
+                // extend with one zero byte at the end, the gap is a hole
+                this.scratch.clear().limit( 1 );
+                this.scratch.put( 0 , (byte) 0 );
+                writeFullyAt( newLength - 1 , this.scratch );
+            }
+
+            if ( this.filePointer > newLength )
+            {
+                this.filePointer = newLength;
+            }
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the unique {@link java.nio.channels.FileChannel FileChannel}
+     * object associated with this file.
+     *
+     * <p> The {@link java.nio.channels.FileChannel#position()
+     * position} of the returned channel will always be equal to
+     * this object's file-pointer offset as returned by the {@link
+     * #getFilePointer getFilePointer} method.  Changing this object's
+     * file-pointer offset, whether explicitly or by reading or writing bytes,
+     * will change the position of the channel, and vice versa.  Changing the
+     * file's length via this object will change the length seen via the file
+     * channel, and vice versa.
+     *
+     * @return  the file channel associated with this file
+     *
+     * @since 1.4
+     */
+    @Override
+    public FileChannel getChannel()
+    {
+        // no synchronized lazy creation
+        return this.channelView;
+    }
+
+    /**
+     * Closes this random access file stream and releases any system
+     * resources associated with the stream. A closed random access
+     * file cannot perform input or output operations and cannot be
+     * reopened.
+     *
+     * <p> If this file has an associated channel then the channel is closed
+     * as well.
+     *
+     * @exception  IOException  if an I/O error occurs.
+     *
+     * @revised 1.4
+     * @spec JSR-51
+     */
+    @Override
+    public void close()
+            throws IOException
+    {
+        this.channelLock.lock();
+        try
+        {
+            this.closed = true;
+            this.fileChannel.close();
+        }
+        finally
+        {
+            this.channelLock.unlock();
+        }
+    }
+
+    /**
+     * @throws IOException if this file is closed
+     */
+    private void ensureOpen()
+            throws IOException
+    {
+        if ( this.closed )
+        {
+            throw new IOException( "already closed" );
+        }
+    }
+
+    /**
+     * Open the channel again after it was closed
+     * by an interrupt, if no other thread did it.
+     * Locks of the closed channel are not acquired again.
+     *
+     * @param failedChannel the closed channel
+     * @throws ClosedChannelException if the file was deleted or replaced
+     * @throws IOException if this file is closed by {@link #close()}
+     *                     or the file cannot be opened
+     */
+    private void reopen(
+            final FileChannel failedChannel )
+            throws IOException
+    {
+        this.channelLock.lock();
+        try
+        {
+            ensureOpen();
+
+            if ( this.fileChannel == failedChannel )
+            {
+                final FileChannel newChannel;
+                try
+                {
+                    newChannel =
+                            FileChannel.open(
+                                    this.path ,
+                                    this.reopenOptions );
+                }
+                catch ( final NoSuchFileException e )
+                {
+                    throw fileGone( e );
+                }
+
+                boolean sameFile = false;
+                try
+                {
+                    final Object newFileKey = fileKey();
+                    sameFile = this.fileKey == null || this.fileKey.equals( newFileKey );
+                }
+                catch ( final NoSuchFileException e )
+                {
+                    // deleted after open, sameFile stays false
+                }
+                finally
+                {
+                    if ( ! sameFile )
+                    {
+                        newChannel.close();
+                    }
+                }
+
+                if ( ! sameFile )
+                {
+                    throw fileGone( null );
+                }
+
+                this.fileChannel = newChannel;
+            }
+        }
+        finally
+        {
+            this.channelLock.unlock();
+        }
+    }
+
+    /**
+     * @return {@link BasicFileAttributes#fileKey()} of {@link #path}, may be null
+     * @throws IOException
+     */
+    private Object fileKey()
+            throws IOException
+    {
+        return Files.readAttributes(
+                this.path ,
+                BasicFileAttributes.class ).fileKey();
+    }
+
+    /**
+     * @param cause cause or null
+     * @return exception for a deleted or replaced file
+     */
+    private ClosedChannelException fileGone(
+            final IOException cause )
+    {
+        final ClosedChannelException e = new ClosedChannelException();
+        e.initCause( cause );
+        return e;
+    }
+
+    /**
+     * Positional read, repeated on a new channel
+     * if the channel was closed by the interrupt
+     * of an other thread.
+     *
+     * @param buffer buffer to read into
+     * @param pos position in file
+     * @return number of read bytes or -1 at end of file
+     * @throws ClosedByInterruptException if the current thread is interrupted
+     * @throws IOException
+     */
+    private int channelRead(
+            final ByteBuffer buffer ,
+            final long pos )
+            throws IOException
+    {
+        final int bufferPosition = buffer.position();
+        while ( true )
+        {
+            final FileChannel channel = this.fileChannel;
+            try
+            {
+                return channel.read(
+                        buffer ,
+                        pos );
+            }
+            catch ( final ClosedByInterruptException e )
+            {
+                reopen( channel );
+                throw e;
+            }
+            catch ( final ClosedChannelException e )
+            {
+                // closed by interrupt of other thread
+                reopen( channel );
+                buffer.position( bufferPosition );
+            }
+        }
+    }
+
+    /**
+     * Positional write, repeated on a new channel
+     * if the channel was closed by the interrupt
+     * of an other thread.
+     *
+     * @param buffer buffer to write
+     * @param pos position in file
+     * @return number of written bytes
+     * @throws ClosedByInterruptException if the current thread is interrupted
+     * @throws IOException
+     */
+    private int channelWrite(
+            final ByteBuffer buffer ,
+            final long pos )
+            throws IOException
+    {
+        final int bufferPosition = buffer.position();
+        while ( true )
+        {
+            final FileChannel channel = this.fileChannel;
+            try
+            {
+                return channel.write(
+                        buffer ,
+                        pos );
+            }
+            catch ( final ClosedByInterruptException e )
+            {
+                reopen( channel );
+                throw e;
+            }
+            catch ( final ClosedChannelException e )
+            {
+                // closed by interrupt of other thread, same bytes again
+                reopen( channel );
+                buffer.position( bufferPosition );
+            }
+        }
+    }
+
+    /**
+     * Truncate the file, repeated on a new channel
+     * if the channel was closed by the interrupt
+     * of an other thread.
+     *
+     * @param newLength the new length
+     * @throws IOException
+     */
+    private void truncate(
+            final long newLength )
+            throws IOException
+    {
+        while ( true )
+        {
+            final FileChannel channel = this.fileChannel;
+            try
+            {
+                channel.truncate( newLength );
+                return;
+            }
+            catch ( final ClosedByInterruptException e )
+            {
+                reopen( channel );
+                throw e;
+            }
+            catch ( final ClosedChannelException e )
+            {
+                // closed by interrupt of other thread
+                reopen( channel );
+            }
+        }
+    }
+
+    /**
+     * @throws IOException if this file is read-only
+     */
+    private void ensureWritable()
+            throws IOException
+    {
+        if ( this.readOnly )
+        {
+            throw new IOException( "read-only file" );
+        }
+    }
+
+    /**
+     * Read the remaining bytes of the buffer
+     * or until end of file.
+     *
+     * @param pos position in file
+     * @param buffer buffer to read into
+     * @return number of read bytes
+     * @throws IOException
+     */
+    private int readFullyAt(
+            final long pos ,
+            final ByteBuffer buffer )
+            throws IOException
+    {
+        int total = 0;
+        while ( buffer.hasRemaining() )
+        {
+            final int lengthRead =
+                    channelRead(
+                            buffer ,
+                            pos + total );
+
+            if ( lengthRead < 0 )
+            {
+                break;
+            }
+
+            total += lengthRead;
+        }
+        return total;
+    }
+
+    /**
+     * Write the remaining bytes of the buffer.
+     *
+     * @param pos position in file
+     * @param buffer buffer to write
+     * @throws IOException
+     */
+    private void writeFullyAt(
+            final long pos ,
+            final ByteBuffer buffer )
+            throws IOException
+    {
+        ensureWritable();
+
+        long p = pos;
+        while ( buffer.hasRemaining() )
+        {
+            p += channelWrite(
+                    buffer ,
+                    p );
+        }
+    }
+
+}
@@ -0,0 +1,533 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+
+/**
+ * Fake implementation of {@link RandomAccessFileInterface}
+ * to fake {@link RandomAccessFile}
+ * for test in RAM without disk access.
+ *
+ * Diese Variante ist ein Handle mit eigenem Dateizeiger
+ * auf einen gemeinsamen, thread-sicheren Speicher
+ * ({@link ConcurrentPagedMemory}). Mehrere Handles auf
+ * denselben Speicher können von verschiedenen Threads
+ * gleichzeitig benutzt werden, ein einzelnes Handle nur
+ * mit den positionierten Methoden
+ * {@link #readAt(long, byte[], int, int)} und
+ * {@link #writeAt(long, byte[], int, int)}.
+ *
+ * Mit {@link #newHandle(String)} bekommt jedes Handle
+ * seinen eigenen Modus, "r" für nur lesende Handles,
+ * zum Beispiel für einen Pool von Leser-Threads.
+ */
+public class RandomAccessFileConcurrentFake
+extends RandomAccessFileAbstractImplementation
+{
+    /**
+     * Closed state.
+     *
+     * Public for test.
+     *
+     * Reset this state on creation or open.
+     */
+    public volatile boolean closed = true;
+
+    /**
+     * Read-only state, like mode "r" of
+     * {@link RandomAccessFile}, writes
+     * and {@link #setLength(long)} throw
+     * an {@link IOException}.
+     *
+     * Public for test.
+     */
+    public boolean readOnly;
+
+    /**
+     * Memory, shared between handles.
+     *
+     * Public for test.
+     */
+    public final ConcurrentPagedMemory concurrentPagedMemory;
+
+    /**
+     * File pointer.
+     * Current position in file.
+     *
+     * Public for test.
+     *
+     * Reset this position on reopen.
+     */
+    public long filePointer;
+
+    /**
+     * Constructor with new empty memory,
+     * default page size and stripe count.
+     */
+    public RandomAccessFileConcurrentFake()
+    {
+        this( new ConcurrentPagedMemory() );
+    }
+
+    /**
+     * Constructor for a new handle
+     * on a shared memory.
+     *
+     * @param concurrentPagedMemory memory of the file, shared between handles
+     */
+    public RandomAccessFileConcurrentFake(
+            final ConcurrentPagedMemory concurrentPagedMemory )
+    {
+        this.concurrentPagedMemory = concurrentPagedMemory;
+    }
+
+    /**
+     * Create a new closed handle with own file
+     * pointer on the memory of this handle.
+     *
+     * @return new handle
+     */
+    public RandomAccessFileConcurrentFake newHandle()
+    {
+        return new RandomAccessFileConcurrentFake( this.concurrentPagedMemory );
+    }
+
+    /**
+     * Create a new opened handle with own file
+     * pointer and mode on the memory of this handle,
+     * for example for a pool of reader threads.
+     * <br/><br/>
+     * A write of any handle is visible to all reads
+     * of other handles started after the write returned,
+     * the memory is guarded by locks.
+     *
+     * @param mode the access mode "r", "rw", "rws" or "rwd", "r" for a read-only handle
+     * @return new opened handle
+     * @throws IllegalArgumentException if the mode is not one of the above
+     */
+    public RandomAccessFileConcurrentFake newHandle(
+            final String mode )
+    {
+        final RandomAccessFileConcurrentFake handle = newHandle();
+        handle.readOnly = FileModes.isReadOnly( mode );
+        handle.closed = false;
+        return handle;
+    }
+
+    /**
+     * Only for test, (re)open this.
+     *
+     * @throws IOException
+     */
+    public void open()
+            throws IOException
+    {
+        if ( ! closed )
+        {
+            throw new IOException( "file already/concurrent open" );
+        }
+
+        // reopen
+        closed = false;
+
+        // navigate to begin of file
+        filePointer = 0;
+    }
+
+    /**
+     * Reads a byte of data from this file. The byte is returned as an
+     * integer in the range 0 to 255 ({@code 0x00-0x0ff}). This
+     * method blocks if no input is yet available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the same
+     * way as the {@link InputStream#read()} method of
+     * {@code InputStream}.
+     *
+     * @return     the next byte of data, or {@code -1} if the end of the
+     *             file has been reached.
+     * @exception  IOException  if an I/O error occurs. Not thrown if
+     *                          end-of-file has been reached.
+     */
+    @Override
+    public int read()
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        final int b = this.concurrentPagedMemory.read( this.filePointer );
+
+        if ( b >= 0 )
+        {
+            this.filePointer++;
+        }
+
+        return b;
+    }
+
+    /**
+     * Reads up to {@code len} bytes of data from this file into an
+     * array of bytes. This method blocks until at least one byte of input
+     * is available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the
+     * same way as the {@link InputStream#read(byte[], int, int)} method of
+     * {@code InputStream}.
+     *
+     * @param      b     the buffer into which the data is read.
+     * @param      off   the start offset in array {@code b}
+     *                   at which the data is written.
+     * @param      len   the maximum number of bytes read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if there is no more data because the end of
+     *             the file has been reached.
+     * @exception  IOException If the first byte cannot be read for any reason
+     * other than end of file, or if the random access file has been closed, or if
+     * some other I/O error occurs.
+     * @exception  NullPointerException If {@code b} is {@code null}.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public int read(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        final int lengthRead =
+                this.concurrentPagedMemory.read(
+                        this.filePointer ,
+                        b ,
+                        off ,
+                        len );
+
+        if ( lengthRead > 0 )
+        {
+            this.filePointer += lengthRead;
+        }
+
+        return lengthRead;
+    }
+
+    /**
+     * Reads up to {@code len} bytes of data from this file, starting
+     * at the specified position, into an array of bytes.
+     * The file pointer is not changed, so concurrent positional
+     * reads need no seek under a lock, like {@code pread}.
+     *
+     * @param      pos   the position in the file at which the read starts.
+     * @param      b     the buffer into which the data is read.
+     * @param      off   the start offset in array {@code b}
+     *                   at which the data is written.
+     * @param      len   the maximum number of bytes read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if {@code pos} is at or behind the end
+     *             of the file.
+     * @exception  IOException If {@code pos} is negative, the file has been
+     *             closed or some other I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public int readAt(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        if ( pos < 0L )
+        {
+            throw new IOException( "Negative position" );
+        }
+
+        return this.concurrentPagedMemory.read(
+                pos ,
+                b ,
+                off ,
+                len );
+    }
+
+    /**
+     * Writes the specified byte to this file. The write starts at
+     * the current file pointer.
+     *
+     * @param      b   the {@code byte} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final int b )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        if ( readOnly )
+        {
+            throw new IOException( "read-only file" );
+        }
+
+        this.concurrentPagedMemory.write(
+                this.filePointer ,
+                b );
+
+        this.filePointer++;
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array
+     * starting at offset {@code off} to this file.
+     *
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        if ( readOnly )
+        {
+            throw new IOException( "read-only file" );
+        }
+
+        this.concurrentPagedMemory.write(
+                this.filePointer ,
+                b ,
+                off ,
+                len );
+
+        this.filePointer += len;
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array
+     * starting at offset {@code off} to this file at the specified
+     * position. The file pointer is not changed, like {@code pwrite}.
+     * The file grows if the written range exceeds the end.
+     *
+     * @param      pos   the position in the file at which the write starts.
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException If {@code pos} is negative, the file has been
+     *             closed or some other I/O error occurs.
+     */
+    @Override
+    public void writeAt(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        if ( readOnly )
+        {
+            throw new IOException( "read-only file" );
+        }
+
+        if ( pos < 0L )
+        {
+            throw new IOException( "Negative position" );
+        }
+
+        this.concurrentPagedMemory.write(
+                pos ,
+                b ,
+                off ,
+                len );
+    }
+
+    /**
+     * Returns the current offset in this file.
+     *
+     * @return     the offset from the beginning of the file, in bytes,
+     *             at which the next read or write occurs.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public long getFilePointer()
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        return this.filePointer;
+    }
+
+    /**
+     * Sets the file-pointer offset, measured from the beginning of this
+     * file, at which the next read or write occurs.  The offset may be
+     * set beyond the end of the file. Setting the offset beyond the end
+     * of the file does not change the file length.  The file length will
+     * change only by writing after the offset has been set beyond the end
+     * of the file.
+     *
+     * @param      pos   the offset position, measured in bytes from the
+     *                   beginning of the file, at which to set the file
+     *                   pointer.
+     * @exception  IOException  if {@code pos} is less than
+     *                          {@code 0} or if an I/O error occurs.
+     */
+    @Override
+    public void seek(
+            final long pos )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        if ( pos < 0L )
+        {
+            throw new IOException("Negative seek offset");
+        }
+
+        this.filePointer = pos;
+    }
+
+    /**
+     * Returns the length of this file.
+     *
+     * @return     the length of this file, measured in bytes.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public long length()
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        return this.concurrentPagedMemory.length();
+    }
+
+    /**
+     * Sets the length of this file.
+     *
+     * <p> If the present length of the file as returned by the
+     * {@code length} method is greater than the {@code newLength}
+     * argument then the file will be truncated.  In this case, if the file
+     * offset as returned by the {@code getFilePointer} method is greater
+     * than {@code newLength} then after this method returns the offset
+     * will be equal to {@code newLength}.
+     *
+     * <p> If the present length of the file as returned by the
+     * {@code length} method is smaller than the {@code newLength}
+     * argument then the file will be extended.  In this case, the contents of
+     * the extended portion of the file are not defined.
+     *
+     * @param      newLength    The desired length of the file
+     * @exception  IOException  If an I/O error occurs
+     * @since      1.2
+     */
+    @Override
+    public void setLength(
+            final long newLength )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        if ( readOnly )
+        {
+            throw new IOException( "read-only file" );
+        }
+
+        if ( newLength < 0L )
+        {
+            throw new IOException("Negative length " + newLength );
+        }
+
+        this.concurrentPagedMemory.setLength( newLength );
+
+        if ( this.filePointer > newLength )
+        {
+            this.filePointer = newLength;
+        }
+    }
+
+    /**
+     * Create the channel, exclusive locks
+     * are rejected for a read-only file.
+     *
+     * @return new channel of this file
+     */
+    @Override
+    protected FileChannel newChannel()
+    {
+        return new RandomAccessFileInterfaceChannel( this )
+        {
+            @Override
+            protected boolean isReadOnly()
+            {
+                return readOnly;
+            }
+        };
+    }
+
+    /**
+     * Closes this random access file stream and releases any system
+     * resources associated with the stream. A closed random access
+     * file cannot perform input or output operations and cannot be
+     * reopened.
+     *
+     * <p> If this file has an associated channel then the channel is closed
+     * as well.
+     *
+     * @exception  IOException  if an I/O error occurs.
+     *
+     * @revised 1.4
+     * @spec JSR-51
+     */
+    @Override
+    public void close()
+            throws IOException
+    {
+        this.closed = true;
+    }
+
+}
@@ -0,0 +1,434 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fake implementation of {@link RandomAccessFileInterface}
+ * to fake {@link java.io.RandomAccessFile}
+ * for test in RAM without disk access.
+ *
+ * Diese Variante simuliert einen Absturz (Stromausfall):
+ * Schreibvorgänge landen zuerst in einer flüchtigen Schicht
+ * und werden erst mit {@link #sync()} (oder
+ * {@code getChannel().force(...)}) dauerhaft.
+ *
+ * {@link #crash()} verwirft die nicht synchronisierten
+ * Schreibvorgänge oder wendet sie teilweise an, jeder Sektor
+ * für sich (torn write), mit reproduzierbarem Zufall aus
+ * dem Seed. Danach ist die Datei geschlossen und wird wie nach
+ * einem Neustart mit {@link #open()} wieder geöffnet.
+ *
+ * Der dauerhafte Stand ist ein {@link PagedMemory.Snapshot},
+ * darum kosten {@link #sync()} und {@link #crash()} keine
+ * Kopie der ganzen Datei.
+ *
+ * Handles von {@link #newHandle()} teilen den flüchtigen
+ * und den dauerhaften Stand, {@link #crash()} schliesst
+ * alle Handles.
+ */
+public class RandomAccessFileCrashSimulatingFake
+extends RandomAccessFilePagedFake
+{
+    /**
+     * Default sector size 512 bytes,
+     * the unit of atomic writes of a disk.
+     */
+    public static final int DEFAULT_SECTOR_SIZE = 512;
+
+    /**
+     * Size of sector, power of two.
+     */
+    private final int sectorSize;
+
+    /**
+     * Number of bits to shift a position
+     * to get the sector index.
+     */
+    private final int sectorShift;
+
+    /**
+     * Seeded randomness of {@link #crash()}.
+     */
+    private final Random random;
+
+    /**
+     * Durable content, state of last {@link #sync()},
+     * the same in all handles.
+     *
+     * Public for test.
+     */
+    public PagedMemory.Snapshot durable;
+
+    /**
+     * Sectors written since last {@link #sync()},
+     * shared by all handles.
+     *
+     * Public for test.
+     */
+    public final BitSet pendingSectors;
+
+    /**
+     * All handles on the memory including this,
+     * shared by all handles.
+     */
+    private final List<RandomAccessFileCrashSimulatingFake> handles;
+
+    /**
+     * Constructor with new empty memory,
+     * default page size and {@link #DEFAULT_SECTOR_SIZE}.
+     *
+     * @param seed seed of randomness of {@link #crash()}
+     */
+    public RandomAccessFileCrashSimulatingFake(
+            final long seed )
+    {
+        this(
+                new PagedMemory() ,
+                DEFAULT_SECTOR_SIZE ,
+                seed );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pagedMemory memory of the file, the content is durable
+     * @param sectorSize size of sector, unit of torn writes, must be a power of two
+     * @param seed seed of randomness of {@link #crash()}
+     */
+    public RandomAccessFileCrashSimulatingFake(
+            final PagedMemory pagedMemory ,
+            final int sectorSize ,
+            final long seed )
+    {
+        super( pagedMemory );
+
+        if ( sectorSize < 1 || Integer.bitCount( sectorSize ) != 1 )
+        {
+            throw new IllegalArgumentException( "sector size is not a power of two: " + sectorSize );
+        }
+
+        this.sectorSize = sectorSize;
+        this.sectorShift = Integer.numberOfTrailingZeros( sectorSize );
+        this.random = new Random( seed );
+        this.durable = pagedMemory.snapshot();
+        this.pendingSectors = new BitSet();
+        this.handles = new ArrayList<>();
+        this.handles.add( this );
+    }
+
+    /**
+     * Constructor for {@link #newHandle()}.
+     *
+     * @param other handle to share the state with
+     */
+    private RandomAccessFileCrashSimulatingFake(
+            final RandomAccessFileCrashSimulatingFake other )
+    {
+        super( other.pagedMemory );
+
+        this.sectorSize = other.sectorSize;
+        this.sectorShift = other.sectorShift;
+        this.random = other.random;
+        this.durable = other.durable;
+        this.pendingSectors = other.pendingSectors;
+        this.handles = other.handles;
+        this.handles.add( this );
+    }
+
+    /**
+     * Create a new closed handle with own file pointer
+     * on the memory of this handle. Writes of all handles
+     * are pending until {@link #sync()} of any handle.
+     *
+     * @return new handle
+     */
+    @Override
+    public RandomAccessFileCrashSimulatingFake newHandle()
+    {
+        return new RandomAccessFileCrashSimulatingFake( this );
+    }
+
+    /**
+     * Only for test, set the content to the snapshot,
+     * the whole old and new range of the file is pending.
+     *
+     * @param snapshot snapshot of this or another paged fake with same page size
+     */
+    @Override
+    public void restore(
+            final PagedMemory.Snapshot snapshot )
+    {
+        final long oldLength = this.pagedMemory.length();
+        super.restore( snapshot );
+        markPending(
+                0 ,
+                Math.max( oldLength , this.pagedMemory.length() ) );
+    }
+
+    /**
+     * Make all writes durable, like
+     * {@code getFD().sync()} of {@link java.io.RandomAccessFile}.
+     *
+     * @throws IOException if the file is closed
+     */
+    public void sync()
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        setDurable( this.pagedMemory.snapshot() );
+        this.pendingSectors.clear();
+    }
+
+    /**
+     * Simulate a crash, each pending sector
+     * and the pending length are applied with
+     * probability 0.5.
+     *
+     * @see #crash(double)
+     */
+    public void crash()
+    {
+        crash( 0.5 );
+    }
+
+    /**
+     * Simulate a crash. Each sector written since the last
+     * {@link #sync()} is applied with the specified probability,
+     * else it keeps the durable content. The length of the
+     * file is the current length with the same probability,
+     * else the durable length.
+     * <br/><br/>
+     * The result is the new durable content,
+     * the file and all its handles are closed,
+     * {@link #open()} for recovery.
+     *
+     * @param applyProbability 0 to drop all pending writes, 1 to apply all
+     */
+    public void crash(
+            final double applyProbability )
+    {
+        final long currentLength = this.pagedMemory.length();
+
+        final PagedMemory crashed =
+                new PagedMemory(
+                        this.durable ,
+                        this.pagedMemory.isSparse() );
+
+        final byte[] sector = new byte[ this.sectorSize ];
+
+        for ( int sectorIndex = this.pendingSectors.nextSetBit( 0 ) ;
+                sectorIndex >= 0 ;
+                sectorIndex = this.pendingSectors.nextSetBit( sectorIndex + 1 ) )
+        {
+            if ( this.random.nextDouble() >= applyProbability )
+            {
+                // sector lost
+                continue;
+            }
+
+            final long pos = (long) sectorIndex << this.sectorShift;
+
+            if ( pos >= currentLength )
+            {
+                // truncated after write
+                continue;
+            }
+
+            final int len = this.pagedMemory.read( pos , sector , 0 , sector.length );
+
+            crashed.write(
+                    pos ,
+                    sector ,
+                    0 ,
+                    len );
+        }
+
+        crashed.setLength(
+                this.random.nextDouble() < applyProbability
+                ? currentLength
+                : this.durable.length() );
+
+        this.pagedMemory.restore( crashed.snapshot() );
+        setDurable( this.pagedMemory.snapshot() );
+        this.pendingSectors.clear();
+
+        // process died
+        for ( final RandomAccessFileCrashSimulatingFake handle : this.handles )
+        {
+            handle.closed = true;
+        }
+    }
+
+    /**
+     * Set the durable content in all handles.
+     *
+     * @param snapshot new durable content
+     */
+    private void setDurable(
+            final PagedMemory.Snapshot snapshot )
+    {
+        for ( final RandomAccessFileCrashSimulatingFake handle : this.handles )
+        {
+            handle.durable = snapshot;
+        }
+    }
+
+    /**
+     * Writes the specified byte to this file
+     * into the volatile layer.
+     *
+     * @param      b   the {@code byte} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final int b )
+            throws IOException
+    {
+        final long pos = this.filePointer;
+        super.write( b );
+        markPending( pos , 1 );
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array
+     * starting at offset {@code off} to this file
+     * into the volatile layer.
+     *
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final long pos = this.filePointer;
+        super.write( b , off , len );
+        markPending( pos , len );
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array
+     * starting at offset {@code off} to this file at the specified
+     * position into the volatile layer.
+     *
+     * @param      pos   the position in the file at which the write starts.
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException If {@code pos} is negative, the file has been
+     *             closed or some other I/O error occurs.
+     */
+    @Override
+    public void writeAt(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        super.writeAt( pos , b , off , len );
+        markPending( pos , len );
+    }
+
+    /**
+     * Sets the length of this file in the volatile layer,
+     * the changed range is pending.
+     *
+     * @param      newLength    The desired length of the file
+     * @exception  IOException  If an I/O error occurs
+     */
+    @Override
+    public void setLength(
+            final long newLength )
+            throws IOException
+    {
+        final long oldLength = this.pagedMemory.length();
+        super.setLength( newLength );
+        markPending(
+                Math.min( oldLength , newLength ) ,
+                Math.abs( newLength - oldLength ) );
+    }
+
+    /**
+     * Create the channel with read access to the pages
+     * without intermediate copy, {@link FileChannel#force(boolean)}
+     * calls {@link #sync()}.
+     *
+     * @return new channel of this file
+     */
+    @Override
+    protected FileChannel newChannel()
+    {
+        return new RandomAccessFileInterfaceChannel( this )
+        {
+            @Override
+            protected ByteBuffer view(
+                    final long position ,
+                    final int maxLength )
+            {
+                return pagedMemory.view(
+                        position ,
+                        maxLength );
+            }
+
+            @Override
+            public void force(
+                    final boolean metaData )
+                    throws IOException
+            {
+                sync();
+            }
+
+            @Override
+            protected boolean isReadOnly()
+            {
+                return readOnly;
+            }
+        };
+    }
+
+    /**
+     * Mark the sectors of the range as pending.
+     *
+     * @param pos start of range
+     * @param len length of range
+     */
+    private void markPending(
+            final long pos ,
+            final long len )
+    {
+        if ( len <= 0 )
+        {
+            return;
+        }
+
+        final long fromSector = pos >>> this.sectorShift;
+        final long toSector = ( pos + len - 1 ) >>> this.sectorShift;
+
+        if ( toSector >= Integer.MAX_VALUE )
+        {
+            throw new ArithmeticException( String.valueOf( pos + len ) );
+        }
+
+        this.pendingSectors.set(
+                (int) fromSector ,
+                (int) toSector + 1 );
+    }
+
+}
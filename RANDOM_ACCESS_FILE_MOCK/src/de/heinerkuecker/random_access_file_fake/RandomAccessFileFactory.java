@@ -0,0 +1,59 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * Factory to open a {@link RandomAccessFileInterface} by path,
+ * like the constructors of {@link RandomAccessFile}.
+ * <br/><br/>
+ * Code which opens files by name gets a factory
+ * instead of calling a constructor, so tests can
+ * pass an {@link InMemoryFileSystem}.
+ */
+@FunctionalInterface
+public interface RandomAccessFileFactory
+{
+    /**
+     * Factory of {@link RandomAccessFileRealImplementation}.
+     */
+    RandomAccessFileFactory REAL = RandomAccessFileRealImplementation::new;
+
+    /**
+     * Open a file.
+     *
+     * @param file the file object
+     * @param mode the access mode "r", "rw", "rws" or "rwd",
+     *             like {@link RandomAccessFile#RandomAccessFile(File, String)}
+     * @return opened file
+     * @throws IllegalArgumentException if the mode is not one of the above
+     * @throws java.io.FileNotFoundException if the mode is "r" and the file does not exist
+     *         or the file cannot be created
+     * @throws IOException if an other I/O error occurs
+     */
+    RandomAccessFileInterface open(
+            final File file ,
+            final String mode )
+            throws IOException;
+
+    /**
+     * Open a file.
+     *
+     * @param name the system-dependent filename
+     * @param mode the access mode "r", "rw", "rws" or "rwd",
+     *             like {@link RandomAccessFile#RandomAccessFile(String, String)}
+     * @return opened file
+     * @throws IOException see {@link #open(File, String)}
+     */
+    default RandomAccessFileInterface open(
+            final String name ,
+            final String mode )
+            throws IOException
+    {
+        return open(
+                new File( name ) ,
+                mode );
+    }
+
+}
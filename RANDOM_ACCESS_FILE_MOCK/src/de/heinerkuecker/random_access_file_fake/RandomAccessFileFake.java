@@ -1,1333 +1,2279 @@
-package de.heinerkuecker.random_access_file_fake;
-
-import java.io.DataInputStream;
-import java.io.EOFException;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.RandomAccessFile;
-import java.io.UTFDataFormatException;
-import java.util.Arrays;
-
-/**
- * Fake implementation of {@link RandomAccessFileInterface}
- * to fake {@link RandomAccessFile}
- * for test in RAM without disk access.
- *
- * Diese Variante vergrssert das innere Speicher-Array
- * {@link #fakeMemory} bei Bedarf ohne Pufferung,
- * also nur auf die unbedingt notwendige Gre.
- */
-public class RandomAccessFileFake
-implements RandomAccessFileInterface
-{
-    /**
-     * Closed state.
-     *
-     * Public for test.
-     *
-     * Reset this state on creation or open.
-     */
-    public boolean closed = true;
-
-    /**
-     * Memory.
-     *
-     * Public for test.
-     */
-    public byte[] fakeMemory = new byte[ 0 ];
-
-    /**
-     * File pointer.
-     * Current position in file.
-     *
-     * Public for test.
-     *
-     * Reset this position on reopen.
-     */
-    public int filePointer;
-
-    //public byte[] getFakeMemory()
-    //{
-    //    return this.fakeMemory;
-    //}
-    //public void setFakeMemory(
-    //        final byte[] fakeMemoryToSet )
-    //{
-    //    this.fakeMemory = fakeMemoryToSet;
-    //}
-
-    /**
-     * Only for test, (re)open this.
-     *
-     * @throws IOException
-     */
-    public void open()
-            throws IOException
-    {
-        if ( ! closed )
-        {
-            throw new IOException( "file already/concurrent open" );
-        }
-
-        // reopen
-        closed = false;
-
-        // navigate to begin of file
-        filePointer = 0;
-    }
-
-    /**
-     * Reads a byte of data from this file. The byte is returned as an
-     * integer in the range 0 to 255 ({@code 0x00-0x0ff}). This
-     * method blocks if no input is yet available.
-     * <p>
-     * Although {@code RandomAccessFile} is not a subclass of
-     * {@code InputStream}, this method behaves in exactly the same
-     * way as the {@link InputStream#read()} method of
-     * {@code InputStream}.
-     *
-     * @return     the next byte of data, or {@code -1} if the end of the
-     *             file has been reached.
-     * @exception  IOException  if an I/O error occurs. Not thrown if
-     *                          end-of-file has been reached.
-     */
-    @Override
-    public int read()
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        return fakeMemory[ filePointer++ ] & 0xFF;
-    }
-
-    /**
-     * Reads up to {@code len} bytes of data from this file into an
-     * array of bytes. This method blocks until at least one byte of input
-     * is available.
-     * <p>
-     * Although {@code RandomAccessFile} is not a subclass of
-     * {@code InputStream}, this method behaves in exactly the
-     * same way as the {@link InputStream#read(byte[], int, int)} method of
-     * {@code InputStream}.
-     *
-     * @param      b     the buffer into which the data is read.
-     * @param      off   the start offset in array {@code b}
-     *                   at which the data is written.
-     * @param      len   the maximum number of bytes read.
-     * @return     the total number of bytes read into the buffer, or
-     *             {@code -1} if there is no more data because the end of
-     *             the file has been reached.
-     * @exception  IOException If the first byte cannot be read for any reason
-     * other than end of file, or if the random access file has been closed, or if
-     * some other I/O error occurs.
-     * @exception  NullPointerException If {@code b} is {@code null}.
-     * @exception  IndexOutOfBoundsException If {@code off} is negative,
-     * {@code len} is negative, or {@code len} is greater than
-     * {@code b.length - off}
-     */
-    @Override
-    public int read(
-            final byte[] b ,
-            final int off ,
-            final int len )
-                    throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        final int possibleLengthToRead =
-                Math.min(
-                        len ,
-                        this.fakeMemory.length -
-                        filePointer );
-
-        if ( possibleLengthToRead < 1 )
-        {
-            return -1;
-        }
-
-        System.arraycopy(
-                //src
-                this.fakeMemory ,
-                //srcPos
-                this.filePointer ,
-                //dest
-                b ,
-                //destPos
-                off ,
-                //length
-                possibleLengthToRead );
-
-        filePointer += possibleLengthToRead;
-        return possibleLengthToRead;
-    }
-
-    /**
-     * Reads a byte of data from this file. The byte is returned as an
-     * integer in the range 0 to 255 ({@code 0x00-0x0ff}). This
-     * method blocks if no input is yet available.
-     * <p>
-     * Although {@code RandomAccessFile} is not a subclass of
-     * {@code InputStream}, this method behaves in exactly the same
-     * way as the {@link InputStream#read()} method of
-     * {@code InputStream}.
-     *
-     * @return     the next byte of data, or {@code -1} if the end of the
-     *             file has been reached.
-     * @exception  IOException  if an I/O error occurs. Not thrown if
-     *                          end-of-file has been reached.
-     */
-    @Override
-    public int read(
-            final byte[] b )
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        return read(b, 0, b.length);
-    }
-
-    /**
-     * Reads {@code b.length} bytes from this file into the byte
-     * array, starting at the current file pointer. This method reads
-     * repeatedly from the file until the requested number of bytes are
-     * read. This method blocks until the requested number of bytes are
-     * read, the end of the stream is detected, or an exception is thrown.
-     *
-     * @param   b   the buffer into which the data is read.
-     * @throws  NullPointerException if {@code b} is {@code null}.
-     * @throws  EOFException  if this file reaches the end before reading
-     *              all the bytes.
-     * @throws  IOException   if an I/O error occurs.
-     */
-    @Override
-    public void readFully(
-            final byte[] b )
-                    throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        //if ( b.length > fakeMemory.length - filePointer )
-        //{
-        //    throw new EOFException();
-        //}
-
-        read( b, 0, b.length);
-    }
-
-    /**
-     * Reads exactly {@code len} bytes from this file into the byte
-     * array, starting at the current file pointer. This method reads
-     * repeatedly from the file until the requested number of bytes are
-     * read. This method blocks until the requested number of bytes are
-     * read, the end of the stream is detected, or an exception is thrown.
-     *
-     * @param   b     the buffer into which the data is read.
-     * @param   off   the start offset into the data array {@code b}.
-     * @param   len   the number of bytes to read.
-     * @throws  NullPointerException if {@code b} is {@code null}.
-     * @throws  IndexOutOfBoundsException if {@code off} is negative,
-     *                {@code len} is negative, or {@code len} is greater than
-     *                {@code b.length - off}.
-     * @throws  EOFException  if this file reaches the end before reading
-     *                all the bytes.
-     * @throws  IOException   if an I/O error occurs.
-     */
-    @Override
-    public void readFully(
-            final byte[] b ,
-            final int off ,
-            final int len )
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        final int lengthToRead = len - off;
-
-        if ( lengthToRead > fakeMemory.length - filePointer )
-        {
-            throw new EOFException();
-        }
-
-        read( b , off , len );
-    }
-
-    /**
-     * Attempts to skip over {@code n} bytes of input discarding the
-     * skipped bytes.
-     * <p>
-     *
-     * This method may skip over some smaller number of bytes, possibly zero.
-     * This may result from any of a number of conditions; reaching end of
-     * file before {@code n} bytes have been skipped is only one
-     * possibility. This method never throws an {@code EOFException}.
-     * The actual number of bytes skipped is returned.  If {@code n}
-     * is negative, no bytes are skipped.
-     *
-     * @param      n   the number of bytes to be skipped.
-     * @return     the actual number of bytes skipped.
-     * @exception  IOException  if an I/O error occurs.
-     */
-    @Override
-    public int skipBytes(
-            final int n)
-                    throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        //if ( n < 1 )
-        //{
-        //    return 0;
-        //}
-        //final int possibleNumberOfBytesToSkip =
-        //        Math.min(
-        //                n ,
-        //                ( this.fakeMemory.length - this.filePointer ) - 1 );
-        //
-        //this.filePointer += possibleNumberOfBytesToSkip;
-        //return possibleNumberOfBytesToSkip;
-        long pos;
-        long len;
-        long newpos;
-
-        if (n <= 0) {
-            return 0;
-        }
-        pos = getFilePointer();
-        len = length();
-        newpos = pos + n;
-        if (newpos > len) {
-            newpos = len;
-        }
-        seek(newpos);
-
-        /* return the actual number of bytes skipped */
-        return (int) (newpos - pos);
-    }
-
-    /**
-     * Writes the specified byte to this file. The write starts at
-     * the current file pointer.
-     *
-     * @param      b   the {@code byte} to be written.
-     * @exception  IOException  if an I/O error occurs.
-     */
-    @Override
-    public void write(
-            final int b )
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        if ( this.fakeMemory.length < filePointer + 1 )
-        {
-            this.fakeMemory =
-                    Arrays.copyOf(
-                            //original
-                            this.fakeMemory ,
-                            //newLength
-                            filePointer + 1 );
-        }
-
-        this.fakeMemory[ filePointer++ ] = (byte) ( b & 0xFF );
-    }
-
-    /**
-     * Writes {@code b.length} bytes from the specified byte array
-     * to this file, starting at the current file pointer.
-     *
-     * @param      b   the data.
-     * @exception  IOException  if an I/O error occurs.
-     */
-    @Override
-    public void write(
-            final byte[] b )
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        //if ( this.fakeMemory.length < filePointer + b.length )
-        //{
-        //    this.fakeMemory =
-        //            Arrays.copyOf(
-        //                    //original
-        //                    this.fakeMemory ,
-        //                    //newLength
-        //                    ( filePointer + 1 ) + b.length );
-        //}
-        write( b , 0 , b.length );
-    }
-
-    /**
-     * Writes {@code len} bytes from the specified byte array
-     * starting at offset {@code off} to this file.
-     *
-     * @param      b     the data.
-     * @param      off   the start offset in the data.
-     * @param      len   the number of bytes to write.
-     * @exception  IOException  if an I/O error occurs.
-     */
-    @Override
-    public void write(
-            final byte[] b ,
-            final int off ,
-            final int len )
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        if ( this.fakeMemory.length <= filePointer + len )
-        {
-            this.fakeMemory =
-                    Arrays.copyOf(
-                            //original
-                            this.fakeMemory ,
-                            //newLength
-                            ( filePointer + 1 ) + len );
-        }
-
-        System.arraycopy(
-                //src
-                b ,
-                //srcPos
-                off ,
-                //dest
-                this.fakeMemory ,
-                //destPos
-                filePointer ,
-                //length
-                len );
-
-        filePointer += len;
-    }
-
-    /**
-     * Returns the current offset in this file.
-     *
-     * @return     the offset from the beginning of the file, in bytes,
-     *             at which the next read or write occurs.
-     * @exception  IOException  if an I/O error occurs.
-     */
-    @Override
-    public long getFilePointer()
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        return this.filePointer;
-    }
-
-    /**
-     * Sets the file-pointer offset, measured from the beginning of this
-     * file, at which the next read or write occurs.  The offset may be
-     * set beyond the end of the file. Setting the offset beyond the end
-     * of the file does not change the file length.  The file length will
-     * change only by writing after the offset has been set beyond the end
-     * of the file.
-     *
-     * @param      pos   the offset position, measured in bytes from the
-     *                   beginning of the file, at which to set the file
-     *                   pointer.
-     * @exception  IOException  if {@code pos} is less than
-     *                          {@code 0} or if an I/O error occurs.
-     */
-    @Override
-    public void seek(long pos) throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        if ( pos < 0L )
-        {
-            throw new IOException("Negative seek offset");
-        }
-
-        if ( pos > Integer.MAX_VALUE )
-        {
-            throw new ArithmeticException( String.valueOf( pos ) );
-        }
-
-        filePointer = (int) pos;
-    }
-
-    /**
-     * Returns the length of this file.
-     *
-     * @return     the length of this file, measured in bytes.
-     * @exception  IOException  if an I/O error occurs.
-     */
-    @Override
-    public long length()
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        return this.fakeMemory.length;
-    }
-
-    /**
-     * Sets the length of this file.
-     *
-     * <p> If the present length of the file as returned by the
-     * {@code length} method is greater than the {@code newLength}
-     * argument then the file will be truncated.  In this case, if the file
-     * offset as returned by the {@code getFilePointer} method is greater
-     * than {@code newLength} then after this method returns the offset
-     * will be equal to {@code newLength}.
-     *
-     * <p> If the present length of the file as returned by the
-     * {@code length} method is smaller than the {@code newLength}
-     * argument then the file will be extended.  In this case, the contents of
-     * the extended portion of the file are not defined.
-     *
-     * @param      newLength    The desired length of the file
-     * @exception  IOException  If an I/O error occurs
-     * @since      1.2
-     */
-    @Override
-    public void setLength(
-            final long newLength )
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        if ( newLength < 0L )
-        {
-            throw new IOException("Negative length " + newLength );
-        }
-
-        if ( newLength > Integer.MAX_VALUE )
-        {
-            throw new ArithmeticException( String.valueOf( newLength ) );
-        }
-
-        final int newLengthInt = (int) newLength;
-
-        if ( newLength != this.fakeMemory.length )
-        {
-            this.fakeMemory =
-                    Arrays.copyOf(
-                            this.fakeMemory ,
-                            newLengthInt );
-        }
-
-        if ( this.filePointer > newLengthInt )
-        {
-            this.filePointer = newLengthInt;
-        }
-    }
-
-    /**
-     * Closes this random access file stream and releases any system
-     * resources associated with the stream. A closed random access
-     * file cannot perform input or output operations and cannot be
-     * reopened.
-     *
-     * <p> If this file has an associated channel then the channel is closed
-     * as well.
-     *
-     * @exception  IOException  if an I/O error occurs.
-     *
-     * @revised 1.4
-     * @spec JSR-51
-     */
-    @Override
-    public void close() throws IOException
-    {
-        //new Exception().printStackTrace( System.out );
-        this.closed = true;
-    }
-
-    /**
-     * Reads a {@code boolean} from this file. This method reads a
-     * single byte from the file, starting at the current file pointer.
-     * A value of {@code 0} represents
-     * {@code false}. Any other value represents {@code true}.
-     * This method blocks until the byte is read, the end of the stream
-     * is detected, or an exception is thrown.
-     *
-     * @return     the {@code boolean} value read.
-     * @exception  EOFException  if this file has reached the end.
-     * @exception  IOException   if an I/O error occurs.
-     */
-    @Override
-    public boolean readBoolean()
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        int ch = this.read();
-        if (ch < 0)
-            throw new EOFException();
-        return (ch != 0);
-    }
-
-    /**
-     * Reads a signed eight-bit value from this file. This method reads a
-     * byte from the file, starting from the current file pointer.
-     * If the byte read is {@code b}, where
-     * <code>0&nbsp;&lt;=&nbsp;b&nbsp;&lt;=&nbsp;255</code>,
-     * then the result is:
-     * <blockquote><pre>
-     *     (byte)(b)
-     * </pre></blockquote>
-     * <p>
-     * This method blocks until the byte is read, the end of the stream
-     * is detected, or an exception is thrown.
-     *
-     * @return     the next byte of this file as a signed eight-bit
-     *             {@code byte}.
-     * @exception  EOFException  if this file has reached the end.
-     * @exception  IOException   if an I/O error occurs.
-     */
-    @Override
-    public byte readByte()
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        int ch = this.read();
-        if (ch < 0)
-            throw new EOFException();
-        return (byte)(ch);
-    }
-
-    /**
-     * Reads an unsigned eight-bit number from this file. This method reads
-     * a byte from this file, starting at the current file pointer,
-     * and returns that byte.
-     * <p>
-     * This method blocks until the byte is read, the end of the stream
-     * is detected, or an exception is thrown.
-     *
-     * @return     the next byte of this file, interpreted as an unsigned
-     *             eight-bit number.
-     * @exception  EOFException  if this file has reached the end.
-     * @exception  IOException   if an I/O error occurs.
-     */
-    @Override
-    public int readUnsignedByte()
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        int ch = this.read();
-        if (ch < 0)
-            throw new EOFException();
-        return ch;
-    }
-
-    /**
-     * Reads a signed 16-bit number from this file. The method reads two
-     * bytes from this file, starting at the current file pointer.
-     * If the two bytes read, in order, are
-     * {@code b1} and {@code b2}, where each of the two values is
-     * between {@code 0} and {@code 255}, inclusive, then the
-     * result is equal to:
-     * <blockquote><pre>
-     *     (short)((b1 &lt;&lt; 8) | b2)
-     * </pre></blockquote>
-     * <p>
-     * This method blocks until the two bytes are read, the end of the
-     * stream is detected, or an exception is thrown.
-     *
-     * @return     the next two bytes of this file, interpreted as a signed
-     *             16-bit number.
-     * @exception  EOFException  if this file reaches the end before reading
-     *               two bytes.
-     * @exception  IOException   if an I/O error occurs.
-     */
-    @Override
-    public short readShort()
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        int ch1 = this.read();
-        int ch2 = this.read();
-        if ((ch1 | ch2) < 0)
-            throw new EOFException();
-        return (short)((ch1 << 8) + (ch2 << 0));
-    }
-
-    /**
-     * Reads an unsigned 16-bit number from this file. This method reads
-     * two bytes from the file, starting at the current file pointer.
-     * If the bytes read, in order, are
-     * {@code b1} and {@code b2}, where
-     * <code>0&nbsp;&lt;=&nbsp;b1, b2&nbsp;&lt;=&nbsp;255</code>,
-     * then the result is equal to:
-     * <blockquote><pre>
-     *     (b1 &lt;&lt; 8) | b2
-     * </pre></blockquote>
-     * <p>
-     * This method blocks until the two bytes are read, the end of the
-     * stream is detected, or an exception is thrown.
-     *
-     * @return     the next two bytes of this file, interpreted as an unsigned
-     *             16-bit integer.
-     * @exception  EOFException  if this file reaches the end before reading
-     *               two bytes.
-     * @exception  IOException   if an I/O error occurs.
-     */
-    @Override
-    public int readUnsignedShort()
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        int ch1 = this.read();
-        int ch2 = this.read();
-        if ((ch1 | ch2) < 0)
-            throw new EOFException();
-        return (ch1 << 8) + (ch2 << 0);
-    }
-
-    /**
-     * Reads a character from this file. This method reads two
-     * bytes from the file, starting at the current file pointer.
-     * If the bytes read, in order, are
-     * {@code b1} and {@code b2}, where
-     * <code>0&nbsp;&lt;=&nbsp;b1,&nbsp;b2&nbsp;&lt;=&nbsp;255</code>,
-     * then the result is equal to:
-     * <blockquote><pre>
-     *     (char)((b1 &lt;&lt; 8) | b2)
-     * </pre></blockquote>
-     * <p>
-     * This method blocks until the two bytes are read, the end of the
-     * stream is detected, or an exception is thrown.
-     *
-     * @return     the next two bytes of this file, interpreted as a
-     *                  {@code char}.
-     * @exception  EOFException  if this file reaches the end before reading
-     *               two bytes.
-     * @exception  IOException   if an I/O error occurs.
-     */
-    @Override
-    public char readChar()
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        int ch1 = this.read();
-        int ch2 = this.read();
-        if ((ch1 | ch2) < 0)
-            throw new EOFException();
-        return (char)((ch1 << 8) + (ch2 << 0));
-    }
-
-    /**
-     * Reads a signed 32-bit integer from this file. This method reads 4
-     * bytes from the file, starting at the current file pointer.
-     * If the bytes read, in order, are {@code b1},
-     * {@code b2}, {@code b3}, and {@code b4}, where
-     * <code>0&nbsp;&lt;=&nbsp;b1, b2, b3, b4&nbsp;&lt;=&nbsp;255</code>,
-     * then the result is equal to:
-     * <blockquote><pre>
-     *     (b1 &lt;&lt; 24) | (b2 &lt;&lt; 16) + (b3 &lt;&lt; 8) + b4
-     * </pre></blockquote>
-     * <p>
-     * This method blocks until the four bytes are read, the end of the
-     * stream is detected, or an exception is thrown.
-     *
-     * @return     the next four bytes of this file, interpreted as an
-     *             {@code int}.
-     * @exception  EOFException  if this file reaches the end before reading
-     *               four bytes.
-     * @exception  IOException   if an I/O error occurs.
-     */
-    @Override
-    public int readInt()
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        int ch1 = this.read();
-        int ch2 = this.read();
-        int ch3 = this.read();
-        int ch4 = this.read();
-        if ((ch1 | ch2 | ch3 | ch4) < 0)
-            throw new EOFException();
-        return ((ch1 << 24) + (ch2 << 16) + (ch3 << 8) + (ch4 << 0));
-    }
-
-    /**
-     * Reads a signed 64-bit integer from this file. This method reads eight
-     * bytes from the file, starting at the current file pointer.
-     * If the bytes read, in order, are
-     * {@code b1}, {@code b2}, {@code b3},
-     * {@code b4}, {@code b5}, {@code b6},
-     * {@code b7}, and {@code b8,} where:
-     * <blockquote><pre>
-     *     0 &lt;= b1, b2, b3, b4, b5, b6, b7, b8 &lt;=255,
-     * </pre></blockquote>
-     * <p>
-     * then the result is equal to:
-     * <blockquote><pre>
-     *     ((long)b1 &lt;&lt; 56) + ((long)b2 &lt;&lt; 48)
-     *     + ((long)b3 &lt;&lt; 40) + ((long)b4 &lt;&lt; 32)
-     *     + ((long)b5 &lt;&lt; 24) + ((long)b6 &lt;&lt; 16)
-     *     + ((long)b7 &lt;&lt; 8) + b8
-     * </pre></blockquote>
-     * <p>
-     * This method blocks until the eight bytes are read, the end of the
-     * stream is detected, or an exception is thrown.
-     *
-     * @return     the next eight bytes of this file, interpreted as a
-     *             {@code long}.
-     * @exception  EOFException  if this file reaches the end before reading
-     *               eight bytes.
-     * @exception  IOException   if an I/O error occurs.
-     */
-    @Override
-    public long readLong()
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        return ((long)(readInt()) << 32) + (readInt() & 0xFFFFFFFFL);
-    }
-
-    /**
-     * Reads a {@code float} from this file. This method reads an
-     * {@code int} value, starting at the current file pointer,
-     * as if by the {@code readInt} method
-     * and then converts that {@code int} to a {@code float}
-     * using the {@code intBitsToFloat} method in class
-     * {@code Float}.
-     * <p>
-     * This method blocks until the four bytes are read, the end of the
-     * stream is detected, or an exception is thrown.
-     *
-     * @return     the next four bytes of this file, interpreted as a
-     *             {@code float}.
-     * @exception  EOFException  if this file reaches the end before reading
-     *             four bytes.
-     * @exception  IOException   if an I/O error occurs.
-     * @see        java.io.RandomAccessFile#readInt()
-     * @see        java.lang.Float#intBitsToFloat(int)
-     */
-    @Override
-    public float readFloat()
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        return Float.intBitsToFloat(readInt());
-    }
-
-    /**
-     * Reads a {@code double} from this file. This method reads a
-     * {@code long} value, starting at the current file pointer,
-     * as if by the {@code readLong} method
-     * and then converts that {@code long} to a {@code double}
-     * using the {@code longBitsToDouble} method in
-     * class {@code Double}.
-     * <p>
-     * This method blocks until the eight bytes are read, the end of the
-     * stream is detected, or an exception is thrown.
-     *
-     * @return     the next eight bytes of this file, interpreted as a
-     *             {@code double}.
-     * @exception  EOFException  if this file reaches the end before reading
-     *             eight bytes.
-     * @exception  IOException   if an I/O error occurs.
-     * @see        java.io.RandomAccessFile#readLong()
-     * @see        java.lang.Double#longBitsToDouble(long)
-     */
-    @Override
-    public double readDouble()
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        return Double.longBitsToDouble(readLong());
-    }
-
-    /**
-     * Reads the next line of text from this file.  This method successively
-     * reads bytes from the file, starting at the current file pointer,
-     * until it reaches a line terminator or the end
-     * of the file.  Each byte is converted into a character by taking the
-     * byte's value for the lower eight bits of the character and setting the
-     * high eight bits of the character to zero.  This method does not,
-     * therefore, support the full Unicode character set.
-     *
-     * <p> A line of text is terminated by a carriage-return character
-     * ({@code '\u005Cr'}), a newline character ({@code '\u005Cn'}), a
-     * carriage-return character immediately followed by a newline character,
-     * or the end of the file.  Line-terminating characters are discarded and
-     * are not included as part of the string returned.
-     *
-     * <p> This method blocks until a newline character is read, a carriage
-     * return and the byte following it are read (to see if it is a newline),
-     * the end of the file is reached, or an exception is thrown.
-     *
-     * @return     the next line of text from this file, or null if end
-     *             of file is encountered before even one byte is read.
-     * @exception  IOException  if an I/O error occurs.
-     */
-    @Override
-    public String readLine()
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        StringBuilder input = new StringBuilder();
-        int c = -1;
-        boolean eol = false;
-
-        while (!eol) {
-            switch (c = read()) {
-            case -1:
-            case '\n':
-                eol = true;
-                break;
-            case '\r':
-                eol = true;
-                long cur = getFilePointer();
-                if ((read()) != '\n') {
-                    seek(cur);
-                }
-                break;
-            default:
-                input.append((char)c);
-                break;
-            }
-        }
-
-        if ((c == -1) && (input.length() == 0)) {
-            return null;
-        }
-        return input.toString();
-    }
-
-    /**
-     * Reads in a string from this file. The string has been encoded
-     * using a
-     * <a href="DataInput.html#modified-utf-8">modified UTF-8</a>
-     * format.
-     * <p>
-     * The first two bytes are read, starting from the current file
-     * pointer, as if by
-     * {@code readUnsignedShort}. This value gives the number of
-     * following bytes that are in the encoded string, not
-     * the length of the resulting string. The following bytes are then
-     * interpreted as bytes encoding characters in the modified UTF-8 format
-     * and are converted into characters.
-     * <p>
-     * This method blocks until all the bytes are read, the end of the
-     * stream is detected, or an exception is thrown.
-     *
-     * @return     a Unicode string.
-     * @exception  EOFException            if this file reaches the end before
-     *               reading all the bytes.
-     * @exception  IOException             if an I/O error occurs.
-     * @exception  UTFDataFormatException  if the bytes do not represent
-     *               valid modified UTF-8 encoding of a Unicode string.
-     * @see        java.io.RandomAccessFile#readUnsignedShort()
-     */
-    @Override
-    public String readUTF()
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        return DataInputStream.readUTF(this);
-    }
-
-    /**
-     * Writes a {@code boolean} to the file as a one-byte value. The
-     * value {@code true} is written out as the value
-     * {@code (byte)1}; the value {@code false} is written out
-     * as the value {@code (byte)0}. The write starts at
-     * the current position of the file pointer.
-     *
-     * @param      v   a {@code boolean} value to be written.
-     * @exception  IOException  if an I/O error occurs.
-     */
-    @Override
-    public void writeBoolean(boolean v)
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        write(v ? 1 : 0);
-    }
-
-    /**
-     * Writes a {@code byte} to the file as a one-byte value. The
-     * write starts at the current position of the file pointer.
-     *
-     * @param      v   a {@code byte} value to be written.
-     * @exception  IOException  if an I/O error occurs.
-     */
-    @Override
-    public void writeByte(int v)
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        write(v);
-    }
-
-    /**
-     * Writes a {@code short} to the file as two bytes, high byte first.
-     * The write starts at the current position of the file pointer.
-     *
-     * @param      v   a {@code short} to be written.
-     * @exception  IOException  if an I/O error occurs.
-     */
-    @Override
-    public void writeShort(int v)
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        write((v >>> 8) & 0xFF);
-        write((v >>> 0) & 0xFF);
-    }
-
-    /**
-     * Writes a {@code char} to the file as a two-byte value, high
-     * byte first. The write starts at the current position of the
-     * file pointer.
-     *
-     * @param      v   a {@code char} value to be written.
-     * @exception  IOException  if an I/O error occurs.
-     */
-    @Override
-    public void writeChar(int v)
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        write((v >>> 8) & 0xFF);
-        write((v >>> 0) & 0xFF);
-    }
-
-    /**
-     * Writes an {@code int} to the file as four bytes, high byte first.
-     * The write starts at the current position of the file pointer.
-     *
-     * @param      v   an {@code int} to be written.
-     * @exception  IOException  if an I/O error occurs.
-     */
-    @Override
-    public void writeInt(int v)
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        write((v >>> 24) & 0xFF);
-        write((v >>> 16) & 0xFF);
-        write((v >>>  8) & 0xFF);
-        write((v >>>  0) & 0xFF);
-
-    }
-
-    /**
-     * Writes a {@code long} to the file as eight bytes, high byte first.
-     * The write starts at the current position of the file pointer.
-     *
-     * @param      v   a {@code long} to be written.
-     * @exception  IOException  if an I/O error occurs.
-     */
-    @Override
-    public void writeLong(long v)
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        write((int)(v >>> 56) & 0xFF);
-        write((int)(v >>> 48) & 0xFF);
-        write((int)(v >>> 40) & 0xFF);
-        write((int)(v >>> 32) & 0xFF);
-        write((int)(v >>> 24) & 0xFF);
-        write((int)(v >>> 16) & 0xFF);
-        write((int)(v >>>  8) & 0xFF);
-        write((int)(v >>>  0) & 0xFF);
-    }
-
-    /**
-     * Converts the float argument to an {@code int} using the
-     * {@code floatToIntBits} method in class {@code Float},
-     * and then writes that {@code int} value to the file as a
-     * four-byte quantity, high byte first. The write starts at the
-     * current position of the file pointer.
-     *
-     * @param      v   a {@code float} value to be written.
-     * @exception  IOException  if an I/O error occurs.
-     * @see        java.lang.Float#floatToIntBits(float)
-     */
-    @Override
-    public void writeFloat(float v)
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        writeInt(Float.floatToIntBits(v));
-    }
-
-    /**
-     * Converts the double argument to a {@code long} using the
-     * {@code doubleToLongBits} method in class {@code Double},
-     * and then writes that {@code long} value to the file as an
-     * eight-byte quantity, high byte first. The write starts at the current
-     * position of the file pointer.
-     *
-     * @param      v   a {@code double} value to be written.
-     * @exception  IOException  if an I/O error occurs.
-     * @see        java.lang.Double#doubleToLongBits(double)
-     */
-    @Override
-    public void writeDouble(double v)
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        writeLong(Double.doubleToLongBits(v));
-    }
-
-    /**
-     * Writes the string to the file as a sequence of bytes. Each
-     * character in the string is written out, in sequence, by discarding
-     * its high eight bits. The write starts at the current position of
-     * the file pointer.
-     *
-     * @param      s   a string of bytes to be written.
-     * @exception  IOException  if an I/O error occurs.
-     */
-    @SuppressWarnings("deprecation")
-    @Override
-    public void writeBytes(String s)
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        int len = s.length();
-        byte[] b = new byte[len];
-        s.getBytes(0, len, b, 0);
-        //writeBytes(b, 0, len);
-        write(b, 0, len);
-    }
-
-    /**
-     * Writes a string to the file as a sequence of characters. Each
-     * character is written to the data output stream as if by the
-     * {@code writeChar} method. The write starts at the current
-     * position of the file pointer.
-     *
-     * @param      s   a {@code String} value to be written.
-     * @exception  IOException  if an I/O error occurs.
-     * @see        java.io.RandomAccessFile#writeChar(int)
-     */
-    @Override
-    public void writeChars(String s)
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        int clen = s.length();
-        int blen = 2*clen;
-        byte[] b = new byte[blen];
-        char[] c = new char[clen];
-        s.getChars(0, clen, c, 0);
-        for (int i = 0, j = 0; i < clen; i++) {
-            b[j++] = (byte)(c[i] >>> 8);
-            b[j++] = (byte)(c[i] >>> 0);
-        }
-        //writeBytes(b, 0, blen);
-        write(b, 0, blen);
-    }
-
-    /**
-     * Writes a string to the file using
-     * <a href="DataInput.html#modified-utf-8">modified UTF-8</a>
-     * encoding in a machine-independent manner.
-     * <p>
-     * First, two bytes are written to the file, starting at the
-     * current file pointer, as if by the
-     * {@code writeShort} method giving the number of bytes to
-     * follow. This value is the number of bytes actually written out,
-     * not the length of the string. Following the length, each character
-     * of the string is output, in sequence, using the modified UTF-8 encoding
-     * for each character.
-     *
-     * @param      str   a string to be written.
-     * @exception  IOException  if an I/O error occurs.
-     */
-    @Override
-    public void writeUTF(String str)
-            throws IOException
-    {
-        if ( closed )
-        {
-            throw new IOException( "already closed" );
-        }
-
-        //DataOutputStream.writeUTF(str, this);
-        final int strlen = str.length();
-        int utflen = strlen; // optimized for ASCII
-
-        for (int i = 0; i < strlen; i++) {
-            int c = str.charAt(i);
-            if (c >= 0x80 || c == 0)
-                utflen += (c >= 0x800) ? 2 : 1;
-        }
-
-        if (utflen > 65535 || /* overflow */ utflen < strlen)
-            throw new UTFDataFormatException(tooLongMsg(str, utflen));
-
-        final byte[] bytearr;
-        //if (/*out*/this instanceof DataOutputStream) {
-        //    DataOutputStream dos = (DataOutputStream)/*out*/this;
-        //    if (dos.bytearr == null || (dos.bytearr.length < (utflen + 2)))
-        //        dos.bytearr = new byte[(utflen*2) + 2];
-        //    bytearr = dos.bytearr;
-        //} else {
-            bytearr = new byte[utflen + 2];
-        //}
-
-        int count = 0;
-        bytearr[count++] = (byte) ((utflen >>> 8) & 0xFF);
-        bytearr[count++] = (byte) ((utflen >>> 0) & 0xFF);
-
-        int i = 0;
-        for (i = 0; i < strlen; i++) { // optimized for initial run of ASCII
-            int c = str.charAt(i);
-            if (c >= 0x80 || c == 0) break;
-            bytearr[count++] = (byte) c;
-        }
-
-        for (; i < strlen; i++) {
-            int c = str.charAt(i);
-            if (c < 0x80 && c != 0) {
-                bytearr[count++] = (byte) c;
-            } else if (c >= 0x800) {
-                bytearr[count++] = (byte) (0xE0 | ((c >> 12) & 0x0F));
-                bytearr[count++] = (byte) (0x80 | ((c >>  6) & 0x3F));
-                bytearr[count++] = (byte) (0x80 | ((c >>  0) & 0x3F));
-            } else {
-                bytearr[count++] = (byte) (0xC0 | ((c >>  6) & 0x1F));
-                bytearr[count++] = (byte) (0x80 | ((c >>  0) & 0x3F));
-            }
-        }
-        /*out*/this.write(bytearr, 0, utflen + 2);
-        //return utflen + 2;
-    }
-
-    private static String tooLongMsg(String s, int bits32) {
-        int slen = s.length();
-        String head = s.substring(0, 8);
-        String tail = s.substring(slen - 8, slen);
-        // handle int overflow with max 3x expansion
-        long actualLength = (long)slen + Integer.toUnsignedLong(bits32 - slen);
-        return "encoded string (" + head + "..." + tail + ") too long: "
-            + actualLength + " bytes";
-    }
-
-}
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Fake implementation of {@link RandomAccessFileInterface}
+ * to fake {@link RandomAccessFile}
+ * for test in RAM without disk access.
+ *
+ * Diese Variante vergrössert das innere Speicher-Array
+ * {@link #fakeMemory} bei Bedarf geometrisch (Kapazität),
+ * die logische Länge der Datei steht in {@link #fakeLength}.
+ * Damit kostet sequentielles Anhängen amortisiert O(1).
+ *
+ * Mit {@link #trimToSize()} wird das Speicher-Array
+ * auf die unbedingt notwendige Größe verkleinert.
+ *
+ * Speicher und Dateizeiger liegen in demselben Objekt und das
+ * Speicher-Array wird beim Vergrössern ersetzt, darum kann
+ * diese Variante nur einmal geöffnet sein. Mehrere Handles mit
+ * eigenem Dateizeiger auf einem gemeinsamen Speicher bieten
+ * {@link RandomAccessFilePagedFake#newHandle()} (ein Thread),
+ * {@link RandomAccessFileConcurrentFake#newHandle(String)}
+ * (mehrere Threads) und {@link InMemoryFileSystem}.
+ */
+public class RandomAccessFileFake
+implements RandomAccessFileInterface
+{
+    /**
+     * Closed state.
+     *
+     * Public for test.
+     *
+     * Reset this state on creation or open.
+     */
+    public boolean closed = true;
+
+    /**
+     * Memory.
+     *
+     * The length of the array is the capacity, not the
+     * length of the file, see {@link #fakeLength}.
+     *
+     * Public for test.
+     *
+     * A test may assign this field, at the next access
+     * the length of the assigned array is the length of
+     * the file, like {@link #setFakeMemory(byte[])}.
+     * After {@link #close()} the length of the array is
+     * the length of the file, while open a test which wants
+     * the exact bytes of the file uses {@link #getFakeMemory()}.
+     */
+    public byte[] fakeMemory = new byte[ 0 ];
+
+    /**
+     * The array of {@link #fakeMemory} last installed
+     * by this fake, to detect an array assigned by a test.
+     */
+    private byte[] installedFakeMemory = this.fakeMemory;
+
+    /**
+     * Logical length of file.
+     *
+     * The length of {@link #fakeMemory} is the capacity,
+     * bytes behind this length are always zero.
+     *
+     * Public for test, in sync with {@link #fakeMemory}.
+     */
+    public int fakeLength;
+
+    /**
+     * The channel, created on first call
+     * of {@link #getChannel()}.
+     */
+    private FileChannel channel;
+
+    /**
+     * Reused char buffer of {@link #readUTF()}
+     * for strings with non ASCII characters.
+     */
+    private char[] utfCharBuffer = new char[ 0 ];
+
+    /**
+     * Minimum capacity of {@link #fakeMemory} after growing.
+     */
+    private static final int MIN_GROWN_CAPACITY = 16;
+
+    /**
+     * Maximum capacity of {@link #fakeMemory},
+     * some VMs reserve header words in an array.
+     */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /**
+     * File pointer.
+     * Current position in file.
+     *
+     * Public for test.
+     *
+     * Reset this position on reopen.
+     */
+    public int filePointer;
+
+    /**
+     * Only for test, the content of the file.
+     * The capacity is trimmed with {@link #trimToSize()},
+     * so the length of the array is the length of the file.
+     *
+     * @return {@link #fakeMemory}, not a copy
+     */
+    public byte[] getFakeMemory()
+    {
+        // trimToSize calls syncFakeMemory
+        trimToSize();
+        return this.fakeMemory;
+    }
+
+    /**
+     * Only for test, set the content of the file,
+     * the length of the array is the new length
+     * of the file.
+     *
+     * @param fakeMemoryToSet new content, used without copy
+     */
+    public void setFakeMemory(
+            final byte[] fakeMemoryToSet )
+    {
+        this.fakeMemory = fakeMemoryToSet;
+        this.installedFakeMemory = fakeMemoryToSet;
+        this.fakeLength = fakeMemoryToSet.length;
+    }
+
+    /**
+     * Only for test, (re)open this.
+     *
+     * @throws IOException
+     */
+    public void open()
+            throws IOException
+    {
+        if ( ! closed )
+        {
+            throw new IOException( "file already/concurrent open" );
+        }
+
+        // reopen
+        closed = false;
+
+        // navigate to begin of file
+        filePointer = 0;
+    }
+
+    /**
+     * Only for test, trim the capacity of
+     * {@link #fakeMemory} to the logical
+     * length {@link #fakeLength} of file,
+     * for tests which want the exact bytes.
+     */
+    public void trimToSize()
+    {
+        syncFakeMemory();
+
+        if ( this.fakeMemory.length != this.fakeLength )
+        {
+            this.fakeMemory =
+                    Arrays.copyOf(
+                            //original
+                            this.fakeMemory ,
+                            //newLength
+                            this.fakeLength );
+            this.installedFakeMemory = this.fakeMemory;
+        }
+    }
+
+    /**
+     * Backward compatibility for tests which assign
+     * {@link #fakeMemory} without {@link #fakeLength}:
+     * the length of an array not installed by this
+     * fake is the length of the file.
+     */
+    private void syncFakeMemory()
+    {
+        if ( this.fakeMemory != this.installedFakeMemory )
+        {
+            this.installedFakeMemory = this.fakeMemory;
+            this.fakeLength = this.fakeMemory.length;
+        }
+    }
+
+    /**
+     * Grow capacity of {@link #fakeMemory}
+     * geometric by factor 1.5 to at least
+     * the specified minimum capacity.
+     *
+     * @param minCapacity the desired minimum capacity
+     */
+    private void ensureCapacity(
+            final long minCapacity )
+    {
+        if ( minCapacity <= this.fakeMemory.length )
+        {
+            return;
+        }
+
+        if ( minCapacity > MAX_CAPACITY )
+        {
+            throw new ArithmeticException( String.valueOf( minCapacity ) );
+        }
+
+        final long grownCapacity =
+                Math.max(
+                        this.fakeMemory.length + ( this.fakeMemory.length >> 1 ) ,
+                        MIN_GROWN_CAPACITY );
+
+        final int newCapacity =
+                (int) Math.min(
+                        Math.max(
+                                grownCapacity ,
+                                minCapacity ) ,
+                        MAX_CAPACITY );
+
+        this.fakeMemory =
+                Arrays.copyOf(
+                        //original
+                        this.fakeMemory ,
+                        //newLength
+                        newCapacity );
+        this.installedFakeMemory = this.fakeMemory;
+    }
+
+    /**
+     * Prepare writing the specified number of bytes
+     * at the specified position, grow capacity and
+     * logical length with one check.
+     *
+     * @param pos position of first byte to write
+     * @param len number of bytes to write
+     */
+    private void prepareWrite(
+            final long pos ,
+            final int len )
+    {
+        final long end = pos + len;
+
+        if ( this.fakeLength < end )
+        {
+            ensureCapacity( end );
+            this.fakeLength = (int) end;
+        }
+    }
+
+    /**
+     * Prepare reading the specified number of bytes
+     * at the file pointer with one bounds check.
+     *
+     * @param len number of bytes to read
+     * @throws EOFException if the file has not enough bytes,
+     *                      the remaining bytes are consumed
+     */
+    private void prepareRead(
+            final int len )
+            throws EOFException
+    {
+        if ( this.fakeLength - filePointer < len )
+        {
+            // like RandomAccessFile, which reads byte by byte,
+            // the remaining bytes are consumed
+            if ( filePointer < this.fakeLength )
+            {
+                filePointer = this.fakeLength;
+            }
+            throw new EOFException();
+        }
+    }
+
+    /**
+     * Reads a byte of data from this file. The byte is returned as an
+     * integer in the range 0 to 255 ({@code 0x00-0x0ff}). This
+     * method blocks if no input is yet available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the same
+     * way as the {@link InputStream#read()} method of
+     * {@code InputStream}.
+     *
+     * @return     the next byte of data, or {@code -1} if the end of the
+     *             file has been reached.
+     * @exception  IOException  if an I/O error occurs. Not thrown if
+     *                          end-of-file has been reached.
+     */
+    @Override
+    public int read()
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        if ( filePointer >= fakeLength )
+        {
+            return -1;
+        }
+
+        return fakeMemory[ filePointer++ ] & 0xFF;
+    }
+
+    /**
+     * Reads up to {@code len} bytes of data from this file into an
+     * array of bytes. This method blocks until at least one byte of input
+     * is available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the
+     * same way as the {@link InputStream#read(byte[], int, int)} method of
+     * {@code InputStream}.
+     *
+     * @param      b     the buffer into which the data is read.
+     * @param      off   the start offset in array {@code b}
+     *                   at which the data is written.
+     * @param      len   the maximum number of bytes read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if there is no more data because the end of
+     *             the file has been reached.
+     * @exception  IOException If the first byte cannot be read for any reason
+     * other than end of file, or if the random access file has been closed, or if
+     * some other I/O error occurs.
+     * @exception  NullPointerException If {@code b} is {@code null}.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public int read(
+            final byte[] b ,
+            final int off ,
+            final int len )
+                    throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        final int possibleLengthToRead =
+                Math.min(
+                        len ,
+                        this.fakeLength -
+                        filePointer );
+
+        if ( possibleLengthToRead < 1 )
+        {
+            return -1;
+        }
+
+        System.arraycopy(
+                //src
+                this.fakeMemory ,
+                //srcPos
+                this.filePointer ,
+                //dest
+                b ,
+                //destPos
+                off ,
+                //length
+                possibleLengthToRead );
+
+        filePointer += possibleLengthToRead;
+        return possibleLengthToRead;
+    }
+
+    /**
+     * Reads up to {@code len} bytes of data from this file, starting
+     * at the specified position, into an array of bytes.
+     * The file pointer is not changed, so concurrent positional
+     * reads need no seek under a lock, like {@code pread}.
+     * <p>
+     * Reads directly from {@link #fakeMemory} without lock.
+     *
+     * @param      pos   the position in the file at which the read starts.
+     * @param      b     the buffer into which the data is read.
+     * @param      off   the start offset in array {@code b}
+     *                   at which the data is written.
+     * @param      len   the maximum number of bytes read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if {@code pos} is at or behind the end
+     *             of the file.
+     * @exception  IOException If {@code pos} is negative, the file has been
+     *             closed or some other I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public int readAt(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        if ( pos < 0L )
+        {
+            throw new IOException( "Negative position" );
+        }
+
+        if ( off < 0 || len < 0 || len > b.length - off )
+        {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if ( len == 0 )
+        {
+            return 0;
+        }
+
+        // local copies, the array may be replaced by growing
+        final byte[] mem = this.fakeMemory;
+        final int length = Math.min( this.fakeLength , mem.length );
+
+        if ( pos >= length )
+        {
+            return -1;
+        }
+
+        final int possibleLengthToRead = (int) Math.min( len , length - pos );
+
+        System.arraycopy(
+                //src
+                mem ,
+                //srcPos
+                (int) pos ,
+                //dest
+                b ,
+                //destPos
+                off ,
+                //length
+                possibleLengthToRead );
+
+        return possibleLengthToRead;
+    }
+
+    /**
+     * Reads a byte of data from this file. The byte is returned as an
+     * integer in the range 0 to 255 ({@code 0x00-0x0ff}). This
+     * method blocks if no input is yet available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the same
+     * way as the {@link InputStream#read()} method of
+     * {@code InputStream}.
+     *
+     * @return     the next byte of data, or {@code -1} if the end of the
+     *             file has been reached.
+     * @exception  IOException  if an I/O error occurs. Not thrown if
+     *                          end-of-file has been reached.
+     */
+    @Override
+    public int read(
+            final byte[] b )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        return read(b, 0, b.length);
+    }
+
+    /**
+     * Reads {@code b.length} bytes from this file into the byte
+     * array, starting at the current file pointer. This method reads
+     * repeatedly from the file until the requested number of bytes are
+     * read. This method blocks until the requested number of bytes are
+     * read, the end of the stream is detected, or an exception is thrown.
+     *
+     * @param   b   the buffer into which the data is read.
+     * @throws  NullPointerException if {@code b} is {@code null}.
+     * @throws  EOFException  if this file reaches the end before reading
+     *              all the bytes.
+     * @throws  IOException   if an I/O error occurs.
+     */
+    @Override
+    public void readFully(
+            final byte[] b )
+                    throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        //if ( b.length > fakeMemory.length - filePointer )
+        //{
+        //    throw new EOFException();
+        //}
+
+        read( b, 0, b.length);
+    }
+
+    /**
+     * Reads exactly {@code len} bytes from this file into the byte
+     * array, starting at the current file pointer. This method reads
+     * repeatedly from the file until the requested number of bytes are
+     * read. This method blocks until the requested number of bytes are
+     * read, the end of the stream is detected, or an exception is thrown.
+     *
+     * @param   b     the buffer into which the data is read.
+     * @param   off   the start offset into the data array {@code b}.
+     * @param   len   the number of bytes to read.
+     * @throws  NullPointerException if {@code b} is {@code null}.
+     * @throws  IndexOutOfBoundsException if {@code off} is negative,
+     *                {@code len} is negative, or {@code len} is greater than
+     *                {@code b.length - off}.
+     * @throws  EOFException  if this file reaches the end before reading
+     *                all the bytes.
+     * @throws  IOException   if an I/O error occurs.
+     */
+    @Override
+    public void readFully(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        final int lengthToRead = len - off;
+
+        if ( lengthToRead > fakeLength - filePointer )
+        {
+            throw new EOFException();
+        }
+
+        read( b , off , len );
+    }
+
+    /**
+     * Attempts to skip over {@code n} bytes of input discarding the
+     * skipped bytes.
+     * <p>
+     *
+     * This method may skip over some smaller number of bytes, possibly zero.
+     * This may result from any of a number of conditions; reaching end of
+     * file before {@code n} bytes have been skipped is only one
+     * possibility. This method never throws an {@code EOFException}.
+     * The actual number of bytes skipped is returned.  If {@code n}
+     * is negative, no bytes are skipped.
+     *
+     * @param      n   the number of bytes to be skipped.
+     * @return     the actual number of bytes skipped.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public int skipBytes(
+            final int n)
+                    throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        //if ( n < 1 )
+        //{
+        //    return 0;
+        //}
+        //final int possibleNumberOfBytesToSkip =
+        //        Math.min(
+        //                n ,
+        //                ( this.fakeMemory.length - this.filePointer ) - 1 );
+        //
+        //this.filePointer += possibleNumberOfBytesToSkip;
+        //return possibleNumberOfBytesToSkip;
+        long pos;
+        long len;
+        long newpos;
+
+        if (n <= 0) {
+            return 0;
+        }
+        pos = getFilePointer();
+        len = length();
+        newpos = pos + n;
+        if (newpos > len) {
+            newpos = len;
+        }
+        seek(newpos);
+
+        /* return the actual number of bytes skipped */
+        return (int) (newpos - pos);
+    }
+
+    /**
+     * Writes the specified byte to this file. The write starts at
+     * the current file pointer.
+     *
+     * @param      b   the {@code byte} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final int b )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        prepareWrite( this.filePointer , 1 );
+
+        this.fakeMemory[ filePointer++ ] = (byte) ( b & 0xFF );
+    }
+
+    /**
+     * Writes {@code b.length} bytes from the specified byte array
+     * to this file, starting at the current file pointer.
+     *
+     * @param      b   the data.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final byte[] b )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        //if ( this.fakeMemory.length < filePointer + b.length )
+        //{
+        //    this.fakeMemory =
+        //            Arrays.copyOf(
+        //                    //original
+        //                    this.fakeMemory ,
+        //                    //newLength
+        //                    ( filePointer + 1 ) + b.length );
+        //}
+        write( b , 0 , b.length );
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array
+     * starting at offset {@code off} to this file.
+     *
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        if ( off < 0 || len < 0 || len > b.length - off )
+        {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if ( len == 0 )
+        {
+            // like RandomAccessFile, an empty write does not extend the file
+            return;
+        }
+
+        prepareWrite( this.filePointer , len );
+
+        System.arraycopy(
+                //src
+                b ,
+                //srcPos
+                off ,
+                //dest
+                this.fakeMemory ,
+                //destPos
+                filePointer ,
+                //length
+                len );
+
+        filePointer += len;
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array
+     * starting at offset {@code off} to this file at the specified
+     * position. The file pointer is not changed, like {@code pwrite}.
+     * The file grows if the written range exceeds the end.
+     *
+     * @param      pos   the position in the file at which the write starts.
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException If {@code pos} is negative, the file has been
+     *             closed or some other I/O error occurs.
+     */
+    @Override
+    public void writeAt(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        if ( pos < 0L )
+        {
+            throw new IOException( "Negative position" );
+        }
+
+        if ( off < 0 || len < 0 || len > b.length - off )
+        {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if ( len == 0 )
+        {
+            // like pwrite, an empty write does not extend the file
+            return;
+        }
+
+        prepareWrite( pos , len );
+
+        System.arraycopy(
+                //src
+                b ,
+                //srcPos
+                off ,
+                //dest
+                this.fakeMemory ,
+                //destPos
+                (int) pos ,
+                //length
+                len );
+    }
+
+    /**
+     * Returns the current offset in this file.
+     *
+     * @return     the offset from the beginning of the file, in bytes,
+     *             at which the next read or write occurs.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public long getFilePointer()
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        return this.filePointer;
+    }
+
+    /**
+     * Sets the file-pointer offset, measured from the beginning of this
+     * file, at which the next read or write occurs.  The offset may be
+     * set beyond the end of the file. Setting the offset beyond the end
+     * of the file does not change the file length.  The file length will
+     * change only by writing after the offset has been set beyond the end
+     * of the file.
+     *
+     * @param      pos   the offset position, measured in bytes from the
+     *                   beginning of the file, at which to set the file
+     *                   pointer.
+     * @exception  IOException  if {@code pos} is less than
+     *                          {@code 0} or if an I/O error occurs.
+     */
+    @Override
+    public void seek(long pos) throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        if ( pos < 0L )
+        {
+            throw new IOException("Negative seek offset");
+        }
+
+        if ( pos > Integer.MAX_VALUE )
+        {
+            throw new ArithmeticException( String.valueOf( pos ) );
+        }
+
+        filePointer = (int) pos;
+    }
+
+    /**
+     * Returns the length of this file.
+     *
+     * @return     the length of this file, measured in bytes.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public long length()
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        return this.fakeLength;
+    }
+
+    /**
+     * Sets the length of this file.
+     *
+     * <p> If the present length of the file as returned by the
+     * {@code length} method is greater than the {@code newLength}
+     * argument then the file will be truncated.  In this case, if the file
+     * offset as returned by the {@code getFilePointer} method is greater
+     * than {@code newLength} then after this method returns the offset
+     * will be equal to {@code newLength}.
+     *
+     * <p> If the present length of the file as returned by the
+     * {@code length} method is smaller than the {@code newLength}
+     * argument then the file will be extended.  In this case, the contents of
+     * the extended portion of the file are not defined.
+     *
+     * @param      newLength    The desired length of the file
+     * @exception  IOException  If an I/O error occurs
+     * @since      1.2
+     */
+    @Override
+    public void setLength(
+            final long newLength )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        if ( newLength < 0L )
+        {
+            throw new IOException("Negative length " + newLength );
+        }
+
+        if ( newLength > Integer.MAX_VALUE )
+        {
+            throw new ArithmeticException( String.valueOf( newLength ) );
+        }
+
+        final int newLengthInt = (int) newLength;
+
+        if ( newLengthInt > this.fakeMemory.length )
+        {
+            // exact size, setLength is used for preallocation
+            this.fakeMemory =
+                    Arrays.copyOf(
+                            this.fakeMemory ,
+                            newLengthInt );
+            this.installedFakeMemory = this.fakeMemory;
+        }
+        else if ( newLengthInt < this.fakeLength )
+        {
+            // keep invariant: bytes behind logical length are zero
+            Arrays.fill(
+                    this.fakeMemory ,
+                    newLengthInt ,
+                    this.fakeLength ,
+                    (byte) 0 );
+        }
+
+        this.fakeLength = newLengthInt;
+
+        if ( this.filePointer > newLengthInt )
+        {
+            this.filePointer = newLengthInt;
+        }
+    }
+
+    /**
+     * Closes this random access file stream and releases any system
+     * resources associated with the stream. A closed random access
+     * file cannot perform input or output operations and cannot be
+     * reopened.
+     *
+     * <p> If this file has an associated channel then the channel is closed
+     * as well.
+     *
+     * @exception  IOException  if an I/O error occurs.
+     *
+     * @revised 1.4
+     * @spec JSR-51
+     */
+    @Override
+    public void close() throws IOException
+    {
+        //new Exception().printStackTrace( System.out );
+        this.closed = true;
+
+        // a test may inspect fakeMemory after close
+        trimToSize();
+    }
+
+    /**
+     * Returns the unique {@link java.nio.channels.FileChannel FileChannel}
+     * object associated with this file.
+     *
+     * <p> The {@link java.nio.channels.FileChannel#position()
+     * position} of the returned channel will always be equal to
+     * this object's file-pointer offset as returned by the {@link
+     * #getFilePointer getFilePointer} method.  Changing this object's
+     * file-pointer offset, whether explicitly or by reading or writing bytes,
+     * will change the position of the channel, and vice versa.  Changing the
+     * file's length via this object will change the length seen via the file
+     * channel, and vice versa.
+     *
+     * <p> The channel reads directly from {@link #fakeMemory}
+     * without intermediate copy.
+     *
+     * @return  the file channel associated with this file
+     */
+    @Override
+    public synchronized FileChannel getChannel()
+    {
+        if ( this.channel == null )
+        {
+            this.channel =
+                    new RandomAccessFileInterfaceChannel( this )
+                    {
+                        @Override
+                        protected ByteBuffer view(
+                                final long position ,
+                                final int maxLength )
+                        {
+                            return ByteBuffer.wrap(
+                                    fakeMemory ,
+                                    (int) position ,
+                                    (int) Math.min( maxLength , fakeLength - position ) ).asReadOnlyBuffer();
+                        }
+                    };
+        }
+        return this.channel;
+    }
+
+    /**
+     * Reads a {@code boolean} from this file. This method reads a
+     * single byte from the file, starting at the current file pointer.
+     * A value of {@code 0} represents
+     * {@code false}. Any other value represents {@code true}.
+     * This method blocks until the byte is read, the end of the stream
+     * is detected, or an exception is thrown.
+     *
+     * @return     the {@code boolean} value read.
+     * @exception  EOFException  if this file has reached the end.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public boolean readBoolean()
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        int ch = this.read();
+        if (ch < 0)
+            throw new EOFException();
+        return (ch != 0);
+    }
+
+    /**
+     * Reads a signed eight-bit value from this file. This method reads a
+     * byte from the file, starting from the current file pointer.
+     * If the byte read is {@code b}, where
+     * <code>0&nbsp;&lt;=&nbsp;b&nbsp;&lt;=&nbsp;255</code>,
+     * then the result is:
+     * <blockquote><pre>
+     *     (byte)(b)
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the byte is read, the end of the stream
+     * is detected, or an exception is thrown.
+     *
+     * @return     the next byte of this file as a signed eight-bit
+     *             {@code byte}.
+     * @exception  EOFException  if this file has reached the end.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public byte readByte()
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        int ch = this.read();
+        if (ch < 0)
+            throw new EOFException();
+        return (byte)(ch);
+    }
+
+    /**
+     * Reads an unsigned eight-bit number from this file. This method reads
+     * a byte from this file, starting at the current file pointer,
+     * and returns that byte.
+     * <p>
+     * This method blocks until the byte is read, the end of the stream
+     * is detected, or an exception is thrown.
+     *
+     * @return     the next byte of this file, interpreted as an unsigned
+     *             eight-bit number.
+     * @exception  EOFException  if this file has reached the end.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public int readUnsignedByte()
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        int ch = this.read();
+        if (ch < 0)
+            throw new EOFException();
+        return ch;
+    }
+
+    /**
+     * Reads a signed 16-bit number from this file. The method reads two
+     * bytes from this file, starting at the current file pointer.
+     * If the two bytes read, in order, are
+     * {@code b1} and {@code b2}, where each of the two values is
+     * between {@code 0} and {@code 255}, inclusive, then the
+     * result is equal to:
+     * <blockquote><pre>
+     *     (short)((b1 &lt;&lt; 8) | b2)
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the two bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next two bytes of this file, interpreted as a signed
+     *             16-bit number.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               two bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public short readShort()
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        prepareRead( 2 );
+
+        final byte[] mem = this.fakeMemory;
+        final int pos = this.filePointer;
+        this.filePointer = pos + 2;
+
+        return (short) ( ( mem[ pos ] << 8 ) | ( mem[ pos + 1 ] & 0xFF ) );
+    }
+
+    /**
+     * Reads an unsigned 16-bit number from this file. This method reads
+     * two bytes from the file, starting at the current file pointer.
+     * If the bytes read, in order, are
+     * {@code b1} and {@code b2}, where
+     * <code>0&nbsp;&lt;=&nbsp;b1, b2&nbsp;&lt;=&nbsp;255</code>,
+     * then the result is equal to:
+     * <blockquote><pre>
+     *     (b1 &lt;&lt; 8) | b2
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the two bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next two bytes of this file, interpreted as an unsigned
+     *             16-bit integer.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               two bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public int readUnsignedShort()
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        prepareRead( 2 );
+
+        final byte[] mem = this.fakeMemory;
+        final int pos = this.filePointer;
+        this.filePointer = pos + 2;
+
+        return ( ( mem[ pos ] & 0xFF ) << 8 ) | ( mem[ pos + 1 ] & 0xFF );
+    }
+
+    /**
+     * Reads a character from this file. This method reads two
+     * bytes from the file, starting at the current file pointer.
+     * If the bytes read, in order, are
+     * {@code b1} and {@code b2}, where
+     * <code>0&nbsp;&lt;=&nbsp;b1,&nbsp;b2&nbsp;&lt;=&nbsp;255</code>,
+     * then the result is equal to:
+     * <blockquote><pre>
+     *     (char)((b1 &lt;&lt; 8) | b2)
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the two bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next two bytes of this file, interpreted as a
+     *                  {@code char}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               two bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public char readChar()
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        prepareRead( 2 );
+
+        final byte[] mem = this.fakeMemory;
+        final int pos = this.filePointer;
+        this.filePointer = pos + 2;
+
+        return (char) ( ( ( mem[ pos ] & 0xFF ) << 8 ) | ( mem[ pos + 1 ] & 0xFF ) );
+    }
+
+    /**
+     * Reads a signed 32-bit integer from this file. This method reads 4
+     * bytes from the file, starting at the current file pointer.
+     * If the bytes read, in order, are {@code b1},
+     * {@code b2}, {@code b3}, and {@code b4}, where
+     * <code>0&nbsp;&lt;=&nbsp;b1, b2, b3, b4&nbsp;&lt;=&nbsp;255</code>,
+     * then the result is equal to:
+     * <blockquote><pre>
+     *     (b1 &lt;&lt; 24) | (b2 &lt;&lt; 16) + (b3 &lt;&lt; 8) + b4
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the four bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next four bytes of this file, interpreted as an
+     *             {@code int}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               four bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public int readInt()
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        prepareRead( 4 );
+
+        final int pos = this.filePointer;
+        this.filePointer = pos + 4;
+
+        return getInt( this.fakeMemory , pos );
+    }
+
+    /**
+     * Reads a signed 64-bit integer from this file. This method reads eight
+     * bytes from the file, starting at the current file pointer.
+     * If the bytes read, in order, are
+     * {@code b1}, {@code b2}, {@code b3},
+     * {@code b4}, {@code b5}, {@code b6},
+     * {@code b7}, and {@code b8,} where:
+     * <blockquote><pre>
+     *     0 &lt;= b1, b2, b3, b4, b5, b6, b7, b8 &lt;=255,
+     * </pre></blockquote>
+     * <p>
+     * then the result is equal to:
+     * <blockquote><pre>
+     *     ((long)b1 &lt;&lt; 56) + ((long)b2 &lt;&lt; 48)
+     *     + ((long)b3 &lt;&lt; 40) + ((long)b4 &lt;&lt; 32)
+     *     + ((long)b5 &lt;&lt; 24) + ((long)b6 &lt;&lt; 16)
+     *     + ((long)b7 &lt;&lt; 8) + b8
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the eight bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next eight bytes of this file, interpreted as a
+     *             {@code long}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               eight bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public long readLong()
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        prepareRead( 8 );
+
+        final int pos = this.filePointer;
+        this.filePointer = pos + 8;
+
+        return ( (long) getInt( this.fakeMemory , pos ) << 32 ) |
+                ( getInt( this.fakeMemory , pos + 4 ) & 0xFFFFFFFFL );
+    }
+
+    /**
+     * Reads a {@code float} from this file. This method reads an
+     * {@code int} value, starting at the current file pointer,
+     * as if by the {@code readInt} method
+     * and then converts that {@code int} to a {@code float}
+     * using the {@code intBitsToFloat} method in class
+     * {@code Float}.
+     * <p>
+     * This method blocks until the four bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next four bytes of this file, interpreted as a
+     *             {@code float}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *             four bytes.
+     * @exception  IOException   if an I/O error occurs.
+     * @see        java.io.RandomAccessFile#readInt()
+     * @see        java.lang.Float#intBitsToFloat(int)
+     */
+    @Override
+    public float readFloat()
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        return Float.intBitsToFloat(readInt());
+    }
+
+    /**
+     * Reads a {@code double} from this file. This method reads a
+     * {@code long} value, starting at the current file pointer,
+     * as if by the {@code readLong} method
+     * and then converts that {@code long} to a {@code double}
+     * using the {@code longBitsToDouble} method in
+     * class {@code Double}.
+     * <p>
+     * This method blocks until the eight bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next eight bytes of this file, interpreted as a
+     *             {@code double}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *             eight bytes.
+     * @exception  IOException   if an I/O error occurs.
+     * @see        java.io.RandomAccessFile#readLong()
+     * @see        java.lang.Double#longBitsToDouble(long)
+     */
+    @Override
+    public double readDouble()
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        return Double.longBitsToDouble(readLong());
+    }
+
+    /**
+     * Reads the next line of text from this file.  This method successively
+     * reads bytes from the file, starting at the current file pointer,
+     * until it reaches a line terminator or the end
+     * of the file.  Each byte is converted into a character by taking the
+     * byte's value for the lower eight bits of the character and setting the
+     * high eight bits of the character to zero.  This method does not,
+     * therefore, support the full Unicode character set.
+     *
+     * <p> A line of text is terminated by a carriage-return character
+     * ({@code '\u005Cr'}), a newline character ({@code '\u005Cn'}), a
+     * carriage-return character immediately followed by a newline character,
+     * or the end of the file.  Line-terminating characters are discarded and
+     * are not included as part of the string returned.
+     *
+     * <p> This method blocks until a newline character is read, a carriage
+     * return and the byte following it are read (to see if it is a newline),
+     * the end of the file is reached, or an exception is thrown.
+     *
+     * @return     the next line of text from this file, or null if end
+     *             of file is encountered before even one byte is read.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public String readLine()
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        if ( this.filePointer >= this.fakeLength )
+        {
+            return null;
+        }
+
+        final int start = this.filePointer;
+        final int end = indexOfLineTerminator( start );
+
+        // each byte is one char with high eight bits zero
+        final String line =
+                new String(
+                        this.fakeMemory ,
+                        start ,
+                        end - start ,
+                        StandardCharsets.ISO_8859_1 );
+
+        this.filePointer = skipLineTerminator( end );
+        return line;
+    }
+
+    /**
+     * Reads the next line of text from this file like
+     * {@link #readLine()} into the reusable {@link ByteSlice}
+     * without copy and without allocation, for parsing
+     * of big text files in tests.
+     * <br/><br/>
+     * The slice refers to {@link #fakeMemory} and is only
+     * valid until the next write or {@link #setLength(long)}.
+     *
+     * @param line slice to set to the line without line terminator
+     * @return false if end of file is encountered before even one byte is read
+     * @exception  IOException  if an I/O error occurs.
+     */
+    public boolean readLine(
+            final ByteSlice line )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        if ( this.filePointer >= this.fakeLength )
+        {
+            line.set( this.fakeMemory , 0 , 0 );
+            return false;
+        }
+
+        final int start = this.filePointer;
+        final int end = indexOfLineTerminator( start );
+
+        line.set(
+                this.fakeMemory ,
+                start ,
+                end - start );
+
+        this.filePointer = skipLineTerminator( end );
+        return true;
+    }
+
+    /**
+     * Search the next line terminator
+     * in one pass over {@link #fakeMemory}.
+     *
+     * @param start position to start search
+     * @return position of {@code '\r'} or {@code '\n'}
+     *         or {@link #fakeLength} if not found
+     */
+    private int indexOfLineTerminator(
+            final int start )
+    {
+        final byte[] mem = this.fakeMemory;
+        final int end = this.fakeLength;
+
+        for ( int pos = start ; pos < end ; pos++ )
+        {
+            final byte b = mem[ pos ];
+            // one compare for all bytes above '\r'
+            if ( b <= '\r' && ( b == '\n' || b == '\r' ) )
+            {
+                return pos;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * @param pos position of line terminator
+     *        or {@link #fakeLength}
+     * @return position behind line terminator,
+     *         {@code "\r\n"} is one terminator
+     */
+    private int skipLineTerminator(
+            final int pos )
+    {
+        if ( pos >= this.fakeLength )
+        {
+            return pos;
+        }
+
+        if ( this.fakeMemory[ pos ] == '\r' &&
+                pos + 1 < this.fakeLength &&
+                this.fakeMemory[ pos + 1 ] == '\n' )
+        {
+            return pos + 2;
+        }
+
+        return pos + 1;
+    }
+
+    /**
+     * Reads in a string from this file. The string has been encoded
+     * using a
+     * <a href="DataInput.html#modified-utf-8">modified UTF-8</a>
+     * format.
+     * <p>
+     * The first two bytes are read, starting from the current file
+     * pointer, as if by
+     * {@code readUnsignedShort}. This value gives the number of
+     * following bytes that are in the encoded string, not
+     * the length of the resulting string. The following bytes are then
+     * interpreted as bytes encoding characters in the modified UTF-8 format
+     * and are converted into characters.
+     * <p>
+     * This method blocks until all the bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     a Unicode string.
+     * @exception  EOFException            if this file reaches the end before
+     *               reading all the bytes.
+     * @exception  IOException             if an I/O error occurs.
+     * @exception  UTFDataFormatException  if the bytes do not represent
+     *               valid modified UTF-8 encoding of a Unicode string.
+     * @see        java.io.RandomAccessFile#readUnsignedShort()
+     */
+    @Override
+    public String readUTF()
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        //DataInputStream.readUTF(this);
+        final int utflen = readUnsignedShort();
+        final int start = this.filePointer;
+
+        if ( this.fakeLength - start < utflen )
+        {
+            // like readFully, consume the rest
+            this.filePointer = Math.max( this.fakeLength , start );
+            throw new EOFException();
+        }
+
+        // like readFully, consume all bytes before decoding
+        this.filePointer = start + utflen;
+
+        final byte[] bytearr = this.fakeMemory;
+        int c, char2, char3;
+        int count = 0;
+
+        while (count < utflen) {
+            c = (int) bytearr[start + count] & 0xff;
+            if (c > 127) break;
+            count++;
+        }
+
+        if (count == utflen) {
+            // only ASCII, no char array
+            return new String(bytearr, start, utflen, StandardCharsets.ISO_8859_1);
+        }
+
+        if (this.utfCharBuffer.length < utflen) {
+            // reused for all calls, at most 65535 chars
+            this.utfCharBuffer = new char[Math.max(utflen, this.utfCharBuffer.length * 2)];
+        }
+        final char[] chararr = this.utfCharBuffer;
+        int chararr_count = 0;
+
+        for (; chararr_count < count; chararr_count++) {
+            chararr[chararr_count] = (char) bytearr[start + chararr_count];
+        }
+
+        while (count < utflen) {
+            c = (int) bytearr[start + count] & 0xff;
+            switch (c >> 4) {
+                case 0: case 1: case 2: case 3: case 4: case 5: case 6: case 7:
+                    /* 0xxxxxxx*/
+                    count++;
+                    chararr[chararr_count++]=(char)c;
+                    break;
+                case 12: case 13:
+                    /* 110x xxxx   10xx xxxx*/
+                    count += 2;
+                    if (count > utflen)
+                        throw new UTFDataFormatException(
+                            "malformed input: partial character at end");
+                    char2 = (int) bytearr[start + count-1];
+                    if ((char2 & 0xC0) != 0x80)
+                        throw new UTFDataFormatException(
+                            "malformed input around byte " + count);
+                    chararr[chararr_count++]=(char)(((c & 0x1F) << 6) |
+                                                    (char2 & 0x3F));
+                    break;
+                case 14:
+                    /* 1110 xxxx  10xx xxxx  10xx xxxx */
+                    count += 3;
+                    if (count > utflen)
+                        throw new UTFDataFormatException(
+                            "malformed input: partial character at end");
+                    char2 = (int) bytearr[start + count-2];
+                    char3 = (int) bytearr[start + count-1];
+                    if (((char2 & 0xC0) != 0x80) || ((char3 & 0xC0) != 0x80))
+                        throw new UTFDataFormatException(
+                            "malformed input around byte " + (count-1));
+                    chararr[chararr_count++]=(char)(((c     & 0x0F) << 12) |
+                                                    ((char2 & 0x3F) << 6)  |
+                                                    ((char3 & 0x3F) << 0));
+                    break;
+                default:
+                    /* 10xx xxxx,  1111 xxxx */
+                    throw new UTFDataFormatException(
+                        "malformed input around byte " + count);
+            }
+        }
+        // The number of chars produced may be less than utflen
+        return new String(chararr, 0, chararr_count);
+    }
+
+    /**
+     * Writes a {@code boolean} to the file as a one-byte value. The
+     * value {@code true} is written out as the value
+     * {@code (byte)1}; the value {@code false} is written out
+     * as the value {@code (byte)0}. The write starts at
+     * the current position of the file pointer.
+     *
+     * @param      v   a {@code boolean} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeBoolean(boolean v)
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        write(v ? 1 : 0);
+    }
+
+    /**
+     * Writes a {@code byte} to the file as a one-byte value. The
+     * write starts at the current position of the file pointer.
+     *
+     * @param      v   a {@code byte} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeByte(int v)
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        write(v);
+    }
+
+    /**
+     * Writes a {@code short} to the file as two bytes, high byte first.
+     * The write starts at the current position of the file pointer.
+     *
+     * @param      v   a {@code short} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeShort(int v)
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        prepareWrite( this.filePointer , 2 );
+
+        final byte[] mem = this.fakeMemory;
+        final int pos = this.filePointer;
+        this.filePointer = pos + 2;
+
+        mem[ pos     ] = (byte) ( v >>> 8 );
+        mem[ pos + 1 ] = (byte) v;
+    }
+
+    /**
+     * Writes a {@code char} to the file as a two-byte value, high
+     * byte first. The write starts at the current position of the
+     * file pointer.
+     *
+     * @param      v   a {@code char} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeChar(int v)
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        prepareWrite( this.filePointer , 2 );
+
+        final byte[] mem = this.fakeMemory;
+        final int pos = this.filePointer;
+        this.filePointer = pos + 2;
+
+        mem[ pos     ] = (byte) ( v >>> 8 );
+        mem[ pos + 1 ] = (byte) v;
+    }
+
+    /**
+     * Writes an {@code int} to the file as four bytes, high byte first.
+     * The write starts at the current position of the file pointer.
+     *
+     * @param      v   an {@code int} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeInt(int v)
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        prepareWrite( this.filePointer , 4 );
+
+        final int pos = this.filePointer;
+        this.filePointer = pos + 4;
+
+        putInt( this.fakeMemory , pos , v );
+    }
+
+    /**
+     * Writes a {@code long} to the file as eight bytes, high byte first.
+     * The write starts at the current position of the file pointer.
+     *
+     * @param      v   a {@code long} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeLong(long v)
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        prepareWrite( this.filePointer , 8 );
+
+        final int pos = this.filePointer;
+        this.filePointer = pos + 8;
+
+        putInt( this.fakeMemory , pos     , (int) ( v >>> 32 ) );
+        putInt( this.fakeMemory , pos + 4 , (int) v );
+    }
+
+    /**
+     * Converts the float argument to an {@code int} using the
+     * {@code floatToIntBits} method in class {@code Float},
+     * and then writes that {@code int} value to the file as a
+     * four-byte quantity, high byte first. The write starts at the
+     * current position of the file pointer.
+     *
+     * @param      v   a {@code float} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.lang.Float#floatToIntBits(float)
+     */
+    @Override
+    public void writeFloat(float v)
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        writeInt(Float.floatToIntBits(v));
+    }
+
+    /**
+     * Converts the double argument to a {@code long} using the
+     * {@code doubleToLongBits} method in class {@code Double},
+     * and then writes that {@code long} value to the file as an
+     * eight-byte quantity, high byte first. The write starts at the current
+     * position of the file pointer.
+     *
+     * @param      v   a {@code double} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.lang.Double#doubleToLongBits(double)
+     */
+    @Override
+    public void writeDouble(double v)
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        writeLong(Double.doubleToLongBits(v));
+    }
+
+    /**
+     * Writes the string to the file as a sequence of bytes. Each
+     * character in the string is written out, in sequence, by discarding
+     * its high eight bits. The write starts at the current position of
+     * the file pointer.
+     *
+     * @param      s   a string of bytes to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @SuppressWarnings("deprecation")
+    @Override
+    public void writeBytes(String s)
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        int len = s.length();
+        byte[] b = new byte[len];
+        s.getBytes(0, len, b, 0);
+        //writeBytes(b, 0, len);
+        write(b, 0, len);
+    }
+
+    /**
+     * Writes a string to the file as a sequence of characters. Each
+     * character is written to the data output stream as if by the
+     * {@code writeChar} method. The write starts at the current
+     * position of the file pointer.
+     *
+     * @param      s   a {@code String} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.io.RandomAccessFile#writeChar(int)
+     */
+    @Override
+    public void writeChars(String s)
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        int clen = s.length();
+        int blen = 2*clen;
+        byte[] b = new byte[blen];
+        char[] c = new char[clen];
+        s.getChars(0, clen, c, 0);
+        for (int i = 0, j = 0; i < clen; i++) {
+            b[j++] = (byte)(c[i] >>> 8);
+            b[j++] = (byte)(c[i] >>> 0);
+        }
+        //writeBytes(b, 0, blen);
+        write(b, 0, blen);
+    }
+
+    /**
+     * Writes a string to the file using
+     * <a href="DataInput.html#modified-utf-8">modified UTF-8</a>
+     * encoding in a machine-independent manner.
+     * <p>
+     * First, two bytes are written to the file, starting at the
+     * current file pointer, as if by the
+     * {@code writeShort} method giving the number of bytes to
+     * follow. This value is the number of bytes actually written out,
+     * not the length of the string. Following the length, each character
+     * of the string is output, in sequence, using the modified UTF-8 encoding
+     * for each character.
+     *
+     * @param      str   a string to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeUTF(String str)
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        //DataOutputStream.writeUTF(str, this);
+        final int strlen = str.length();
+        int utflen = strlen; // optimized for ASCII
+
+        for (int i = 0; i < strlen; i++) {
+            int c = str.charAt(i);
+            if (c >= 0x80 || c == 0)
+                utflen += (c >= 0x800) ? 2 : 1;
+        }
+
+        if (utflen > 65535 || /* overflow */ utflen < strlen)
+            throw new UTFDataFormatException(tooLongMsg(str, utflen));
+
+        // encode directly into fakeMemory after one capacity check
+        prepareWrite( this.filePointer , utflen + 2 );
+        final byte[] bytearr = this.fakeMemory;
+
+        int count = this.filePointer;
+        bytearr[count++] = (byte) ((utflen >>> 8) & 0xFF);
+        bytearr[count++] = (byte) ((utflen >>> 0) & 0xFF);
+
+        int i = 0;
+        for (i = 0; i < strlen; i++) { // optimized for initial run of ASCII
+            int c = str.charAt(i);
+            if (c >= 0x80 || c == 0) break;
+            bytearr[count++] = (byte) c;
+        }
+
+        for (; i < strlen; i++) {
+            int c = str.charAt(i);
+            if (c < 0x80 && c != 0) {
+                bytearr[count++] = (byte) c;
+            } else if (c >= 0x800) {
+                bytearr[count++] = (byte) (0xE0 | ((c >> 12) & 0x0F));
+                bytearr[count++] = (byte) (0x80 | ((c >>  6) & 0x3F));
+                bytearr[count++] = (byte) (0x80 | ((c >>  0) & 0x3F));
+            } else {
+                bytearr[count++] = (byte) (0xC0 | ((c >>  6) & 0x1F));
+                bytearr[count++] = (byte) (0x80 | ((c >>  0) & 0x3F));
+            }
+        }
+        this.filePointer = count;
+        //return utflen + 2;
+    }
+
+    /**
+     * Reads {@code len} int values like {@link #readInt()} in a loop,
+     * decoded directly from {@link #fakeMemory} in one bulk copy.
+     * On end of file the complete values are read
+     * and the remaining bytes are consumed,
+     * then {@link EOFException} is thrown.
+     *
+     * @see RandomAccessFileInterface#readInts(int[], int, int)
+     */
+    @Override
+    public void readInts(
+            final int[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        PrimitiveArrays.checkBounds( b.length , off , len );
+
+        final int count = Math.min( len , Math.max( 0 , this.fakeLength - this.filePointer ) / 4 );
+
+        if ( count > 0 )
+        {
+            // file pointer may be behind end of file after seek
+            PrimitiveArrays.getInts( this.fakeMemory , this.filePointer , b , off , count );
+            this.filePointer += count * 4;
+        }
+
+        if ( count < len )
+        {
+            // like readInt in a loop, the remaining bytes are consumed
+            if ( this.filePointer < this.fakeLength )
+            {
+                this.filePointer = this.fakeLength;
+            }
+            throw new EOFException();
+        }
+    }
+
+    /**
+     * Writes {@code len} int values like {@link #writeInt(int)} in a loop,
+     * encoded directly into {@link #fakeMemory} after one capacity check.
+     *
+     * @see RandomAccessFileInterface#writeInts(int[], int, int)
+     */
+    @Override
+    public void writeInts(
+            final int[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        PrimitiveArrays.checkBounds( b.length , off , len );
+
+        if ( len == 0 )
+        {
+            // like RandomAccessFile, no extension of file
+            return;
+        }
+
+        final long byteLength = len * 4L;
+        if ( this.filePointer + byteLength > MAX_CAPACITY )
+        {
+            throw new ArithmeticException( String.valueOf( this.filePointer + byteLength ) );
+        }
+
+        prepareWrite( this.filePointer , (int) byteLength );
+
+        PrimitiveArrays.putInts( this.fakeMemory , this.filePointer , b , off , len );
+        this.filePointer += (int) byteLength;
+    }
+
+    /**
+     * Reads {@code len} long values like {@link #readLong()} in a loop,
+     * decoded directly from {@link #fakeMemory} in one bulk copy.
+     * On end of file the complete values are read
+     * and the remaining bytes are consumed,
+     * then {@link EOFException} is thrown.
+     *
+     * @see RandomAccessFileInterface#readLongs(long[], int, int)
+     */
+    @Override
+    public void readLongs(
+            final long[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        PrimitiveArrays.checkBounds( b.length , off , len );
+
+        final int count = Math.min( len , Math.max( 0 , this.fakeLength - this.filePointer ) / 8 );
+
+        if ( count > 0 )
+        {
+            // file pointer may be behind end of file after seek
+            PrimitiveArrays.getLongs( this.fakeMemory , this.filePointer , b , off , count );
+            this.filePointer += count * 8;
+        }
+
+        if ( count < len )
+        {
+            // like readInt in a loop, the remaining bytes are consumed
+            if ( this.filePointer < this.fakeLength )
+            {
+                this.filePointer = this.fakeLength;
+            }
+            throw new EOFException();
+        }
+    }
+
+    /**
+     * Writes {@code len} long values like {@link #writeLong(long)} in a loop,
+     * encoded directly into {@link #fakeMemory} after one capacity check.
+     *
+     * @see RandomAccessFileInterface#writeLongs(long[], int, int)
+     */
+    @Override
+    public void writeLongs(
+            final long[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        PrimitiveArrays.checkBounds( b.length , off , len );
+
+        if ( len == 0 )
+        {
+            // like RandomAccessFile, no extension of file
+            return;
+        }
+
+        final long byteLength = len * 8L;
+        if ( this.filePointer + byteLength > MAX_CAPACITY )
+        {
+            throw new ArithmeticException( String.valueOf( this.filePointer + byteLength ) );
+        }
+
+        prepareWrite( this.filePointer , (int) byteLength );
+
+        PrimitiveArrays.putLongs( this.fakeMemory , this.filePointer , b , off , len );
+        this.filePointer += (int) byteLength;
+    }
+
+    /**
+     * Reads {@code len} double values like {@link #readDouble()} in a loop,
+     * decoded directly from {@link #fakeMemory} in one bulk copy.
+     * On end of file the complete values are read
+     * and the remaining bytes are consumed,
+     * then {@link EOFException} is thrown.
+     *
+     * @see RandomAccessFileInterface#readDoubles(double[], int, int)
+     */
+    @Override
+    public void readDoubles(
+            final double[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        PrimitiveArrays.checkBounds( b.length , off , len );
+
+        final int count = Math.min( len , Math.max( 0 , this.fakeLength - this.filePointer ) / 8 );
+
+        if ( count > 0 )
+        {
+            // file pointer may be behind end of file after seek
+            PrimitiveArrays.getDoubles( this.fakeMemory , this.filePointer , b , off , count );
+            this.filePointer += count * 8;
+        }
+
+        if ( count < len )
+        {
+            // like readInt in a loop, the remaining bytes are consumed
+            if ( this.filePointer < this.fakeLength )
+            {
+                this.filePointer = this.fakeLength;
+            }
+            throw new EOFException();
+        }
+    }
+
+    /**
+     * Writes {@code len} double values like {@link #writeDouble(double)} in a loop,
+     * encoded directly into {@link #fakeMemory} after one capacity check.
+     *
+     * @see RandomAccessFileInterface#writeDoubles(double[], int, int)
+     */
+    @Override
+    public void writeDoubles(
+            final double[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        syncFakeMemory();
+
+        PrimitiveArrays.checkBounds( b.length , off , len );
+
+        if ( len == 0 )
+        {
+            // like RandomAccessFile, no extension of file
+            return;
+        }
+
+        final long byteLength = len * 8L;
+        if ( this.filePointer + byteLength > MAX_CAPACITY )
+        {
+            throw new ArithmeticException( String.valueOf( this.filePointer + byteLength ) );
+        }
+
+        prepareWrite( this.filePointer , (int) byteLength );
+
+        PrimitiveArrays.putDoubles( this.fakeMemory , this.filePointer , b , off , len );
+        this.filePointer += (int) byteLength;
+    }
+
+    /**
+     * Decode an {@code int} big-endian
+     * (high byte first) from the array.
+     *
+     * @param mem the array
+     * @param pos position of the first byte
+     * @return the decoded value
+     */
+    private static int getInt(
+            final byte[] mem ,
+            final int pos )
+    {
+        return ( mem[ pos ] << 24 ) |
+                ( ( mem[ pos + 1 ] & 0xFF ) << 16 ) |
+                ( ( mem[ pos + 2 ] & 0xFF ) <<  8 ) |
+                ( mem[ pos + 3 ] & 0xFF );
+    }
+
+    /**
+     * Encode an {@code int} big-endian
+     * (high byte first) into the array.
+     *
+     * @param mem the array
+     * @param pos position of the first byte
+     * @param v the value to encode
+     */
+    private static void putInt(
+            final byte[] mem ,
+            final int pos ,
+            final int v )
+    {
+        mem[ pos     ] = (byte) ( v >>> 24 );
+        mem[ pos + 1 ] = (byte) ( v >>> 16 );
+        mem[ pos + 2 ] = (byte) ( v >>>  8 );
+        mem[ pos + 3 ] = (byte) v;
+    }
+
+    private static String tooLongMsg(String s, int bits32) {
+        int slen = s.length();
+        String head = s.substring(0, 8);
+        String tail = s.substring(slen - 8, slen);
+        // handle int overflow with max 3x expansion
+        long actualLength = (long)slen + Integer.toUnsignedLong(bits32 - slen);
+        return "encoded string (" + head + "..." + tail + ") too long: "
+            + actualLength + " bytes";
+    }
+
+}
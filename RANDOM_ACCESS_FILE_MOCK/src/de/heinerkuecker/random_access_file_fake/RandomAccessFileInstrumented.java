@@ -0,0 +1,2424 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UTFDataFormatException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorator for any {@link RandomAccessFileInterface}
+ * recording metrics of each method: number of calls,
+ * transferred bytes (size histogram), latency
+ * ({@link IoHistogram} in nanoseconds) and the seek
+ * distance of {@link #seek(long)} and the positional
+ * methods {@link #readAt(long, byte[], int, int)}
+ * and {@link #writeAt(long, byte[], int, int)}.
+ * <br/><br/>
+ * Shows the usage pattern of the decorated file,
+ * for example many single byte reads or small
+ * transfers with many seeks:
+ * <pre>
+ * RandomAccessFileInstrumented file = new RandomAccessFileInstrumented( delegate );
+ * ...
+ * System.out.println( file.snapshot() );
+ * </pre>
+ * The histograms of a method are created on first call,
+ * the recording is thread-safe and allocation free, so
+ * {@link #snapshot()} may be called from a monitoring thread.
+ * Calls ending with an exception, for example
+ * {@link EOFException}, are counted as failures
+ * without transferred bytes and latency.
+ * The file operations are not thread-safe, like
+ * {@link java.io.RandomAccessFile}, except the positional
+ * methods if the decorated file supports concurrent access.
+ */
+public class RandomAccessFileInstrumented
+extends RandomAccessFileForwarding
+{
+    /**
+     * The instrumented methods of {@link RandomAccessFileInterface}.
+     */
+    public enum Method
+    {
+        /**
+         * {@link RandomAccessFileInterface#read()}
+         */
+        READ ,
+
+        /**
+         * {@link RandomAccessFileInterface#read(byte[], int, int)}
+         */
+        READ_ARRAY_RANGE ,
+
+        /**
+         * {@link RandomAccessFileInterface#read(byte[])}
+         */
+        READ_ARRAY ,
+
+        /**
+         * {@link RandomAccessFileInterface#readAt(long, byte[], int, int)}
+         */
+        READ_AT ,
+
+        /**
+         * {@link RandomAccessFileInterface#readFully(byte[])}
+         */
+        READ_FULLY_ARRAY ,
+
+        /**
+         * {@link RandomAccessFileInterface#readFully(byte[], int, int)}
+         */
+        READ_FULLY_ARRAY_RANGE ,
+
+        /**
+         * {@link RandomAccessFileInterface#skipBytes(int)}
+         */
+        SKIP_BYTES ,
+
+        /**
+         * {@link RandomAccessFileInterface#write(int)}
+         */
+        WRITE ,
+
+        /**
+         * {@link RandomAccessFileInterface#write(byte[])}
+         */
+        WRITE_ARRAY ,
+
+        /**
+         * {@link RandomAccessFileInterface#write(byte[], int, int)}
+         */
+        WRITE_ARRAY_RANGE ,
+
+        /**
+         * {@link RandomAccessFileInterface#writeAt(long, byte[], int, int)}
+         */
+        WRITE_AT ,
+
+        /**
+         * {@link RandomAccessFileInterface#getFilePointer()}
+         */
+        GET_FILE_POINTER ,
+
+        /**
+         * {@link RandomAccessFileInterface#seek(long)}
+         */
+        SEEK ,
+
+        /**
+         * {@link RandomAccessFileInterface#length()}
+         */
+        LENGTH ,
+
+        /**
+         * {@link RandomAccessFileInterface#setLength(long)}
+         */
+        SET_LENGTH ,
+
+        /**
+         * {@link RandomAccessFileInterface#close()}
+         */
+        CLOSE ,
+
+        /**
+         * {@link RandomAccessFileInterface#readBoolean()}
+         */
+        READ_BOOLEAN ,
+
+        /**
+         * {@link RandomAccessFileInterface#readByte()}
+         */
+        READ_BYTE ,
+
+        /**
+         * {@link RandomAccessFileInterface#readUnsignedByte()}
+         */
+        READ_UNSIGNED_BYTE ,
+
+        /**
+         * {@link RandomAccessFileInterface#readShort()}
+         */
+        READ_SHORT ,
+
+        /**
+         * {@link RandomAccessFileInterface#readUnsignedShort()}
+         */
+        READ_UNSIGNED_SHORT ,
+
+        /**
+         * {@link RandomAccessFileInterface#readChar()}
+         */
+        READ_CHAR ,
+
+        /**
+         * {@link RandomAccessFileInterface#readInt()}
+         */
+        READ_INT ,
+
+        /**
+         * {@link RandomAccessFileInterface#readLong()}
+         */
+        READ_LONG ,
+
+        /**
+         * {@link RandomAccessFileInterface#readFloat()}
+         */
+        READ_FLOAT ,
+
+        /**
+         * {@link RandomAccessFileInterface#readDouble()}
+         */
+        READ_DOUBLE ,
+
+        /**
+         * {@link RandomAccessFileInterface#readLine()}
+         */
+        READ_LINE ,
+
+        /**
+         * {@link RandomAccessFileInterface#readUTF()}
+         */
+        READ_UTF ,
+
+        /**
+         * {@link RandomAccessFileInterface#writeBoolean(boolean)}
+         */
+        WRITE_BOOLEAN ,
+
+        /**
+         * {@link RandomAccessFileInterface#writeByte(int)}
+         */
+        WRITE_BYTE ,
+
+        /**
+         * {@link RandomAccessFileInterface#writeShort(int)}
+         */
+        WRITE_SHORT ,
+
+        /**
+         * {@link RandomAccessFileInterface#writeChar(int)}
+         */
+        WRITE_CHAR ,
+
+        /**
+         * {@link RandomAccessFileInterface#writeInt(int)}
+         */
+        WRITE_INT ,
+
+        /**
+         * {@link RandomAccessFileInterface#writeLong(long)}
+         */
+        WRITE_LONG ,
+
+        /**
+         * {@link RandomAccessFileInterface#writeFloat(float)}
+         */
+        WRITE_FLOAT ,
+
+        /**
+         * {@link RandomAccessFileInterface#writeDouble(double)}
+         */
+        WRITE_DOUBLE ,
+
+        /**
+         * {@link RandomAccessFileInterface#writeBytes(String)}
+         */
+        WRITE_BYTES ,
+
+        /**
+         * {@link RandomAccessFileInterface#writeChars(String)}
+         */
+        WRITE_CHARS ,
+
+        /**
+         * {@link RandomAccessFileInterface#writeUTF(String)}
+         */
+        WRITE_UTF ,
+
+        /**
+         * {@link RandomAccessFileInterface#readInts(int[], int, int)}
+         */
+        READ_INTS ,
+
+        /**
+         * {@link RandomAccessFileInterface#writeInts(int[], int, int)}
+         */
+        WRITE_INTS ,
+
+        /**
+         * {@link RandomAccessFileInterface#readLongs(long[], int, int)}
+         */
+        READ_LONGS ,
+
+        /**
+         * {@link RandomAccessFileInterface#writeLongs(long[], int, int)}
+         */
+        WRITE_LONGS ,
+
+        /**
+         * {@link RandomAccessFileInterface#readDoubles(double[], int, int)}
+         */
+        READ_DOUBLES ,
+
+        /**
+         * {@link RandomAccessFileInterface#writeDoubles(double[], int, int)}
+         */
+        WRITE_DOUBLES;
+
+    }
+
+    /**
+     * Metrics of one method.
+     */
+    private static final class MethodMetrics
+    {
+        /**
+         * Transferred bytes per call,
+         * count is number of calls.
+         */
+        final IoHistogram transferSize = new IoHistogram();
+
+        /**
+         * Latency per call in nanoseconds.
+         */
+        final IoHistogram latencyNanos = new IoHistogram();
+
+        /**
+         * Number of calls ended with an exception.
+         */
+        final LongAdder failures = new LongAdder();
+    }
+
+    /**
+     * Immutable state of the metrics at the time of
+     * {@link RandomAccessFileInstrumented#snapshot()},
+     * {@link #toString()} is a report table.
+     */
+    public static final class Snapshot
+    {
+        /**
+         * Transferred bytes per call
+         * by {@link Method#ordinal()}.
+         */
+        private final IoHistogram[] transferSize;
+
+        /**
+         * Latency per call in nanoseconds
+         * by {@link Method#ordinal()}.
+         */
+        private final IoHistogram[] latencyNanos;
+
+        /**
+         * Seek distance in bytes.
+         */
+        private final IoHistogram seekDistance;
+
+        /**
+         * Number of failed calls
+         * by {@link Method#ordinal()}.
+         */
+        private final long[] failures;
+
+        /**
+         * Constructor.
+         *
+         * @param transferSize transferred bytes per call by {@link Method#ordinal()}
+         * @param latencyNanos latency per call in nanoseconds by {@link Method#ordinal()}
+         * @param seekDistance seek distance in bytes
+         * @param failures number of failed calls by {@link Method#ordinal()}
+         */
+        private Snapshot(
+                final IoHistogram[] transferSize ,
+                final IoHistogram[] latencyNanos ,
+                final IoHistogram seekDistance ,
+                final long[] failures )
+        {
+            this.transferSize = transferSize;
+            this.latencyNanos = latencyNanos;
+            this.seekDistance = seekDistance;
+            this.failures = failures;
+        }
+
+        /**
+         * @return snapshot without recorded values
+         */
+        static Snapshot empty()
+        {
+            final int methodCount = Method.values().length;
+
+            final IoHistogram[] transferSize = new IoHistogram[ methodCount ];
+            final IoHistogram[] latencyNanos = new IoHistogram[ methodCount ];
+
+            for ( int i = 0 ; i < methodCount ; i++ )
+            {
+                transferSize[ i ] = new IoHistogram();
+                latencyNanos[ i ] = new IoHistogram();
+            }
+
+            return new Snapshot(
+                    transferSize ,
+                    latencyNanos ,
+                    new IoHistogram() ,
+                    new long[ methodCount ] );
+        }
+
+        /**
+         * Sum of the metrics, for example of several files.
+         *
+         * @param other snapshot to add
+         * @return new snapshot with the values of this and the other snapshot
+         */
+        public Snapshot plus(
+                final Snapshot other )
+        {
+            final int methodCount = Method.values().length;
+
+            final IoHistogram[] transferSize = new IoHistogram[ methodCount ];
+            final IoHistogram[] latencyNanos = new IoHistogram[ methodCount ];
+            final long[] failures = new long[ methodCount ];
+
+            for ( int i = 0 ; i < methodCount ; i++ )
+            {
+                transferSize[ i ] = this.transferSize[ i ].copy();
+                transferSize[ i ].add( other.transferSize[ i ] );
+                latencyNanos[ i ] = this.latencyNanos[ i ].copy();
+                latencyNanos[ i ].add( other.latencyNanos[ i ] );
+                failures[ i ] = this.failures[ i ] + other.failures[ i ];
+            }
+
+            final IoHistogram seekDistance = this.seekDistance.copy();
+            seekDistance.add( other.seekDistance );
+
+            return new Snapshot(
+                    transferSize ,
+                    latencyNanos ,
+                    seekDistance ,
+                    failures );
+        }
+
+        /**
+         * @param method method
+         * @return number of failed calls of the method,
+         *         ended with an exception, for example
+         *         {@link java.io.EOFException}
+         */
+        public long getFailures(
+                final Method method )
+        {
+            return this.failures[ method.ordinal() ];
+        }
+
+        /**
+         * @param method method
+         * @return number of successful calls of the method
+         */
+        public long getCalls(
+                final Method method )
+        {
+            return this.transferSize[ method.ordinal() ].getCount();
+        }
+
+        /**
+         * @param method method
+         * @return number of bytes transferred by the method
+         */
+        public long getBytes(
+                final Method method )
+        {
+            return this.transferSize[ method.ordinal() ].getSum();
+        }
+
+        /**
+         * @param method method
+         * @return copy of the histogram of transferred bytes per call of the method
+         */
+        public IoHistogram getTransferSize(
+                final Method method )
+        {
+            return this.transferSize[ method.ordinal() ].copy();
+        }
+
+        /**
+         * @param method method
+         * @return copy of the histogram of latency in nanoseconds
+         *         per call of the method, empty if latency is not recorded
+         */
+        public IoHistogram getLatencyNanos(
+                final Method method )
+        {
+            return this.latencyNanos[ method.ordinal() ].copy();
+        }
+
+        /**
+         * @return copy of the histogram of seek distance in bytes
+         */
+        public IoHistogram getSeekDistance()
+        {
+            return this.seekDistance.copy();
+        }
+
+        /**
+         * @return number of calls of all methods
+         */
+        public long getTotalCalls()
+        {
+            long sum = 0;
+            for ( final IoHistogram histogram : this.transferSize )
+            {
+                sum += histogram.getCount();
+            }
+            return sum;
+        }
+
+        /**
+         * @return number of failed calls of all methods
+         */
+        public long getTotalFailures()
+        {
+            long sum = 0;
+            for ( final long methodFailures : this.failures )
+            {
+                sum += methodFailures;
+            }
+            return sum;
+        }
+
+        /**
+         * @return number of bytes transferred by all methods
+         */
+        public long getTotalBytes()
+        {
+            long sum = 0;
+            for ( final IoHistogram histogram : this.transferSize )
+            {
+                sum += histogram.getSum();
+            }
+            return sum;
+        }
+
+        /**
+         * @return report table with a line per called method
+         */
+        @Override
+        public String toString()
+        {
+            final StringBuilder report = new StringBuilder();
+
+            report.append(
+                    String.format(
+                            "%-22s %12s %8s %14s %10s %12s %12s %12s%n" ,
+                            "method" , "calls" , "failures" , "bytes" , "avg bytes" ,
+                            "mean ns" , "p99 ns" , "max ns" ) );
+
+            for ( final Method method : Method.values() )
+            {
+                final IoHistogram size = this.transferSize[ method.ordinal() ];
+
+                if ( size.getCount() == 0L && this.failures[ method.ordinal() ] == 0L )
+                {
+                    continue;
+                }
+
+                final IoHistogram latency = this.latencyNanos[ method.ordinal() ];
+
+                report.append(
+                        String.format(
+                                "%-22s %12d %8d %14d %10.1f %12.0f %12d %12d%n" ,
+                                method ,
+                                size.getCount() ,
+                                this.failures[ method.ordinal() ] ,
+                                size.getSum() ,
+                                size.getMean() ,
+                                latency.getMean() ,
+                                latency.getValueAtPercentile( 99.0 ) ,
+                                latency.getMax() ) );
+            }
+
+            report.append( "seek distance " ).append( this.seekDistance );
+
+            return report.toString();
+        }
+    }
+
+    /**
+     * Empty metrics for methods not yet called.
+     */
+    private static final MethodMetrics EMPTY = new MethodMetrics();
+
+    /**
+     * Metrics by {@link Method#ordinal()},
+     * created on first call.
+     */
+    private final AtomicReferenceArray<MethodMetrics> methodMetrics =
+            new AtomicReferenceArray<>( Method.values().length );
+
+    /**
+     * Seek distance in bytes.
+     */
+    private final IoHistogram seekDistance = new IoHistogram();
+
+    /**
+     * Measure latency with {@link System#nanoTime()}.
+     */
+    private final boolean recordLatency;
+
+    /**
+     * End position of previous positional operation
+     * for seek distance, atomic for concurrent
+     * positional operations.
+     */
+    private final AtomicLong positionalEnd = new AtomicLong();
+
+    /**
+     * Constructor, records latency.
+     *
+     * @param delegate opened file to decorate
+     */
+    public RandomAccessFileInstrumented(
+            final RandomAccessFileInterface delegate )
+    {
+        this( delegate , true );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param delegate opened file to decorate
+     * @param recordLatency measure latency with {@link System#nanoTime()}, {@code false} for lowest overhead
+     */
+    public RandomAccessFileInstrumented(
+            final RandomAccessFileInterface delegate ,
+            final boolean recordLatency )
+    {
+        super( delegate );
+        this.recordLatency = recordLatency;
+    }
+
+    /**
+     * @return state of the metrics, consistent per histogram,
+     *         not atomic across methods during concurrent calls
+     */
+    public Snapshot snapshot()
+    {
+        final int methodCount = Method.values().length;
+
+        final IoHistogram[] transferSize = new IoHistogram[ methodCount ];
+        final IoHistogram[] latencyNanos = new IoHistogram[ methodCount ];
+        final long[] failures = new long[ methodCount ];
+
+        for ( int i = 0 ; i < methodCount ; i++ )
+        {
+            final MethodMetrics metrics = this.methodMetrics.get( i );
+
+            transferSize[ i ] = ( metrics != null ? metrics : EMPTY ).transferSize.copy();
+            latencyNanos[ i ] = ( metrics != null ? metrics : EMPTY ).latencyNanos.copy();
+            failures[ i ] = ( metrics != null ? metrics : EMPTY ).failures.sum();
+        }
+
+        return new Snapshot(
+                transferSize ,
+                latencyNanos ,
+                this.seekDistance.copy() ,
+                failures );
+    }
+
+    /**
+     * Remove all recorded values,
+     * calls concurrent to the reset
+     * may be recorded or not.
+     */
+    public void reset()
+    {
+        for ( int i = 0 ; i < this.methodMetrics.length() ; i++ )
+        {
+            this.methodMetrics.set( i , null );
+        }
+
+        this.seekDistance.reset();
+        this.positionalEnd.set( 0L );
+    }
+
+    /**
+     * Reads a byte of data from this file. The byte is returned as an
+     * integer in the range 0 to 255 ({@code 0x00-0x0ff}). This
+     * method blocks if no input is yet available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the same
+     * way as the {@link InputStream#read()} method of
+     * {@code InputStream}.
+     *
+     * @return     the next byte of data, or {@code -1} if the end of the
+     *             file has been reached.
+     * @exception  IOException  if an I/O error occurs. Not thrown if
+     *                          end-of-file has been reached.
+     */
+    @Override
+    public int read()
+            throws IOException
+    {
+        final long start = startNanos();
+        final int result;
+        try
+        {
+            result = this.delegate.read();
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.READ );
+            throw e;
+        }
+
+        record(
+                Method.READ ,
+                start ,
+                ( result < 0 ? 0 : 1 ) );
+        return result;
+    }
+
+    /**
+     * Reads up to {@code len} bytes of data from this file into an
+     * array of bytes. This method blocks until at least one byte of input
+     * is available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the
+     * same way as the {@link InputStream#read(byte[], int, int)} method of
+     * {@code InputStream}.
+     *
+     * @param      b     the buffer into which the data is read.
+     * @param      off   the start offset in array {@code b}
+     *                   at which the data is written.
+     * @param      len   the maximum number of bytes read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if there is no more data because the end of
+     *             the file has been reached.
+     * @exception  IOException If the first byte cannot be read for any reason
+     * other than end of file, or if the random access file has been closed, or if
+     * some other I/O error occurs.
+     * @exception  NullPointerException If {@code b} is {@code null}.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public int read(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final long start = startNanos();
+        final int result;
+        try
+        {
+            result = this.delegate.read( b , off , len );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.READ_ARRAY_RANGE );
+            throw e;
+        }
+
+        record(
+                Method.READ_ARRAY_RANGE ,
+                start ,
+                Math.max( result , 0 ) );
+        return result;
+    }
+
+    /**
+     * Reads up to {@code b.length} bytes of data from this file
+     * into an array of bytes. This method blocks until at least one byte
+     * of input is available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the
+     * same way as the {@link InputStream#read(byte[])} method of
+     * {@code InputStream}.
+     *
+     * @param      b   the buffer into which the data is read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if there is no more data because the end of
+     *             this file has been reached.
+     * @exception  IOException If the first byte cannot be read for any reason
+     * other than end of file, or if the random access file has been closed, or if
+     * some other I/O error occurs.
+     * @exception  NullPointerException If {@code b} is {@code null}.
+     */
+    @Override
+    public int read(
+            final byte[] b )
+            throws IOException
+    {
+        final long start = startNanos();
+        final int result;
+        try
+        {
+            result = this.delegate.read( b );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.READ_ARRAY );
+            throw e;
+        }
+
+        record(
+                Method.READ_ARRAY ,
+                start ,
+                Math.max( result , 0 ) );
+        return result;
+    }
+
+    /**
+     * Reads up to {@code len} bytes of data from this file, starting
+     * at the specified position, into an array of bytes.
+     * The file pointer is not changed, so concurrent positional
+     * reads need no seek under a lock, like {@code pread}.
+     *
+     * @param      pos   the position in the file at which the read starts.
+     * @param      b     the buffer into which the data is read.
+     * @param      off   the start offset in array {@code b}
+     *                   at which the data is written.
+     * @param      len   the maximum number of bytes read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if {@code pos} is at or behind the end
+     *             of the file.
+     * @exception  IOException If {@code pos} is negative, the file has been
+     *             closed or some other I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public int readAt(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final long start = startNanos();
+        final int result;
+        try
+        {
+            result = this.delegate.readAt( pos , b , off , len );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.READ_AT );
+            throw e;
+        }
+
+        recordPositional( pos , Math.max( result , 0 ) );
+        record(
+                Method.READ_AT ,
+                start ,
+                Math.max( result , 0 ) );
+        return result;
+    }
+
+    /**
+     * Reads {@code b.length} bytes from this file into the byte
+     * array, starting at the current file pointer. This method reads
+     * repeatedly from the file until the requested number of bytes are
+     * read. This method blocks until the requested number of bytes are
+     * read, the end of the stream is detected, or an exception is thrown.
+     *
+     * @param   b   the buffer into which the data is read.
+     * @throws  NullPointerException if {@code b} is {@code null}.
+     * @throws  EOFException  if this file reaches the end before reading
+     *              all the bytes.
+     * @throws  IOException   if an I/O error occurs.
+     */
+    @Override
+    public void readFully(
+            final byte[] b )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.readFully( b );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.READ_FULLY_ARRAY );
+            throw e;
+        }
+
+        record(
+                Method.READ_FULLY_ARRAY ,
+                start ,
+                b.length );
+    }
+
+    /**
+     * Reads exactly {@code len} bytes from this file into the byte
+     * array, starting at the current file pointer. This method reads
+     * repeatedly from the file until the requested number of bytes are
+     * read. This method blocks until the requested number of bytes are
+     * read, the end of the stream is detected, or an exception is thrown.
+     *
+     * @param   b     the buffer into which the data is read.
+     * @param   off   the start offset into the data array {@code b}.
+     * @param   len   the number of bytes to read.
+     * @throws  NullPointerException if {@code b} is {@code null}.
+     * @throws  IndexOutOfBoundsException if {@code off} is negative,
+     *                {@code len} is negative, or {@code len} is greater than
+     *                {@code b.length - off}.
+     * @throws  EOFException  if this file reaches the end before reading
+     *                all the bytes.
+     * @throws  IOException   if an I/O error occurs.
+     */
+    @Override
+    public void readFully(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.readFully( b , off , len );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.READ_FULLY_ARRAY_RANGE );
+            throw e;
+        }
+
+        record(
+                Method.READ_FULLY_ARRAY_RANGE ,
+                start ,
+                len );
+    }
+
+    /**
+     * Attempts to skip over {@code n} bytes of input discarding the
+     * skipped bytes.
+     * <p>
+     *
+     * This method may skip over some smaller number of bytes, possibly zero.
+     * This may result from any of a number of conditions; reaching end of
+     * file before {@code n} bytes have been skipped is only one
+     * possibility. This method never throws an {@code EOFException}.
+     * The actual number of bytes skipped is returned.  If {@code n}
+     * is negative, no bytes are skipped.
+     *
+     * @param      n   the number of bytes to be skipped.
+     * @return     the actual number of bytes skipped.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public int skipBytes(
+            final int n )
+            throws IOException
+    {
+        final long start = startNanos();
+        final int result;
+        try
+        {
+            result = this.delegate.skipBytes( n );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.SKIP_BYTES );
+            throw e;
+        }
+
+        record(
+                Method.SKIP_BYTES ,
+                start ,
+                result );
+        return result;
+    }
+
+    /**
+     * Writes the specified byte to this file. The write starts at
+     * the current file pointer.
+     *
+     * @param      b   the {@code byte} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final int b )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.write( b );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.WRITE );
+            throw e;
+        }
+
+        record(
+                Method.WRITE ,
+                start ,
+                1 );
+    }
+
+    /**
+     * Writes {@code b.length} bytes from the specified byte array
+     * to this file, starting at the current file pointer.
+     *
+     * @param      b   the data.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final byte[] b )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.write( b );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.WRITE_ARRAY );
+            throw e;
+        }
+
+        record(
+                Method.WRITE_ARRAY ,
+                start ,
+                b.length );
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array
+     * starting at offset {@code off} to this file.
+     *
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.write( b , off , len );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.WRITE_ARRAY_RANGE );
+            throw e;
+        }
+
+        record(
+                Method.WRITE_ARRAY_RANGE ,
+                start ,
+                len );
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array
+     * starting at offset {@code off} to this file at the specified
+     * position. The file pointer is not changed, like {@code pwrite}.
+     * The file grows if the written range exceeds the end.
+     *
+     * @param      pos   the position in the file at which the write starts.
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException If {@code pos} is negative, the file has been
+     *             closed or some other I/O error occurs.
+     */
+    @Override
+    public void writeAt(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.writeAt( pos , b , off , len );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.WRITE_AT );
+            throw e;
+        }
+
+        recordPositional( pos , len );
+        record(
+                Method.WRITE_AT ,
+                start ,
+                len );
+    }
+
+    /**
+     * Returns the current offset in this file.
+     *
+     * @return     the offset from the beginning of the file, in bytes,
+     *             at which the next read or write occurs.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public long getFilePointer()
+            throws IOException
+    {
+        final long start = startNanos();
+        final long result;
+        try
+        {
+            result = this.delegate.getFilePointer();
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.GET_FILE_POINTER );
+            throw e;
+        }
+
+        record(
+                Method.GET_FILE_POINTER ,
+                start ,
+                0 );
+        return result;
+    }
+
+    /**
+     * Sets the file-pointer offset, measured from the beginning of this
+     * file, at which the next read or write occurs.  The offset may be
+     * set beyond the end of the file. Setting the offset beyond the end
+     * of the file does not change the file length.  The file length will
+     * change only by writing after the offset has been set beyond the end
+     * of the file.
+     *
+     * @param      pos   the offset position, measured in bytes from the
+     *                   beginning of the file, at which to set the file
+     *                   pointer.
+     * @exception  IOException  if {@code pos} is less than
+     *                          {@code 0} or if an I/O error occurs.
+     */
+    @Override
+    public void seek(
+            final long pos )
+            throws IOException
+    {
+        final long start = startNanos();
+        final long from;
+        try
+        {
+            from = this.delegate.getFilePointer();
+            this.delegate.seek( pos );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.SEEK );
+            throw e;
+        }
+
+        this.seekDistance.record( Math.abs( pos - from ) );
+        record(
+                Method.SEEK ,
+                start ,
+                0 );
+    }
+
+    /**
+     * Returns the length of this file.
+     *
+     * @return     the length of this file, measured in bytes.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public long length()
+            throws IOException
+    {
+        final long start = startNanos();
+        final long result;
+        try
+        {
+            result = this.delegate.length();
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.LENGTH );
+            throw e;
+        }
+
+        record(
+                Method.LENGTH ,
+                start ,
+                0 );
+        return result;
+    }
+
+    /**
+     * Sets the length of this file.
+     *
+     * <p> If the present length of the file as returned by the
+     * {@code length} method is greater than the {@code newLength}
+     * argument then the file will be truncated.  In this case, if the file
+     * offset as returned by the {@code getFilePointer} method is greater
+     * than {@code newLength} then after this method returns the offset
+     * will be equal to {@code newLength}.
+     *
+     * <p> If the present length of the file as returned by the
+     * {@code length} method is smaller than the {@code newLength}
+     * argument then the file will be extended.  In this case, the contents of
+     * the extended portion of the file are not defined.
+     *
+     * @param      newLength    The desired length of the file
+     * @exception  IOException  If an I/O error occurs
+     * @since      1.2
+     */
+    @Override
+    public void setLength(
+            final long newLength )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.setLength( newLength );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.SET_LENGTH );
+            throw e;
+        }
+
+        record(
+                Method.SET_LENGTH ,
+                start ,
+                0 );
+    }
+
+    /**
+     * Closes this random access file stream and releases any system
+     * resources associated with the stream. A closed random access
+     * file cannot perform input or output operations and cannot be
+     * reopened.
+     *
+     * <p> If this file has an associated channel then the channel is closed
+     * as well.
+     *
+     * @exception  IOException  if an I/O error occurs.
+     *
+     * @revised 1.4
+     * @spec JSR-51
+     */
+    @Override
+    public void close()
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.close();
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.CLOSE );
+            throw e;
+        }
+
+        record(
+                Method.CLOSE ,
+                start ,
+                0 );
+    }
+
+    /**
+     * Reads a {@code boolean} from this file. This method reads a
+     * single byte from the file, starting at the current file pointer.
+     * A value of {@code 0} represents
+     * {@code false}. Any other value represents {@code true}.
+     * This method blocks until the byte is read, the end of the stream
+     * is detected, or an exception is thrown.
+     *
+     * @return     the {@code boolean} value read.
+     * @exception  EOFException  if this file has reached the end.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public boolean readBoolean()
+            throws IOException
+    {
+        final long start = startNanos();
+        final boolean result;
+        try
+        {
+            result = this.delegate.readBoolean();
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.READ_BOOLEAN );
+            throw e;
+        }
+
+        record(
+                Method.READ_BOOLEAN ,
+                start ,
+                1 );
+        return result;
+    }
+
+    /**
+     * Reads a signed eight-bit value from this file. This method reads a
+     * byte from the file, starting from the current file pointer.
+     * If the byte read is {@code b}, where
+     * <code>0&nbsp;&lt;=&nbsp;b&nbsp;&lt;=&nbsp;255</code>,
+     * then the result is:
+     * <blockquote><pre>
+     *     (byte)(b)
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the byte is read, the end of the stream
+     * is detected, or an exception is thrown.
+     *
+     * @return     the next byte of this file as a signed eight-bit
+     *             {@code byte}.
+     * @exception  EOFException  if this file has reached the end.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public byte readByte()
+            throws IOException
+    {
+        final long start = startNanos();
+        final byte result;
+        try
+        {
+            result = this.delegate.readByte();
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.READ_BYTE );
+            throw e;
+        }
+
+        record(
+                Method.READ_BYTE ,
+                start ,
+                1 );
+        return result;
+    }
+
+    /**
+     * Reads an unsigned eight-bit number from this file. This method reads
+     * a byte from this file, starting at the current file pointer,
+     * and returns that byte.
+     * <p>
+     * This method blocks until the byte is read, the end of the stream
+     * is detected, or an exception is thrown.
+     *
+     * @return     the next byte of this file, interpreted as an unsigned
+     *             eight-bit number.
+     * @exception  EOFException  if this file has reached the end.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public int readUnsignedByte()
+            throws IOException
+    {
+        final long start = startNanos();
+        final int result;
+        try
+        {
+            result = this.delegate.readUnsignedByte();
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.READ_UNSIGNED_BYTE );
+            throw e;
+        }
+
+        record(
+                Method.READ_UNSIGNED_BYTE ,
+                start ,
+                1 );
+        return result;
+    }
+
+    /**
+     * Reads a signed 16-bit number from this file. The method reads two
+     * bytes from this file, starting at the current file pointer.
+     * If the two bytes read, in order, are
+     * {@code b1} and {@code b2}, where each of the two values is
+     * between {@code 0} and {@code 255}, inclusive, then the
+     * result is equal to:
+     * <blockquote><pre>
+     *     (short)((b1 &lt;&lt; 8) | b2)
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the two bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next two bytes of this file, interpreted as a signed
+     *             16-bit number.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               two bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public short readShort()
+            throws IOException
+    {
+        final long start = startNanos();
+        final short result;
+        try
+        {
+            result = this.delegate.readShort();
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.READ_SHORT );
+            throw e;
+        }
+
+        record(
+                Method.READ_SHORT ,
+                start ,
+                2 );
+        return result;
+    }
+
+    /**
+     * Reads an unsigned 16-bit number from this file. This method reads
+     * two bytes from the file, starting at the current file pointer.
+     * If the bytes read, in order, are
+     * {@code b1} and {@code b2}, where
+     * <code>0&nbsp;&lt;=&nbsp;b1, b2&nbsp;&lt;=&nbsp;255</code>,
+     * then the result is equal to:
+     * <blockquote><pre>
+     *     (b1 &lt;&lt; 8) | b2
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the two bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next two bytes of this file, interpreted as an unsigned
+     *             16-bit integer.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               two bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public int readUnsignedShort()
+            throws IOException
+    {
+        final long start = startNanos();
+        final int result;
+        try
+        {
+            result = this.delegate.readUnsignedShort();
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.READ_UNSIGNED_SHORT );
+            throw e;
+        }
+
+        record(
+                Method.READ_UNSIGNED_SHORT ,
+                start ,
+                2 );
+        return result;
+    }
+
+    /**
+     * Reads a character from this file. This method reads two
+     * bytes from the file, starting at the current file pointer.
+     * If the bytes read, in order, are
+     * {@code b1} and {@code b2}, where
+     * <code>0&nbsp;&lt;=&nbsp;b1,&nbsp;b2&nbsp;&lt;=&nbsp;255</code>,
+     * then the result is equal to:
+     * <blockquote><pre>
+     *     (char)((b1 &lt;&lt; 8) | b2)
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the two bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next two bytes of this file, interpreted as a
+     *                  {@code char}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               two bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public char readChar()
+            throws IOException
+    {
+        final long start = startNanos();
+        final char result;
+        try
+        {
+            result = this.delegate.readChar();
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.READ_CHAR );
+            throw e;
+        }
+
+        record(
+                Method.READ_CHAR ,
+                start ,
+                2 );
+        return result;
+    }
+
+    /**
+     * Reads a signed 32-bit integer from this file. This method reads 4
+     * bytes from the file, starting at the current file pointer.
+     * If the bytes read, in order, are {@code b1},
+     * {@code b2}, {@code b3}, and {@code b4}, where
+     * <code>0&nbsp;&lt;=&nbsp;b1, b2, b3, b4&nbsp;&lt;=&nbsp;255</code>,
+     * then the result is equal to:
+     * <blockquote><pre>
+     *     (b1 &lt;&lt; 24) | (b2 &lt;&lt; 16) + (b3 &lt;&lt; 8) + b4
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the four bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next four bytes of this file, interpreted as an
+     *             {@code int}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               four bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public int readInt()
+            throws IOException
+    {
+        final long start = startNanos();
+        final int result;
+        try
+        {
+            result = this.delegate.readInt();
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.READ_INT );
+            throw e;
+        }
+
+        record(
+                Method.READ_INT ,
+                start ,
+                4 );
+        return result;
+    }
+
+    /**
+     * Reads a signed 64-bit integer from this file. This method reads eight
+     * bytes from the file, starting at the current file pointer.
+     * If the bytes read, in order, are
+     * {@code b1}, {@code b2}, {@code b3},
+     * {@code b4}, {@code b5}, {@code b6},
+     * {@code b7}, and {@code b8,} where:
+     * <blockquote><pre>
+     *     0 &lt;= b1, b2, b3, b4, b5, b6, b7, b8 &lt;=255,
+     * </pre></blockquote>
+     * <p>
+     * then the result is equal to:
+     * <blockquote><pre>
+     *     ((long)b1 &lt;&lt; 56) + ((long)b2 &lt;&lt; 48)
+     *     + ((long)b3 &lt;&lt; 40) + ((long)b4 &lt;&lt; 32)
+     *     + ((long)b5 &lt;&lt; 24) + ((long)b6 &lt;&lt; 16)
+     *     + ((long)b7 &lt;&lt; 8) + b8
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the eight bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next eight bytes of this file, interpreted as a
+     *             {@code long}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               eight bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public long readLong()
+            throws IOException
+    {
+        final long start = startNanos();
+        final long result;
+        try
+        {
+            result = this.delegate.readLong();
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.READ_LONG );
+            throw e;
+        }
+
+        record(
+                Method.READ_LONG ,
+                start ,
+                8 );
+        return result;
+    }
+
+    /**
+     * Reads a {@code float} from this file. This method reads an
+     * {@code int} value, starting at the current file pointer,
+     * as if by the {@code readInt} method
+     * and then converts that {@code int} to a {@code float}
+     * using the {@code intBitsToFloat} method in class
+     * {@code Float}.
+     * <p>
+     * This method blocks until the four bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next four bytes of this file, interpreted as a
+     *             {@code float}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *             four bytes.
+     * @exception  IOException   if an I/O error occurs.
+     * @see        java.io.RandomAccessFile#readInt()
+     * @see        java.lang.Float#intBitsToFloat(int)
+     */
+    @Override
+    public float readFloat()
+            throws IOException
+    {
+        final long start = startNanos();
+        final float result;
+        try
+        {
+            result = this.delegate.readFloat();
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.READ_FLOAT );
+            throw e;
+        }
+
+        record(
+                Method.READ_FLOAT ,
+                start ,
+                4 );
+        return result;
+    }
+
+    /**
+     * Reads a {@code double} from this file. This method reads a
+     * {@code long} value, starting at the current file pointer,
+     * as if by the {@code readLong} method
+     * and then converts that {@code long} to a {@code double}
+     * using the {@code longBitsToDouble} method in
+     * class {@code Double}.
+     * <p>
+     * This method blocks until the eight bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next eight bytes of this file, interpreted as a
+     *             {@code double}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *             eight bytes.
+     * @exception  IOException   if an I/O error occurs.
+     * @see        java.io.RandomAccessFile#readLong()
+     * @see        java.lang.Double#longBitsToDouble(long)
+     */
+    @Override
+    public double readDouble()
+            throws IOException
+    {
+        final long start = startNanos();
+        final double result;
+        try
+        {
+            result = this.delegate.readDouble();
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.READ_DOUBLE );
+            throw e;
+        }
+
+        record(
+                Method.READ_DOUBLE ,
+                start ,
+                8 );
+        return result;
+    }
+
+    /**
+     * Reads the next line of text from this file.  This method successively
+     * reads bytes from the file, starting at the current file pointer,
+     * until it reaches a line terminator or the end
+     * of the file.  Each byte is converted into a character by taking the
+     * byte's value for the lower eight bits of the character and setting the
+     * high eight bits of the character to zero.  This method does not,
+     * therefore, support the full Unicode character set.
+     *
+     * <p> A line of text is terminated by a carriage-return character
+     * ({@code '\u005Cr'}), a newline character ({@code '\u005Cn'}), a
+     * carriage-return character immediately followed by a newline character,
+     * or the end of the file.  Line-terminating characters are discarded and
+     * are not included as part of the string returned.
+     *
+     * <p> This method blocks until a newline character is read, a carriage
+     * return and the byte following it are read (to see if it is a newline),
+     * the end of the file is reached, or an exception is thrown.
+     *
+     * @return     the next line of text from this file, or null if end
+     *             of file is encountered before even one byte is read.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public String readLine()
+            throws IOException
+    {
+        final long start = startNanos();
+        final long pos;
+        final String result;
+        try
+        {
+            pos = this.delegate.getFilePointer();
+            result = this.delegate.readLine();
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.READ_LINE );
+            throw e;
+        }
+
+        record(
+                Method.READ_LINE ,
+                start ,
+                this.delegate.getFilePointer() - pos );
+        return result;
+    }
+
+    /**
+     * Reads in a string from this file. The string has been encoded
+     * using a
+     * <a href="DataInput.html#modified-utf-8">modified UTF-8</a>
+     * format.
+     * <p>
+     * The first two bytes are read, starting from the current file
+     * pointer, as if by
+     * {@code readUnsignedShort}. This value gives the number of
+     * following bytes that are in the encoded string, not
+     * the length of the resulting string. The following bytes are then
+     * interpreted as bytes encoding characters in the modified UTF-8 format
+     * and are converted into characters.
+     * <p>
+     * This method blocks until all the bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     a Unicode string.
+     * @exception  EOFException            if this file reaches the end before
+     *               reading all the bytes.
+     * @exception  IOException             if an I/O error occurs.
+     * @exception  UTFDataFormatException  if the bytes do not represent
+     *               valid modified UTF-8 encoding of a Unicode string.
+     * @see        java.io.RandomAccessFile#readUnsignedShort()
+     */
+    @Override
+    public String readUTF()
+            throws IOException
+    {
+        final long start = startNanos();
+        final long pos;
+        final String result;
+        try
+        {
+            pos = this.delegate.getFilePointer();
+            result = this.delegate.readUTF();
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.READ_UTF );
+            throw e;
+        }
+
+        record(
+                Method.READ_UTF ,
+                start ,
+                this.delegate.getFilePointer() - pos );
+        return result;
+    }
+
+    /**
+     * Writes a {@code boolean} to the file as a one-byte value. The
+     * value {@code true} is written out as the value
+     * {@code (byte)1}; the value {@code false} is written out
+     * as the value {@code (byte)0}. The write starts at
+     * the current position of the file pointer.
+     *
+     * @param      v   a {@code boolean} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeBoolean(
+            final boolean v )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.writeBoolean( v );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.WRITE_BOOLEAN );
+            throw e;
+        }
+
+        record(
+                Method.WRITE_BOOLEAN ,
+                start ,
+                1 );
+    }
+
+    /**
+     * Writes a {@code byte} to the file as a one-byte value. The
+     * write starts at the current position of the file pointer.
+     *
+     * @param      v   a {@code byte} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeByte(
+            final int v )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.writeByte( v );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.WRITE_BYTE );
+            throw e;
+        }
+
+        record(
+                Method.WRITE_BYTE ,
+                start ,
+                1 );
+    }
+
+    /**
+     * Writes a {@code short} to the file as two bytes, high byte first.
+     * The write starts at the current position of the file pointer.
+     *
+     * @param      v   a {@code short} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeShort(
+            final int v )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.writeShort( v );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.WRITE_SHORT );
+            throw e;
+        }
+
+        record(
+                Method.WRITE_SHORT ,
+                start ,
+                2 );
+    }
+
+    /**
+     * Writes a {@code char} to the file as a two-byte value, high
+     * byte first. The write starts at the current position of the
+     * file pointer.
+     *
+     * @param      v   a {@code char} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeChar(
+            final int v )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.writeChar( v );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.WRITE_CHAR );
+            throw e;
+        }
+
+        record(
+                Method.WRITE_CHAR ,
+                start ,
+                2 );
+    }
+
+    /**
+     * Writes an {@code int} to the file as four bytes, high byte first.
+     * The write starts at the current position of the file pointer.
+     *
+     * @param      v   an {@code int} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeInt(
+            final int v )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.writeInt( v );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.WRITE_INT );
+            throw e;
+        }
+
+        record(
+                Method.WRITE_INT ,
+                start ,
+                4 );
+    }
+
+    /**
+     * Writes a {@code long} to the file as eight bytes, high byte first.
+     * The write starts at the current position of the file pointer.
+     *
+     * @param      v   a {@code long} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeLong(
+            final long v )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.writeLong( v );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.WRITE_LONG );
+            throw e;
+        }
+
+        record(
+                Method.WRITE_LONG ,
+                start ,
+                8 );
+    }
+
+    /**
+     * Converts the float argument to an {@code int} using the
+     * {@code floatToIntBits} method in class {@code Float},
+     * and then writes that {@code int} value to the file as a
+     * four-byte quantity, high byte first. The write starts at the
+     * current position of the file pointer.
+     *
+     * @param      v   a {@code float} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.lang.Float#floatToIntBits(float)
+     */
+    @Override
+    public void writeFloat(
+            final float v )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.writeFloat( v );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.WRITE_FLOAT );
+            throw e;
+        }
+
+        record(
+                Method.WRITE_FLOAT ,
+                start ,
+                4 );
+    }
+
+    /**
+     * Converts the double argument to a {@code long} using the
+     * {@code doubleToLongBits} method in class {@code Double},
+     * and then writes that {@code long} value to the file as an
+     * eight-byte quantity, high byte first. The write starts at the current
+     * position of the file pointer.
+     *
+     * @param      v   a {@code double} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.lang.Double#doubleToLongBits(double)
+     */
+    @Override
+    public void writeDouble(
+            final double v )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.writeDouble( v );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.WRITE_DOUBLE );
+            throw e;
+        }
+
+        record(
+                Method.WRITE_DOUBLE ,
+                start ,
+                8 );
+    }
+
+    /**
+     * Writes the string to the file as a sequence of bytes. Each
+     * character in the string is written out, in sequence, by discarding
+     * its high eight bits. The write starts at the current position of
+     * the file pointer.
+     *
+     * @param      s   a string of bytes to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeBytes(
+            final String s )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.writeBytes( s );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.WRITE_BYTES );
+            throw e;
+        }
+
+        record(
+                Method.WRITE_BYTES ,
+                start ,
+                s.length() );
+    }
+
+    /**
+     * Writes a string to the file as a sequence of characters. Each
+     * character is written to the data output stream as if by the
+     * {@code writeChar} method. The write starts at the current
+     * position of the file pointer.
+     *
+     * @param      s   a {@code String} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.io.RandomAccessFile#writeChar(int)
+     */
+    @Override
+    public void writeChars(
+            final String s )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.writeChars( s );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.WRITE_CHARS );
+            throw e;
+        }
+
+        record(
+                Method.WRITE_CHARS ,
+                start ,
+                2L * s.length() );
+    }
+
+    /**
+     * Writes a string to the file using
+     * <a href="DataInput.html#modified-utf-8">modified UTF-8</a>
+     * encoding in a machine-independent manner.
+     * <p>
+     * First, two bytes are written to the file, starting at the
+     * current file pointer, as if by the
+     * {@code writeShort} method giving the number of bytes to
+     * follow. This value is the number of bytes actually written out,
+     * not the length of the string. Following the length, each character
+     * of the string is output, in sequence, using the modified UTF-8 encoding
+     * for each character.
+     *
+     * @param      str   a string to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeUTF(
+            final String str )
+            throws IOException
+    {
+        final long start = startNanos();
+        final long pos;
+        try
+        {
+            pos = this.delegate.getFilePointer();
+            this.delegate.writeUTF( str );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.WRITE_UTF );
+            throw e;
+        }
+
+        record(
+                Method.WRITE_UTF ,
+                start ,
+                this.delegate.getFilePointer() - pos );
+    }
+
+    /**
+     * Reads {@code len} int values from this file into the array,
+     * each as four bytes high byte first, like {@code readInt}
+     * in a loop, but as one bulk transfer.
+     *
+     * @param      b     the array into which the values are read.
+     * @param      off   the start offset in array {@code b}.
+     * @param      len   the number of values to read.
+     * @exception  EOFException  if this file reaches the end before reading
+     *             all values.
+     * @exception  IOException   if an I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public void readInts(
+            final int[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.readInts( b , off , len );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.READ_INTS );
+            throw e;
+        }
+
+        record(
+                Method.READ_INTS ,
+                start ,
+                4L * len );
+    }
+
+    /**
+     * Writes {@code len} int values from the array to this file,
+     * each as four bytes high byte first, like {@code writeInt}
+     * in a loop, but as one bulk transfer.
+     *
+     * @param      b     the values.
+     * @param      off   the start offset in array {@code b}.
+     * @param      len   the number of values to write.
+     * @exception  IOException  if an I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public void writeInts(
+            final int[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.writeInts( b , off , len );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.WRITE_INTS );
+            throw e;
+        }
+
+        record(
+                Method.WRITE_INTS ,
+                start ,
+                4L * len );
+    }
+
+    /**
+     * Reads {@code len} long values from this file into the array,
+     * each as eight bytes high byte first, like {@code readLong}
+     * in a loop, but as one bulk transfer.
+     *
+     * @param      b     the array into which the values are read.
+     * @param      off   the start offset in array {@code b}.
+     * @param      len   the number of values to read.
+     * @exception  EOFException  if this file reaches the end before reading
+     *             all values.
+     * @exception  IOException   if an I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public void readLongs(
+            final long[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.readLongs( b , off , len );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.READ_LONGS );
+            throw e;
+        }
+
+        record(
+                Method.READ_LONGS ,
+                start ,
+                8L * len );
+    }
+
+    /**
+     * Writes {@code len} long values from the array to this file,
+     * each as eight bytes high byte first, like {@code writeLong}
+     * in a loop, but as one bulk transfer.
+     *
+     * @param      b     the values.
+     * @param      off   the start offset in array {@code b}.
+     * @param      len   the number of values to write.
+     * @exception  IOException  if an I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public void writeLongs(
+            final long[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.writeLongs( b , off , len );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.WRITE_LONGS );
+            throw e;
+        }
+
+        record(
+                Method.WRITE_LONGS ,
+                start ,
+                8L * len );
+    }
+
+    /**
+     * Reads {@code len} double values from this file into the array,
+     * each as eight bytes high byte first, like {@code readDouble}
+     * in a loop, but as one bulk transfer.
+     *
+     * @param      b     the array into which the values are read.
+     * @param      off   the start offset in array {@code b}.
+     * @param      len   the number of values to read.
+     * @exception  EOFException  if this file reaches the end before reading
+     *             all values.
+     * @exception  IOException   if an I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public void readDoubles(
+            final double[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.readDoubles( b , off , len );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.READ_DOUBLES );
+            throw e;
+        }
+
+        record(
+                Method.READ_DOUBLES ,
+                start ,
+                8L * len );
+    }
+
+    /**
+     * Writes {@code len} double values from the array to this file,
+     * each as eight bytes high byte first, like {@code writeDouble}
+     * in a loop, but as one bulk transfer.
+     * NaN values are written canonical like
+     * {@link java.lang.Double#doubleToLongBits(double)}.
+     *
+     * @param      b     the values.
+     * @param      off   the start offset in array {@code b}.
+     * @param      len   the number of values to write.
+     * @exception  IOException  if an I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public void writeDoubles(
+            final double[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final long start = startNanos();
+        try
+        {
+            this.delegate.writeDoubles( b , off , len );
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            recordFailure( Method.WRITE_DOUBLES );
+            throw e;
+        }
+
+        record(
+                Method.WRITE_DOUBLES ,
+                start ,
+                8L * len );
+    }
+
+    /**
+     * @return start time for {@link #record(Method, long, long)}
+     */
+    private long startNanos()
+    {
+        return this.recordLatency ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Record a call ended with an exception.
+     * Neither transferred bytes nor latency are recorded.
+     *
+     * @param method called method
+     */
+    private void recordFailure(
+            final Method method )
+    {
+        metrics( method ).failures.increment();
+    }
+
+    /**
+     * Record a call.
+     *
+     * @param method called method
+     * @param start result of {@link #startNanos()} before the call
+     * @param bytes number of transferred bytes
+     */
+    private void record(
+            final Method method ,
+            final long start ,
+            final long bytes )
+    {
+        final MethodMetrics metrics = metrics( method );
+
+        metrics.transferSize.record( bytes );
+
+        if ( this.recordLatency )
+        {
+            metrics.latencyNanos.record( System.nanoTime() - start );
+        }
+    }
+
+    /**
+     * @param method method
+     * @return metrics of the method, created on first call,
+     *         not null during a concurrent {@link #reset()}
+     */
+    private MethodMetrics metrics(
+            final Method method )
+    {
+        MethodMetrics metrics = this.methodMetrics.get( method.ordinal() );
+
+        while ( metrics == null )
+        {
+            final MethodMetrics newMetrics = new MethodMetrics();
+
+            if ( this.methodMetrics.compareAndSet(
+                    method.ordinal() ,
+                    null ,
+                    newMetrics ) )
+            {
+                // not get again, reset may have set null
+                return newMetrics;
+            }
+
+            metrics = this.methodMetrics.get( method.ordinal() );
+        }
+
+        return metrics;
+    }
+
+    /**
+     * Record the seek distance of a positional operation.
+     *
+     * @param pos start position of the operation
+     * @param len number of transferred bytes
+     */
+    private void recordPositional(
+            final long pos ,
+            final long len )
+    {
+        final long previousEnd = this.positionalEnd.getAndSet( pos + len );
+        this.seekDistance.record( Math.abs( pos - previousEnd ) );
+    }
+
+}
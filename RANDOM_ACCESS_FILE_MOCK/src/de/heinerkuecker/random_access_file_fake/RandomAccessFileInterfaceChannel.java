@@ -0,0 +1,656 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link FileChannel} view over a
+ * {@link RandomAccessFileInterface}, like
+ * {@link java.io.RandomAccessFile#getChannel()}.
+ * <br/><br/>
+ * The position of this channel is the file pointer
+ * of the file and vice versa. Positional reads and
+ * writes use {@link RandomAccessFileInterface#readAt(long, byte[], int, int)}
+ * and {@link RandomAccessFileInterface#writeAt(long, byte[], int, int)}
+ * and do not move the file pointer.
+ * <br/><br/>
+ * Heap buffers are read and written directly through
+ * their backing array. Implementations with memory
+ * in the heap can override {@link #view(long, int)}
+ * to give access to their backing storage without
+ * an intermediate copy.
+ * <br/><br/>
+ * {@link #map(FileChannel.MapMode, long, long)} is not supported.
+ * Locks are checked against the locks held by this channel,
+ * an overlapping lock throws {@link OverlappingFileLockException}
+ * like the locks of a {@link FileChannel} in one virtual machine,
+ * but they are not checked against other channels or processes.
+ * Implementations of read-only files override {@link #isReadOnly()}
+ * to reject exclusive locks.
+ */
+public class RandomAccessFileInterfaceChannel
+extends FileChannel
+{
+    /**
+     * Size of temporary array for direct buffers and transfers.
+     */
+    private static final int TRANSFER_CHUNK_SIZE = 8 * 1024;
+
+    /**
+     * The file.
+     */
+    protected final RandomAccessFileInterface file;
+
+    /**
+     * Lock for file pointer and content,
+     * {@link FileChannel} is thread-safe.
+     */
+    protected final Object lock = new Object();
+
+    /**
+     * Valid locks of this channel, guarded by itself.
+     */
+    private final List<ChannelFileLock> fileLocks = new ArrayList<>();
+
+    /**
+     * Constructor.
+     *
+     * @param file the file
+     */
+    public RandomAccessFileInterfaceChannel(
+            final RandomAccessFileInterface file )
+    {
+        this.file = file;
+    }
+
+    /**
+     * Read-only view of the backing storage
+     * of the file without copy.
+     *
+     * @param position position in file, less than length of file
+     * @param maxLength maximum length of view
+     * @return view with at least one and at most
+     *         {@code maxLength} bytes remaining,
+     *         or {@code null} if not supported
+     * @throws IOException
+     */
+    protected ByteBuffer view(
+            final long position ,
+            final int maxLength )
+            throws IOException
+    {
+        return null;
+    }
+
+    /**
+     * Read-only state of the file for the check of
+     * exclusive locks, override for read-only files.
+     *
+     * @return false
+     */
+    protected boolean isReadOnly()
+    {
+        return false;
+    }
+
+    @Override
+    public int read(
+            final ByteBuffer dst )
+            throws IOException
+    {
+        ensureOpen();
+        synchronized ( this.lock )
+        {
+            final long position = this.file.getFilePointer();
+            final int lengthRead = readAt( dst , position );
+            if ( lengthRead > 0 )
+            {
+                this.file.seek( position + lengthRead );
+            }
+            return lengthRead;
+        }
+    }
+
+    @Override
+    public long read(
+            final ByteBuffer[] dsts ,
+            final int offset ,
+            final int length )
+            throws IOException
+    {
+        if ( offset < 0 || length < 0 || offset > dsts.length - length )
+        {
+            throw new IndexOutOfBoundsException();
+        }
+        ensureOpen();
+        synchronized ( this.lock )
+        {
+            long totalRead = 0;
+            for ( int i = offset ; i < offset + length ; i++ )
+            {
+                if ( ! dsts[ i ].hasRemaining() )
+                {
+                    continue;
+                }
+                final int lengthRead = read( dsts[ i ] );
+                if ( lengthRead < 0 )
+                {
+                    return totalRead == 0 ? -1 : totalRead;
+                }
+                totalRead += lengthRead;
+                if ( dsts[ i ].hasRemaining() )
+                {
+                    break;
+                }
+            }
+            return totalRead;
+        }
+    }
+
+    @Override
+    public int write(
+            final ByteBuffer src )
+            throws IOException
+    {
+        ensureOpen();
+        synchronized ( this.lock )
+        {
+            final long position = this.file.getFilePointer();
+            final int lengthWritten = writeAt( src , position );
+            this.file.seek( position + lengthWritten );
+            return lengthWritten;
+        }
+    }
+
+    @Override
+    public long write(
+            final ByteBuffer[] srcs ,
+            final int offset ,
+            final int length )
+            throws IOException
+    {
+        if ( offset < 0 || length < 0 || offset > srcs.length - length )
+        {
+            throw new IndexOutOfBoundsException();
+        }
+        ensureOpen();
+        synchronized ( this.lock )
+        {
+            long totalWritten = 0;
+            for ( int i = offset ; i < offset + length ; i++ )
+            {
+                totalWritten += write( srcs[ i ] );
+            }
+            return totalWritten;
+        }
+    }
+
+    @Override
+    public long position()
+            throws IOException
+    {
+        ensureOpen();
+        synchronized ( this.lock )
+        {
+            return this.file.getFilePointer();
+        }
+    }
+
+    @Override
+    public FileChannel position(
+            final long newPosition )
+            throws IOException
+    {
+        if ( newPosition < 0L )
+        {
+            throw new IllegalArgumentException();
+        }
+        ensureOpen();
+        synchronized ( this.lock )
+        {
+            this.file.seek( newPosition );
+            return this;
+        }
+    }
+
+    @Override
+    public long size()
+            throws IOException
+    {
+        ensureOpen();
+        synchronized ( this.lock )
+        {
+            return this.file.length();
+        }
+    }
+
+    @Override
+    public FileChannel truncate(
+            final long size )
+            throws IOException
+    {
+        if ( size < 0L )
+        {
+            throw new IllegalArgumentException( "Negative size" );
+        }
+        ensureOpen();
+        synchronized ( this.lock )
+        {
+            if ( size < this.file.length() )
+            {
+                this.file.setLength( size );
+            }
+            if ( this.file.getFilePointer() > size )
+            {
+                this.file.seek( size );
+            }
+            return this;
+        }
+    }
+
+    @Override
+    public void force(
+            final boolean metaData )
+            throws IOException
+    {
+        ensureOpen();
+        // nothing to force, writes go directly to the file
+    }
+
+    @Override
+    public long transferTo(
+            final long position ,
+            final long count ,
+            final WritableByteChannel target )
+            throws IOException
+    {
+        if ( position < 0L || count < 0L )
+        {
+            throw new IllegalArgumentException();
+        }
+        ensureOpen();
+        synchronized ( this.lock )
+        {
+            final long end = Math.min( position + count , this.file.length() );
+            long transferred = 0;
+            ByteBuffer chunk = null;
+            while ( position + transferred < end )
+            {
+                final int maxLength = (int) Math.min( end - ( position + transferred ) , Integer.MAX_VALUE );
+                ByteBuffer src = view( position + transferred , maxLength );
+                if ( src == null )
+                {
+                    if ( chunk == null )
+                    {
+                        chunk = ByteBuffer.allocate( TRANSFER_CHUNK_SIZE );
+                    }
+                    chunk.clear();
+                    if ( chunk.remaining() > maxLength )
+                    {
+                        chunk.limit( maxLength );
+                    }
+                    readAt( chunk , position + transferred );
+                    chunk.flip();
+                    src = chunk;
+                }
+                final int lengthWritten = target.write( src );
+                transferred += lengthWritten;
+                if ( src.hasRemaining() )
+                {
+                    // target not ready, like non-blocking channel
+                    break;
+                }
+            }
+            return transferred;
+        }
+    }
+
+    @Override
+    public long transferFrom(
+            final ReadableByteChannel src ,
+            final long position ,
+            final long count )
+            throws IOException
+    {
+        if ( position < 0L || count < 0L )
+        {
+            throw new IllegalArgumentException();
+        }
+        ensureOpen();
+        synchronized ( this.lock )
+        {
+            if ( position > this.file.length() )
+            {
+                return 0;
+            }
+            final ByteBuffer chunk = ByteBuffer.allocate( (int) Math.min( count , TRANSFER_CHUNK_SIZE ) );
+            long transferred = 0;
+            while ( transferred < count )
+            {
+                chunk.clear();
+                if ( chunk.remaining() > count - transferred )
+                {
+                    chunk.limit( (int) ( count - transferred ) );
+                }
+                final int lengthRead = src.read( chunk );
+                if ( lengthRead <= 0 )
+                {
+                    break;
+                }
+                chunk.flip();
+                transferred += writeAt( chunk , position + transferred );
+            }
+            return transferred;
+        }
+    }
+
+    @Override
+    public int read(
+            final ByteBuffer dst ,
+            final long position )
+            throws IOException
+    {
+        if ( position < 0L )
+        {
+            throw new IllegalArgumentException( "Negative position" );
+        }
+        ensureOpen();
+        // no lock, positional read does not use the file pointer
+        return readAt( dst , position );
+    }
+
+    @Override
+    public int write(
+            final ByteBuffer src ,
+            final long position )
+            throws IOException
+    {
+        if ( position < 0L )
+        {
+            throw new IllegalArgumentException( "Negative position" );
+        }
+        ensureOpen();
+        synchronized ( this.lock )
+        {
+            return writeAt( src , position );
+        }
+    }
+
+    /**
+     * Not supported.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public MappedByteBuffer map(
+            final MapMode mode ,
+            final long position ,
+            final long size )
+            throws IOException
+    {
+        throw new UnsupportedOperationException( "map" );
+    }
+
+    /**
+     * Acquires a lock on the given region of this channel's file,
+     * never blocks, an overlapping lock of this channel
+     * throws {@link OverlappingFileLockException}.
+     *
+     * @throws NonWritableChannelException if {@code shared} is false
+     *         and {@link #isReadOnly()}
+     */
+    @Override
+    public FileLock lock(
+            final long position ,
+            final long size ,
+            final boolean shared )
+            throws IOException
+    {
+        if ( position < 0L || size < 0L || position + size < 0L )
+        {
+            throw new IllegalArgumentException( "Negative position or size" );
+        }
+        ensureOpen();
+        if ( ! shared && isReadOnly() )
+        {
+            throw new NonWritableChannelException();
+        }
+        synchronized ( this.fileLocks )
+        {
+            // under the lock, close invalidates the locks under the same lock
+            ensureOpen();
+            for ( final ChannelFileLock fileLock : this.fileLocks )
+            {
+                if ( fileLock.overlaps( position , size ) )
+                {
+                    throw new OverlappingFileLockException();
+                }
+            }
+            final ChannelFileLock fileLock = new ChannelFileLock( position , size , shared );
+            this.fileLocks.add( fileLock );
+            return fileLock;
+        }
+    }
+
+    /**
+     * Same as {@link #lock(long, long, boolean)},
+     * which never blocks.
+     */
+    @Override
+    public FileLock tryLock(
+            final long position ,
+            final long size ,
+            final boolean shared )
+            throws IOException
+    {
+        return lock( position , size , shared );
+    }
+
+    /**
+     * Releases the locks and closes the file,
+     * like the channel of {@link java.io.RandomAccessFile}.
+     */
+    @Override
+    protected void implCloseChannel()
+            throws IOException
+    {
+        synchronized ( this.fileLocks )
+        {
+            for ( final ChannelFileLock fileLock : this.fileLocks )
+            {
+                fileLock.valid = false;
+            }
+            this.fileLocks.clear();
+        }
+        this.file.close();
+    }
+
+    /**
+     * Read at position without moving the file pointer
+     * with {@link RandomAccessFileInterface#readAt(long, byte[], int, int)}.
+     *
+     * @param dst destination buffer
+     * @param position position in file
+     * @return number of bytes read or -1 at end of file
+     * @throws IOException
+     */
+    private int readAt(
+            final ByteBuffer dst ,
+            final long position )
+            throws IOException
+    {
+        if ( ! dst.hasRemaining() )
+        {
+            return 0;
+        }
+
+        final long length = this.file.length();
+
+        if ( position >= length )
+        {
+            return -1;
+        }
+
+        final int lengthToRead = (int) Math.min( dst.remaining() , length - position );
+
+        ByteBuffer src = view( position , lengthToRead );
+
+        if ( src != null )
+        {
+            int lengthRead = 0;
+            while ( true )
+            {
+                lengthRead += src.remaining();
+                dst.put( src );
+                if ( lengthRead == lengthToRead )
+                {
+                    return lengthRead;
+                }
+                src = view( position + lengthRead , lengthToRead - lengthRead );
+            }
+        }
+
+        if ( dst.hasArray() )
+        {
+            final int lengthRead =
+                    this.file.readAt(
+                            position ,
+                            dst.array() ,
+                            dst.arrayOffset() + dst.position() ,
+                            lengthToRead );
+            if ( lengthRead > 0 )
+            {
+                dst.position( dst.position() + lengthRead );
+            }
+            return lengthRead;
+        }
+
+        final byte[] chunk = new byte[ Math.min( lengthToRead , TRANSFER_CHUNK_SIZE ) ];
+        final int lengthRead =
+                this.file.readAt(
+                        position ,
+                        chunk ,
+                        0 ,
+                        chunk.length );
+        if ( lengthRead > 0 )
+        {
+            dst.put( chunk , 0 , lengthRead );
+        }
+        return lengthRead;
+    }
+
+    /**
+     * Write at position without moving the file pointer
+     * with {@link RandomAccessFileInterface#writeAt(long, byte[], int, int)}.
+     *
+     * @param src source buffer
+     * @param position position in file
+     * @return number of bytes written
+     * @throws IOException
+     */
+    private int writeAt(
+            final ByteBuffer src ,
+            final long position )
+            throws IOException
+    {
+        final int lengthToWrite = src.remaining();
+
+        if ( src.hasArray() )
+        {
+            this.file.writeAt(
+                    position ,
+                    src.array() ,
+                    src.arrayOffset() + src.position() ,
+                    lengthToWrite );
+            src.position( src.position() + lengthToWrite );
+            return lengthToWrite;
+        }
+
+        final byte[] chunk = new byte[ Math.min( lengthToWrite , TRANSFER_CHUNK_SIZE ) ];
+        int done = 0;
+        while ( src.hasRemaining() )
+        {
+            final int chunkLength = Math.min( src.remaining() , chunk.length );
+            src.get( chunk , 0 , chunkLength );
+            this.file.writeAt(
+                    position + done ,
+                    chunk ,
+                    0 ,
+                    chunkLength );
+            done += chunkLength;
+        }
+        return lengthToWrite;
+    }
+
+    /**
+     * @throws ClosedChannelException if this channel is closed
+     */
+    private void ensureOpen()
+            throws ClosedChannelException
+    {
+        if ( ! isOpen() )
+        {
+            throw new ClosedChannelException();
+        }
+    }
+
+    /**
+     * Lock of {@link RandomAccessFileInterfaceChannel},
+     * valid until release or close of channel.
+     */
+    private class ChannelFileLock
+    extends FileLock
+    {
+        /**
+         * Valid state, guarded by {@link #fileLocks}.
+         */
+        private volatile boolean valid = true;
+
+        /**
+         * Constructor.
+         */
+        ChannelFileLock(
+                final long position ,
+                final long size ,
+                final boolean shared )
+        {
+            super( RandomAccessFileInterfaceChannel.this , position , size , shared );
+        }
+
+        @Override
+        public boolean isValid()
+        {
+            return this.valid;
+        }
+
+        @Override
+        public void release()
+                throws IOException
+        {
+            synchronized ( fileLocks )
+            {
+                if ( ! this.valid )
+                {
+                    return;
+                }
+                if ( ! channel().isOpen() )
+                {
+                    throw new ClosedChannelException();
+                }
+                this.valid = false;
+                fileLocks.remove( this );
+            }
+        }
+    }
+
+}
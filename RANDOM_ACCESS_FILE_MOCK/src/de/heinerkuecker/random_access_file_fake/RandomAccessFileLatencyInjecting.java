@@ -0,0 +1,1329 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UTFDataFormatException;
+
+/**
+ * Decorator for any {@link RandomAccessFileInterface} which
+ * injects the latency and the transfer time of a device
+ * (hard disk, SSD, network disk) into each operation,
+ * for performance tests without the real device.
+ * <br/><br/>
+ * The time of an operation is the latency of the
+ * {@link LatencyModel} (fixed, random distribution,
+ * seek-distance-dependent or a sum of them) plus
+ * the number of transferred bytes divided by the bandwidth.
+ * The model sees the end position of the previous
+ * operation as head position, so sequential access
+ * is cheaper than random access for seek models.
+ * <br/><br/>
+ * The time passes on the {@link IoClock}: a
+ * {@link VirtualIoClock} does not wait, tests run faster
+ * than real time and report the simulated time,
+ * {@link RealTimeIoClock#INSTANCE} really waits.
+ * The sum of the simulated time of this file is
+ * {@link #getSimulatedNanos()}.
+ * <br/><br/>
+ * Each method call is one operation, also {@code readInt}
+ * or {@code readLine}, {@link #seek(long)} only moves the
+ * file pointer and costs nothing, the seek time is part
+ * of the next read or write.
+ * Not thread-safe, like {@link java.io.RandomAccessFile}.
+ */
+public class RandomAccessFileLatencyInjecting
+extends RandomAccessFileForwarding
+{
+    /**
+     * Nanoseconds per second.
+     */
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /**
+     * Model of the latency of an operation.
+     */
+    private final LatencyModel latencyModel;
+
+    /**
+     * Bandwidth in bytes per second,
+     * 0 for unlimited bandwidth.
+     */
+    private final long bytesPerSecond;
+
+    /**
+     * Clock to let the simulated time pass.
+     */
+    private final IoClock clock;
+
+    /**
+     * End position of the previous operation,
+     * position of the virtual head.
+     */
+    private long headPosition;
+
+    /**
+     * Sum of simulated time in nanoseconds.
+     */
+    private long simulatedNanos;
+
+    /**
+     * Number of operations.
+     */
+    private long operationCount;
+
+    /**
+     * Number of transferred bytes.
+     */
+    private long transferredBytes;
+
+    /**
+     * Constructor.
+     *
+     * @param delegate opened file to decorate
+     * @param latencyModel model of the latency of an operation
+     * @param bytesPerSecond bandwidth in bytes per second, 0 for unlimited bandwidth
+     * @param clock clock to let the simulated time pass
+     */
+    public RandomAccessFileLatencyInjecting(
+            final RandomAccessFileInterface delegate ,
+            final LatencyModel latencyModel ,
+            final long bytesPerSecond ,
+            final IoClock clock )
+    {
+        super( delegate );
+
+        if ( bytesPerSecond < 0L )
+        {
+            throw new IllegalArgumentException( "negative bandwidth: " + bytesPerSecond );
+        }
+
+        this.latencyModel = latencyModel;
+        this.bytesPerSecond = bytesPerSecond;
+        this.clock = clock;
+    }
+
+    /**
+     * Decorate like a hard disk with 7200 rpm and 1 TB:
+     * seek 0.5 ms to 15 ms plus rotational latency
+     * 0 to 8.3 ms on random access, 150 MB/s.
+     *
+     * @param delegate opened file to decorate
+     * @param clock clock to let the simulated time pass
+     * @param seed seed of randomness of rotational latency
+     * @return decorated file
+     */
+    public static RandomAccessFileLatencyInjecting hardDisk(
+            final RandomAccessFileInterface delegate ,
+            final IoClock clock ,
+            final long seed )
+    {
+        return new RandomAccessFileLatencyInjecting(
+                delegate ,
+                LatencyModel.seekDistance(
+                        //minSeekNanos
+                        500_000L ,
+                        //maxSeekNanos
+                        15_000_000L ,
+                        //maxSeekDistance
+                        1_000_000_000_000L ).plus(
+                                LatencyModel.uniform(
+                                        0L ,
+                                        // one revolution at 7200 rpm
+                                        8_333_333L ,
+                                        seed ).onSeekOnly() ) ,
+                150_000_000L ,
+                clock );
+    }
+
+    /**
+     * Decorate like a SATA SSD: 100 µs per read,
+     * 30 µs per write, 500 MB/s.
+     *
+     * @param delegate opened file to decorate
+     * @param clock clock to let the simulated time pass
+     * @return decorated file
+     */
+    public static RandomAccessFileLatencyInjecting solidStateDisk(
+            final RandomAccessFileInterface delegate ,
+            final IoClock clock )
+    {
+        return new RandomAccessFileLatencyInjecting(
+                delegate ,
+                LatencyModel.fixed(
+                        //readNanos
+                        100_000L ,
+                        //writeNanos
+                        30_000L ) ,
+                500_000_000L ,
+                clock );
+    }
+
+    /**
+     * Decorate like a network disk over 1 Gbit/s:
+     * 0.5 ms round trip plus exponential distributed
+     * queueing delay with mean 0.5 ms, 125 MB/s.
+     *
+     * @param delegate opened file to decorate
+     * @param clock clock to let the simulated time pass
+     * @param seed seed of randomness of queueing delay
+     * @return decorated file
+     */
+    public static RandomAccessFileLatencyInjecting networkDisk(
+            final RandomAccessFileInterface delegate ,
+            final IoClock clock ,
+            final long seed )
+    {
+        return new RandomAccessFileLatencyInjecting(
+                delegate ,
+                LatencyModel.fixed( 500_000L ).plus(
+                        LatencyModel.exponential(
+                                500_000L ,
+                                seed ) ) ,
+                125_000_000L ,
+                clock );
+    }
+
+    /**
+     * @return sum of simulated time of the operations on this file in nanoseconds
+     */
+    public long getSimulatedNanos()
+    {
+        return this.simulatedNanos;
+    }
+
+    /**
+     * @return number of operations on this file
+     */
+    public long getOperationCount()
+    {
+        return this.operationCount;
+    }
+
+    /**
+     * @return number of bytes transferred by the operations on this file
+     */
+    public long getTransferredBytes()
+    {
+        return this.transferredBytes;
+    }
+
+    /**
+     * Set all counters to zero.
+     */
+    public void resetCounters()
+    {
+        this.simulatedNanos = 0;
+        this.operationCount = 0;
+        this.transferredBytes = 0;
+    }
+
+    /**
+     * Reads a byte of data from this file. The byte is returned as an
+     * integer in the range 0 to 255 ({@code 0x00-0x0ff}). This
+     * method blocks if no input is yet available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the same
+     * way as the {@link InputStream#read()} method of
+     * {@code InputStream}.
+     *
+     * @return     the next byte of data, or {@code -1} if the end of the
+     *             file has been reached.
+     * @exception  IOException  if an I/O error occurs. Not thrown if
+     *                          end-of-file has been reached.
+     */
+    @Override
+    public int read()
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        final int result = this.delegate.read();
+        elapseSequential( pos , false );
+        return result;
+    }
+
+    /**
+     * Reads up to {@code len} bytes of data from this file into an
+     * array of bytes. This method blocks until at least one byte of input
+     * is available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the
+     * same way as the {@link InputStream#read(byte[], int, int)} method of
+     * {@code InputStream}.
+     *
+     * @param      b     the buffer into which the data is read.
+     * @param      off   the start offset in array {@code b}
+     *                   at which the data is written.
+     * @param      len   the maximum number of bytes read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if there is no more data because the end of
+     *             the file has been reached.
+     * @exception  IOException If the first byte cannot be read for any reason
+     * other than end of file, or if the random access file has been closed, or if
+     * some other I/O error occurs.
+     * @exception  NullPointerException If {@code b} is {@code null}.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public int read(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        final int result = this.delegate.read( b , off , len );
+        elapseSequential( pos , false );
+        return result;
+    }
+
+    /**
+     * Reads up to {@code b.length} bytes of data from this file
+     * into an array of bytes. This method blocks until at least one byte
+     * of input is available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the
+     * same way as the {@link InputStream#read(byte[])} method of
+     * {@code InputStream}.
+     *
+     * @param      b   the buffer into which the data is read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if there is no more data because the end of
+     *             this file has been reached.
+     * @exception  IOException If the first byte cannot be read for any reason
+     * other than end of file, or if the random access file has been closed, or if
+     * some other I/O error occurs.
+     * @exception  NullPointerException If {@code b} is {@code null}.
+     */
+    @Override
+    public int read(
+            final byte[] b )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        final int result = this.delegate.read( b );
+        elapseSequential( pos , false );
+        return result;
+    }
+
+    /**
+     * Reads up to {@code len} bytes of data from this file, starting
+     * at the specified position, into an array of bytes.
+     * The file pointer is not changed, so concurrent positional
+     * reads need no seek under a lock, like {@code pread}.
+     *
+     * @param      pos   the position in the file at which the read starts.
+     * @param      b     the buffer into which the data is read.
+     * @param      off   the start offset in array {@code b}
+     *                   at which the data is written.
+     * @param      len   the maximum number of bytes read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if {@code pos} is at or behind the end
+     *             of the file.
+     * @exception  IOException If {@code pos} is negative, the file has been
+     *             closed or some other I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public int readAt(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final int lengthRead = this.delegate.readAt( pos , b , off , len );
+        elapse(
+                pos ,
+                Math.max( lengthRead , 0 ) ,
+                false );
+        return lengthRead;
+    }
+
+    /**
+     * Reads {@code b.length} bytes from this file into the byte
+     * array, starting at the current file pointer. This method reads
+     * repeatedly from the file until the requested number of bytes are
+     * read. This method blocks until the requested number of bytes are
+     * read, the end of the stream is detected, or an exception is thrown.
+     *
+     * @param   b   the buffer into which the data is read.
+     * @throws  NullPointerException if {@code b} is {@code null}.
+     * @throws  EOFException  if this file reaches the end before reading
+     *              all the bytes.
+     * @throws  IOException   if an I/O error occurs.
+     */
+    @Override
+    public void readFully(
+            final byte[] b )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        this.delegate.readFully( b );
+        elapseSequential( pos , false );
+    }
+
+    /**
+     * Reads exactly {@code len} bytes from this file into the byte
+     * array, starting at the current file pointer. This method reads
+     * repeatedly from the file until the requested number of bytes are
+     * read. This method blocks until the requested number of bytes are
+     * read, the end of the stream is detected, or an exception is thrown.
+     *
+     * @param   b     the buffer into which the data is read.
+     * @param   off   the start offset into the data array {@code b}.
+     * @param   len   the number of bytes to read.
+     * @throws  NullPointerException if {@code b} is {@code null}.
+     * @throws  IndexOutOfBoundsException if {@code off} is negative,
+     *                {@code len} is negative, or {@code len} is greater than
+     *                {@code b.length - off}.
+     * @throws  EOFException  if this file reaches the end before reading
+     *                all the bytes.
+     * @throws  IOException   if an I/O error occurs.
+     */
+    @Override
+    public void readFully(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        this.delegate.readFully( b , off , len );
+        elapseSequential( pos , false );
+    }
+
+    /**
+     * Attempts to skip over {@code n} bytes of input discarding the
+     * skipped bytes.
+     * <p>
+     *
+     * This method may skip over some smaller number of bytes, possibly zero.
+     * This may result from any of a number of conditions; reaching end of
+     * file before {@code n} bytes have been skipped is only one
+     * possibility. This method never throws an {@code EOFException}.
+     * The actual number of bytes skipped is returned.  If {@code n}
+     * is negative, no bytes are skipped.
+     *
+     * @param      n   the number of bytes to be skipped.
+     * @return     the actual number of bytes skipped.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public int skipBytes(
+            final int n )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        final int result = this.delegate.skipBytes( n );
+        elapseSequential( pos , false );
+        return result;
+    }
+
+    /**
+     * Writes the specified byte to this file. The write starts at
+     * the current file pointer.
+     *
+     * @param      b   the {@code byte} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final int b )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        this.delegate.write( b );
+        elapseSequential( pos , true );
+    }
+
+    /**
+     * Writes {@code b.length} bytes from the specified byte array
+     * to this file, starting at the current file pointer.
+     *
+     * @param      b   the data.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final byte[] b )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        this.delegate.write( b );
+        elapseSequential( pos , true );
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array
+     * starting at offset {@code off} to this file.
+     *
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        this.delegate.write( b , off , len );
+        elapseSequential( pos , true );
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array
+     * starting at offset {@code off} to this file at the specified
+     * position. The file pointer is not changed, like {@code pwrite}.
+     * The file grows if the written range exceeds the end.
+     *
+     * @param      pos   the position in the file at which the write starts.
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException If {@code pos} is negative, the file has been
+     *             closed or some other I/O error occurs.
+     */
+    @Override
+    public void writeAt(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        this.delegate.writeAt( pos , b , off , len );
+        elapse(
+                pos ,
+                len ,
+                true );
+    }
+
+    /**
+     * Sets the length of this file.
+     *
+     * <p> If the present length of the file as returned by the
+     * {@code length} method is greater than the {@code newLength}
+     * argument then the file will be truncated.  In this case, if the file
+     * offset as returned by the {@code getFilePointer} method is greater
+     * than {@code newLength} then after this method returns the offset
+     * will be equal to {@code newLength}.
+     *
+     * <p> If the present length of the file as returned by the
+     * {@code length} method is smaller than the {@code newLength}
+     * argument then the file will be extended.  In this case, the contents of
+     * the extended portion of the file are not defined.
+     *
+     * @param      newLength    The desired length of the file
+     * @exception  IOException  If an I/O error occurs
+     * @since      1.2
+     */
+    @Override
+    public void setLength(
+            final long newLength )
+            throws IOException
+    {
+        this.delegate.setLength( newLength );
+        // metadata operation without transfer and seek
+        elapse(
+                this.headPosition ,
+                0L ,
+                true );
+    }
+
+    /**
+     * Reads a {@code boolean} from this file. This method reads a
+     * single byte from the file, starting at the current file pointer.
+     * A value of {@code 0} represents
+     * {@code false}. Any other value represents {@code true}.
+     * This method blocks until the byte is read, the end of the stream
+     * is detected, or an exception is thrown.
+     *
+     * @return     the {@code boolean} value read.
+     * @exception  EOFException  if this file has reached the end.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public boolean readBoolean()
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        final boolean result = this.delegate.readBoolean();
+        elapseSequential( pos , false );
+        return result;
+    }
+
+    /**
+     * Reads a signed eight-bit value from this file. This method reads a
+     * byte from the file, starting from the current file pointer.
+     * If the byte read is {@code b}, where
+     * <code>0&nbsp;&lt;=&nbsp;b&nbsp;&lt;=&nbsp;255</code>,
+     * then the result is:
+     * <blockquote><pre>
+     *     (byte)(b)
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the byte is read, the end of the stream
+     * is detected, or an exception is thrown.
+     *
+     * @return     the next byte of this file as a signed eight-bit
+     *             {@code byte}.
+     * @exception  EOFException  if this file has reached the end.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public byte readByte()
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        final byte result = this.delegate.readByte();
+        elapseSequential( pos , false );
+        return result;
+    }
+
+    /**
+     * Reads an unsigned eight-bit number from this file. This method reads
+     * a byte from this file, starting at the current file pointer,
+     * and returns that byte.
+     * <p>
+     * This method blocks until the byte is read, the end of the stream
+     * is detected, or an exception is thrown.
+     *
+     * @return     the next byte of this file, interpreted as an unsigned
+     *             eight-bit number.
+     * @exception  EOFException  if this file has reached the end.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public int readUnsignedByte()
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        final int result = this.delegate.readUnsignedByte();
+        elapseSequential( pos , false );
+        return result;
+    }
+
+    /**
+     * Reads a signed 16-bit number from this file. The method reads two
+     * bytes from this file, starting at the current file pointer.
+     * If the two bytes read, in order, are
+     * {@code b1} and {@code b2}, where each of the two values is
+     * between {@code 0} and {@code 255}, inclusive, then the
+     * result is equal to:
+     * <blockquote><pre>
+     *     (short)((b1 &lt;&lt; 8) | b2)
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the two bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next two bytes of this file, interpreted as a signed
+     *             16-bit number.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               two bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public short readShort()
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        final short result = this.delegate.readShort();
+        elapseSequential( pos , false );
+        return result;
+    }
+
+    /**
+     * Reads an unsigned 16-bit number from this file. This method reads
+     * two bytes from the file, starting at the current file pointer.
+     * If the bytes read, in order, are
+     * {@code b1} and {@code b2}, where
+     * <code>0&nbsp;&lt;=&nbsp;b1, b2&nbsp;&lt;=&nbsp;255</code>,
+     * then the result is equal to:
+     * <blockquote><pre>
+     *     (b1 &lt;&lt; 8) | b2
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the two bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next two bytes of this file, interpreted as an unsigned
+     *             16-bit integer.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               two bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public int readUnsignedShort()
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        final int result = this.delegate.readUnsignedShort();
+        elapseSequential( pos , false );
+        return result;
+    }
+
+    /**
+     * Reads a character from this file. This method reads two
+     * bytes from the file, starting at the current file pointer.
+     * If the bytes read, in order, are
+     * {@code b1} and {@code b2}, where
+     * <code>0&nbsp;&lt;=&nbsp;b1,&nbsp;b2&nbsp;&lt;=&nbsp;255</code>,
+     * then the result is equal to:
+     * <blockquote><pre>
+     *     (char)((b1 &lt;&lt; 8) | b2)
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the two bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next two bytes of this file, interpreted as a
+     *                  {@code char}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               two bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public char readChar()
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        final char result = this.delegate.readChar();
+        elapseSequential( pos , false );
+        return result;
+    }
+
+    /**
+     * Reads a signed 32-bit integer from this file. This method reads 4
+     * bytes from the file, starting at the current file pointer.
+     * If the bytes read, in order, are {@code b1},
+     * {@code b2}, {@code b3}, and {@code b4}, where
+     * <code>0&nbsp;&lt;=&nbsp;b1, b2, b3, b4&nbsp;&lt;=&nbsp;255</code>,
+     * then the result is equal to:
+     * <blockquote><pre>
+     *     (b1 &lt;&lt; 24) | (b2 &lt;&lt; 16) + (b3 &lt;&lt; 8) + b4
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the four bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next four bytes of this file, interpreted as an
+     *             {@code int}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               four bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public int readInt()
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        final int result = this.delegate.readInt();
+        elapseSequential( pos , false );
+        return result;
+    }
+
+    /**
+     * Reads a signed 64-bit integer from this file. This method reads eight
+     * bytes from the file, starting at the current file pointer.
+     * If the bytes read, in order, are
+     * {@code b1}, {@code b2}, {@code b3},
+     * {@code b4}, {@code b5}, {@code b6},
+     * {@code b7}, and {@code b8,} where:
+     * <blockquote><pre>
+     *     0 &lt;= b1, b2, b3, b4, b5, b6, b7, b8 &lt;=255,
+     * </pre></blockquote>
+     * <p>
+     * then the result is equal to:
+     * <blockquote><pre>
+     *     ((long)b1 &lt;&lt; 56) + ((long)b2 &lt;&lt; 48)
+     *     + ((long)b3 &lt;&lt; 40) + ((long)b4 &lt;&lt; 32)
+     *     + ((long)b5 &lt;&lt; 24) + ((long)b6 &lt;&lt; 16)
+     *     + ((long)b7 &lt;&lt; 8) + b8
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the eight bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next eight bytes of this file, interpreted as a
+     *             {@code long}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               eight bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public long readLong()
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        final long result = this.delegate.readLong();
+        elapseSequential( pos , false );
+        return result;
+    }
+
+    /**
+     * Reads a {@code float} from this file. This method reads an
+     * {@code int} value, starting at the current file pointer,
+     * as if by the {@code readInt} method
+     * and then converts that {@code int} to a {@code float}
+     * using the {@code intBitsToFloat} method in class
+     * {@code Float}.
+     * <p>
+     * This method blocks until the four bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next four bytes of this file, interpreted as a
+     *             {@code float}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *             four bytes.
+     * @exception  IOException   if an I/O error occurs.
+     * @see        java.io.RandomAccessFile#readInt()
+     * @see        java.lang.Float#intBitsToFloat(int)
+     */
+    @Override
+    public float readFloat()
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        final float result = this.delegate.readFloat();
+        elapseSequential( pos , false );
+        return result;
+    }
+
+    /**
+     * Reads a {@code double} from this file. This method reads a
+     * {@code long} value, starting at the current file pointer,
+     * as if by the {@code readLong} method
+     * and then converts that {@code long} to a {@code double}
+     * using the {@code longBitsToDouble} method in
+     * class {@code Double}.
+     * <p>
+     * This method blocks until the eight bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next eight bytes of this file, interpreted as a
+     *             {@code double}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *             eight bytes.
+     * @exception  IOException   if an I/O error occurs.
+     * @see        java.io.RandomAccessFile#readLong()
+     * @see        java.lang.Double#longBitsToDouble(long)
+     */
+    @Override
+    public double readDouble()
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        final double result = this.delegate.readDouble();
+        elapseSequential( pos , false );
+        return result;
+    }
+
+    /**
+     * Reads the next line of text from this file.  This method successively
+     * reads bytes from the file, starting at the current file pointer,
+     * until it reaches a line terminator or the end
+     * of the file.  Each byte is converted into a character by taking the
+     * byte's value for the lower eight bits of the character and setting the
+     * high eight bits of the character to zero.  This method does not,
+     * therefore, support the full Unicode character set.
+     *
+     * <p> A line of text is terminated by a carriage-return character
+     * ({@code '\u005Cr'}), a newline character ({@code '\u005Cn'}), a
+     * carriage-return character immediately followed by a newline character,
+     * or the end of the file.  Line-terminating characters are discarded and
+     * are not included as part of the string returned.
+     *
+     * <p> This method blocks until a newline character is read, a carriage
+     * return and the byte following it are read (to see if it is a newline),
+     * the end of the file is reached, or an exception is thrown.
+     *
+     * @return     the next line of text from this file, or null if end
+     *             of file is encountered before even one byte is read.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public String readLine()
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        final String result = this.delegate.readLine();
+        elapseSequential( pos , false );
+        return result;
+    }
+
+    /**
+     * Reads in a string from this file. The string has been encoded
+     * using a
+     * <a href="DataInput.html#modified-utf-8">modified UTF-8</a>
+     * format.
+     * <p>
+     * The first two bytes are read, starting from the current file
+     * pointer, as if by
+     * {@code readUnsignedShort}. This value gives the number of
+     * following bytes that are in the encoded string, not
+     * the length of the resulting string. The following bytes are then
+     * interpreted as bytes encoding characters in the modified UTF-8 format
+     * and are converted into characters.
+     * <p>
+     * This method blocks until all the bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     a Unicode string.
+     * @exception  EOFException            if this file reaches the end before
+     *               reading all the bytes.
+     * @exception  IOException             if an I/O error occurs.
+     * @exception  UTFDataFormatException  if the bytes do not represent
+     *               valid modified UTF-8 encoding of a Unicode string.
+     * @see        java.io.RandomAccessFile#readUnsignedShort()
+     */
+    @Override
+    public String readUTF()
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        final String result = this.delegate.readUTF();
+        elapseSequential( pos , false );
+        return result;
+    }
+
+    /**
+     * Writes a {@code boolean} to the file as a one-byte value. The
+     * value {@code true} is written out as the value
+     * {@code (byte)1}; the value {@code false} is written out
+     * as the value {@code (byte)0}. The write starts at
+     * the current position of the file pointer.
+     *
+     * @param      v   a {@code boolean} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeBoolean(
+            final boolean v )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        this.delegate.writeBoolean( v );
+        elapseSequential( pos , true );
+    }
+
+    /**
+     * Writes a {@code byte} to the file as a one-byte value. The
+     * write starts at the current position of the file pointer.
+     *
+     * @param      v   a {@code byte} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeByte(
+            final int v )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        this.delegate.writeByte( v );
+        elapseSequential( pos , true );
+    }
+
+    /**
+     * Writes a {@code short} to the file as two bytes, high byte first.
+     * The write starts at the current position of the file pointer.
+     *
+     * @param      v   a {@code short} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeShort(
+            final int v )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        this.delegate.writeShort( v );
+        elapseSequential( pos , true );
+    }
+
+    /**
+     * Writes a {@code char} to the file as a two-byte value, high
+     * byte first. The write starts at the current position of the
+     * file pointer.
+     *
+     * @param      v   a {@code char} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeChar(
+            final int v )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        this.delegate.writeChar( v );
+        elapseSequential( pos , true );
+    }
+
+    /**
+     * Writes an {@code int} to the file as four bytes, high byte first.
+     * The write starts at the current position of the file pointer.
+     *
+     * @param      v   an {@code int} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeInt(
+            final int v )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        this.delegate.writeInt( v );
+        elapseSequential( pos , true );
+    }
+
+    /**
+     * Writes a {@code long} to the file as eight bytes, high byte first.
+     * The write starts at the current position of the file pointer.
+     *
+     * @param      v   a {@code long} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeLong(
+            final long v )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        this.delegate.writeLong( v );
+        elapseSequential( pos , true );
+    }
+
+    /**
+     * Converts the float argument to an {@code int} using the
+     * {@code floatToIntBits} method in class {@code Float},
+     * and then writes that {@code int} value to the file as a
+     * four-byte quantity, high byte first. The write starts at the
+     * current position of the file pointer.
+     *
+     * @param      v   a {@code float} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.lang.Float#floatToIntBits(float)
+     */
+    @Override
+    public void writeFloat(
+            final float v )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        this.delegate.writeFloat( v );
+        elapseSequential( pos , true );
+    }
+
+    /**
+     * Converts the double argument to a {@code long} using the
+     * {@code doubleToLongBits} method in class {@code Double},
+     * and then writes that {@code long} value to the file as an
+     * eight-byte quantity, high byte first. The write starts at the current
+     * position of the file pointer.
+     *
+     * @param      v   a {@code double} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.lang.Double#doubleToLongBits(double)
+     */
+    @Override
+    public void writeDouble(
+            final double v )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        this.delegate.writeDouble( v );
+        elapseSequential( pos , true );
+    }
+
+    /**
+     * Writes the string to the file as a sequence of bytes. Each
+     * character in the string is written out, in sequence, by discarding
+     * its high eight bits. The write starts at the current position of
+     * the file pointer.
+     *
+     * @param      s   a string of bytes to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeBytes(
+            final String s )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        this.delegate.writeBytes( s );
+        elapseSequential( pos , true );
+    }
+
+    /**
+     * Writes a string to the file as a sequence of characters. Each
+     * character is written to the data output stream as if by the
+     * {@code writeChar} method. The write starts at the current
+     * position of the file pointer.
+     *
+     * @param      s   a {@code String} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.io.RandomAccessFile#writeChar(int)
+     */
+    @Override
+    public void writeChars(
+            final String s )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        this.delegate.writeChars( s );
+        elapseSequential( pos , true );
+    }
+
+    /**
+     * Writes a string to the file using
+     * <a href="DataInput.html#modified-utf-8">modified UTF-8</a>
+     * encoding in a machine-independent manner.
+     * <p>
+     * First, two bytes are written to the file, starting at the
+     * current file pointer, as if by the
+     * {@code writeShort} method giving the number of bytes to
+     * follow. This value is the number of bytes actually written out,
+     * not the length of the string. Following the length, each character
+     * of the string is output, in sequence, using the modified UTF-8 encoding
+     * for each character.
+     *
+     * @param      str   a string to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeUTF(
+            final String str )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        this.delegate.writeUTF( str );
+        elapseSequential( pos , true );
+    }
+
+    /**
+     * Reads {@code len} int values from this file into the array,
+     * each as four bytes high byte first, like {@code readInt}
+     * in a loop, but as one bulk transfer.
+     *
+     * @param      b     the array into which the values are read.
+     * @param      off   the start offset in array {@code b}.
+     * @param      len   the number of values to read.
+     * @exception  EOFException  if this file reaches the end before reading
+     *             all values.
+     * @exception  IOException   if an I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public void readInts(
+            final int[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        this.delegate.readInts( b , off , len );
+        elapseSequential( pos , false );
+    }
+
+    /**
+     * Writes {@code len} int values from the array to this file,
+     * each as four bytes high byte first, like {@code writeInt}
+     * in a loop, but as one bulk transfer.
+     *
+     * @param      b     the values.
+     * @param      off   the start offset in array {@code b}.
+     * @param      len   the number of values to write.
+     * @exception  IOException  if an I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public void writeInts(
+            final int[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        this.delegate.writeInts( b , off , len );
+        elapseSequential( pos , true );
+    }
+
+    /**
+     * Reads {@code len} long values from this file into the array,
+     * each as eight bytes high byte first, like {@code readLong}
+     * in a loop, but as one bulk transfer.
+     *
+     * @param      b     the array into which the values are read.
+     * @param      off   the start offset in array {@code b}.
+     * @param      len   the number of values to read.
+     * @exception  EOFException  if this file reaches the end before reading
+     *             all values.
+     * @exception  IOException   if an I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public void readLongs(
+            final long[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        this.delegate.readLongs( b , off , len );
+        elapseSequential( pos , false );
+    }
+
+    /**
+     * Writes {@code len} long values from the array to this file,
+     * each as eight bytes high byte first, like {@code writeLong}
+     * in a loop, but as one bulk transfer.
+     *
+     * @param      b     the values.
+     * @param      off   the start offset in array {@code b}.
+     * @param      len   the number of values to write.
+     * @exception  IOException  if an I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public void writeLongs(
+            final long[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        this.delegate.writeLongs( b , off , len );
+        elapseSequential( pos , true );
+    }
+
+    /**
+     * Reads {@code len} double values from this file into the array,
+     * each as eight bytes high byte first, like {@code readDouble}
+     * in a loop, but as one bulk transfer.
+     *
+     * @param      b     the array into which the values are read.
+     * @param      off   the start offset in array {@code b}.
+     * @param      len   the number of values to read.
+     * @exception  EOFException  if this file reaches the end before reading
+     *             all values.
+     * @exception  IOException   if an I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public void readDoubles(
+            final double[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        this.delegate.readDoubles( b , off , len );
+        elapseSequential( pos , false );
+    }
+
+    /**
+     * Writes {@code len} double values from the array to this file,
+     * each as eight bytes high byte first, like {@code writeDouble}
+     * in a loop, but as one bulk transfer.
+     * NaN values are written canonical like
+     * {@link java.lang.Double#doubleToLongBits(double)}.
+     *
+     * @param      b     the values.
+     * @param      off   the start offset in array {@code b}.
+     * @param      len   the number of values to write.
+     * @exception  IOException  if an I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public void writeDoubles(
+            final double[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final long pos = this.delegate.getFilePointer();
+        this.delegate.writeDoubles( b , off , len );
+        elapseSequential( pos , true );
+    }
+
+    /**
+     * Let the time of an operation at the
+     * file pointer pass, the operation started
+     * at the specified position and ended at the
+     * current file pointer.
+     *
+     * @param pos file pointer before the operation
+     * @param write {@code true} for a write, {@code false} for a read
+     * @throws IOException
+     */
+    private void elapseSequential(
+            final long pos ,
+            final boolean write )
+            throws IOException
+    {
+        elapse(
+                pos ,
+                this.delegate.getFilePointer() - pos ,
+                write );
+    }
+
+    /**
+     * Let the time of an operation pass.
+     *
+     * @param pos start position of the operation
+     * @param len number of transferred bytes
+     * @param write {@code true} for a write, {@code false} for a read
+     * @throws IOException if the waiting thread is interrupted
+     */
+    private void elapse(
+            final long pos ,
+            final long len ,
+            final boolean write )
+            throws IOException
+    {
+        long nanos =
+                this.latencyModel.latencyNanos(
+                        this.headPosition ,
+                        pos ,
+                        len ,
+                        write );
+
+        if ( this.bytesPerSecond > 0L && len > 0L )
+        {
+            // double, because len * NANOS_PER_SECOND may overflow
+            nanos += (long) ( (double) len * NANOS_PER_SECOND / this.bytesPerSecond );
+        }
+
+        this.headPosition = pos + len;
+        this.simulatedNanos += nanos;
+        this.operationCount++;
+        this.transferredBytes += len;
+
+        this.clock.elapse( nanos );
+    }
+
+}
@@ -0,0 +1,850 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+
+/**
+ * Implementation of {@link RandomAccessFileInterface}
+ * for real files with {@link MappedByteBuffer}s.
+ * <br/><br/>
+ * Reads and writes go to the mapped memory without
+ * a system call. The file is mapped in chunks, so files
+ * beyond 2 GB are supported. On growth the capacity of the
+ * file is enlarged geometric and only the last chunk is
+ * remapped, {@link #close()} truncates the file to its
+ * logical length.
+ */
+public class RandomAccessFileMemoryMapped
+extends RandomAccessFileAbstractImplementation
+{
+    /**
+     * Default size of one mapped chunk 1 GiB.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 30;
+
+    /**
+     * Minimum capacity of file after growing.
+     */
+    private static final long MIN_GROWN_CAPACITY = 64 * 1024;
+
+    /**
+     * The file.
+     */
+    private final RandomAccessFile randomAccessFile;
+
+    /**
+     * Channel of {@link #randomAccessFile} for mapping.
+     */
+    private final FileChannel fileChannel;
+
+    /**
+     * Writable mode, not "r".
+     */
+    private final boolean writable;
+
+    /**
+     * Size of one mapped chunk, power of two.
+     */
+    private final int chunkSize;
+
+    /**
+     * Number of bits to shift a position
+     * to get the chunk index.
+     */
+    private final int chunkShift;
+
+    /**
+     * Mask to get the offset in chunk
+     * from a position.
+     */
+    private final int chunkMask;
+
+    /**
+     * Mapped chunks, covering {@link #capacity}.
+     */
+    private MappedByteBuffer[] chunks = new MappedByteBuffer[ 0 ];
+
+    /**
+     * Mapped size of file in bytes.
+     */
+    private long capacity;
+
+    /**
+     * Logical length of file.
+     */
+    private long length;
+
+    /**
+     * File pointer.
+     * Current position in file.
+     */
+    private long filePointer;
+
+    /**
+     * Closed state.
+     */
+    private boolean closed;
+
+    /**
+     * Constructor.
+     *
+     * @param file
+     * @param mode like {@link RandomAccessFile#RandomAccessFile(File, String)}
+     * @throws IOException
+     */
+    public RandomAccessFileMemoryMapped(
+            final File file ,
+            final String mode )
+            throws IOException
+    {
+        this( file , mode , DEFAULT_CHUNK_SIZE );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param name
+     * @param mode like {@link RandomAccessFile#RandomAccessFile(String, String)}
+     * @throws IOException
+     */
+    public RandomAccessFileMemoryMapped(
+            final String name ,
+            final String mode )
+            throws IOException
+    {
+        this( new File( name ) , mode , DEFAULT_CHUNK_SIZE );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param file
+     * @param mode like {@link RandomAccessFile#RandomAccessFile(File, String)}
+     * @param chunkSize size of one mapped chunk, must be a power of two
+     * @throws IOException
+     */
+    public RandomAccessFileMemoryMapped(
+            final File file ,
+            final String mode ,
+            final int chunkSize )
+            throws IOException
+    {
+        if ( chunkSize < 1 || Integer.bitCount( chunkSize ) != 1 )
+        {
+            throw new IllegalArgumentException( "chunk size is not a power of two: " + chunkSize );
+        }
+
+        this.chunkSize = chunkSize;
+        this.chunkShift = Integer.numberOfTrailingZeros( chunkSize );
+        this.chunkMask = chunkSize - 1;
+
+        this.randomAccessFile = new RandomAccessFile( file , mode );
+        this.fileChannel = this.randomAccessFile.getChannel();
+        this.writable = ! "r".equals( mode );
+
+        this.length = this.randomAccessFile.length();
+        remap( this.length );
+    }
+
+    /**
+     * Force written content of mapped
+     * memory to the storage device.
+     *
+     * @throws IOException
+     */
+    public void force()
+            throws IOException
+    {
+        ensureOpen();
+
+        for ( final MappedByteBuffer chunk : this.chunks )
+        {
+            chunk.force();
+        }
+    }
+
+    /**
+     * Reads a byte of data from this file. The byte is returned as an
+     * integer in the range 0 to 255 ({@code 0x00-0x0ff}). This
+     * method blocks if no input is yet available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the same
+     * way as the {@link InputStream#read()} method of
+     * {@code InputStream}.
+     *
+     * @return     the next byte of data, or {@code -1} if the end of the
+     *             file has been reached.
+     * @exception  IOException  if an I/O error occurs. Not thrown if
+     *                          end-of-file has been reached.
+     */
+    @Override
+    public int read()
+            throws IOException
+    {
+        ensureOpen();
+
+        if ( this.filePointer >= this.length )
+        {
+            return -1;
+        }
+
+        final int b =
+                this.chunks[ (int) ( this.filePointer >>> this.chunkShift ) ].get(
+                        (int) this.filePointer & this.chunkMask ) & 0xFF;
+
+        this.filePointer++;
+        return b;
+    }
+
+    /**
+     * Reads up to {@code len} bytes of data from this file into an
+     * array of bytes. This method blocks until at least one byte of input
+     * is available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the
+     * same way as the {@link InputStream#read(byte[], int, int)} method of
+     * {@code InputStream}.
+     *
+     * @param      b     the buffer into which the data is read.
+     * @param      off   the start offset in array {@code b}
+     *                   at which the data is written.
+     * @param      len   the maximum number of bytes read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if there is no more data because the end of
+     *             the file has been reached.
+     * @exception  IOException If the first byte cannot be read for any reason
+     * other than end of file, or if the random access file has been closed, or if
+     * some other I/O error occurs.
+     * @exception  NullPointerException If {@code b} is {@code null}.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public int read(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final int lengthRead =
+                readAt(
+                        this.filePointer ,
+                        b ,
+                        off ,
+                        len );
+
+        if ( lengthRead > 0 )
+        {
+            this.filePointer += lengthRead;
+        }
+
+        return lengthRead;
+    }
+
+    /**
+     * Reads up to {@code len} bytes of data from this file, starting
+     * at the specified position, into an array of bytes.
+     * The file pointer is not changed, so concurrent positional
+     * reads need no seek under a lock, like {@code pread}.
+     *
+     * @param      pos   the position in the file at which the read starts.
+     * @param      b     the buffer into which the data is read.
+     * @param      off   the start offset in array {@code b}
+     *                   at which the data is written.
+     * @param      len   the maximum number of bytes read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if {@code pos} is at or behind the end
+     *             of the file.
+     * @exception  IOException If {@code pos} is negative, the file has been
+     *             closed or some other I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public int readAt(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        ensureOpen();
+
+        if ( pos < 0L )
+        {
+            throw new IOException( "Negative position" );
+        }
+
+        if ( off < 0 || len < 0 || len > b.length - off )
+        {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if ( len == 0 )
+        {
+            return 0;
+        }
+
+        if ( pos >= this.length )
+        {
+            return -1;
+        }
+
+        final int lengthToRead = (int) Math.min( len , this.length - pos );
+
+        int done = 0;
+        while ( done < lengthToRead )
+        {
+            final long currentPos = pos + done;
+            final int offsetInChunk = (int) currentPos & this.chunkMask;
+            final int chunkLength = Math.min( lengthToRead - done , this.chunkSize - offsetInChunk );
+
+            // duplicate for own position, concurrent readers
+            final MappedByteBuffer chunk = this.chunks[ (int) ( currentPos >>> this.chunkShift ) ];
+            final ByteBuffer chunkView = chunk.duplicate();
+            chunkView.position( offsetInChunk );
+            chunkView.get( b , off + done , chunkLength );
+
+            done += chunkLength;
+        }
+
+        return lengthToRead;
+    }
+
+    /**
+     * Writes the specified byte to this file. The write starts at
+     * the current file pointer.
+     *
+     * @param      b   the {@code byte} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final int b )
+            throws IOException
+    {
+        prepareWrite( this.filePointer , 1 );
+
+        this.chunks[ (int) ( this.filePointer >>> this.chunkShift ) ].put(
+                (int) this.filePointer & this.chunkMask ,
+                (byte) b );
+
+        this.filePointer++;
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array
+     * starting at offset {@code off} to this file.
+     *
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        writeAt(
+                this.filePointer ,
+                b ,
+                off ,
+                len );
+
+        this.filePointer += len;
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array
+     * starting at offset {@code off} to this file at the specified
+     * position. The file pointer is not changed, like {@code pwrite}.
+     * The file grows if the written range exceeds the end.
+     *
+     * @param      pos   the position in the file at which the write starts.
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException If {@code pos} is negative, the file has been
+     *             closed or some other I/O error occurs.
+     */
+    @Override
+    public void writeAt(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        if ( pos < 0L )
+        {
+            throw new IOException( "Negative position" );
+        }
+
+        if ( off < 0 || len < 0 || len > b.length - off )
+        {
+            throw new IndexOutOfBoundsException();
+        }
+
+        prepareWrite( pos , len );
+
+        int done = 0;
+        while ( done < len )
+        {
+            final long currentPos = pos + done;
+            final int offsetInChunk = (int) currentPos & this.chunkMask;
+            final int chunkLength = Math.min( len - done , this.chunkSize - offsetInChunk );
+
+            final MappedByteBuffer chunk = this.chunks[ (int) ( currentPos >>> this.chunkShift ) ];
+            final ByteBuffer chunkView = chunk.duplicate();
+            chunkView.position( offsetInChunk );
+            chunkView.put( b , off + done , chunkLength );
+
+            done += chunkLength;
+        }
+    }
+
+    /**
+     * Reads a signed 32-bit integer from this file
+     * directly from the mapped memory.
+     *
+     * @return     the next four bytes of this file, interpreted as an
+     *             {@code int}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               four bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public int readInt()
+            throws IOException
+    {
+        ensureOpen();
+
+        final int offsetInChunk = (int) this.filePointer & this.chunkMask;
+
+        if ( this.length - this.filePointer < 4 ||
+                offsetInChunk > this.chunkSize - 4 )
+        {
+            // end of file or chunk boundary
+            return super.readInt();
+        }
+
+        final int v =
+                this.chunks[ (int) ( this.filePointer >>> this.chunkShift ) ].getInt(
+                        offsetInChunk );
+
+        this.filePointer += 4;
+        return v;
+    }
+
+    /**
+     * Reads a signed 64-bit integer from this file
+     * directly from the mapped memory.
+     *
+     * @return     the next eight bytes of this file, interpreted as a
+     *             {@code long}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               eight bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public long readLong()
+            throws IOException
+    {
+        ensureOpen();
+
+        final int offsetInChunk = (int) this.filePointer & this.chunkMask;
+
+        if ( this.length - this.filePointer < 8 ||
+                offsetInChunk > this.chunkSize - 8 )
+        {
+            // end of file or chunk boundary
+            return super.readLong();
+        }
+
+        final long v =
+                this.chunks[ (int) ( this.filePointer >>> this.chunkShift ) ].getLong(
+                        offsetInChunk );
+
+        this.filePointer += 8;
+        return v;
+    }
+
+    /**
+     * Writes an {@code int} to the file as four bytes, high byte first,
+     * directly into the mapped memory.
+     *
+     * @param      v   an {@code int} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeInt(
+            final int v )
+            throws IOException
+    {
+        final int offsetInChunk = (int) this.filePointer & this.chunkMask;
+
+        if ( offsetInChunk > this.chunkSize - 4 )
+        {
+            // chunk boundary
+            super.writeInt( v );
+            return;
+        }
+
+        prepareWrite( this.filePointer , 4 );
+
+        this.chunks[ (int) ( this.filePointer >>> this.chunkShift ) ].putInt(
+                offsetInChunk ,
+                v );
+
+        this.filePointer += 4;
+    }
+
+    /**
+     * Writes a {@code long} to the file as eight bytes, high byte first,
+     * directly into the mapped memory.
+     *
+     * @param      v   a {@code long} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeLong(
+            final long v )
+            throws IOException
+    {
+        final int offsetInChunk = (int) this.filePointer & this.chunkMask;
+
+        if ( offsetInChunk > this.chunkSize - 8 )
+        {
+            // chunk boundary
+            super.writeLong( v );
+            return;
+        }
+
+        prepareWrite( this.filePointer , 8 );
+
+        this.chunks[ (int) ( this.filePointer >>> this.chunkShift ) ].putLong(
+                offsetInChunk ,
+                v );
+
+        this.filePointer += 8;
+    }
+
+    /**
+     * Returns the current offset in this file.
+     *
+     * @return     the offset from the beginning of the file, in bytes,
+     *             at which the next read or write occurs.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public long getFilePointer()
+            throws IOException
+    {
+        ensureOpen();
+
+        return this.filePointer;
+    }
+
+    /**
+     * Sets the file-pointer offset, measured from the beginning of this
+     * file, at which the next read or write occurs.  The offset may be
+     * set beyond the end of the file. Setting the offset beyond the end
+     * of the file does not change the file length.  The file length will
+     * change only by writing after the offset has been set beyond the end
+     * of the file.
+     *
+     * @param      pos   the offset position, measured in bytes from the
+     *                   beginning of the file, at which to set the file
+     *                   pointer.
+     * @exception  IOException  if {@code pos} is less than
+     *                          {@code 0} or if an I/O error occurs.
+     */
+    @Override
+    public void seek(
+            final long pos )
+            throws IOException
+    {
+        ensureOpen();
+
+        if ( pos < 0L )
+        {
+            throw new IOException("Negative seek offset");
+        }
+
+        this.filePointer = pos;
+    }
+
+    /**
+     * Returns the length of this file.
+     *
+     * @return     the length of this file, measured in bytes.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public long length()
+            throws IOException
+    {
+        ensureOpen();
+
+        return this.length;
+    }
+
+    /**
+     * Sets the length of this file.
+     *
+     * <p> If the present length of the file as returned by the
+     * {@code length} method is greater than the {@code newLength}
+     * argument then the file will be truncated.  In this case, if the file
+     * offset as returned by the {@code getFilePointer} method is greater
+     * than {@code newLength} then after this method returns the offset
+     * will be equal to {@code newLength}.
+     *
+     * <p> If the present length of the file as returned by the
+     * {@code length} method is smaller than the {@code newLength}
+     * argument then the file will be extended.  In this case, the contents of
+     * the extended portion of the file are not defined.
+     *
+     * @param      newLength    The desired length of the file
+     * @exception  IOException  If an I/O error occurs
+     */
+    @Override
+    public void setLength(
+            final long newLength )
+            throws IOException
+    {
+        ensureWritable();
+
+        if ( newLength < 0L )
+        {
+            throw new IOException("Negative length " + newLength );
+        }
+
+        if ( newLength < this.length )
+        {
+            // truncate on disk, mappings must be released before
+            releaseChunks();
+            this.randomAccessFile.setLength( newLength );
+            remap( newLength );
+        }
+        else if ( newLength > this.capacity )
+        {
+            remap( newLength );
+        }
+
+        this.length = newLength;
+
+        if ( this.filePointer > newLength )
+        {
+            this.filePointer = newLength;
+        }
+    }
+
+    /**
+     * Create the channel, exclusive locks
+     * are rejected for a read-only file.
+     *
+     * @return new channel of this file
+     */
+    @Override
+    protected FileChannel newChannel()
+    {
+        return new RandomAccessFileInterfaceChannel( this )
+        {
+            @Override
+            protected boolean isReadOnly()
+            {
+                return ! writable;
+            }
+        };
+    }
+
+    /**
+     * Closes this random access file stream and releases the
+     * mapped memory. The file is truncated to its logical length.
+     * A closed random access file cannot perform input or output
+     * operations and cannot be reopened.
+     *
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void close()
+            throws IOException
+    {
+        if ( this.closed )
+        {
+            return;
+        }
+
+        this.closed = true;
+
+        try
+        {
+            releaseChunks();
+
+            if ( this.writable && this.randomAccessFile.length() != this.length )
+            {
+                this.randomAccessFile.setLength( this.length );
+            }
+        }
+        finally
+        {
+            this.randomAccessFile.close();
+        }
+    }
+
+    /**
+     * Ensure the file is open and writable, grow
+     * capacity geometric and logical length for
+     * writing at the specified position.
+     *
+     * @param pos position of first byte to write
+     * @param len number of bytes to write
+     * @throws IOException
+     */
+    private void prepareWrite(
+            final long pos ,
+            final int len )
+            throws IOException
+    {
+        ensureWritable();
+
+        if ( len == 0 )
+        {
+            // like RandomAccessFile, no growth
+            return;
+        }
+
+        final long end = pos + len;
+
+        if ( end < 0L )
+        {
+            throw new ArithmeticException( String.valueOf( pos ) + " + " + len );
+        }
+
+        if ( end > this.capacity )
+        {
+            remap(
+                    Math.max(
+                            end ,
+                            Math.max(
+                                    this.capacity + ( this.capacity >> 1 ) ,
+                                    MIN_GROWN_CAPACITY ) ) );
+        }
+
+        if ( end > this.length )
+        {
+            this.length = end;
+        }
+    }
+
+    /**
+     * Map the file with the specified capacity.
+     * Complete chunks which are already mapped
+     * are kept, the last chunk is remapped.
+     *
+     * @param newCapacity the new mapped size of the file
+     * @throws IOException
+     */
+    private void remap(
+            final long newCapacity )
+            throws IOException
+    {
+        final long chunkCount = ( newCapacity + this.chunkMask ) >>> this.chunkShift;
+
+        if ( chunkCount > Integer.MAX_VALUE )
+        {
+            throw new ArithmeticException( String.valueOf( newCapacity ) );
+        }
+
+        final MapMode mapMode = this.writable ? MapMode.READ_WRITE : MapMode.READ_ONLY;
+
+        final MappedByteBuffer[] newChunks =
+                Arrays.copyOf(
+                        this.chunks ,
+                        (int) chunkCount );
+
+        for ( int chunkIndex = 0 ; chunkIndex < newChunks.length ; chunkIndex++ )
+        {
+            final long chunkStart = (long) chunkIndex << this.chunkShift;
+            final long chunkLength = Math.min( this.chunkSize , newCapacity - chunkStart );
+
+            if ( newChunks[ chunkIndex ] != null &&
+                    newChunks[ chunkIndex ].capacity() == chunkLength )
+            {
+                // complete chunk, keep mapping
+                continue;
+            }
+
+            if ( newChunks[ chunkIndex ] != null )
+            {
+                DirectBuffers.release( newChunks[ chunkIndex ] );
+            }
+
+            // READ_WRITE mapping extends the file if necessary
+            newChunks[ chunkIndex ] =
+                    this.fileChannel.map(
+                            mapMode ,
+                            chunkStart ,
+                            chunkLength );
+        }
+
+        this.chunks = newChunks;
+        this.capacity = newCapacity;
+    }
+
+    /**
+     * Release all mappings.
+     */
+    private void releaseChunks()
+    {
+        for ( final MappedByteBuffer chunk : this.chunks )
+        {
+            DirectBuffers.release( chunk );
+        }
+
+        this.chunks = new MappedByteBuffer[ 0 ];
+        this.capacity = 0;
+    }
+
+    /**
+     * @throws IOException if this file is closed
+     */
+    private void ensureOpen()
+            throws IOException
+    {
+        if ( this.closed )
+        {
+            throw new IOException( "already closed" );
+        }
+    }
+
+    /**
+     * @throws IOException if this file is closed or read-only
+     */
+    private void ensureWritable()
+            throws IOException
+    {
+        ensureOpen();
+
+        if ( ! this.writable )
+        {
+            throw new IOException( "read-only file" );
+        }
+    }
+
+}
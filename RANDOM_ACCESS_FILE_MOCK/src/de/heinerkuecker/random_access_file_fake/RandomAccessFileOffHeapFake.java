@@ -0,0 +1,723 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Fake implementation of {@link RandomAccessFileInterface}
+ * to fake {@link RandomAccessFile}
+ * for test in RAM without disk access.
+ *
+ * Diese Variante speichert den Inhalt ausserhalb
+ * des Heaps in direkten {@link ByteBuffer} Seiten,
+ * grosse Dateien belasten den Garbage Collector nicht.
+ *
+ * Anders als {@link RandomAccessFileFake} ist diese
+ * Datei nach der Erzeugung geöffnet, {@link #close()}
+ * gibt den Speicher sofort frei, danach ist der
+ * Inhalt verloren.
+ *
+ * Gleichzeitige Leser mit {@link #readAt(long, byte[], int, int)}
+ * sind erlaubt, auch gleichzeitig zu {@link #setLength(long)}
+ * und {@link #close()}: Seiten werden nur unter der Schreibsperre
+ * von {@link #pageLock} freigegeben. Schreibende Methoden und
+ * Methoden mit Dateizeiger brauchen eine externe Synchronisation.
+ */
+public class RandomAccessFileOffHeapFake
+extends RandomAccessFileAbstractImplementation
+{
+    /**
+     * Default page size 1 MiB.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 1024 * 1024;
+
+    /**
+     * Closed state.
+     *
+     * Public for test.
+     */
+    public boolean closed;
+
+    /**
+     * File pointer.
+     * Current position in file.
+     *
+     * Public for test.
+     */
+    public long filePointer;
+
+    /**
+     * Size of one page in bytes, power of two.
+     */
+    private final int pageSize;
+
+    /**
+     * Number of bits to shift a position
+     * to get the page index.
+     */
+    private final int pageShift;
+
+    /**
+     * Mask to get the offset in page
+     * from a position.
+     */
+    private final int pageMask;
+
+    /**
+     * Page table of direct buffers.
+     *
+     * Covers at least all pages up to {@link #length},
+     * an entry {@code null} is a page of zero bytes.
+     */
+    private ByteBuffer[] pages = new ByteBuffer[ 0 ];
+
+    /**
+     * Logical length of file.
+     */
+    private long length;
+
+    /**
+     * Read lock for access to the pages by {@link #read()}
+     * and {@link #readAt(long, byte[], int, int)}, write lock
+     * for release of pages in {@link #shrink(long)} and
+     * {@link #close()}, a reader never sees a freed page.
+     */
+    private final ReentrantReadWriteLock pageLock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructor with {@link #DEFAULT_PAGE_SIZE}.
+     */
+    public RandomAccessFileOffHeapFake()
+    {
+        this( DEFAULT_PAGE_SIZE );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pageSize size of one page in bytes, must be a power of two
+     */
+    public RandomAccessFileOffHeapFake(
+            final int pageSize )
+    {
+        if ( pageSize < 1 || Integer.bitCount( pageSize ) != 1 )
+        {
+            throw new IllegalArgumentException( "page size is not a power of two: " + pageSize );
+        }
+
+        this.pageSize = pageSize;
+        this.pageShift = Integer.numberOfTrailingZeros( pageSize );
+        this.pageMask = pageSize - 1;
+    }
+
+    /**
+     * Off-heap bytes allocated for pages.
+     *
+     * @return allocated size in bytes
+     */
+    public long allocatedSize()
+    {
+        long allocatedSize = 0;
+        for ( final ByteBuffer page : this.pages )
+        {
+            if ( page != null )
+            {
+                allocatedSize += this.pageSize;
+            }
+        }
+        return allocatedSize;
+    }
+
+    /**
+     * Reads a byte of data from this file. The byte is returned as an
+     * integer in the range 0 to 255 ({@code 0x00-0x0ff}). This
+     * method blocks if no input is yet available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the same
+     * way as the {@link InputStream#read()} method of
+     * {@code InputStream}.
+     *
+     * @return     the next byte of data, or {@code -1} if the end of the
+     *             file has been reached.
+     * @exception  IOException  if an I/O error occurs. Not thrown if
+     *                          end-of-file has been reached.
+     */
+    @Override
+    public int read()
+            throws IOException
+    {
+        this.pageLock.readLock().lock();
+        try
+        {
+            if ( closed )
+            {
+                throw new IOException( "already closed" );
+            }
+
+            if ( this.filePointer >= this.length )
+            {
+                return -1;
+            }
+
+            final ByteBuffer page = this.pages[ (int) ( this.filePointer >>> this.pageShift ) ];
+            final int offsetInPage = (int) this.filePointer & this.pageMask;
+
+            this.filePointer++;
+
+            if ( page == null )
+            {
+                return 0;
+            }
+
+            return page.get( offsetInPage ) & 0xFF;
+        }
+        finally
+        {
+            this.pageLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads up to {@code len} bytes of data from this file into an
+     * array of bytes. This method blocks until at least one byte of input
+     * is available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the
+     * same way as the {@link InputStream#read(byte[], int, int)} method of
+     * {@code InputStream}.
+     *
+     * @param      b     the buffer into which the data is read.
+     * @param      off   the start offset in array {@code b}
+     *                   at which the data is written.
+     * @param      len   the maximum number of bytes read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if there is no more data because the end of
+     *             the file has been reached.
+     * @exception  IOException If the first byte cannot be read for any reason
+     * other than end of file, or if the random access file has been closed, or if
+     * some other I/O error occurs.
+     * @exception  NullPointerException If {@code b} is {@code null}.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public int read(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        final int lengthRead =
+                readAt(
+                        this.filePointer ,
+                        b ,
+                        off ,
+                        len );
+
+        if ( lengthRead > 0 )
+        {
+            this.filePointer += lengthRead;
+        }
+
+        return lengthRead;
+    }
+
+    /**
+     * Reads up to {@code len} bytes of data from this file, starting
+     * at the specified position, into an array of bytes.
+     * The file pointer is not changed, so concurrent positional
+     * reads need no seek under a lock, like {@code pread}.
+     * Concurrent {@link #setLength(long)} and {@link #close()}
+     * wait for running reads before pages are released.
+     *
+     * @param      pos   the position in the file at which the read starts.
+     * @param      b     the buffer into which the data is read.
+     * @param      off   the start offset in array {@code b}
+     *                   at which the data is written.
+     * @param      len   the maximum number of bytes read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if {@code pos} is at or behind the end
+     *             of the file.
+     * @exception  IOException If {@code pos} is negative, the file has been
+     *             closed or some other I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public int readAt(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        if ( pos < 0L )
+        {
+            throw new IOException( "Negative position" );
+        }
+
+        if ( off < 0 || len < 0 || len > b.length - off )
+        {
+            throw new IndexOutOfBoundsException();
+        }
+
+        // pages are not released while reading
+        this.pageLock.readLock().lock();
+        try
+        {
+            if ( closed )
+            {
+                throw new IOException( "already closed" );
+            }
+
+            if ( len == 0 )
+            {
+                return 0;
+            }
+
+            if ( pos >= this.length )
+            {
+                return -1;
+            }
+
+            final int lengthToRead = (int) Math.min( len , this.length - pos );
+
+            int done = 0;
+            while ( done < lengthToRead )
+            {
+                final long currentPos = pos + done;
+                final int offsetInPage = (int) currentPos & this.pageMask;
+                final int chunk = Math.min( lengthToRead - done , this.pageSize - offsetInPage );
+                final ByteBuffer page = this.pages[ (int) ( currentPos >>> this.pageShift ) ];
+
+                if ( page == null )
+                {
+                    Arrays.fill(
+                            b ,
+                            off + done ,
+                            off + done + chunk ,
+                            (byte) 0 );
+                }
+                else
+                {
+                    // duplicate for own position, concurrent readers
+                    final ByteBuffer pageView = page.duplicate();
+                    pageView.position( offsetInPage );
+                    pageView.get( b , off + done , chunk );
+                }
+
+                done += chunk;
+            }
+
+            return lengthToRead;
+        }
+        finally
+        {
+            this.pageLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the specified byte to this file. The write starts at
+     * the current file pointer.
+     *
+     * @param      b   the {@code byte} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final int b )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        if ( this.filePointer >= this.length )
+        {
+            grow( this.filePointer + 1 );
+        }
+
+        writablePage( (int) ( this.filePointer >>> this.pageShift ) ).put(
+                (int) this.filePointer & this.pageMask ,
+                (byte) b );
+
+        this.filePointer++;
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array
+     * starting at offset {@code off} to this file.
+     *
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        writeAt(
+                this.filePointer ,
+                b ,
+                off ,
+                len );
+
+        this.filePointer += len;
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array
+     * starting at offset {@code off} to this file at the specified
+     * position. The file pointer is not changed, like {@code pwrite}.
+     * The file grows if the written range exceeds the end.
+     *
+     * @param      pos   the position in the file at which the write starts.
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException If {@code pos} is negative, the file has been
+     *             closed or some other I/O error occurs.
+     */
+    @Override
+    public void writeAt(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        if ( pos < 0L )
+        {
+            throw new IOException( "Negative position" );
+        }
+
+        if ( off < 0 || len < 0 || len > b.length - off )
+        {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if ( len == 0 )
+        {
+            // like pwrite, an empty write does not extend the file
+            return;
+        }
+
+        final long end = pos + len;
+
+        if ( end < 0L )
+        {
+            throw new ArithmeticException( String.valueOf( pos ) + " + " + len );
+        }
+
+        if ( end > this.length )
+        {
+            grow( end );
+        }
+
+        int done = 0;
+        while ( done < len )
+        {
+            final long currentPos = pos + done;
+            final int offsetInPage = (int) currentPos & this.pageMask;
+            final int chunk = Math.min( len - done , this.pageSize - offsetInPage );
+            final ByteBuffer pageView = writablePage( (int) ( currentPos >>> this.pageShift ) ).duplicate();
+
+            pageView.position( offsetInPage );
+            pageView.put( b , off + done , chunk );
+
+            done += chunk;
+        }
+    }
+
+    /**
+     * Returns the current offset in this file.
+     *
+     * @return     the offset from the beginning of the file, in bytes,
+     *             at which the next read or write occurs.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public long getFilePointer()
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        return this.filePointer;
+    }
+
+    /**
+     * Sets the file-pointer offset, measured from the beginning of this
+     * file, at which the next read or write occurs.  The offset may be
+     * set beyond the end of the file. Setting the offset beyond the end
+     * of the file does not change the file length.  The file length will
+     * change only by writing after the offset has been set beyond the end
+     * of the file.
+     *
+     * @param      pos   the offset position, measured in bytes from the
+     *                   beginning of the file, at which to set the file
+     *                   pointer.
+     * @exception  IOException  if {@code pos} is less than
+     *                          {@code 0} or if an I/O error occurs.
+     */
+    @Override
+    public void seek(
+            final long pos )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        if ( pos < 0L )
+        {
+            throw new IOException("Negative seek offset");
+        }
+
+        this.filePointer = pos;
+    }
+
+    /**
+     * Returns the length of this file.
+     *
+     * @return     the length of this file, measured in bytes.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public long length()
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        return this.length;
+    }
+
+    /**
+     * Sets the length of this file.
+     *
+     * <p> If the present length of the file as returned by the
+     * {@code length} method is greater than the {@code newLength}
+     * argument then the file will be truncated.  In this case, if the file
+     * offset as returned by the {@code getFilePointer} method is greater
+     * than {@code newLength} then after this method returns the offset
+     * will be equal to {@code newLength}.
+     *
+     * <p> If the present length of the file as returned by the
+     * {@code length} method is smaller than the {@code newLength}
+     * argument then the file will be extended.  In this case, the contents of
+     * the extended portion of the file are not defined.
+     *
+     * @param      newLength    The desired length of the file
+     * @exception  IOException  If an I/O error occurs
+     * @since      1.2
+     */
+    @Override
+    public void setLength(
+            final long newLength )
+            throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "already closed" );
+        }
+
+        if ( newLength < 0L )
+        {
+            throw new IOException("Negative length " + newLength );
+        }
+
+        if ( newLength > this.length )
+        {
+            grow( newLength );
+        }
+        else if ( newLength < this.length )
+        {
+            this.pageLock.writeLock().lock();
+            try
+            {
+                shrink( newLength );
+            }
+            finally
+            {
+                this.pageLock.writeLock().unlock();
+            }
+        }
+
+        if ( this.filePointer > newLength )
+        {
+            this.filePointer = newLength;
+        }
+    }
+
+    /**
+     * Closes this random access file stream and releases
+     * the off-heap memory of the content immediately.
+     * A closed random access file cannot perform input
+     * or output operations and cannot be reopened.
+     *
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void close()
+            throws IOException
+    {
+        this.pageLock.writeLock().lock();
+        try
+        {
+            if ( this.closed )
+            {
+                return;
+            }
+
+            this.closed = true;
+
+            for ( final ByteBuffer page : this.pages )
+            {
+                DirectBuffers.release( page );
+            }
+
+            this.pages = new ByteBuffer[ 0 ];
+            this.length = 0;
+        }
+        finally
+        {
+            this.pageLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the page for writing,
+     * allocate it if necessary.
+     *
+     * @param pageIndex index of page
+     * @return the page
+     */
+    private ByteBuffer writablePage(
+            final int pageIndex )
+    {
+        ByteBuffer page = this.pages[ pageIndex ];
+
+        if ( page == null )
+        {
+            // direct buffers are zeroed on allocation
+            page = ByteBuffer.allocateDirect( this.pageSize );
+            this.pages[ pageIndex ] = page;
+        }
+
+        return page;
+    }
+
+    /**
+     * Number of pages to hold the specified length.
+     *
+     * @param len length in bytes
+     * @return number of pages
+     */
+    private int pageCount(
+            final long len )
+    {
+        final long pageCount = ( len + this.pageMask ) >>> this.pageShift;
+
+        if ( pageCount > Integer.MAX_VALUE )
+        {
+            throw new ArithmeticException( String.valueOf( len ) );
+        }
+
+        return (int) pageCount;
+    }
+
+    /**
+     * Grow file to the specified length.
+     * Only the page table is copied,
+     * pages are allocated on write.
+     *
+     * @param newLength the new length
+     */
+    private void grow(
+            final long newLength )
+    {
+        final int newPageCount = pageCount( newLength );
+
+        if ( newPageCount > this.pages.length )
+        {
+            final long grownTableLength = this.pages.length + ( this.pages.length >> 1 );
+
+            this.pages =
+                    Arrays.copyOf(
+                            //original
+                            this.pages ,
+                            //newLength
+                            (int) Math.min(
+                                    Math.max(
+                                            grownTableLength ,
+                                            newPageCount ) ,
+                                    Integer.MAX_VALUE ) );
+        }
+
+        this.length = newLength;
+    }
+
+    /**
+     * Shrink file to the specified length.
+     * Pages behind the new length are released,
+     * the rest of the new last page is zeroed.
+     * Caller holds the write lock of {@link #pageLock}.
+     *
+     * @param newLength the new length
+     */
+    private void shrink(
+            final long newLength )
+    {
+        final int oldPageCount = pageCount( this.length );
+        final int newPageCount = pageCount( newLength );
+
+        for ( int pageIndex = newPageCount ; pageIndex < oldPageCount ; pageIndex++ )
+        {
+            DirectBuffers.release( this.pages[ pageIndex ] );
+            this.pages[ pageIndex ] = null;
+        }
+
+        final int offsetInLastPage = (int) newLength & this.pageMask;
+
+        if ( offsetInLastPage != 0 )
+        {
+            final ByteBuffer lastPage = this.pages[ newPageCount - 1 ];
+
+            if ( lastPage != null )
+            {
+                for ( int i = offsetInLastPage ; i < this.pageSize ; i++ )
+                {
+                    lastPage.put( i , (byte) 0 );
+                }
+            }
+        }
+
+        this.length = newLength;
+    }
+
+}
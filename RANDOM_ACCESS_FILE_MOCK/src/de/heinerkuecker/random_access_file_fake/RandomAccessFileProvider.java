@@ -0,0 +1,48 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.util.ServiceLoader;
+
+/**
+ * Service provider of a {@link RandomAccessFileFactory},
+ * selected by name in {@link RandomAccessFileProviders}.
+ * <br/><br/>
+ * The built-in providers are listed in
+ * {@link RandomAccessFileProviders}, more providers
+ * are found with {@link ServiceLoader}, registered in
+ * {@code META-INF/services/de.heinerkuecker.random_access_file_fake.RandomAccessFileProvider}.
+ * <br/><br/>
+ * A provider is a base implementation (real file, memory
+ * mapped file, in-memory file system) or a decorator
+ * (buffered, instrumented) of the files of an other factory,
+ * see {@link #isDecorator()}.
+ */
+public interface RandomAccessFileProvider
+{
+    /**
+     * @return name for the selection, for example "real"
+     */
+    String getName();
+
+    /**
+     * @return true for a decorator of the files of the factory
+     *         given to {@link #createFactory(RandomAccessFileFactory)},
+     *         false for a base implementation, which must be the
+     *         last one in a chain of {@link RandomAccessFileProviders},
+     *         default false
+     */
+    default boolean isDecorator()
+    {
+        return false;
+    }
+
+    /**
+     * Create the factory.
+     *
+     * @param base factory of the decorated files for
+     *             decorating providers, ignored by others
+     * @return new factory
+     */
+    RandomAccessFileFactory createFactory(
+            final RandomAccessFileFactory base );
+
+}
@@ -0,0 +1,404 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * Selection of the {@link RandomAccessFileFactory}
+ * by configuration, so the same program runs against
+ * different implementations without code change:
+ * <pre>
+ * try ( RandomAccessFileInterface file = RandomAccessFileProviders.open( "data.bin" , "rw" ) )
+ * ...
+ *
+ * java -Dde.heinerkuecker.random_access_file_fake.provider=instrumented:buffered:real ...
+ * </pre>
+ * The configuration is a chain of provider names separated
+ * by ':', the last one is the base implementation and each
+ * other one decorates the files of its right neighbour.
+ * Default is "real".
+ * <br/><br/>
+ * The metrics of all files opened by "instrumented"
+ * providers are summed up by {@link #instrumentationSnapshot()}.
+ * <br/><br/>
+ * Built-in providers:
+ * <ul>
+ * <li>"real" {@link RandomAccessFileRealImplementation}</li>
+ * <li>"mmap" {@link RandomAccessFileMemoryMapped}</li>
+ * <li>"channel" {@link RandomAccessFileChannelImplementation}, for virtual threads</li>
+ * <li>"in-memory" {@link InMemoryFileSystem}, one file system per factory</li>
+ * <li>"buffered" decorator {@link RandomAccessFileBuffered}</li>
+ * <li>"instrumented" decorator {@link RandomAccessFileInstrumented}</li>
+ * </ul>
+ * and the providers found by {@link ServiceLoader}.
+ */
+public final class RandomAccessFileProviders
+{
+    /**
+     * Name of the system property with the provider chain.
+     */
+    public static final String PROVIDER_PROPERTY = "de.heinerkuecker.random_access_file_fake.provider";
+
+    /**
+     * Separator of provider names in a chain.
+     */
+    public static final String CHAIN_SEPARATOR = ":";
+
+    /**
+     * Factory of the system property,
+     * created on first use.
+     */
+    private static RandomAccessFileFactory defaultFactory;
+
+    /**
+     * Open files of the "instrumented" providers,
+     * guarded by itself.
+     */
+    private static final Set<RandomAccessFileInstrumented> openInstrumentedFiles =
+            Collections.newSetFromMap( new IdentityHashMap<>() );
+
+    /**
+     * Sum of the metrics of the closed files of the
+     * "instrumented" providers, guarded by {@link #openInstrumentedFiles}.
+     */
+    private static RandomAccessFileInstrumented.Snapshot closedInstrumentedFiles =
+            RandomAccessFileInstrumented.Snapshot.empty();
+
+    /**
+     * Built-in providers.
+     */
+    private enum BuiltIn
+    implements RandomAccessFileProvider
+    {
+        /**
+         * {@link RandomAccessFileRealImplementation}.
+         */
+        REAL( "real" , false )
+        {
+            @Override
+            public RandomAccessFileFactory createFactory(
+                    final RandomAccessFileFactory base )
+            {
+                return RandomAccessFileFactory.REAL;
+            }
+        } ,
+
+        /**
+         * {@link RandomAccessFileMemoryMapped}.
+         */
+        MEMORY_MAPPED( "mmap" , false )
+        {
+            @Override
+            public RandomAccessFileFactory createFactory(
+                    final RandomAccessFileFactory base )
+            {
+                return RandomAccessFileMemoryMapped::new;
+            }
+        } ,
+
+        /**
+         * {@link RandomAccessFileChannelImplementation}.
+         */
+        CHANNEL( "channel" , false )
+        {
+            @Override
+            public RandomAccessFileFactory createFactory(
+                    final RandomAccessFileFactory base )
+            {
+                return RandomAccessFileChannelImplementation::new;
+            }
+        } ,
+
+        /**
+         * {@link InMemoryFileSystem}.
+         */
+        IN_MEMORY( "in-memory" , false )
+        {
+            @Override
+            public RandomAccessFileFactory createFactory(
+                    final RandomAccessFileFactory base )
+            {
+                return new InMemoryFileSystem();
+            }
+        } ,
+
+        /**
+         * Decorator {@link RandomAccessFileBuffered}.
+         */
+        BUFFERED( "buffered" , true )
+        {
+            @Override
+            public RandomAccessFileFactory createFactory(
+                    final RandomAccessFileFactory base )
+            {
+                return ( file , mode ) -> new RandomAccessFileBuffered( base.open( file , mode ) );
+            }
+        } ,
+
+        /**
+         * Decorator {@link RandomAccessFileInstrumented},
+         * cast the opened file to get the metrics or
+         * use {@link RandomAccessFileProviders#instrumentationSnapshot()}.
+         */
+        INSTRUMENTED( "instrumented" , true )
+        {
+            @Override
+            public RandomAccessFileFactory createFactory(
+                    final RandomAccessFileFactory base )
+            {
+                return ( file , mode ) -> openInstrumented( base.open( file , mode ) );
+            }
+        };
+
+        /**
+         * Name for the selection.
+         */
+        private final String name;
+
+        /**
+         * Decorator of the files of an other factory.
+         */
+        private final boolean decorator;
+
+        /**
+         * Constructor.
+         *
+         * @param name name for the selection
+         * @param decorator decorator of the files of an other factory
+         */
+        private BuiltIn(
+                final String name ,
+                final boolean decorator )
+        {
+            this.name = name;
+            this.decorator = decorator;
+        }
+
+        @Override
+        public String getName()
+        {
+            return this.name;
+        }
+
+        @Override
+        public boolean isDecorator()
+        {
+            return this.decorator;
+        }
+    }
+
+    /**
+     * Private constructor, no instance.
+     */
+    private RandomAccessFileProviders()
+    {
+        // no instance
+    }
+
+    /**
+     * @return built-in providers and the providers found by {@link ServiceLoader}
+     */
+    public static List<RandomAccessFileProvider> providers()
+    {
+        final List<RandomAccessFileProvider> providers = new ArrayList<>();
+
+        for ( final BuiltIn builtIn : BuiltIn.values() )
+        {
+            providers.add( builtIn );
+        }
+
+        for ( final RandomAccessFileProvider provider : ServiceLoader.load( RandomAccessFileProvider.class ) )
+        {
+            providers.add( provider );
+        }
+
+        return providers;
+    }
+
+    /**
+     * @param name name of provider
+     * @return the provider, a provider of {@link ServiceLoader} overrides a built-in one
+     * @throws IllegalArgumentException if there is no provider with the name
+     */
+    public static RandomAccessFileProvider provider(
+            final String name )
+    {
+        RandomAccessFileProvider found = null;
+
+        for ( final RandomAccessFileProvider provider : providers() )
+        {
+            if ( provider.getName().equals( name ) )
+            {
+                // last one wins
+                found = provider;
+            }
+        }
+
+        if ( found == null )
+        {
+            throw new IllegalArgumentException( "unknown random access file provider: " + name );
+        }
+
+        return found;
+    }
+
+    /**
+     * Create the factory of a provider chain.
+     *
+     * @param chain provider names separated by ':', for example "buffered:real"
+     * @return new factory
+     * @throws IllegalArgumentException if a provider is unknown, the last
+     *         provider is a decorator or an other provider is not a decorator
+     */
+    public static RandomAccessFileFactory factory(
+            final String chain )
+    {
+        final String[] names = chain.split( CHAIN_SEPARATOR );
+
+        RandomAccessFileFactory factory = RandomAccessFileFactory.REAL;
+
+        for ( int i = names.length - 1 ; i >= 0 ; i-- )
+        {
+            final RandomAccessFileProvider provider = provider( names[ i ].trim() );
+
+            if ( i == names.length - 1 && provider.isDecorator() )
+            {
+                throw new IllegalArgumentException( "decorator provider must not be last in chain: " + chain );
+            }
+
+            if ( i < names.length - 1 && ! provider.isDecorator() )
+            {
+                throw new IllegalArgumentException( "base provider " + provider.getName() + " must be last in chain: " + chain );
+            }
+
+            factory = provider.createFactory( factory );
+        }
+
+        return factory;
+    }
+
+    /**
+     * Sum of the metrics of all files opened by
+     * "instrumented" providers, open and closed ones.
+     *
+     * @return new snapshot
+     */
+    public static RandomAccessFileInstrumented.Snapshot instrumentationSnapshot()
+    {
+        synchronized ( openInstrumentedFiles )
+        {
+            RandomAccessFileInstrumented.Snapshot snapshot = closedInstrumentedFiles;
+
+            for ( final RandomAccessFileInstrumented file : openInstrumentedFiles )
+            {
+                snapshot = snapshot.plus( file.snapshot() );
+            }
+
+            return snapshot;
+        }
+    }
+
+    /**
+     * Decorate the file for the "instrumented" provider, registered
+     * for {@link #instrumentationSnapshot()} until close.
+     *
+     * @param delegate opened file to decorate
+     * @return instrumented file
+     */
+    private static RandomAccessFileInstrumented openInstrumented(
+            final RandomAccessFileInterface delegate )
+    {
+        final RandomAccessFileInstrumented instrumented =
+                new RandomAccessFileInstrumented( delegate )
+                {
+                    @Override
+                    public void close()
+                            throws IOException
+                    {
+                        try
+                        {
+                            super.close();
+                        }
+                        finally
+                        {
+                            synchronized ( openInstrumentedFiles )
+                            {
+                                if ( openInstrumentedFiles.remove( this ) )
+                                {
+                                    closedInstrumentedFiles = closedInstrumentedFiles.plus( snapshot() );
+                                }
+                            }
+                        }
+                    }
+                };
+
+        synchronized ( openInstrumentedFiles )
+        {
+            openInstrumentedFiles.add( instrumented );
+        }
+
+        return instrumented;
+    }
+
+    /**
+     * @return factory of the system property {@value #PROVIDER_PROPERTY},
+     *         default "real", created on first call
+     * @throws IllegalArgumentException if a provider is unknown
+     */
+    public static synchronized RandomAccessFileFactory defaultFactory()
+    {
+        if ( defaultFactory == null )
+        {
+            defaultFactory =
+                    factory(
+                            System.getProperty(
+                                    PROVIDER_PROPERTY ,
+                                    BuiltIn.REAL.getName() ) );
+        }
+
+        return defaultFactory;
+    }
+
+    /**
+     * Open a file with the {@link #defaultFactory()}.
+     *
+     * @param file the file object
+     * @param mode the access mode "r", "rw", "rws" or "rwd"
+     * @return opened file
+     * @throws IOException see {@link RandomAccessFileFactory#open(File, String)}
+     */
+    public static RandomAccessFileInterface open(
+            final File file ,
+            final String mode )
+            throws IOException
+    {
+        return defaultFactory().open(
+                file ,
+                mode );
+    }
+
+    /**
+     * Open a file with the {@link #defaultFactory()}.
+     *
+     * @param name the system-dependent filename
+     * @param mode the access mode "r", "rw", "rws" or "rwd"
+     * @return opened file
+     * @throws IOException see {@link RandomAccessFileFactory#open(File, String)}
+     */
+    public static RandomAccessFileInterface open(
+            final String name ,
+            final String mode )
+            throws IOException
+    {
+        return defaultFactory().open(
+                name ,
+                mode );
+    }
+
+}
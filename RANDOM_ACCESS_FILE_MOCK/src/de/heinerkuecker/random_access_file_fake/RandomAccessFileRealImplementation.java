@@ -1,47 +1,132 @@
-package de.heinerkuecker.random_access_file_fake;
-
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.RandomAccessFile;
-
-/**
- * Extension of {@link RandomAccessFile} with interface.
- * <br/><br/>
- * Implementation of {@link RandomAccessFileInterface}.
- */
-public class RandomAccessFileRealImplementation
-extends RandomAccessFile
-implements RandomAccessFileInterface
-{
-
-    /**
-     * Constructor.
-     *
-     * @param file
-     * @param mode
-     * @throws FileNotFoundException
-     */
-    public RandomAccessFileRealImplementation(
-            final File file,
-            final String mode)
-            throws FileNotFoundException
-    {
-        super(file, mode);
-    }
-
-    /**
-     * Constructor.
-     *
-     * @param name
-     * @param mode
-     * @throws FileNotFoundException
-     */
-    public RandomAccessFileRealImplementation(
-            final String name,
-            final String mode)
-            throws FileNotFoundException
-    {
-        super(name, mode);
-    }
-
-}
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+/**
+ * Extension of {@link RandomAccessFile} with interface.
+ * <br/><br/>
+ * Implementation of {@link RandomAccessFileInterface}.
+ */
+public class RandomAccessFileRealImplementation
+extends RandomAccessFile
+implements RandomAccessFileInterface
+{
+
+    /**
+     * Constructor.
+     *
+     * @param file
+     * @param mode
+     * @throws FileNotFoundException
+     */
+    public RandomAccessFileRealImplementation(
+            final File file,
+            final String mode)
+            throws FileNotFoundException
+    {
+        super(file, mode);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param name
+     * @param mode
+     * @throws FileNotFoundException
+     */
+    public RandomAccessFileRealImplementation(
+            final String name,
+            final String mode)
+            throws FileNotFoundException
+    {
+        super(name, mode);
+    }
+
+    /**
+     * Reads up to {@code len} bytes of data from this file, starting
+     * at the specified position, into an array of bytes.
+     * The file pointer is not changed, so concurrent positional
+     * reads need no seek under a lock, like {@code pread}.
+     * <p>
+     * Implemented with {@link java.nio.channels.FileChannel#read(ByteBuffer, long)}.
+     *
+     * @param      pos   the position in the file at which the read starts.
+     * @param      b     the buffer into which the data is read.
+     * @param      off   the start offset in array {@code b}
+     *                   at which the data is written.
+     * @param      len   the maximum number of bytes read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if {@code pos} is at or behind the end
+     *             of the file.
+     * @exception  IOException If {@code pos} is negative, the file has been
+     *             closed or some other I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public int readAt(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        if ( pos < 0L )
+        {
+            throw new IOException( "Negative position" );
+        }
+
+        if ( len == 0 )
+        {
+            return 0;
+        }
+
+        return getChannel().read(
+                ByteBuffer.wrap( b , off , len ) ,
+                pos );
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array
+     * starting at offset {@code off} to this file at the specified
+     * position. The file pointer is not changed, like {@code pwrite}.
+     * <p>
+     * Implemented with {@link java.nio.channels.FileChannel#write(ByteBuffer, long)}.
+     * The file grows if the written range exceeds the end.
+     *
+     * @param      pos   the position in the file at which the write starts.
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException If {@code pos} is negative, the file has been
+     *             closed or some other I/O error occurs.
+     */
+    @Override
+    public void writeAt(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        if ( pos < 0L )
+        {
+            throw new IOException( "Negative position" );
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap( b , off , len );
+
+        while ( buffer.hasRemaining() )
+        {
+            getChannel().write(
+                    buffer ,
+                    pos + buffer.position() - off );
+        }
+    }
+
+}
@@ -0,0 +1,237 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reader of a binary trace written by
+ * {@link RandomAccessFileTraceRecording}.
+ * <br/><br/>
+ * Format: the header {@link #MAGIC} and {@link #VERSION}
+ * (each four bytes high byte first), then one record per call:
+ * <ul>
+ * <li>operation, one byte, {@link RandomAccessFileInstrumented.Method#ordinal()}</li>
+ * <li>position minus position of previous record, zigzag var long</li>
+ * <li>length, zigzag var long</li>
+ * <li>nanoseconds since previous record, var long</li>
+ * </ul>
+ * Var long is the unsigned LEB128 encoding, seven bits per byte,
+ * low bits first, like in protobuf.
+ * <br/><br/>
+ * {@link #next()} reads the next record without allocation,
+ * the getters return the fields of the current record.
+ */
+public final class RandomAccessFileTraceReader
+implements Closeable
+{
+    /**
+     * Magic number of trace, "RAFT".
+     */
+    static final int MAGIC = 0x52414654;
+
+    /**
+     * Version of trace format.
+     */
+    static final int VERSION = 2;
+
+    /**
+     * The methods by ordinal.
+     */
+    private static final RandomAccessFileInstrumented.Method[] METHODS =
+            RandomAccessFileInstrumented.Method.values();
+
+    /**
+     * Input of trace.
+     */
+    private final InputStream in;
+
+    /**
+     * Method of current record.
+     */
+    private RandomAccessFileInstrumented.Method method;
+
+    /**
+     * Position of current record.
+     */
+    private long position;
+
+    /**
+     * Length of current record.
+     */
+    private long length;
+
+    /**
+     * Nanoseconds from start of recording
+     * to current record.
+     */
+    private long timestampNanos;
+
+    /**
+     * Constructor, reads the header.
+     *
+     * @param in input of trace, buffered by this reader
+     * @throws IOException if the header is invalid
+     */
+    public RandomAccessFileTraceReader(
+            final InputStream in )
+            throws IOException
+    {
+        this.in = new BufferedInputStream( in );
+
+        final int magic = readInt();
+        if ( magic != MAGIC )
+        {
+            throw new IOException( "not a trace, magic: " + Integer.toHexString( magic ) );
+        }
+
+        final int version = readInt();
+        if ( version != VERSION )
+        {
+            throw new IOException( "unsupported trace version: " + version );
+        }
+    }
+
+    /**
+     * Read the next record.
+     *
+     * @return {@code false} at end of trace
+     * @throws IOException if the trace is truncated or invalid
+     */
+    public boolean next()
+            throws IOException
+    {
+        final int op = this.in.read();
+
+        if ( op < 0 )
+        {
+            this.method = null;
+            return false;
+        }
+
+        if ( op >= METHODS.length )
+        {
+            throw new IOException( "invalid operation in trace: " + op );
+        }
+
+        this.method = METHODS[ op ];
+        this.position += zigzagDecode( readVarLong() );
+        this.length = zigzagDecode( readVarLong() );
+        this.timestampNanos += readVarLong();
+        return true;
+    }
+
+    /**
+     * @return method of current record
+     */
+    public RandomAccessFileInstrumented.Method getMethod()
+    {
+        return this.method;
+    }
+
+    /**
+     * @return position of current record: file pointer before the call,
+     *         {@code pos} of seek, readAt and writeAt, {@code newLength} of setLength
+     */
+    public long getPosition()
+    {
+        return this.position;
+    }
+
+    /**
+     * @return length of current record: requested number of bytes, for
+     *         bulk methods number of values, for writeBytes and writeChars
+     *         number of chars, for writeUTF number of written bytes
+     *         including the two length bytes
+     */
+    public long getLength()
+    {
+        return this.length;
+    }
+
+    /**
+     * @return nanoseconds from start of recording to current record
+     */
+    public long getTimestampNanos()
+    {
+        return this.timestampNanos;
+    }
+
+    /**
+     * Close the input of the trace.
+     *
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void close()
+            throws IOException
+    {
+        this.in.close();
+    }
+
+    /**
+     * @return four bytes high byte first
+     * @throws IOException
+     */
+    private int readInt()
+            throws IOException
+    {
+        int value = 0;
+        for ( int i = 0 ; i < 4 ; i++ )
+        {
+            value = ( value << 8 ) | readByte();
+        }
+        return value;
+    }
+
+    /**
+     * @return unsigned LEB128 value
+     * @throws IOException
+     */
+    private long readVarLong()
+            throws IOException
+    {
+        long value = 0;
+        for ( int shift = 0 ; shift < 64 ; shift += 7 )
+        {
+            final int b = readByte();
+            value |= (long) ( b & 0x7F ) << shift;
+
+            if ( ( b & 0x80 ) == 0 )
+            {
+                return value;
+            }
+        }
+        throw new IOException( "invalid var long in trace" );
+    }
+
+    /**
+     * @return next byte
+     * @throws EOFException if the trace is truncated
+     */
+    private int readByte()
+            throws IOException
+    {
+        final int b = this.in.read();
+
+        if ( b < 0 )
+        {
+            throw new EOFException( "truncated trace" );
+        }
+
+        return b;
+    }
+
+    /**
+     * @param value zigzag encoded value
+     * @return signed value
+     */
+    private static long zigzagDecode(
+            final long value )
+    {
+        return ( value >>> 1 ) ^ -( value & 1 );
+    }
+
+}
@@ -0,0 +1,1698 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UTFDataFormatException;
+
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileInstrumented.Method;
+
+/**
+ * Decorator for any {@link RandomAccessFileInterface}
+ * recording each call as compact binary trace
+ * (operation, position, length, timestamp)
+ * for replay with {@link RandomAccessFileTraceReplayer}
+ * against other implementations.
+ * <br/><br/>
+ * The format is described in {@link RandomAccessFileTraceReader},
+ * a record needs 4 bytes for sequential access of small
+ * values. The records are encoded into an own buffer and
+ * written to the output in blocks, the file pointer is
+ * tracked by this decorator without calls to the decorated
+ * file, so the overhead per call is small.
+ * <br/><br/>
+ * The data is not recorded, a replay writes arbitrary bytes.
+ * {@link #close()} flushes the trace, the output of the
+ * trace is not closed.
+ * Not thread-safe, like {@link java.io.RandomAccessFile}.
+ */
+public class RandomAccessFileTraceRecording
+extends RandomAccessFileForwarding
+{
+    /**
+     * Size of trace buffer.
+     */
+    private static final int TRACE_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Maximum size of an encoded record,
+     * operation and three var longs.
+     */
+    private static final int MAX_RECORD_SIZE = 1 + 3 * 10;
+
+    /**
+     * Output of trace.
+     */
+    private final OutputStream traceOut;
+
+    /**
+     * Buffer of encoded records.
+     */
+    private final byte[] traceBuffer = new byte[ TRACE_BUFFER_SIZE ];
+
+    /**
+     * Number of bytes in {@link #traceBuffer}.
+     */
+    private int traceBufferLength;
+
+    /**
+     * Position of previous record,
+     * positions are delta encoded.
+     */
+    private long previousPosition;
+
+    /**
+     * Time of previous record,
+     * timestamps are delta encoded.
+     */
+    private long previousNanos;
+
+    /**
+     * File pointer of the decorated file,
+     * tracked without calls to the decorated file.
+     */
+    private long filePointer;
+
+    /**
+     * Constructor, writes the trace header.
+     *
+     * @param delegate opened file to decorate
+     * @param traceOut output of trace, for example a {@link java.io.FileOutputStream}
+     * @throws IOException
+     */
+    public RandomAccessFileTraceRecording(
+            final RandomAccessFileInterface delegate ,
+            final OutputStream traceOut )
+            throws IOException
+    {
+        super( delegate );
+
+        this.traceOut = traceOut;
+        this.filePointer = delegate.getFilePointer();
+        this.previousNanos = System.nanoTime();
+
+        putInt( RandomAccessFileTraceReader.MAGIC );
+        putInt( RandomAccessFileTraceReader.VERSION );
+    }
+
+    /**
+     * Write the buffered records to the output
+     * of the trace and flush the output.
+     *
+     * @throws IOException
+     */
+    public void flushTrace()
+            throws IOException
+    {
+        this.traceOut.write(
+                this.traceBuffer ,
+                0 ,
+                this.traceBufferLength );
+
+        this.traceBufferLength = 0;
+        this.traceOut.flush();
+    }
+
+    /**
+     * Reads a byte of data from this file. The byte is returned as an
+     * integer in the range 0 to 255 ({@code 0x00-0x0ff}). This
+     * method blocks if no input is yet available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the same
+     * way as the {@link InputStream#read()} method of
+     * {@code InputStream}.
+     *
+     * @return     the next byte of data, or {@code -1} if the end of the
+     *             file has been reached.
+     * @exception  IOException  if an I/O error occurs. Not thrown if
+     *                          end-of-file has been reached.
+     */
+    @Override
+    public int read()
+            throws IOException
+    {
+        trace(
+                Method.READ ,
+                this.filePointer ,
+                1 );
+        try
+        {
+            final int result = this.delegate.read();
+            this.filePointer += ( result < 0 ? 0 : 1 );
+            return result;
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            resyncFilePointer( e );
+            throw e;
+        }
+    }
+
+    /**
+     * Reads up to {@code len} bytes of data from this file into an
+     * array of bytes. This method blocks until at least one byte of input
+     * is available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the
+     * same way as the {@link InputStream#read(byte[], int, int)} method of
+     * {@code InputStream}.
+     *
+     * @param      b     the buffer into which the data is read.
+     * @param      off   the start offset in array {@code b}
+     *                   at which the data is written.
+     * @param      len   the maximum number of bytes read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if there is no more data because the end of
+     *             the file has been reached.
+     * @exception  IOException If the first byte cannot be read for any reason
+     * other than end of file, or if the random access file has been closed, or if
+     * some other I/O error occurs.
+     * @exception  NullPointerException If {@code b} is {@code null}.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public int read(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        trace(
+                Method.READ_ARRAY_RANGE ,
+                this.filePointer ,
+                len );
+        try
+        {
+            final int result = this.delegate.read( b , off , len );
+            this.filePointer += Math.max( result , 0 );
+            return result;
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            resyncFilePointer( e );
+            throw e;
+        }
+    }
+
+    /**
+     * Reads up to {@code b.length} bytes of data from this file
+     * into an array of bytes. This method blocks until at least one byte
+     * of input is available.
+     * <p>
+     * Although {@code RandomAccessFile} is not a subclass of
+     * {@code InputStream}, this method behaves in exactly the
+     * same way as the {@link InputStream#read(byte[])} method of
+     * {@code InputStream}.
+     *
+     * @param      b   the buffer into which the data is read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if there is no more data because the end of
+     *             this file has been reached.
+     * @exception  IOException If the first byte cannot be read for any reason
+     * other than end of file, or if the random access file has been closed, or if
+     * some other I/O error occurs.
+     * @exception  NullPointerException If {@code b} is {@code null}.
+     */
+    @Override
+    public int read(
+            final byte[] b )
+            throws IOException
+    {
+        trace(
+                Method.READ_ARRAY ,
+                this.filePointer ,
+                b.length );
+        try
+        {
+            final int result = this.delegate.read( b );
+            this.filePointer += Math.max( result , 0 );
+            return result;
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            resyncFilePointer( e );
+            throw e;
+        }
+    }
+
+    /**
+     * Reads up to {@code len} bytes of data from this file, starting
+     * at the specified position, into an array of bytes.
+     * The file pointer is not changed, so concurrent positional
+     * reads need no seek under a lock, like {@code pread}.
+     *
+     * @param      pos   the position in the file at which the read starts.
+     * @param      b     the buffer into which the data is read.
+     * @param      off   the start offset in array {@code b}
+     *                   at which the data is written.
+     * @param      len   the maximum number of bytes read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if {@code pos} is at or behind the end
+     *             of the file.
+     * @exception  IOException If {@code pos} is negative, the file has been
+     *             closed or some other I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public int readAt(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        trace(
+                Method.READ_AT ,
+                pos ,
+                len );
+        final int result = this.delegate.readAt( pos , b , off , len );
+        return result;
+    }
+
+    /**
+     * Reads {@code b.length} bytes from this file into the byte
+     * array, starting at the current file pointer. This method reads
+     * repeatedly from the file until the requested number of bytes are
+     * read. This method blocks until the requested number of bytes are
+     * read, the end of the stream is detected, or an exception is thrown.
+     *
+     * @param   b   the buffer into which the data is read.
+     * @throws  NullPointerException if {@code b} is {@code null}.
+     * @throws  EOFException  if this file reaches the end before reading
+     *              all the bytes.
+     * @throws  IOException   if an I/O error occurs.
+     */
+    @Override
+    public void readFully(
+            final byte[] b )
+            throws IOException
+    {
+        trace(
+                Method.READ_FULLY_ARRAY ,
+                this.filePointer ,
+                b.length );
+        try
+        {
+            this.delegate.readFully( b );
+            this.filePointer += b.length;
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            resyncFilePointer( e );
+            throw e;
+        }
+    }
+
+    /**
+     * Reads exactly {@code len} bytes from this file into the byte
+     * array, starting at the current file pointer. This method reads
+     * repeatedly from the file until the requested number of bytes are
+     * read. This method blocks until the requested number of bytes are
+     * read, the end of the stream is detected, or an exception is thrown.
+     *
+     * @param   b     the buffer into which the data is read.
+     * @param   off   the start offset into the data array {@code b}.
+     * @param   len   the number of bytes to read.
+     * @throws  NullPointerException if {@code b} is {@code null}.
+     * @throws  IndexOutOfBoundsException if {@code off} is negative,
+     *                {@code len} is negative, or {@code len} is greater than
+     *                {@code b.length - off}.
+     * @throws  EOFException  if this file reaches the end before reading
+     *                all the bytes.
+     * @throws  IOException   if an I/O error occurs.
+     */
+    @Override
+    public void readFully(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        trace(
+                Method.READ_FULLY_ARRAY_RANGE ,
+                this.filePointer ,
+                len );
+        try
+        {
+            this.delegate.readFully( b , off , len );
+            this.filePointer += len;
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            resyncFilePointer( e );
+            throw e;
+        }
+    }
+
+    /**
+     * Attempts to skip over {@code n} bytes of input discarding the
+     * skipped bytes.
+     * <p>
+     *
+     * This method may skip over some smaller number of bytes, possibly zero.
+     * This may result from any of a number of conditions; reaching end of
+     * file before {@code n} bytes have been skipped is only one
+     * possibility. This method never throws an {@code EOFException}.
+     * The actual number of bytes skipped is returned.  If {@code n}
+     * is negative, no bytes are skipped.
+     *
+     * @param      n   the number of bytes to be skipped.
+     * @return     the actual number of bytes skipped.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public int skipBytes(
+            final int n )
+            throws IOException
+    {
+        trace(
+                Method.SKIP_BYTES ,
+                this.filePointer ,
+                n );
+        try
+        {
+            final int result = this.delegate.skipBytes( n );
+            this.filePointer += Math.max( result , 0 );
+            return result;
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            resyncFilePointer( e );
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the specified byte to this file. The write starts at
+     * the current file pointer.
+     *
+     * @param      b   the {@code byte} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final int b )
+            throws IOException
+    {
+        trace(
+                Method.WRITE ,
+                this.filePointer ,
+                1 );
+        try
+        {
+            this.delegate.write( b );
+            this.filePointer += 1;
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            resyncFilePointer( e );
+            throw e;
+        }
+    }
+
+    /**
+     * Writes {@code b.length} bytes from the specified byte array
+     * to this file, starting at the current file pointer.
+     *
+     * @param      b   the data.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final byte[] b )
+            throws IOException
+    {
+        trace(
+                Method.WRITE_ARRAY ,
+                this.filePointer ,
+                b.length );
+        try
+        {
+            this.delegate.write( b );
+            this.filePointer += b.length;
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            resyncFilePointer( e );
+            throw e;
+        }
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array
+     * starting at offset {@code off} to this file.
+     *
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void write(
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        trace(
+                Method.WRITE_ARRAY_RANGE ,
+                this.filePointer ,
+                len );
+        try
+        {
+            this.delegate.write( b , off , len );
+            this.filePointer += len;
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            resyncFilePointer( e );
+            throw e;
+        }
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array
+     * starting at offset {@code off} to this file at the specified
+     * position. The file pointer is not changed, like {@code pwrite}.
+     * The file grows if the written range exceeds the end.
+     *
+     * @param      pos   the position in the file at which the write starts.
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException If {@code pos} is negative, the file has been
+     *             closed or some other I/O error occurs.
+     */
+    @Override
+    public void writeAt(
+            final long pos ,
+            final byte[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        trace(
+                Method.WRITE_AT ,
+                pos ,
+                len );
+        this.delegate.writeAt( pos , b , off , len );
+    }
+
+    /**
+     * Returns the current offset in this file.
+     *
+     * @return     the offset from the beginning of the file, in bytes,
+     *             at which the next read or write occurs.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public long getFilePointer()
+            throws IOException
+    {
+        trace(
+                Method.GET_FILE_POINTER ,
+                this.filePointer ,
+                0 );
+        final long result = this.delegate.getFilePointer();
+        return result;
+    }
+
+    /**
+     * Sets the file-pointer offset, measured from the beginning of this
+     * file, at which the next read or write occurs.  The offset may be
+     * set beyond the end of the file. Setting the offset beyond the end
+     * of the file does not change the file length.  The file length will
+     * change only by writing after the offset has been set beyond the end
+     * of the file.
+     *
+     * @param      pos   the offset position, measured in bytes from the
+     *                   beginning of the file, at which to set the file
+     *                   pointer.
+     * @exception  IOException  if {@code pos} is less than
+     *                          {@code 0} or if an I/O error occurs.
+     */
+    @Override
+    public void seek(
+            final long pos )
+            throws IOException
+    {
+        trace(
+                Method.SEEK ,
+                pos ,
+                0 );
+        this.delegate.seek( pos );
+        this.filePointer = pos;
+    }
+
+    /**
+     * Returns the length of this file.
+     *
+     * @return     the length of this file, measured in bytes.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public long length()
+            throws IOException
+    {
+        trace(
+                Method.LENGTH ,
+                this.filePointer ,
+                0 );
+        final long result = this.delegate.length();
+        return result;
+    }
+
+    /**
+     * Sets the length of this file.
+     *
+     * <p> If the present length of the file as returned by the
+     * {@code length} method is greater than the {@code newLength}
+     * argument then the file will be truncated.  In this case, if the file
+     * offset as returned by the {@code getFilePointer} method is greater
+     * than {@code newLength} then after this method returns the offset
+     * will be equal to {@code newLength}.
+     *
+     * <p> If the present length of the file as returned by the
+     * {@code length} method is smaller than the {@code newLength}
+     * argument then the file will be extended.  In this case, the contents of
+     * the extended portion of the file are not defined.
+     *
+     * @param      newLength    The desired length of the file
+     * @exception  IOException  If an I/O error occurs
+     * @since      1.2
+     */
+    @Override
+    public void setLength(
+            final long newLength )
+            throws IOException
+    {
+        trace(
+                Method.SET_LENGTH ,
+                newLength ,
+                0 );
+        this.delegate.setLength( newLength );
+        this.filePointer = Math.min( this.filePointer , newLength );
+    }
+
+    /**
+     * Closes this random access file stream and releases any system
+     * resources associated with the stream. A closed random access
+     * file cannot perform input or output operations and cannot be
+     * reopened.
+     *
+     * <p> If this file has an associated channel then the channel is closed
+     * as well.
+     *
+     * @exception  IOException  if an I/O error occurs.
+     *
+     * @revised 1.4
+     * @spec JSR-51
+     */
+    @Override
+    public void close()
+            throws IOException
+    {
+        trace(
+                Method.CLOSE ,
+                this.filePointer ,
+                0 );
+        try
+        {
+            flushTrace();
+        }
+        finally
+        {
+            this.delegate.close();
+        }
+    }
+
+    /**
+     * Reads a {@code boolean} from this file. This method reads a
+     * single byte from the file, starting at the current file pointer.
+     * A value of {@code 0} represents
+     * {@code false}. Any other value represents {@code true}.
+     * This method blocks until the byte is read, the end of the stream
+     * is detected, or an exception is thrown.
+     *
+     * @return     the {@code boolean} value read.
+     * @exception  EOFException  if this file has reached the end.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public boolean readBoolean()
+            throws IOException
+    {
+        return fixedSize(
+                Method.READ_BOOLEAN ,
+                1 ,
+                this.delegate::readBoolean );
+    }
+
+    /**
+     * Reads a signed eight-bit value from this file. This method reads a
+     * byte from the file, starting from the current file pointer.
+     * If the byte read is {@code b}, where
+     * <code>0&nbsp;&lt;=&nbsp;b&nbsp;&lt;=&nbsp;255</code>,
+     * then the result is:
+     * <blockquote><pre>
+     *     (byte)(b)
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the byte is read, the end of the stream
+     * is detected, or an exception is thrown.
+     *
+     * @return     the next byte of this file as a signed eight-bit
+     *             {@code byte}.
+     * @exception  EOFException  if this file has reached the end.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public byte readByte()
+            throws IOException
+    {
+        return fixedSize(
+                Method.READ_BYTE ,
+                1 ,
+                this.delegate::readByte );
+    }
+
+    /**
+     * Reads an unsigned eight-bit number from this file. This method reads
+     * a byte from this file, starting at the current file pointer,
+     * and returns that byte.
+     * <p>
+     * This method blocks until the byte is read, the end of the stream
+     * is detected, or an exception is thrown.
+     *
+     * @return     the next byte of this file, interpreted as an unsigned
+     *             eight-bit number.
+     * @exception  EOFException  if this file has reached the end.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public int readUnsignedByte()
+            throws IOException
+    {
+        return fixedSize(
+                Method.READ_UNSIGNED_BYTE ,
+                1 ,
+                this.delegate::readUnsignedByte );
+    }
+
+    /**
+     * Reads a signed 16-bit number from this file. The method reads two
+     * bytes from this file, starting at the current file pointer.
+     * If the two bytes read, in order, are
+     * {@code b1} and {@code b2}, where each of the two values is
+     * between {@code 0} and {@code 255}, inclusive, then the
+     * result is equal to:
+     * <blockquote><pre>
+     *     (short)((b1 &lt;&lt; 8) | b2)
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the two bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next two bytes of this file, interpreted as a signed
+     *             16-bit number.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               two bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public short readShort()
+            throws IOException
+    {
+        return fixedSize(
+                Method.READ_SHORT ,
+                2 ,
+                this.delegate::readShort );
+    }
+
+    /**
+     * Reads an unsigned 16-bit number from this file. This method reads
+     * two bytes from the file, starting at the current file pointer.
+     * If the bytes read, in order, are
+     * {@code b1} and {@code b2}, where
+     * <code>0&nbsp;&lt;=&nbsp;b1, b2&nbsp;&lt;=&nbsp;255</code>,
+     * then the result is equal to:
+     * <blockquote><pre>
+     *     (b1 &lt;&lt; 8) | b2
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the two bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next two bytes of this file, interpreted as an unsigned
+     *             16-bit integer.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               two bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public int readUnsignedShort()
+            throws IOException
+    {
+        return fixedSize(
+                Method.READ_UNSIGNED_SHORT ,
+                2 ,
+                this.delegate::readUnsignedShort );
+    }
+
+    /**
+     * Reads a character from this file. This method reads two
+     * bytes from the file, starting at the current file pointer.
+     * If the bytes read, in order, are
+     * {@code b1} and {@code b2}, where
+     * <code>0&nbsp;&lt;=&nbsp;b1,&nbsp;b2&nbsp;&lt;=&nbsp;255</code>,
+     * then the result is equal to:
+     * <blockquote><pre>
+     *     (char)((b1 &lt;&lt; 8) | b2)
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the two bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next two bytes of this file, interpreted as a
+     *                  {@code char}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               two bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public char readChar()
+            throws IOException
+    {
+        return fixedSize(
+                Method.READ_CHAR ,
+                2 ,
+                this.delegate::readChar );
+    }
+
+    /**
+     * Reads a signed 32-bit integer from this file. This method reads 4
+     * bytes from the file, starting at the current file pointer.
+     * If the bytes read, in order, are {@code b1},
+     * {@code b2}, {@code b3}, and {@code b4}, where
+     * <code>0&nbsp;&lt;=&nbsp;b1, b2, b3, b4&nbsp;&lt;=&nbsp;255</code>,
+     * then the result is equal to:
+     * <blockquote><pre>
+     *     (b1 &lt;&lt; 24) | (b2 &lt;&lt; 16) + (b3 &lt;&lt; 8) + b4
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the four bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next four bytes of this file, interpreted as an
+     *             {@code int}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               four bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public int readInt()
+            throws IOException
+    {
+        return fixedSize(
+                Method.READ_INT ,
+                4 ,
+                this.delegate::readInt );
+    }
+
+    /**
+     * Reads a signed 64-bit integer from this file. This method reads eight
+     * bytes from the file, starting at the current file pointer.
+     * If the bytes read, in order, are
+     * {@code b1}, {@code b2}, {@code b3},
+     * {@code b4}, {@code b5}, {@code b6},
+     * {@code b7}, and {@code b8,} where:
+     * <blockquote><pre>
+     *     0 &lt;= b1, b2, b3, b4, b5, b6, b7, b8 &lt;=255,
+     * </pre></blockquote>
+     * <p>
+     * then the result is equal to:
+     * <blockquote><pre>
+     *     ((long)b1 &lt;&lt; 56) + ((long)b2 &lt;&lt; 48)
+     *     + ((long)b3 &lt;&lt; 40) + ((long)b4 &lt;&lt; 32)
+     *     + ((long)b5 &lt;&lt; 24) + ((long)b6 &lt;&lt; 16)
+     *     + ((long)b7 &lt;&lt; 8) + b8
+     * </pre></blockquote>
+     * <p>
+     * This method blocks until the eight bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next eight bytes of this file, interpreted as a
+     *             {@code long}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *               eight bytes.
+     * @exception  IOException   if an I/O error occurs.
+     */
+    @Override
+    public long readLong()
+            throws IOException
+    {
+        return fixedSize(
+                Method.READ_LONG ,
+                8 ,
+                this.delegate::readLong );
+    }
+
+    /**
+     * Reads a {@code float} from this file. This method reads an
+     * {@code int} value, starting at the current file pointer,
+     * as if by the {@code readInt} method
+     * and then converts that {@code int} to a {@code float}
+     * using the {@code intBitsToFloat} method in class
+     * {@code Float}.
+     * <p>
+     * This method blocks until the four bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next four bytes of this file, interpreted as a
+     *             {@code float}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *             four bytes.
+     * @exception  IOException   if an I/O error occurs.
+     * @see        java.io.RandomAccessFile#readInt()
+     * @see        java.lang.Float#intBitsToFloat(int)
+     */
+    @Override
+    public float readFloat()
+            throws IOException
+    {
+        return fixedSize(
+                Method.READ_FLOAT ,
+                4 ,
+                this.delegate::readFloat );
+    }
+
+    /**
+     * Reads a {@code double} from this file. This method reads a
+     * {@code long} value, starting at the current file pointer,
+     * as if by the {@code readLong} method
+     * and then converts that {@code long} to a {@code double}
+     * using the {@code longBitsToDouble} method in
+     * class {@code Double}.
+     * <p>
+     * This method blocks until the eight bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     the next eight bytes of this file, interpreted as a
+     *             {@code double}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *             eight bytes.
+     * @exception  IOException   if an I/O error occurs.
+     * @see        java.io.RandomAccessFile#readLong()
+     * @see        java.lang.Double#longBitsToDouble(long)
+     */
+    @Override
+    public double readDouble()
+            throws IOException
+    {
+        return fixedSize(
+                Method.READ_DOUBLE ,
+                8 ,
+                this.delegate::readDouble );
+    }
+
+    /**
+     * Reads the next line of text from this file.  This method successively
+     * reads bytes from the file, starting at the current file pointer,
+     * until it reaches a line terminator or the end
+     * of the file.  Each byte is converted into a character by taking the
+     * byte's value for the lower eight bits of the character and setting the
+     * high eight bits of the character to zero.  This method does not,
+     * therefore, support the full Unicode character set.
+     *
+     * <p> A line of text is terminated by a carriage-return character
+     * ({@code '\u005Cr'}), a newline character ({@code '\u005Cn'}), a
+     * carriage-return character immediately followed by a newline character,
+     * or the end of the file.  Line-terminating characters are discarded and
+     * are not included as part of the string returned.
+     *
+     * <p> This method blocks until a newline character is read, a carriage
+     * return and the byte following it are read (to see if it is a newline),
+     * the end of the file is reached, or an exception is thrown.
+     *
+     * @return     the next line of text from this file, or null if end
+     *             of file is encountered before even one byte is read.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public String readLine()
+            throws IOException
+    {
+        trace(
+                Method.READ_LINE ,
+                this.filePointer ,
+                0 );
+        try
+        {
+            final String result = this.delegate.readLine();
+            this.filePointer = this.delegate.getFilePointer();
+            return result;
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            resyncFilePointer( e );
+            throw e;
+        }
+    }
+
+    /**
+     * Reads in a string from this file. The string has been encoded
+     * using a
+     * <a href="DataInput.html#modified-utf-8">modified UTF-8</a>
+     * format.
+     * <p>
+     * The first two bytes are read, starting from the current file
+     * pointer, as if by
+     * {@code readUnsignedShort}. This value gives the number of
+     * following bytes that are in the encoded string, not
+     * the length of the resulting string. The following bytes are then
+     * interpreted as bytes encoding characters in the modified UTF-8 format
+     * and are converted into characters.
+     * <p>
+     * This method blocks until all the bytes are read, the end of the
+     * stream is detected, or an exception is thrown.
+     *
+     * @return     a Unicode string.
+     * @exception  EOFException            if this file reaches the end before
+     *               reading all the bytes.
+     * @exception  IOException             if an I/O error occurs.
+     * @exception  UTFDataFormatException  if the bytes do not represent
+     *               valid modified UTF-8 encoding of a Unicode string.
+     * @see        java.io.RandomAccessFile#readUnsignedShort()
+     */
+    @Override
+    public String readUTF()
+            throws IOException
+    {
+        trace(
+                Method.READ_UTF ,
+                this.filePointer ,
+                0 );
+        try
+        {
+            final String result = this.delegate.readUTF();
+            this.filePointer = this.delegate.getFilePointer();
+            return result;
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            resyncFilePointer( e );
+            throw e;
+        }
+    }
+
+    /**
+     * Writes a {@code boolean} to the file as a one-byte value. The
+     * value {@code true} is written out as the value
+     * {@code (byte)1}; the value {@code false} is written out
+     * as the value {@code (byte)0}. The write starts at
+     * the current position of the file pointer.
+     *
+     * @param      v   a {@code boolean} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeBoolean(
+            final boolean v )
+            throws IOException
+    {
+        fixedSize(
+                Method.WRITE_BOOLEAN ,
+                1 ,
+                () -> {
+                    this.delegate.writeBoolean( v );
+                    return null;
+                } );
+    }
+
+    /**
+     * Writes a {@code byte} to the file as a one-byte value. The
+     * write starts at the current position of the file pointer.
+     *
+     * @param      v   a {@code byte} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeByte(
+            final int v )
+            throws IOException
+    {
+        fixedSize(
+                Method.WRITE_BYTE ,
+                1 ,
+                () -> {
+                    this.delegate.writeByte( v );
+                    return null;
+                } );
+    }
+
+    /**
+     * Writes a {@code short} to the file as two bytes, high byte first.
+     * The write starts at the current position of the file pointer.
+     *
+     * @param      v   a {@code short} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeShort(
+            final int v )
+            throws IOException
+    {
+        fixedSize(
+                Method.WRITE_SHORT ,
+                2 ,
+                () -> {
+                    this.delegate.writeShort( v );
+                    return null;
+                } );
+    }
+
+    /**
+     * Writes a {@code char} to the file as a two-byte value, high
+     * byte first. The write starts at the current position of the
+     * file pointer.
+     *
+     * @param      v   a {@code char} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeChar(
+            final int v )
+            throws IOException
+    {
+        fixedSize(
+                Method.WRITE_CHAR ,
+                2 ,
+                () -> {
+                    this.delegate.writeChar( v );
+                    return null;
+                } );
+    }
+
+    /**
+     * Writes an {@code int} to the file as four bytes, high byte first.
+     * The write starts at the current position of the file pointer.
+     *
+     * @param      v   an {@code int} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeInt(
+            final int v )
+            throws IOException
+    {
+        fixedSize(
+                Method.WRITE_INT ,
+                4 ,
+                () -> {
+                    this.delegate.writeInt( v );
+                    return null;
+                } );
+    }
+
+    /**
+     * Writes a {@code long} to the file as eight bytes, high byte first.
+     * The write starts at the current position of the file pointer.
+     *
+     * @param      v   a {@code long} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeLong(
+            final long v )
+            throws IOException
+    {
+        fixedSize(
+                Method.WRITE_LONG ,
+                8 ,
+                () -> {
+                    this.delegate.writeLong( v );
+                    return null;
+                } );
+    }
+
+    /**
+     * Converts the float argument to an {@code int} using the
+     * {@code floatToIntBits} method in class {@code Float},
+     * and then writes that {@code int} value to the file as a
+     * four-byte quantity, high byte first. The write starts at the
+     * current position of the file pointer.
+     *
+     * @param      v   a {@code float} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.lang.Float#floatToIntBits(float)
+     */
+    @Override
+    public void writeFloat(
+            final float v )
+            throws IOException
+    {
+        fixedSize(
+                Method.WRITE_FLOAT ,
+                4 ,
+                () -> {
+                    this.delegate.writeFloat( v );
+                    return null;
+                } );
+    }
+
+    /**
+     * Converts the double argument to a {@code long} using the
+     * {@code doubleToLongBits} method in class {@code Double},
+     * and then writes that {@code long} value to the file as an
+     * eight-byte quantity, high byte first. The write starts at the current
+     * position of the file pointer.
+     *
+     * @param      v   a {@code double} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.lang.Double#doubleToLongBits(double)
+     */
+    @Override
+    public void writeDouble(
+            final double v )
+            throws IOException
+    {
+        fixedSize(
+                Method.WRITE_DOUBLE ,
+                8 ,
+                () -> {
+                    this.delegate.writeDouble( v );
+                    return null;
+                } );
+    }
+
+    /**
+     * Writes the string to the file as a sequence of bytes. Each
+     * character in the string is written out, in sequence, by discarding
+     * its high eight bits. The write starts at the current position of
+     * the file pointer.
+     *
+     * @param      s   a string of bytes to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeBytes(
+            final String s )
+            throws IOException
+    {
+        trace(
+                Method.WRITE_BYTES ,
+                this.filePointer ,
+                s.length() );
+        try
+        {
+            this.delegate.writeBytes( s );
+            this.filePointer += s.length();
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            resyncFilePointer( e );
+            throw e;
+        }
+    }
+
+    /**
+     * Writes a string to the file as a sequence of characters. Each
+     * character is written to the data output stream as if by the
+     * {@code writeChar} method. The write starts at the current
+     * position of the file pointer.
+     *
+     * @param      s   a {@code String} value to be written.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.io.RandomAccessFile#writeChar(int)
+     */
+    @Override
+    public void writeChars(
+            final String s )
+            throws IOException
+    {
+        trace(
+                Method.WRITE_CHARS ,
+                this.filePointer ,
+                s.length() );
+        try
+        {
+            this.delegate.writeChars( s );
+            this.filePointer += 2L * s.length();
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            resyncFilePointer( e );
+            throw e;
+        }
+    }
+
+    /**
+     * Writes a string to the file using
+     * <a href="DataInput.html#modified-utf-8">modified UTF-8</a>
+     * encoding in a machine-independent manner.
+     * <p>
+     * First, two bytes are written to the file, starting at the
+     * current file pointer, as if by the
+     * {@code writeShort} method giving the number of bytes to
+     * follow. This value is the number of bytes actually written out,
+     * not the length of the string. Following the length, each character
+     * of the string is output, in sequence, using the modified UTF-8 encoding
+     * for each character.
+     *
+     * @param      str   a string to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @Override
+    public void writeUTF(
+            final String str )
+            throws IOException
+    {
+        trace(
+                Method.WRITE_UTF ,
+                this.filePointer ,
+                utfLength( str ) );
+        try
+        {
+            this.delegate.writeUTF( str );
+            this.filePointer = this.delegate.getFilePointer();
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            resyncFilePointer( e );
+            throw e;
+        }
+    }
+
+    /**
+     * Reads {@code len} int values from this file into the array,
+     * each as four bytes high byte first, like {@code readInt}
+     * in a loop, but as one bulk transfer.
+     *
+     * @param      b     the array into which the values are read.
+     * @param      off   the start offset in array {@code b}.
+     * @param      len   the number of values to read.
+     * @exception  EOFException  if this file reaches the end before reading
+     *             all values.
+     * @exception  IOException   if an I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public void readInts(
+            final int[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        trace(
+                Method.READ_INTS ,
+                this.filePointer ,
+                len );
+        try
+        {
+            this.delegate.readInts( b , off , len );
+            this.filePointer += 4L * len;
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            resyncFilePointer( e );
+            throw e;
+        }
+    }
+
+    /**
+     * Writes {@code len} int values from the array to this file,
+     * each as four bytes high byte first, like {@code writeInt}
+     * in a loop, but as one bulk transfer.
+     *
+     * @param      b     the values.
+     * @param      off   the start offset in array {@code b}.
+     * @param      len   the number of values to write.
+     * @exception  IOException  if an I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public void writeInts(
+            final int[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        trace(
+                Method.WRITE_INTS ,
+                this.filePointer ,
+                len );
+        try
+        {
+            this.delegate.writeInts( b , off , len );
+            this.filePointer += 4L * len;
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            resyncFilePointer( e );
+            throw e;
+        }
+    }
+
+    /**
+     * Reads {@code len} long values from this file into the array,
+     * each as eight bytes high byte first, like {@code readLong}
+     * in a loop, but as one bulk transfer.
+     *
+     * @param      b     the array into which the values are read.
+     * @param      off   the start offset in array {@code b}.
+     * @param      len   the number of values to read.
+     * @exception  EOFException  if this file reaches the end before reading
+     *             all values.
+     * @exception  IOException   if an I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public void readLongs(
+            final long[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        trace(
+                Method.READ_LONGS ,
+                this.filePointer ,
+                len );
+        try
+        {
+            this.delegate.readLongs( b , off , len );
+            this.filePointer += 8L * len;
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            resyncFilePointer( e );
+            throw e;
+        }
+    }
+
+    /**
+     * Writes {@code len} long values from the array to this file,
+     * each as eight bytes high byte first, like {@code writeLong}
+     * in a loop, but as one bulk transfer.
+     *
+     * @param      b     the values.
+     * @param      off   the start offset in array {@code b}.
+     * @param      len   the number of values to write.
+     * @exception  IOException  if an I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public void writeLongs(
+            final long[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        trace(
+                Method.WRITE_LONGS ,
+                this.filePointer ,
+                len );
+        try
+        {
+            this.delegate.writeLongs( b , off , len );
+            this.filePointer += 8L * len;
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            resyncFilePointer( e );
+            throw e;
+        }
+    }
+
+    /**
+     * Reads {@code len} double values from this file into the array,
+     * each as eight bytes high byte first, like {@code readDouble}
+     * in a loop, but as one bulk transfer.
+     *
+     * @param      b     the array into which the values are read.
+     * @param      off   the start offset in array {@code b}.
+     * @param      len   the number of values to read.
+     * @exception  EOFException  if this file reaches the end before reading
+     *             all values.
+     * @exception  IOException   if an I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public void readDoubles(
+            final double[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        trace(
+                Method.READ_DOUBLES ,
+                this.filePointer ,
+                len );
+        try
+        {
+            this.delegate.readDoubles( b , off , len );
+            this.filePointer += 8L * len;
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            resyncFilePointer( e );
+            throw e;
+        }
+    }
+
+    /**
+     * Writes {@code len} double values from the array to this file,
+     * each as eight bytes high byte first, like {@code writeDouble}
+     * in a loop, but as one bulk transfer.
+     * NaN values are written canonical like
+     * {@link java.lang.Double#doubleToLongBits(double)}.
+     *
+     * @param      b     the values.
+     * @param      off   the start offset in array {@code b}.
+     * @param      len   the number of values to write.
+     * @exception  IOException  if an I/O error occurs.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     * {@code len} is negative, or {@code len} is greater than
+     * {@code b.length - off}
+     */
+    @Override
+    public void writeDoubles(
+            final double[] b ,
+            final int off ,
+            final int len )
+            throws IOException
+    {
+        trace(
+                Method.WRITE_DOUBLES ,
+                this.filePointer ,
+                len );
+        try
+        {
+            this.delegate.writeDoubles( b , off , len );
+            this.filePointer += 8L * len;
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            resyncFilePointer( e );
+            throw e;
+        }
+    }
+
+    /**
+     * Append a record to the trace.
+     *
+     * @param method called method
+     * @param position position of the call
+     * @param length length of the call
+     * @throws IOException if writing the trace fails
+     */
+    private void trace(
+            final Method method ,
+            final long position ,
+            final long length )
+            throws IOException
+    {
+        if ( this.traceBufferLength > TRACE_BUFFER_SIZE - MAX_RECORD_SIZE )
+        {
+            this.traceOut.write(
+                    this.traceBuffer ,
+                    0 ,
+                    this.traceBufferLength );
+
+            this.traceBufferLength = 0;
+        }
+
+        final long now = System.nanoTime();
+
+        this.traceBuffer[ this.traceBufferLength++ ] = (byte) method.ordinal();
+        putVarLong( zigzagEncode( position - this.previousPosition ) );
+        putVarLong( zigzagEncode( length ) );
+        putVarLong( Math.max( now - this.previousNanos , 0L ) );
+
+        this.previousPosition = position;
+        this.previousNanos = now;
+    }
+
+    /**
+     * Number of bytes written by {@code writeUTF}:
+     * two length bytes and the modified UTF-8 encoding,
+     * one byte for {@code '\u0001'} to {@code '\u007F'},
+     * two bytes for {@code '\u0000'} and up to {@code '\u07FF'},
+     * else three bytes.
+     *
+     * @param str the string
+     * @return encoded length in bytes
+     */
+    static long utfLength(
+            final String str )
+    {
+        long utflen = 2;
+        for ( int i = 0 ; i < str.length() ; i++ )
+        {
+            final char c = str.charAt( i );
+            if ( c >= 0x0001 && c <= 0x007F )
+            {
+                utflen++;
+            }
+            else if ( c <= 0x07FF )
+            {
+                utflen += 2;
+            }
+            else
+            {
+                utflen += 3;
+            }
+        }
+        return utflen;
+    }
+
+    /**
+     * Trace and call a method with fixed byte count,
+     * afterwards the file pointer is advanced by the byte count.
+     *
+     * @param <T> result type of the call
+     * @param method called method
+     * @param byteCount number of bytes transferred by the call
+     * @param call call of the decorated file
+     * @return result of the call
+     * @throws IOException if the call or writing the trace fails
+     */
+    private <T> T fixedSize(
+            final Method method ,
+            final int byteCount ,
+            final IoCall<T> call )
+            throws IOException
+    {
+        trace(
+                method ,
+                this.filePointer ,
+                byteCount );
+        try
+        {
+            final T result = call.call();
+            this.filePointer += byteCount;
+            return result;
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            resyncFilePointer( e );
+            throw e;
+        }
+    }
+
+    /**
+     * Call of the decorated file for {@link #fixedSize}.
+     *
+     * @param <T> result type of the call
+     */
+    @FunctionalInterface
+    private interface IoCall<T>
+    {
+        T call()
+                throws IOException;
+    }
+
+    /**
+     * Set the tracked file pointer from the decorated
+     * file after a failed call.
+     * <p>
+     * A failed call may have transferred a part of its bytes,
+     * for example a {@code readInt} reaching the end of the file,
+     * so the file pointer is unknown and must be read
+     * from the decorated file.
+     *
+     * @param failure exception of the failed call, gets
+     *                the exception of the decorated file as suppressed
+     */
+    private void resyncFilePointer(
+            final Exception failure )
+    {
+        try
+        {
+            this.filePointer = this.delegate.getFilePointer();
+        }
+        catch ( final IOException e )
+        {
+            // closed, the file pointer does not matter
+            failure.addSuppressed( e );
+        }
+    }
+
+    /**
+     * Append four bytes high byte first to {@link #traceBuffer}.
+     *
+     * @param value value to append
+     */
+    private void putInt(
+            final int value )
+    {
+        for ( int shift = 24 ; shift >= 0 ; shift -= 8 )
+        {
+            this.traceBuffer[ this.traceBufferLength++ ] = (byte) ( value >>> shift );
+        }
+    }
+
+    /**
+     * Append unsigned LEB128 to {@link #traceBuffer}.
+     *
+     * @param value value to append, interpreted as unsigned
+     */
+    private void putVarLong(
+            final long value )
+    {
+        long v = value;
+        while ( ( v & ~0x7FL ) != 0L )
+        {
+            this.traceBuffer[ this.traceBufferLength++ ] = (byte) ( ( v & 0x7F ) | 0x80 );
+            v >>>= 7;
+        }
+        this.traceBuffer[ this.traceBufferLength++ ] = (byte) v;
+    }
+
+    /**
+     * @param value signed value
+     * @return zigzag encoded value, small for small negative values
+     */
+    private static long zigzagEncode(
+            final long value )
+    {
+        return ( value << 1 ) ^ ( value >> 63 );
+    }
+
+}
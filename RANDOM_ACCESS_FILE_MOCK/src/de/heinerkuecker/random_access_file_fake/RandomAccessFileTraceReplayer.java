@@ -0,0 +1,445 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.util.Arrays;
+
+import de.heinerkuecker.random_access_file_fake.RandomAccessFileInstrumented.Method;
+
+/**
+ * Replay of a trace recorded by {@link RandomAccessFileTraceRecording}
+ * against any {@link RandomAccessFileInterface}, each record calls
+ * the same method with the same position and length.
+ * <br/><br/>
+ * The replay runs as fast as possible, the timestamps of the
+ * trace are not used for pacing. Written data is arbitrary.
+ * The latency of each call is recorded in {@link #getLatencyNanos()}.
+ * An {@link EOFException}, for example because the traced file had
+ * content the replay target has not, is counted and the replay goes on.
+ * Likewise a {@link UTFDataFormatException} of readUTF, because
+ * the content of the replay target is not the traced content.
+ * Not thread-safe.
+ */
+public final class RandomAccessFileTraceReplayer
+{
+    /**
+     * Target of the replay.
+     */
+    private final RandomAccessFileInterface target;
+
+    /**
+     * Latency per call in nanoseconds.
+     */
+    private final IoHistogram latencyNanos = new IoHistogram();
+
+    /**
+     * Number of calls ended with {@link EOFException}.
+     */
+    private long eofCount;
+
+    /**
+     * Number of calls ended with {@link UTFDataFormatException}.
+     */
+    private long contentErrorCount;
+
+    /**
+     * Buffer for byte transfers, grows on demand.
+     */
+    private byte[] bytes = new byte[ 0 ];
+
+    /**
+     * Buffer for methods with implicit length
+     * {@code b.length}, has the last used length.
+     */
+    private byte[] exactBytes = new byte[ 0 ];
+
+    /**
+     * Buffer for int transfers, grows on demand.
+     */
+    private int[] ints = new int[ 0 ];
+
+    /**
+     * Buffer for long transfers, grows on demand.
+     */
+    private long[] longs = new long[ 0 ];
+
+    /**
+     * Buffer for double transfers, grows on demand.
+     */
+    private double[] doubles = new double[ 0 ];
+
+    /**
+     * Cached string for string writes.
+     */
+    private String string = "";
+
+    /**
+     * Constructor.
+     *
+     * @param target opened file to replay the trace against
+     */
+    public RandomAccessFileTraceReplayer(
+            final RandomAccessFileInterface target )
+    {
+        this.target = target;
+    }
+
+    /**
+     * Replay all remaining records of the trace.
+     *
+     * @param trace trace to replay
+     * @return number of replayed calls
+     * @throws IOException if reading the trace or a call fails other than by
+     *                     end of file or content of the replay target
+     */
+    public long replay(
+            final RandomAccessFileTraceReader trace )
+            throws IOException
+    {
+        long count = 0;
+        while ( trace.next() )
+        {
+            replay(
+                    trace.getMethod() ,
+                    trace.getPosition() ,
+                    trace.getLength() );
+
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Replay one call.
+     *
+     * @param method called method
+     * @param position position of the call
+     * @param length length of the call
+     * @return result of the call, for example the read value, prevents dead code elimination
+     * @throws IOException if the call fails other than by end of file
+     *                     or content of the replay target
+     */
+    public long replay(
+            final Method method ,
+            final long position ,
+            final long length )
+            throws IOException
+    {
+        final long start = System.nanoTime();
+        try
+        {
+            return call( method , position , (int) length );
+        }
+        catch ( final EOFException e )
+        {
+            this.eofCount++;
+            return 0L;
+        }
+        catch ( final UTFDataFormatException e )
+        {
+            // replay target has other content than the traced file
+            this.contentErrorCount++;
+            return 0L;
+        }
+        finally
+        {
+            this.latencyNanos.record( System.nanoTime() - start );
+        }
+    }
+
+    /**
+     * @return latency per call in nanoseconds
+     */
+    public IoHistogram getLatencyNanos()
+    {
+        return this.latencyNanos;
+    }
+
+    /**
+     * @return number of calls ended with {@link EOFException}
+     */
+    public long getEofCount()
+    {
+        return this.eofCount;
+    }
+
+    /**
+     * @return number of calls ended with {@link UTFDataFormatException},
+     *         readUTF of content which is not modified UTF-8
+     */
+    public long getContentErrorCount()
+    {
+        return this.contentErrorCount;
+    }
+
+    /**
+     * Call the method on {@link #target}.
+     *
+     * @return result of the call
+     */
+    private long call(
+            final Method method ,
+            final long position ,
+            final int length )
+            throws IOException
+    {
+        final RandomAccessFileInterface t = this.target;
+
+        switch ( method )
+        {
+            case READ :
+                return t.read();
+
+            case READ_ARRAY :
+                return t.read( exactBytes( length ) );
+
+            case READ_ARRAY_RANGE :
+                return t.read( bytes( length ) , 0 , length );
+
+            case READ_AT :
+                return t.readAt( position , bytes( length ) , 0 , length );
+
+            case READ_FULLY_ARRAY :
+                t.readFully( exactBytes( length ) );
+                return 0L;
+
+            case READ_FULLY_ARRAY_RANGE :
+                t.readFully( bytes( length ) , 0 , length );
+                return 0L;
+
+            case SKIP_BYTES :
+                return t.skipBytes( length );
+
+            case WRITE :
+                t.write( (int) position );
+                return 0L;
+
+            case WRITE_ARRAY :
+                t.write( exactBytes( length ) );
+                return 0L;
+
+            case WRITE_ARRAY_RANGE :
+                t.write( bytes( length ) , 0 , length );
+                return 0L;
+
+            case WRITE_AT :
+                t.writeAt( position , bytes( length ) , 0 , length );
+                return 0L;
+
+            case GET_FILE_POINTER :
+                return t.getFilePointer();
+
+            case SEEK :
+                t.seek( position );
+                return 0L;
+
+            case LENGTH :
+                return t.length();
+
+            case SET_LENGTH :
+                t.setLength( position );
+                return 0L;
+
+            case CLOSE :
+                t.close();
+                return 0L;
+
+            case READ_BOOLEAN :
+                return t.readBoolean() ? 1L : 0L;
+
+            case READ_BYTE :
+                return t.readByte();
+
+            case READ_UNSIGNED_BYTE :
+                return t.readUnsignedByte();
+
+            case READ_SHORT :
+                return t.readShort();
+
+            case READ_UNSIGNED_SHORT :
+                return t.readUnsignedShort();
+
+            case READ_CHAR :
+                return t.readChar();
+
+            case READ_INT :
+                return t.readInt();
+
+            case READ_LONG :
+                return t.readLong();
+
+            case READ_FLOAT :
+                return Float.floatToRawIntBits( t.readFloat() );
+
+            case READ_DOUBLE :
+                return Double.doubleToRawLongBits( t.readDouble() );
+
+            case READ_LINE :
+                final String line = t.readLine();
+                return line == null ? -1L : line.length();
+
+            case READ_UTF :
+                return t.readUTF().length();
+
+            case WRITE_BOOLEAN :
+                t.writeBoolean( ( position & 1 ) != 0 );
+                return 0L;
+
+            case WRITE_BYTE :
+                t.writeByte( (int) position );
+                return 0L;
+
+            case WRITE_SHORT :
+                t.writeShort( (int) position );
+                return 0L;
+
+            case WRITE_CHAR :
+                t.writeChar( (int) position );
+                return 0L;
+
+            case WRITE_INT :
+                t.writeInt( (int) position );
+                return 0L;
+
+            case WRITE_LONG :
+                t.writeLong( position );
+                return 0L;
+
+            case WRITE_FLOAT :
+                t.writeFloat( position );
+                return 0L;
+
+            case WRITE_DOUBLE :
+                t.writeDouble( position );
+                return 0L;
+
+            case WRITE_BYTES :
+                t.writeBytes( string( length ) );
+                return 0L;
+
+            case WRITE_CHARS :
+                t.writeChars( string( length ) );
+                return 0L;
+
+            case WRITE_UTF :
+                // ASCII, one byte per char after the two length bytes
+                t.writeUTF( string( Math.max( length - 2 , 0 ) ) );
+                return 0L;
+
+            case READ_INTS :
+                t.readInts( ints( length ) , 0 , length );
+                return 0L;
+
+            case WRITE_INTS :
+                t.writeInts( ints( length ) , 0 , length );
+                return 0L;
+
+            case READ_LONGS :
+                t.readLongs( longs( length ) , 0 , length );
+                return 0L;
+
+            case WRITE_LONGS :
+                t.writeLongs( longs( length ) , 0 , length );
+                return 0L;
+
+            case READ_DOUBLES :
+                t.readDoubles( doubles( length ) , 0 , length );
+                return 0L;
+
+            case WRITE_DOUBLES :
+                t.writeDoubles( doubles( length ) , 0 , length );
+                return 0L;
+
+            default :
+                throw new IllegalArgumentException( String.valueOf( method ) );
+        }
+    }
+
+    /**
+     * @param length minimum length
+     * @return buffer with at least the specified length
+     */
+    private byte[] bytes(
+            final int length )
+    {
+        if ( this.bytes.length < length )
+        {
+            this.bytes = new byte[ length ];
+        }
+        return this.bytes;
+    }
+
+    /**
+     * @param length exact length for {@code read(byte[])} and {@code write(byte[])}
+     * @return buffer of the specified length
+     */
+    private byte[] exactBytes(
+            final int length )
+    {
+        if ( this.exactBytes.length != length )
+        {
+            this.exactBytes = new byte[ length ];
+        }
+        return this.exactBytes;
+    }
+
+    /**
+     * @param length minimum length
+     * @return buffer with at least the specified length
+     */
+    private int[] ints(
+            final int length )
+    {
+        if ( this.ints.length < length )
+        {
+            this.ints = new int[ length ];
+        }
+        return this.ints;
+    }
+
+    /**
+     * @param length minimum length
+     * @return buffer with at least the specified length
+     */
+    private long[] longs(
+            final int length )
+    {
+        if ( this.longs.length < length )
+        {
+            this.longs = new long[ length ];
+        }
+        return this.longs;
+    }
+
+    /**
+     * @param length minimum length
+     * @return buffer with at least the specified length
+     */
+    private double[] doubles(
+            final int length )
+    {
+        if ( this.doubles.length < length )
+        {
+            this.doubles = new double[ length ];
+        }
+        return this.doubles;
+    }
+
+    /**
+     * @param length number of chars
+     * @return ASCII string of the specified length
+     */
+    private String string(
+            final int length )
+    {
+        if ( this.string.length() != length )
+        {
+            final char[] chars = new char[ length ];
+            Arrays.fill( chars , 'x' );
+            this.string = new String( chars );
+        }
+        return this.string;
+    }
+
+}
@@ -0,0 +1,69 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link IoClock} which really waits,
+ * the simulated device is as slow as
+ * the modelled one, also for other threads.
+ */
+public final class RealTimeIoClock
+implements IoClock
+{
+    /**
+     * The only instance.
+     */
+    public static final RealTimeIoClock INSTANCE = new RealTimeIoClock();
+
+    /**
+     * Private constructor, use {@link #INSTANCE}.
+     */
+    private RealTimeIoClock()
+    {
+    }
+
+    /**
+     * @return {@link System#nanoTime()}
+     */
+    @Override
+    public long nanoTime()
+    {
+        return System.nanoTime();
+    }
+
+    /**
+     * Park the current thread for the specified time,
+     * repeated until the time has passed, because
+     * {@link LockSupport#parkNanos(long)} may return early.
+     *
+     * @param nanos time in nanoseconds, not negative
+     * @throws InterruptedIOException if the waiting thread is interrupted
+     */
+    @Override
+    public void elapse(
+            final long nanos )
+            throws InterruptedIOException
+    {
+        if ( nanos < 0L )
+        {
+            throw new IllegalArgumentException( "negative time: " + nanos );
+        }
+
+        final long deadline = System.nanoTime() + nanos;
+
+        long remaining = nanos;
+        while ( remaining > 0L )
+        {
+            LockSupport.parkNanos( remaining );
+
+            if ( Thread.currentThread().isInterrupted() )
+            {
+                throw new InterruptedIOException( "interrupted while simulating I/O time" );
+            }
+
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+}
@@ -0,0 +1,133 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * 2Q {@link PageEvictionPolicy} after Johnson and Shasha.
+ * <br/><br/>
+ * New pages go into a FIFO queue (A1in), pages
+ * evicted from there are remembered in a ghost queue
+ * (A1out). A page loaded again while remembered goes
+ * into the LRU queue of hot pages (Am). So a scan
+ * of many pages only once does not flush hot pages
+ * out of the pool.
+ */
+public class TwoQueuePageEvictionPolicy
+implements PageEvictionPolicy
+{
+    /**
+     * Maximum size of {@link #a1in} before
+     * evicting from it, 25% of capacity.
+     */
+    private final int a1inMaxSize;
+
+    /**
+     * Maximum size of {@link #a1out}, 50% of capacity.
+     */
+    private final int a1outMaxSize;
+
+    /**
+     * FIFO of pages accessed only once.
+     */
+    private final LinkedHashMap<Long, Boolean> a1in = new LinkedHashMap<>();
+
+    /**
+     * FIFO of page indexes recently evicted from {@link #a1in},
+     * without pages in the pool.
+     */
+    private final LinkedHashMap<Long, Boolean> a1out = new LinkedHashMap<>();
+
+    /**
+     * LRU of hot pages, least recently used first.
+     */
+    private final LinkedHashMap<Long, Boolean> am =
+            new LinkedHashMap<>(
+                    16 ,
+                    0.75f ,
+                    // accessOrder
+                    true );
+
+    /**
+     * Constructor.
+     *
+     * @param capacity maximum number of pages in pool
+     */
+    public TwoQueuePageEvictionPolicy(
+            final int capacity )
+    {
+        this.a1inMaxSize = Math.max( 1 , capacity / 4 );
+        this.a1outMaxSize = Math.max( 1 , capacity / 2 );
+    }
+
+    @Override
+    public void pageInserted(
+            final long pageIndex )
+    {
+        if ( this.a1out.remove( pageIndex ) != null )
+        {
+            // accessed again after eviction, hot
+            this.am.put( pageIndex , Boolean.TRUE );
+        }
+        else
+        {
+            this.a1in.put( pageIndex , Boolean.TRUE );
+        }
+    }
+
+    @Override
+    public void pageAccessed(
+            final long pageIndex )
+    {
+        // moves page to end, pages in a1in keep their position
+        this.am.get( pageIndex );
+    }
+
+    @Override
+    public void pageRemoved(
+            final long pageIndex )
+    {
+        this.a1in.remove( pageIndex );
+        this.a1out.remove( pageIndex );
+        this.am.remove( pageIndex );
+    }
+
+    @Override
+    public long evict()
+    {
+        if ( this.a1in.size() > this.a1inMaxSize || this.am.isEmpty() )
+        {
+            final long pageIndex = removeFirst( this.a1in );
+
+            this.a1out.put( pageIndex , Boolean.TRUE );
+            if ( this.a1out.size() > this.a1outMaxSize )
+            {
+                removeFirst( this.a1out );
+            }
+            return pageIndex;
+        }
+
+        return removeFirst( this.am );
+    }
+
+    /**
+     * Remove the first page of the queue.
+     *
+     * @param queue
+     * @return index of removed page
+     * @throws IllegalStateException if queue is empty
+     */
+    private static long removeFirst(
+            final LinkedHashMap<Long, Boolean> queue )
+    {
+        final Iterator<Long> iterator = queue.keySet().iterator();
+        if ( ! iterator.hasNext() )
+        {
+            throw new IllegalStateException( "no page to evict" );
+        }
+        final long pageIndex = iterator.next();
+        iterator.remove();
+        return pageIndex;
+    }
+
+}
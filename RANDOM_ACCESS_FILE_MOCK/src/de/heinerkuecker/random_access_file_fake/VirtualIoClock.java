@@ -0,0 +1,49 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link IoClock} which does not wait, the time
+ * only advances by {@link #elapse(long)}.
+ * <br/><br/>
+ * Tests run faster than real time and
+ * {@link #nanoTime()} reports the simulated time.
+ * Share one instance between files to
+ * sum up the simulated time of all of them.
+ * Thread-safe.
+ */
+public final class VirtualIoClock
+implements IoClock
+{
+    /**
+     * Simulated time in nanoseconds.
+     */
+    private final AtomicLong nanos = new AtomicLong();
+
+    /**
+     * @return simulated time in nanoseconds since creation
+     */
+    @Override
+    public long nanoTime()
+    {
+        return this.nanos.get();
+    }
+
+    /**
+     * Advance the simulated time without waiting.
+     *
+     * @param nanos time in nanoseconds, not negative
+     */
+    @Override
+    public void elapse(
+            final long nanos )
+    {
+        if ( nanos < 0L )
+        {
+            throw new IllegalArgumentException( "negative time: " + nanos );
+        }
+
+        this.nanos.addAndGet( nanos );
+    }
+
+}
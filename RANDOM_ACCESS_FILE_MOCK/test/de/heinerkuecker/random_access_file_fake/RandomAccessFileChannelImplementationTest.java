@@ -0,0 +1,257 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test of {@link RandomAccessFileChannelImplementation},
+ * an interrupt of one thread must not close the file
+ * for the other threads.
+ */
+public class RandomAccessFileChannelImplementationTest
+{
+    private static final int FILE_SIZE = 64 * 1024;
+
+    private File tempFile;
+
+    private RandomAccessFileChannelImplementation file;
+
+    private byte[] content;
+
+    @Before
+    public void setUp()
+            throws IOException
+    {
+        this.tempFile = File.createTempFile( "RandomAccessFileChannelImplementationTest" , ".bin" );
+
+        this.content = new byte[ FILE_SIZE ];
+        for ( int i = 0 ; i < FILE_SIZE ; i++ )
+        {
+            this.content[ i ] = (byte) i;
+        }
+
+        this.file = new RandomAccessFileChannelImplementation( this.tempFile , "rw" );
+        this.file.write( this.content );
+    }
+
+    @After
+    public void tearDown()
+            throws IOException
+    {
+        this.file.close();
+        this.tempFile.delete();
+    }
+
+    @Test
+    public void testReadAfterInterruptOfOtherThread()
+            throws Exception
+    {
+        final AtomicReference<Throwable> interruptedResult = new AtomicReference<>();
+
+        final Thread interruptedThread =
+                new Thread( () -> {
+                    Thread.currentThread().interrupt();
+                    try
+                    {
+                        this.file.readAt( 0 , new byte[ 16 ] , 0 , 16 );
+                    }
+                    catch ( final Throwable e )
+                    {
+                        interruptedResult.set( e );
+                    }
+                } );
+
+        interruptedThread.start();
+        interruptedThread.join();
+
+        assertTrue(
+                String.valueOf( interruptedResult.get() ) ,
+                interruptedResult.get() instanceof ClosedByInterruptException );
+
+        // the file is still usable for this thread
+        final byte[] b = new byte[ 100 ];
+        assertEquals( 100 , this.file.readAt( 1000 , b , 0 , b.length ) );
+        assertArrayEquals( Arrays.copyOfRange( this.content , 1000 , 1100 ) , b );
+
+        this.file.seek( 4 );
+        assertEquals( 0x04050607 , this.file.readInt() );
+        assertEquals( FILE_SIZE , this.file.length() );
+    }
+
+    @Test
+    public void testConcurrentReadsWhileOtherThreadIsInterrupted()
+            throws Exception
+    {
+        final AtomicReference<Throwable> readerFailure = new AtomicReference<>();
+
+        final Thread reader =
+                new Thread( () -> {
+                    final byte[] b = new byte[ 256 ];
+                    try
+                    {
+                        for ( int i = 0 ; i < 20_000 ; i++ )
+                        {
+                            final int pos = ( i * 31 ) % ( FILE_SIZE - b.length );
+                            if ( this.file.readAt( pos , b , 0 , b.length ) != b.length ||
+                                    b[ 0 ] != this.content[ pos ] )
+                            {
+                                throw new AssertionError( "wrong content at " + pos );
+                            }
+                        }
+                    }
+                    catch ( final Throwable e )
+                    {
+                        readerFailure.set( e );
+                    }
+                } );
+
+        reader.start();
+
+        for ( int i = 0 ; i < 200 && reader.isAlive() ; i++ )
+        {
+            final Thread interruptedThread =
+                    new Thread( () -> {
+                        Thread.currentThread().interrupt();
+                        try
+                        {
+                            this.file.readAt( 0 , new byte[ 16 ] , 0 , 16 );
+                            fail( "no ClosedByInterruptException" );
+                        }
+                        catch ( final ClosedByInterruptException e )
+                        {
+                            // expected
+                        }
+                        catch ( final IOException e )
+                        {
+                            throw new AssertionError( e );
+                        }
+                    } );
+
+            interruptedThread.start();
+            interruptedThread.join();
+        }
+
+        reader.join();
+
+        if ( readerFailure.get() != null )
+        {
+            throw new AssertionError( readerFailure.get() );
+        }
+    }
+
+    @Test
+    public void testCloseAfterInterrupt()
+            throws Exception
+    {
+        final Thread interruptedThread =
+                new Thread( () -> {
+                    Thread.currentThread().interrupt();
+                    try
+                    {
+                        this.file.readAt( 0 , new byte[ 16 ] , 0 , 16 );
+                    }
+                    catch ( final IOException e )
+                    {
+                        // expected
+                    }
+                } );
+
+        interruptedThread.start();
+        interruptedThread.join();
+
+        this.file.close();
+
+        try
+        {
+            this.file.readAt( 0 , new byte[ 16 ] , 0 , 16 );
+            fail( "read after close" );
+        }
+        catch ( final IOException e )
+        {
+            assertEquals( "already closed" , e.getMessage() );
+        }
+    }
+
+    @Test
+    public void testDeletedFileIsNotCreatedAgain()
+            throws Exception
+    {
+        assertTrue( this.tempFile.delete() );
+
+        interruptRead();
+
+        try
+        {
+            this.file.readAt( 0 , new byte[ 16 ] , 0 , 16 );
+            fail( "read of deleted file" );
+        }
+        catch ( final ClosedChannelException e )
+        {
+            // expected
+        }
+
+        assertFalse( this.tempFile.exists() );
+    }
+
+    @Test
+    public void testReplacedFileIsNotUsed()
+            throws Exception
+    {
+        assertTrue( this.tempFile.delete() );
+        Files.write( this.tempFile.toPath() , new byte[ 16 ] );
+
+        interruptRead();
+
+        try
+        {
+            this.file.length();
+            fail( "length of replaced file" );
+        }
+        catch ( final ClosedChannelException e )
+        {
+            // expected
+        }
+
+        assertEquals( 16 , this.tempFile.length() );
+    }
+
+    /**
+     * Read in a interrupted thread to
+     * close the channel of {@link #file}.
+     */
+    private void interruptRead()
+            throws InterruptedException
+    {
+        final Thread interruptedThread =
+                new Thread( () -> {
+                    Thread.currentThread().interrupt();
+                    try
+                    {
+                        this.file.readAt( 0 , new byte[ 16 ] , 0 , 16 );
+                    }
+                    catch ( final IOException e )
+                    {
+                        // expected
+                    }
+                } );
+
+        interruptedThread.start();
+        interruptedThread.join();
+    }
+
+}
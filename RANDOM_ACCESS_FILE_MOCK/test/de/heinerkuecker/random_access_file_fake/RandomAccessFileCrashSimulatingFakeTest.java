@@ -0,0 +1,206 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Randomized test of {@link RandomAccessFileCrashSimulatingFake}:
+ * after a crash each byte is durable or written content,
+ * crash(0) drops all pending writes, crash(1) applies them all,
+ * also for writes through a second handle.
+ */
+public class RandomAccessFileCrashSimulatingFakeTest
+{
+    private static final int SECTOR_SIZE = 16;
+
+    private static final int MAX_FILE_SIZE = 200;
+
+    @Test
+    public void testCrashAppliesAllWritesOfSecondHandle()
+            throws IOException
+    {
+        final RandomAccessFileCrashSimulatingFake file = newFile( 1 );
+        file.write( new byte[] { 1 , 2 , 3 } );
+        file.sync();
+
+        final RandomAccessFileCrashSimulatingFake handle = file.newHandle();
+        handle.open();
+        handle.writeAt( 0 , new byte[] { 9 , 9 , 9 } , 0 , 3 );
+        handle.writeAt( 3 , new byte[] { 7 } , 0 , 1 );
+
+        file.crash( 1.0 );
+
+        assertTrue( file.closed );
+        assertTrue( handle.closed );
+
+        file.open();
+        assertArrayEquals( new byte[] { 9 , 9 , 9 , 7 } , content( file ) );
+    }
+
+    @Test
+    public void testCrashDropsAllWritesOfSecondHandle()
+            throws IOException
+    {
+        final RandomAccessFileCrashSimulatingFake file = newFile( 1 );
+        file.write( new byte[] { 1 , 2 , 3 } );
+        file.sync();
+
+        final RandomAccessFileCrashSimulatingFake handle = file.newHandle();
+        handle.open();
+        handle.writeAt( 0 , new byte[] { 9 , 9 , 9 } , 0 , 3 );
+        handle.writeAt( 3 , new byte[] { 7 } , 0 , 1 );
+
+        handle.crash( 0.0 );
+
+        file.open();
+        assertArrayEquals( new byte[] { 1 , 2 , 3 } , content( file ) );
+    }
+
+    @Test
+    public void testSyncOfSecondHandleIsDurable()
+            throws IOException
+    {
+        final RandomAccessFileCrashSimulatingFake file = newFile( 1 );
+
+        final RandomAccessFileCrashSimulatingFake handle = file.newHandle();
+        handle.open();
+        handle.write( new byte[] { 4 , 5 } );
+        handle.sync();
+
+        assertTrue( file.durable == handle.durable );
+
+        file.crash( 0.0 );
+
+        file.open();
+        assertArrayEquals( new byte[] { 4 , 5 } , content( file ) );
+    }
+
+    @Test
+    public void testRestoreIsPending()
+            throws IOException
+    {
+        final RandomAccessFileCrashSimulatingFake file = newFile( 1 );
+        final PagedMemory.Snapshot empty = file.snapshot();
+
+        file.write( new byte[] { 1 , 2 , 3 } );
+        file.sync();
+
+        file.restore( empty );
+        file.crash( 0.0 );
+
+        file.open();
+        assertArrayEquals( new byte[] { 1 , 2 , 3 } , content( file ) );
+    }
+
+    @Test
+    public void testRandomizedCrash()
+            throws IOException
+    {
+        for ( long seed = 0 ; seed < 500 ; seed++ )
+        {
+            final Random random = new Random( seed );
+            final RandomAccessFileCrashSimulatingFake file = newFile( seed );
+
+            final RandomAccessFileCrashSimulatingFake handle = file.newHandle();
+            handle.open();
+
+            byte[] durable = new byte[ 0 ];
+
+            final int operationCount = random.nextInt( 30 );
+            for ( int i = 0 ; i < operationCount ; i++ )
+            {
+                final RandomAccessFileCrashSimulatingFake target = random.nextBoolean() ? file : handle;
+
+                switch ( random.nextInt( 5 ) )
+                {
+                    case 0 :
+                        target.setLength( random.nextInt( MAX_FILE_SIZE ) );
+                        break;
+                    case 1 :
+                        target.sync();
+                        durable = content( file );
+                        break;
+                    default :
+                        final byte[] b = new byte[ random.nextInt( 3 * SECTOR_SIZE ) ];
+                        random.nextBytes( b );
+                        target.writeAt( random.nextInt( MAX_FILE_SIZE - b.length ) , b , 0 , b.length );
+                        break;
+                }
+            }
+
+            final byte[] current = content( file );
+            final double applyProbability = random.nextInt( 3 ) / 2.0;
+
+            ( random.nextBoolean() ? file : handle ).crash( applyProbability );
+
+            file.open();
+            final byte[] crashed = content( file );
+
+            final String message = "seed " + seed + " probability " + applyProbability;
+
+            if ( applyProbability == 0.0 )
+            {
+                assertArrayEquals( message , durable , crashed );
+            }
+            else if ( applyProbability == 1.0 )
+            {
+                assertArrayEquals( message , current , crashed );
+            }
+            else
+            {
+                assertTrue(
+                        message ,
+                        crashed.length == durable.length || crashed.length == current.length );
+
+                for ( int i = 0 ; i < crashed.length ; i++ )
+                {
+                    assertTrue(
+                            message + " position " + i ,
+                            crashed[ i ] == byteAt( durable , i ) || crashed[ i ] == byteAt( current , i ) );
+                }
+            }
+
+            // recovered state is durable
+            file.crash( 0.0 );
+            file.open();
+            assertArrayEquals( message , crashed , content( file ) );
+        }
+    }
+
+    private static RandomAccessFileCrashSimulatingFake newFile(
+            final long seed )
+            throws IOException
+    {
+        final RandomAccessFileCrashSimulatingFake file =
+                new RandomAccessFileCrashSimulatingFake(
+                        new PagedMemory( 64 , false ) ,
+                        SECTOR_SIZE ,
+                        seed );
+
+        file.open();
+        return file;
+    }
+
+    private static byte[] content(
+            final RandomAccessFileCrashSimulatingFake file )
+            throws IOException
+    {
+        final byte[] b = new byte[ (int) file.length() ];
+        assertEquals( b.length , Math.max( file.readAt( 0 , b , 0 , b.length ) , 0 ) );
+        return b;
+    }
+
+    private static byte byteAt(
+            final byte[] b ,
+            final int i )
+    {
+        return i < b.length ? b[ i ] : 0;
+    }
+
+}
@@ -0,0 +1,68 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+/**
+ * Test of the direct access of tests to
+ * {@link RandomAccessFileFake#fakeMemory},
+ * which is larger than the file while open.
+ */
+public class RandomAccessFileFakeTest
+{
+    @Test
+    public void testAssignThenRead()
+            throws IOException
+    {
+        final RandomAccessFileFake file = new RandomAccessFileFake();
+        file.fakeMemory = new byte[] { 1 , 2 , 3 };
+        file.open();
+
+        assertEquals( 3 , file.length() );
+        assertEquals( 1 , file.read() );
+        assertEquals( 2 , file.read() );
+        assertEquals( 3 , file.read() );
+        assertEquals( -1 , file.read() );
+    }
+
+    @Test
+    public void testAssignWhileOpen()
+            throws IOException
+    {
+        final RandomAccessFileFake file = new RandomAccessFileFake();
+        file.open();
+        file.write( new byte[ 100 ] );
+
+        file.fakeMemory = new byte[] { 5 , 6 };
+
+        assertEquals( 2 , file.length() );
+        file.seek( 0 );
+        assertEquals( 0x0506 , file.readShort() );
+
+        // append to the assigned content
+        file.writeByte( 7 );
+        assertArrayEquals( new byte[] { 5 , 6 , 7 } , file.getFakeMemory() );
+    }
+
+    @Test
+    public void testWriteThenInspect()
+            throws IOException
+    {
+        final RandomAccessFileFake file = new RandomAccessFileFake();
+        file.open();
+        file.write( new byte[] { 1 , 2 , 3 } );
+        file.writeInt( 0x04050607 );
+
+        assertArrayEquals( new byte[] { 1 , 2 , 3 , 4 , 5 , 6 , 7 } , file.getFakeMemory() );
+
+        file.writeByte( 8 );
+        file.close();
+
+        assertArrayEquals( new byte[] { 1 , 2 , 3 , 4 , 5 , 6 , 7 , 8 } , file.fakeMemory );
+    }
+
+}
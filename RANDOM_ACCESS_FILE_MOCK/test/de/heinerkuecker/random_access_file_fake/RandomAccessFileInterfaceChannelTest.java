@@ -0,0 +1,98 @@
+package de.heinerkuecker.random_access_file_fake;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.OverlappingFileLockException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test of the locks of {@link RandomAccessFileInterfaceChannel}.
+ */
+public class RandomAccessFileInterfaceChannelTest
+{
+    private RandomAccessFilePagedFake file;
+
+    private FileChannel channel;
+
+    @Before
+    public void setUp()
+            throws IOException
+    {
+        this.file = new RandomAccessFilePagedFake();
+        this.file.open();
+        this.channel = this.file.getChannel();
+    }
+
+    @Test
+    public void testOverlappingLock()
+            throws IOException
+    {
+        final FileLock fileLock = this.channel.lock( 0 , 100 , false );
+        assertTrue( fileLock.isValid() );
+
+        try
+        {
+            this.channel.tryLock( 50 , 100 , true );
+            fail( "overlapping lock" );
+        }
+        catch ( final OverlappingFileLockException e )
+        {
+            // expected
+        }
+
+        // adjacent region
+        final FileLock otherLock = this.channel.lock( 100 , 10 , false );
+        assertTrue( otherLock.isValid() );
+    }
+
+    @Test
+    public void testLockAfterRelease()
+            throws IOException
+    {
+        final FileLock fileLock = this.channel.lock( 0 , 100 , false );
+        fileLock.release();
+        assertFalse( fileLock.isValid() );
+
+        // second release has no effect
+        fileLock.release();
+
+        assertTrue( this.channel.lock( 0 , 100 , false ).isValid() );
+    }
+
+    @Test
+    public void testCloseReleasesLocks()
+            throws IOException
+    {
+        final FileLock fileLock = this.channel.lock();
+        this.channel.close();
+        assertFalse( fileLock.isValid() );
+    }
+
+    @Test
+    public void testExclusiveLockOfReadOnlyFile()
+            throws IOException
+    {
+        this.file.readOnly = true;
+
+        try
+        {
+            this.channel.lock( 0 , 100 , false );
+            fail( "exclusive lock of read-only file" );
+        }
+        catch ( final NonWritableChannelException e )
+        {
+            // expected
+        }
+
+        assertTrue( this.channel.lock( 0 , 100 , true ).isValid() );
+    }
+
+}